@@ -0,0 +1,41 @@
+package org.walrex.application.ports.input;
+
+import io.smallrye.mutiny.Uni;
+import org.walrex.domain.model.ProcessedEvent;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Puerto de entrada (Input Port) del consumidor idempotente
+ * Lo usan los consumidores de Kafka para descartar records reentregados cuyo efecto ya se aplicó
+ *
+ * Este puerto será implementado por un servicio en la capa de dominio
+ */
+public interface DeduplicateEventsUseCase {
+
+    /**
+     * @param consumer Nombre del consumidor (canal)
+     * @param eventIds IDs de evento que el filtro en memoria no pudo descartar
+     * @return Uni con los IDs que ya fueron procesados
+     */
+    Uni<Set<String>> findProcessed(String consumer, List<String> eventIds);
+
+    /**
+     * Registra los eventos como procesados, después de aplicar su efecto
+     */
+    Uni<Void> markProcessed(String consumer, List<ProcessedEvent> events);
+
+    /**
+     * @return Uni con los eventos procesados de mayor offset de una partición (offset descendente,
+     *         dentro de la ventana de retención)
+     */
+    Uni<List<ProcessedEvent>> recentEvents(String consumer, String partitionKey, int limit);
+
+    /**
+     * Purga los eventos registrados fuera de la ventana de retención
+     *
+     * @return Uni con el número de eventos borrados
+     */
+    Uni<Integer> purgeExpired();
+}
@@ -18,5 +18,5 @@ public interface GetMessageByIdUseCase {
      * @param idDestinatario ID del destinatorio del mensaje
      * @return Uni reactivo con la información completa del mensaje
      */
-    Uni<MessageInfo> getMessageById(Integer idMessage, Integer idDestinatario);
+    Uni<MessageInfo> getMessageById(Long idMessage, Integer idDestinatario);
 }
@@ -1,7 +1,9 @@
 package org.walrex.application.ports.input;
 
 import io.quarkus.panache.common.Page;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import org.walrex.domain.model.InboxCursor;
 import org.walrex.domain.model.MessageInboxItem;
 import org.walrex.domain.model.PagedResult;
 
@@ -23,5 +25,49 @@ public interface GetMessagePaginationUseCase {
      * @param page Paginación opcional (Quarkus Panache Page)
      * @return Uni reactivo con el resultado paginado que contiene los mensajes y metadatos
      */
-    Uni<PagedResult<MessageInboxItem>> getMessageByUser(Integer idUser, Optional<Page> page);
+    default Uni<PagedResult<MessageInboxItem>> getMessageByUser(Integer idUser, Optional<Page> page) {
+        return getMessageByUser(idUser, page, true);
+    }
+
+    /**
+     * Obtiene los mensajes del inbox de un usuario indicando si se requiere el total exacto
+     *
+     * @param idUser ID del usuario destinatario
+     * @param page Paginación opcional (Quarkus Panache Page)
+     * @param exactTotal false para omitir el conteo (totalElements pasa a ser una cota inferior)
+     * @return Uni reactivo con el resultado paginado que contiene los mensajes y metadatos
+     */
+    Uni<PagedResult<MessageInboxItem>> getMessageByUser(Integer idUser, Optional<Page> page, boolean exactTotal);
+
+    /**
+     * Obtiene la página del inbox posterior al cursor indicado (paginación keyset)
+     *
+     * @param idUser ID del usuario destinatario
+     * @param after Cursor opaco decodificado del último mensaje recibido
+     * @param size Número de registros por página
+     * @return Uni reactivo con el resultado que contiene los mensajes y el cursor siguiente
+     */
+    default Uni<PagedResult<MessageInboxItem>> getMessageByUserAfter(Integer idUser, InboxCursor after, int size) {
+        return getMessageByUserAfter(idUser, after, size, true);
+    }
+
+    /**
+     * Obtiene la página del inbox posterior al cursor indicando si se requiere el total exacto
+     *
+     * @param idUser ID del usuario destinatario
+     * @param after Cursor opaco decodificado del último mensaje recibido
+     * @param size Número de registros por página
+     * @param exactTotal false para omitir el conteo (totalElements pasa a ser una cota inferior)
+     * @return Uni reactivo con el resultado que contiene los mensajes y el cursor siguiente
+     */
+    Uni<PagedResult<MessageInboxItem>> getMessageByUserAfter(Integer idUser, InboxCursor after, int size, boolean exactTotal);
+
+    /**
+     * Emite todos los mensajes del inbox de un usuario en streaming (listado sin paginación)
+     * No pasa por el cache: el resultado completo es justamente lo que se quiere evitar materializar
+     *
+     * @param idUser ID del usuario destinatario
+     * @return Multi reactivo con los mensajes en orden create_at DESC, id_message DESC
+     */
+    Multi<MessageInboxItem> streamMessageByUser(Integer idUser);
 }
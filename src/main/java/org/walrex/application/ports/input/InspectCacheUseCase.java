@@ -0,0 +1,39 @@
+package org.walrex.application.ports.input;
+
+import io.smallrye.mutiny.Uni;
+import org.walrex.domain.model.CacheKeyUsage;
+import org.walrex.domain.model.CacheStats;
+
+import java.util.List;
+
+/**
+ * Puerto de entrada (Input Port) para la inspección del cache desde el endpoint de administración
+ * Permite ajustar TTLs y dimensionar Redis sin revisar logs
+ *
+ * Este puerto será implementado por un servicio en la capa de dominio
+ */
+public interface InspectCacheUseCase {
+
+    /**
+     * Efectividad de cada cache en esta instancia (hit ratio, escrituras, invalidaciones, tamaños)
+     */
+    List<CacheStats> getStats();
+
+    /**
+     * false si Redis se está omitiendo (circuito abierto)
+     */
+    boolean isRedisAvailable();
+
+    /**
+     * Claves del cache que más memoria ocupan en Redis
+     *
+     * @param limit Número de claves solicitado (se acota al máximo configurado)
+     * @return Uni con las claves de mayor a menor tamaño
+     */
+    Uni<List<CacheKeyUsage>> getLargestKeys(int limit);
+
+    /**
+     * true si la búsqueda de claves recorre un solo nodo (Redis Cluster) y no todo el keyspace
+     */
+    boolean isKeyScanSingleNode();
+}
@@ -0,0 +1,24 @@
+package org.walrex.application.ports.input;
+
+import io.smallrye.mutiny.Uni;
+import org.walrex.domain.model.IncomingInboxMessage;
+import org.walrex.domain.model.IngestResult;
+
+import java.util.List;
+
+/**
+ * Puerto de entrada (Input Port) para persistir los mensajes de un batch de la ingesta
+ * Lo usa el consumidor de Kafka antes de proyectar el read model y los caches
+ *
+ * Este puerto será implementado por un servicio en la capa de dominio
+ */
+public interface PersistInboxMessagesUseCase {
+
+    /**
+     * Persiste los mensajes del batch con unas pocas sentencias set-based en una transacción
+     *
+     * @param messages Mensajes completos del batch
+     * @return Uni con el id_message de cada clave de evento y las claves en conflicto; completa después del commit
+     */
+    Uni<IngestResult> persistMessages(List<IncomingInboxMessage> messages);
+}
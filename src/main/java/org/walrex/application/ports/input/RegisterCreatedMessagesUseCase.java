@@ -0,0 +1,22 @@
+package org.walrex.application.ports.input;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.List;
+
+/**
+ * Puerto de entrada (Input Port) para avisar a los caches que unos mensajes acaban de crearse
+ * Lo usa el consumidor de Kafka tras persistir un lote
+ *
+ * Este puerto será implementado por un servicio en la capa de dominio
+ */
+public interface RegisterCreatedMessagesUseCase {
+
+    /**
+     * Retira los IDs creados del cache negativo del detalle (IDs consultados antes de existir)
+     *
+     * @param messageIds IDs de mensaje del lote
+     * @return Uni que completa al terminar (los errores de cache no se propagan)
+     */
+    Uni<Void> registerCreated(List<Long> messageIds);
+}
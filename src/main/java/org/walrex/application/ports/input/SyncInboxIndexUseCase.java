@@ -0,0 +1,22 @@
+package org.walrex.application.ports.input;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.List;
+
+/**
+ * Puerto de entrada (Input Port) para mantener al día los índices de inbox en cache
+ * Lo usa el consumidor de Kafka al llegar mensajes nuevos
+ *
+ * Este puerto será implementado por un servicio en la capa de dominio
+ */
+public interface SyncInboxIndexUseCase {
+
+    /**
+     * Inserta los mensajes de un lote en los índices de inbox de sus destinatarios
+     *
+     * @param messageIds IDs de mensaje del lote
+     * @return Uni con el número de items indexados (0 si la estrategia de índice está deshabilitada)
+     */
+    Uni<Integer> indexMessages(List<Long> messageIds);
+}
@@ -0,0 +1,29 @@
+package org.walrex.application.ports.input;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.List;
+
+/**
+ * Puerto de entrada (Input Port) para mantener el read model inbox_view
+ * Lo usan el consumidor de Kafka al llegar mensajes nuevos y el job de backfill
+ *
+ * Este puerto será implementado por un servicio en la capa de dominio
+ */
+public interface SyncInboxViewUseCase {
+
+    /**
+     * Actualiza la vista con los mensajes recibidos en un lote
+     *
+     * @param messageIds IDs de mensaje del lote
+     * @return Uni con el número de filas escritas (0 si el read model está deshabilitado)
+     */
+    Uni<Integer> syncMessages(List<Long> messageIds);
+
+    /**
+     * Recorre todos los destinatarios existentes y los proyecta en la vista por tramos
+     *
+     * @return Uni con el número total de filas proyectadas
+     */
+    Uni<Long> backfill();
+}
@@ -0,0 +1,23 @@
+package org.walrex.application.ports.input;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.List;
+
+/**
+ * Puerto de entrada (Input Port) para el write-through del cache por página desde la ingesta
+ * Lo usa el consumidor de Kafka al llegar mensajes nuevos
+ *
+ * Este puerto será implementado por un servicio en la capa de dominio
+ */
+public interface WarmInboxPagesUseCase {
+
+    /**
+     * Inserta los mensajes de un lote en las primeras páginas cacheadas de sus destinatarios
+     * e invalida el resto de sus páginas
+     *
+     * @param messageIds IDs de mensaje del lote
+     * @return Uni con el número de páginas actualizadas (0 si el write-through está deshabilitado)
+     */
+    Uni<Integer> warmMessages(List<Long> messageIds);
+}
@@ -0,0 +1,37 @@
+package org.walrex.application.ports.output;
+
+import io.smallrye.mutiny.Uni;
+import org.walrex.domain.model.CacheKeyUsage;
+import org.walrex.domain.model.CacheStats;
+
+import java.util.List;
+
+/**
+ * Puerto de salida para inspeccionar el cache (métricas acumuladas y uso de memoria en Redis)
+ */
+public interface CacheInspectionPort {
+
+    /**
+     * Efectividad de cada cache (page, detail, index) en esta instancia
+     */
+    List<CacheStats> getStats();
+
+    /**
+     * false si el circuito de Redis está abierto (el servicio está respondiendo desde la BD)
+     */
+    boolean isRedisAvailable();
+
+    /**
+     * Claves del cache que más memoria ocupan en Redis, de mayor a menor
+     * Se calcula sobre una muestra acotada del keyspace (SCAN), no sobre todas las claves
+     *
+     * @param limit Número máximo de claves a devolver
+     * @return Uni con las claves y su tamaño
+     */
+    Uni<List<CacheKeyUsage>> findLargestKeys(int limit);
+
+    /**
+     * true si findLargestKeys recorre un solo nodo (Redis Cluster): el ranking no cubre el resto del cluster
+     */
+    boolean isKeyScanSingleNode();
+}
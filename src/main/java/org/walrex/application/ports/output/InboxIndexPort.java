@@ -0,0 +1,61 @@
+package org.walrex.application.ports.output;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.walrex.domain.model.InboxCursor;
+import org.walrex.domain.model.MessageInboxItem;
+import org.walrex.domain.model.PagedResult;
+import org.walrex.domain.model.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Puerto de salida para el índice de inbox en cache: un índice ordenado de los mensajes de cada
+ * usuario y los resúmenes de esos mensajes, desde el que se sirve cualquier página o cursor
+ * A diferencia del cache por página, un mensaje nuevo se inserta en el índice en lugar de invalidarlo
+ */
+public interface InboxIndexPort {
+
+    /**
+     * Obtiene una página del inbox desde el índice; si el índice del usuario no existe lo construye
+     * con el inbox completo de la fuente y responde desde esos datos
+     *
+     * @param userId ID del usuario
+     * @param pageable Página a servir (Pageable.unpaged() para el inbox completo)
+     * @param source Inbox completo del usuario en la fuente original (BD), en orden del listado
+     * @return Uni con la página, o null si el inbox del usuario supera el tamaño máximo del índice
+     */
+    Uni<PagedResult<MessageInboxItem>> getPage(Integer userId, Pageable pageable,
+                                               Supplier<Multi<MessageInboxItem>> source);
+
+    /**
+     * Obtiene la página posterior a un cursor (paginación keyset) desde el índice
+     *
+     * @param userId ID del usuario
+     * @param after Cursor del último mensaje recibido
+     * @param size Número de registros por página
+     * @param source Inbox completo del usuario en la fuente original, por si hay que construir el índice
+     * @return Uni con la página keyset, o null si el inbox del usuario supera el tamaño máximo del índice
+     */
+    Uni<PagedResult<MessageInboxItem>> getPageAfter(Integer userId, InboxCursor after, int size,
+                                                    Supplier<Multi<MessageInboxItem>> source);
+
+    /**
+     * Inserta mensajes nuevos en los índices de sus destinatarios
+     * Los destinatarios sin índice listo o en construcción se omiten: su índice se construye al leer
+     *
+     * @param itemsByRecipient Items nuevos por ID de usuario destinatario
+     * @return Uni con el número de items escritos
+     */
+    Uni<Integer> addItems(Map<Integer, List<MessageInboxItem>> itemsByRecipient);
+
+    /**
+     * Elimina el índice de un usuario (se reconstruye en la siguiente lectura)
+     *
+     * @param userId ID del usuario
+     * @return Uni que completa al terminar
+     */
+    Uni<Void> evict(Integer userId);
+}
@@ -0,0 +1,24 @@
+package org.walrex.application.ports.output;
+
+import io.smallrye.mutiny.Uni;
+import org.walrex.domain.model.IncomingInboxMessage;
+import org.walrex.domain.model.IngestResult;
+
+import java.util.List;
+
+/**
+ * Puerto de salida para persistir en bulk los mensajes recibidos por la ingesta
+ * (mensaje, destinatarios y adjuntos)
+ */
+public interface InboxMessageIngestPort {
+
+    /**
+     * Inserta los mensajes con sus destinatarios y adjuntos en una sola transacción
+     * Los mensajes cuya clave de evento ya existe se omiten completos: si la fila existente coincide es una
+     * reentrega y se devuelve su id_message; si no coincide se informa como conflicto
+     *
+     * @param messages Mensajes del batch, con clave de evento única dentro del batch
+     * @return Uni con los id_message por clave de evento y los conflictos; completa después del commit
+     */
+    Uni<IngestResult> insertBatch(List<IncomingInboxMessage> messages);
+}
@@ -1,11 +1,17 @@
 package org.walrex.application.ports.output;
 
 import io.quarkus.panache.common.Page;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import org.walrex.domain.model.InboxCursor;
 import org.walrex.domain.model.MessageInboxItem;
 import org.walrex.domain.model.PagedResult;
 import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageDetailsDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageReadStateDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.mapper.MessageDetailsOverlayMapper;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -24,14 +30,98 @@ public interface InboxMessagePort {
      * @param page Parámetro opcional para paginación (Quarkus Panache Page)
      * @return Uni reactivo con el resultado paginado que contiene los mensajes y metadatos
      */
-    Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, Optional<Page> page);
+    default Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, Optional<Page> page) {
+        return findMessagesByUser(userId, page, true);
+    }
 
     /**
-     * Obtiene el detalle completo de un mensaje por su ID
+     * Obtiene los mensajes del inbox de un usuario con paginación opcional
+     * Con exactTotal=true el total se obtiene en la misma consulta de la página (COUNT(*) OVER());
+     * con exactTotal=false no se cuenta: se piden size + 1 registros para saber si hay página siguiente
+     * y totalElements es una cota inferior (PagedResult.isTotalExact() = false)
+     *
+     * @param userId ID del usuario destinatario
+     * @param page Parámetro opcional para paginación (Quarkus Panache Page)
+     * @param exactTotal true para calcular el total exacto de elementos
+     * @return Uni reactivo con el resultado paginado que contiene los mensajes y metadatos
+     */
+    Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, Optional<Page> page, boolean exactTotal);
+
+    /**
+     * Obtiene una página del inbox usando paginación keyset (seek)
+     * Devuelve los mensajes posteriores al cursor en el orden create_at DESC, id_message DESC,
+     * por lo que el costo de la consulta no depende de la profundidad de la página
+     *
+     * @param userId ID del usuario destinatario
+     * @param after Cursor del último mensaje recibido por el cliente
+     * @param size Número de registros por página
+     * @return Uni reactivo con el resultado keyset que incluye el cursor de la página siguiente
+     */
+    default Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, InboxCursor after, int size) {
+        return findMessagesByUser(userId, after, size, true);
+    }
+
+    /**
+     * Obtiene una página del inbox usando paginación keyset (seek)
+     * Con exactTotal=false se omite la consulta de conteo y totalElements es una cota inferior
+     *
+     * @param userId ID del usuario destinatario
+     * @param after Cursor del último mensaje recibido por el cliente
+     * @param size Número de registros por página
+     * @param exactTotal true para calcular el total exacto de elementos
+     * @return Uni reactivo con el resultado keyset que incluye el cursor de la página siguiente
+     */
+    Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, InboxCursor after, int size, boolean exactTotal);
+
+    /**
+     * Emite todos los mensajes del inbox de un usuario uno a uno, sin cargarlos en memoria
+     * Pensado para el listado sin paginación de inboxes grandes: el consumo de memoria no
+     * depende del número de mensajes y el primer elemento se entrega sin esperar al último
+     *
+     * @param userId ID del usuario destinatario
+     * @return Multi reactivo con los mensajes en orden create_at DESC, id_message DESC
+     */
+    Multi<MessageInboxItem> streamMessagesByUser(Integer userId);
+
+    /**
+     * Obtiene los items del inbox de los mensajes indicados, agrupados por destinatario
+     * Lo usa la ingesta para actualizar de forma incremental los índices de inbox en cache
+     *
+     * @param messageIds IDs de mensaje recién recibidos
+     * @return Uni con los items de cada destinatario (ID de usuario -> items)
+     */
+    Uni<Map<Integer, List<MessageInboxItem>>> findInboxItemsByMessageIds(List<Long> messageIds);
+
+    /**
+     * Obtiene el detalle completo de un mensaje por su ID, con el estado de lectura del destinatario
+     * Sin cache: combina el detalle compartido con el estado de lectura (MessageDetailsOverlayMapper)
      *
      * @param idMessage ID del mensaje a consultar
      * @param idDestinatario ID del destinatorio del mensaje
      * @return Uni reactivo con el detalle completo del mensaje
      */
-    Uni<MessageDetailsDTO> getDetailMessageById(Integer idMessage, Integer idDestinatario);
+    default Uni<MessageDetailsDTO> getDetailMessageById(Long idMessage, Integer idDestinatario) {
+        return getSharedMessageDetail(idMessage)
+            .chain(detail -> findReadState(idMessage, idDestinatario)
+                .map(readState -> MessageDetailsOverlayMapper.forRecipient(detail, idDestinatario, readState)));
+    }
+
+    /**
+     * Obtiene el detalle de un mensaje común a todos sus destinatarios (cuerpo, remitente,
+     * destinatarios y adjuntos), que no cambia tras el envío y puede cachearse por id_message
+     * receivers incluye a todos los destinatarios salvo el remitente; isRead y readAt quedan en null
+     *
+     * @param idMessage ID del mensaje a consultar
+     * @return Uni reactivo con el detalle compartido (falla con MessageNotFoundException si no existe)
+     */
+    Uni<MessageDetailsDTO> getSharedMessageDetail(Long idMessage);
+
+    /**
+     * Obtiene el estado de lectura de un destinatario para un mensaje
+     *
+     * @param idMessage ID del mensaje
+     * @param idDestinatario ID del usuario destinatario
+     * @return Uni con el estado de lectura o null si el usuario no es destinatario del mensaje
+     */
+    Uni<MessageReadStateDTO> findReadState(Long idMessage, Integer idDestinatario);
 }
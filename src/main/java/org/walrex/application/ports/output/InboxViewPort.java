@@ -0,0 +1,29 @@
+package org.walrex.application.ports.output;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.List;
+
+/**
+ * Puerto de salida para mantener el read model desnormalizado del inbox (inbox_view)
+ * Las filas se proyectan desde el modelo relacional (mensajes, destinatarios, remitente y adjuntos)
+ */
+public interface InboxViewPort {
+
+    /**
+     * Proyecta (insert o update) las filas de la vista de los mensajes indicados, para todos sus destinatarios
+     *
+     * @param messageIds IDs de mensaje a proyectar
+     * @return Uni con el número de filas escritas en la vista
+     */
+    Uni<Integer> upsertMessages(List<Long> messageIds);
+
+    /**
+     * Proyecta el siguiente tramo del backfill en orden de ID de destinatario
+     *
+     * @param afterIdRecipient Último ID de message_recipients ya proyectado (0 para empezar)
+     * @param chunkSize Número máximo de filas del tramo
+     * @return Uni con los IDs de message_recipients proyectados (vacío cuando no quedan filas)
+     */
+    Uni<List<Long>> upsertChunkAfter(long afterIdRecipient, int chunkSize);
+}
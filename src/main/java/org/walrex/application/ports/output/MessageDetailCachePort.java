@@ -0,0 +1,50 @@
+package org.walrex.application.ports.output;
+
+import io.smallrye.mutiny.Uni;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageDetailsDTO;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Puerto de salida para el cache del detalle compartido de un mensaje
+ * La clave es solo id_message: el detalle es el mismo para todos los destinatarios
+ * y no cambia tras el envío; lo propio de cada destinatario se superpone después
+ */
+public interface MessageDetailCachePort {
+
+    /**
+     * Obtiene el detalle compartido del cache o lo carga con el supplier y lo cachea
+     * Las cargas concurrentes del mismo mensaje se ejecutan una sola vez
+     *
+     * @param idMessage ID del mensaje
+     * @param loader Supplier que obtiene el detalle compartido de la fuente original (BD)
+     * @return Uni con el detalle compartido
+     */
+    Uni<MessageDetailsDTO> getOrFetch(Long idMessage, Supplier<Uni<MessageDetailsDTO>> loader);
+
+    /**
+     * Indica si el mensaje figura como inexistente en el cache negativo en memoria
+     * (permite responder 404 sin ninguna consulta a la BD)
+     *
+     * @param idMessage ID del mensaje
+     * @return true si se sabe que el mensaje no existe
+     */
+    boolean isKnownMissing(Long idMessage);
+
+    /**
+     * Elimina las entradas negativas de mensajes recién creados
+     *
+     * @param idMessages IDs de los mensajes creados
+     * @return Uni que completa al terminar (los errores no se propagan)
+     */
+    Uni<Void> forgetMissing(List<Long> idMessages);
+
+    /**
+     * Elimina el detalle de un mensaje del cache (p. ej. si el mensaje se elimina)
+     *
+     * @param idMessage ID del mensaje
+     * @return Uni que completa al terminar
+     */
+    Uni<Void> invalidate(Long idMessage);
+}
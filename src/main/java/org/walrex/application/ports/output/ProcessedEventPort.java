@@ -0,0 +1,39 @@
+package org.walrex.application.ports.output;
+
+import io.smallrye.mutiny.Uni;
+import org.walrex.domain.model.ProcessedEvent;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Puerto de salida para el registro de eventos ya procesados (processed_events)
+ */
+public interface ProcessedEventPort {
+
+    /**
+     * @param consumer Nombre del consumidor (canal)
+     * @param eventIds IDs de evento a comprobar
+     * @return Uni con los IDs que ya están registrados
+     */
+    Uni<Set<String>> findProcessed(String consumer, List<String> eventIds);
+
+    /**
+     * Registra los eventos como procesados; los ya registrados se ignoran
+     */
+    Uni<Void> markProcessed(String consumer, List<ProcessedEvent> events);
+
+    /**
+     * @return Uni con los eventos registrados de mayor offset de una partición (offset descendente),
+     *         para precargar su filtro
+     */
+    Uni<List<ProcessedEvent>> findRecent(String consumer, String partitionKey, int limit);
+
+    /**
+     * Borra hasta {@code limit} eventos registrados antes de {@code cutoff}
+     *
+     * @return Uni con el número de filas borradas
+     */
+    Uni<Integer> deleteProcessedBefore(OffsetDateTime cutoff, int limit);
+}
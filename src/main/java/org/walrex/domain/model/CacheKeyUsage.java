@@ -0,0 +1,35 @@
+package org.walrex.domain.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Memoria que ocupa una clave del cache en Redis (MEMORY USAGE) y su TTL restante
+ */
+@RegisterForReflection
+public class CacheKeyUsage {
+
+    private final String key;
+    private final long bytes;
+    private final long ttlSeconds;
+
+    /**
+     * @param ttlSeconds Segundos hasta la expiración (-1 si la clave no expira)
+     */
+    public CacheKeyUsage(String key, long bytes, long ttlSeconds) {
+        this.key = key;
+        this.bytes = bytes;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+}
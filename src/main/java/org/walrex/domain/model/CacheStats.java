@@ -0,0 +1,85 @@
+package org.walrex.domain.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Efectividad acumulada de un cache desde el inicio de la instancia
+ * Los contadores son de esta instancia: el total del servicio se obtiene sumando las métricas de todas
+ */
+@RegisterForReflection
+public class CacheStats {
+
+    private final String cache;
+    private final long hits;
+    private final long staleHits;
+    private final long negativeHits;
+    private final long misses;
+    private final long sets;
+    private final long invalidations;
+    private final long decodeFailures;
+    private final double meanReadBytes;
+    private final double meanWriteBytes;
+
+    public CacheStats(String cache, long hits, long staleHits, long negativeHits, long misses, long sets,
+                      long invalidations, long decodeFailures, double meanReadBytes, double meanWriteBytes) {
+        this.cache = cache;
+        this.hits = hits;
+        this.staleHits = staleHits;
+        this.negativeHits = negativeHits;
+        this.misses = misses;
+        this.sets = sets;
+        this.invalidations = invalidations;
+        this.decodeFailures = decodeFailures;
+        this.meanReadBytes = meanReadBytes;
+        this.meanWriteBytes = meanWriteBytes;
+    }
+
+    public String getCache() {
+        return cache;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getStaleHits() {
+        return staleHits;
+    }
+
+    public long getNegativeHits() {
+        return negativeHits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getSets() {
+        return sets;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public long getDecodeFailures() {
+        return decodeFailures;
+    }
+
+    public double getMeanReadBytes() {
+        return meanReadBytes;
+    }
+
+    public double getMeanWriteBytes() {
+        return meanWriteBytes;
+    }
+
+    /**
+     * Lecturas respondidas por el cache (hit, stale y negativo) sobre el total de lecturas; 0 sin lecturas
+     */
+    public double getHitRatio() {
+        long served = hits + staleHits + negativeHits;
+        long total = served + misses;
+        return total == 0 ? 0 : (double) served / total;
+    }
+}
@@ -0,0 +1,111 @@
+package org.walrex.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Cursor opaco para paginación keyset (seek) del inbox
+ * Identifica la posición del último mensaje entregado mediante (create_at, id_message),
+ * que coincide con el orden del listado: create_at DESC, id_message DESC
+ *
+ * El token que recibe el cliente es Base64 URL-safe y no debe interpretarse fuera del servicio
+ */
+public final class InboxCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final OffsetDateTime createdAt;
+    private final Long idMessage;
+
+    private InboxCursor(OffsetDateTime createdAt, Long idMessage) {
+        this.createdAt = createdAt;
+        this.idMessage = idMessage;
+    }
+
+    public static InboxCursor of(OffsetDateTime createdAt, Long idMessage) {
+        if (createdAt == null || idMessage == null) {
+            throw new IllegalArgumentException("Cursor requires createdAt and idMessage");
+        }
+        return new InboxCursor(createdAt, idMessage);
+    }
+
+    /**
+     * Construye el cursor que apunta después del item indicado
+     */
+    public static InboxCursor after(MessageInboxItem item) {
+        return of(item.getCreatedAt(), item.getIdMessage());
+    }
+
+    /**
+     * Decodifica un token opaco recibido del cliente
+     *
+     * @param token Token Base64 generado por {@link #encode()}
+     * @return Cursor decodificado
+     * @throws IllegalArgumentException si el token no es válido
+     */
+    public static InboxCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Cursor cannot be empty");
+        }
+        try {
+            String raw = new String(DECODER.decode(token.trim()), StandardCharsets.UTF_8);
+            // Formato: {epochSecond}.{nanos}:{idMessage}
+            int sep = raw.indexOf(':');
+            int dot = raw.indexOf('.');
+            if (sep < 0 || dot < 0 || dot > sep) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            long epochSecond = Long.parseLong(raw.substring(0, dot));
+            int nanos = Integer.parseInt(raw.substring(dot + 1, sep));
+            long idMessage = Long.parseLong(raw.substring(sep + 1));
+            OffsetDateTime createdAt = Instant.ofEpochSecond(epochSecond, nanos).atOffset(ZoneOffset.UTC);
+            return new InboxCursor(createdAt, idMessage);
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Codifica el cursor como token opaco para el cliente
+     */
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        String raw = instant.getEpochSecond() + "." + instant.getNano() + ":" + idMessage;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getIdMessage() {
+        return idMessage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InboxCursor that = (InboxCursor) o;
+        return Objects.equals(createdAt.toInstant(), that.createdAt.toInstant())
+                && Objects.equals(idMessage, that.idMessage);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt.toInstant(), idMessage);
+    }
+
+    @Override
+    public String toString() {
+        return "InboxCursor{" +
+                "createdAt=" + createdAt +
+                ", idMessage=" + idMessage +
+                '}';
+    }
+}
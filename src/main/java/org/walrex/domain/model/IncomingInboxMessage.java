@@ -0,0 +1,91 @@
+package org.walrex.domain.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Mensaje recibido por la ingesta (topic inbox-messages) listo para persistirse
+ * La clave de evento es el messageId del productor (texto libre, p. ej. un UUID): la BD asigna el id_message
+ * y la clave, única en messages.event_key, evita que una reentrega del mismo record cree un duplicado
+ */
+@RegisterForReflection
+public class IncomingInboxMessage {
+
+    private final String eventKey;
+    private final Integer senderId;
+    private final String subject;
+    private final String body;
+    private final OffsetDateTime createdAt;
+    private final List<Integer> recipientIds;
+    private final List<Attachment> attachments;
+
+    public IncomingInboxMessage(String eventKey, Integer senderId, String subject, String body,
+                                OffsetDateTime createdAt, List<Integer> recipientIds, List<Attachment> attachments) {
+        this.eventKey = eventKey;
+        this.senderId = senderId;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = createdAt;
+        this.recipientIds = recipientIds;
+        this.attachments = attachments;
+    }
+
+    public String getEventKey() {
+        return eventKey;
+    }
+
+    public Integer getSenderId() {
+        return senderId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<Integer> getRecipientIds() {
+        return recipientIds;
+    }
+
+    public List<Attachment> getAttachments() {
+        return attachments;
+    }
+
+    /**
+     * Adjunto de un mensaje recibido
+     */
+    @RegisterForReflection
+    public static class Attachment {
+
+        private final String filePath;
+        private final String fileName;
+        private final String fileType;
+
+        public Attachment(String filePath, String fileName, String fileType) {
+            this.filePath = filePath;
+            this.fileName = fileName;
+            this.fileType = fileType;
+        }
+
+        public String getFilePath() {
+            return filePath;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getFileType() {
+            return fileType;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.walrex.domain.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resultado de persistir un batch de la ingesta
+ * - messageIds: id_message asignado por la BD a cada clave de evento, tanto de los mensajes insertados
+ *   ahora como de los que ya existían idénticos (reentrega)
+ * - conflicts: claves de evento que ya existían con otro contenido; esos mensajes no se persistieron
+ */
+@RegisterForReflection
+public class IngestResult {
+
+    private final Map<String, Long> messageIds;
+    private final int inserted;
+    private final Set<String> conflicts;
+
+    /**
+     * @param messageIds id_message por clave de evento (insertados y reentregados)
+     * @param inserted Número de mensajes insertados en este batch
+     * @param conflicts Claves de evento existentes con contenido distinto
+     */
+    public IngestResult(Map<String, Long> messageIds, int inserted, Set<String> conflicts) {
+        this.messageIds = messageIds;
+        this.inserted = inserted;
+        this.conflicts = conflicts;
+    }
+
+    public static IngestResult empty() {
+        return new IngestResult(Map.of(), 0, Set.of());
+    }
+
+    public Map<String, Long> getMessageIds() {
+        return messageIds;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public Set<String> getConflicts() {
+        return conflicts;
+    }
+}
@@ -12,7 +12,7 @@ import java.util.Objects;
 @RegisterForReflection
 public class MessageInboxItem {
 
-    private Integer idMessage;
+    private Long idMessage;
     private String isRead;
     private String message;
     private Integer numAttachments;
@@ -25,7 +25,7 @@ public class MessageInboxItem {
     }
 
     // Constructor completo
-    public MessageInboxItem(Integer idMessage, String isRead, String message,
+    public MessageInboxItem(Long idMessage, String isRead, String message,
                            Integer numAttachments, String senderName,
                            OffsetDateTime createdAt, String timeReceived) {
         this.idMessage = idMessage;
@@ -43,7 +43,7 @@ public class MessageInboxItem {
     }
 
     public static class Builder {
-        private Integer idMessage;
+        private Long idMessage;
         private String isRead;
         private String message;
         private Integer numAttachments;
@@ -51,7 +51,7 @@ public class MessageInboxItem {
         private OffsetDateTime createdAt;
         private String timeReceived;
 
-        public Builder idMessage(Integer idMessage) {
+        public Builder idMessage(Long idMessage) {
             this.idMessage = idMessage;
             return this;
         }
@@ -102,11 +102,11 @@ public class MessageInboxItem {
     }
 
     // Getters y Setters
-    public Integer getIdMessage() {
+    public Long getIdMessage() {
         return idMessage;
     }
 
-    public void setIdMessage(Integer idMessage) {
+    public void setIdMessage(Long idMessage) {
         this.idMessage = idMessage;
     }
 
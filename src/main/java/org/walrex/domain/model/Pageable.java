@@ -8,10 +8,16 @@ public class Pageable {
 
     private final int page;
     private final int size;
+    private final boolean countTotal;
 
     private Pageable(int page, int size) {
+        this(page, size, true);
+    }
+
+    private Pageable(int page, int size, boolean countTotal) {
         this.page = page;
         this.size = size;
+        this.countTotal = countTotal;
     }
 
     public static Pageable of(int page, int size) {
@@ -28,6 +34,13 @@ public class Pageable {
         return new Pageable(0, Integer.MAX_VALUE);
     }
 
+    /**
+     * Devuelve una copia que no requiere el conteo exacto del total de elementos
+     */
+    public Pageable withoutTotal() {
+        return new Pageable(page, size, false);
+    }
+
     public int getPage() {
         return page;
     }
@@ -44,11 +57,16 @@ public class Pageable {
         return size != Integer.MAX_VALUE;
     }
 
+    public boolean isCountTotal() {
+        return countTotal;
+    }
+
     @Override
     public String toString() {
         return "Pageable{" +
                 "page=" + page +
                 ", size=" + size +
+                ", countTotal=" + countTotal +
                 '}';
     }
 }
@@ -20,18 +20,59 @@ public class PagedResult<T> {
     private final int page;
     private final int size;
     private final long totalPages;
+    private final String nextCursor;
+    private final boolean keyset;
+    private final boolean totalExact;
+
+    public PagedResult(List<T> data, long totalElements, int page, int size) {
+        this(data, totalElements, page, size, null, false, true);
+    }
+
+    public PagedResult(List<T> data, long totalElements, int page, int size, String nextCursor) {
+        this(data, totalElements, page, size, nextCursor, false, true);
+    }
+
+    /**
+     * @param totalExact false si totalElements es solo una cota inferior (modo sin conteo exacto)
+     */
+    public PagedResult(List<T> data, long totalElements, int page, int size, String nextCursor, boolean totalExact) {
+        this(data, totalElements, page, size, nextCursor, false, totalExact);
+    }
 
     @JsonCreator
     public PagedResult(
             @JsonProperty("data") List<T> data,
             @JsonProperty("totalElements") long totalElements,
             @JsonProperty("page") int page,
-            @JsonProperty("size") int size) {
+            @JsonProperty("size") int size,
+            @JsonProperty("nextCursor") String nextCursor,
+            @JsonProperty("keyset") boolean keyset,
+            @JsonProperty("totalExact") Boolean totalExact) {
         this.data = data;
         this.totalElements = totalElements;
         this.page = page;
         this.size = size;
         this.totalPages = size > 0 ? (long) Math.ceil((double) totalElements / size) : 0;
+        this.nextCursor = nextCursor;
+        this.keyset = keyset;
+        // Entradas serializadas antes de existir este campo siempre tenían conteo exacto
+        this.totalExact = totalExact == null || totalExact;
+    }
+
+    /**
+     * Crea un resultado de paginación keyset (por cursor)
+     * En este modo no existe número de página: hay siguiente página solo si se devuelve nextCursor
+     */
+    public static <T> PagedResult<T> keyset(List<T> data, long totalElements, int size, String nextCursor) {
+        return new PagedResult<>(data, totalElements, 0, size, nextCursor, true, true);
+    }
+
+    /**
+     * Crea un resultado keyset indicando si totalElements es exacto o una cota inferior
+     */
+    public static <T> PagedResult<T> keyset(List<T> data, long totalElements, int size, String nextCursor,
+                                            boolean totalExact) {
+        return new PagedResult<>(data, totalElements, 0, size, nextCursor, true, totalExact);
     }
 
     /**
@@ -43,6 +84,9 @@ public class PagedResult<T> {
         this.page = 0;
         this.size = data.size();
         this.totalPages = 1;
+        this.nextCursor = null;
+        this.keyset = false;
+        this.totalExact = true;
     }
 
     public List<T> getData() {
@@ -65,12 +109,34 @@ public class PagedResult<T> {
         return totalPages;
     }
 
+    /**
+     * Cursor opaco para pedir la página siguiente (null si no hay más elementos)
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    /**
+     * Indica si totalElements es el conteo exacto o solo una cota inferior
+     * (modo sin conteo: se consulta size + 1 para saber si hay página siguiente)
+     */
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
     public boolean hasNext() {
+        if (keyset) {
+            return nextCursor != null;
+        }
         return page < totalPages - 1;
     }
 
     public boolean hasPrevious() {
-        return page > 0;
+        return !keyset && page > 0;
     }
 
     @Override
@@ -81,6 +147,9 @@ public class PagedResult<T> {
                 ", page=" + page +
                 ", size=" + size +
                 ", totalPages=" + totalPages +
+                ", nextCursor=" + nextCursor +
+                ", keyset=" + keyset +
+                ", totalExact=" + totalExact +
                 '}';
     }
 }
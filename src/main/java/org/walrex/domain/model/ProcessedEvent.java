@@ -0,0 +1,37 @@
+package org.walrex.domain.model;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Evento de Kafka cuyo efecto ya se aplicó: su ID, la partición y el offset del record que lo trajo
+ */
+@RegisterForReflection
+public class ProcessedEvent {
+
+    private final String eventId;
+    private final String partitionKey;
+    private final long offset;
+
+    /**
+     * @param eventId ID del evento (header event-id o topic-partición@offset)
+     * @param partitionKey Partición de origen (topic-partición)
+     * @param offset Offset del record en su partición
+     */
+    public ProcessedEvent(String eventId, String partitionKey, long offset) {
+        this.eventId = eventId;
+        this.partitionKey = partitionKey;
+        this.offset = offset;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getPartitionKey() {
+        return partitionKey;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+}
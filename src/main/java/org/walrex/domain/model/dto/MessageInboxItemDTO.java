@@ -12,7 +12,7 @@ import java.time.OffsetDateTime;
 public class MessageInboxItemDTO {
 
     @JsonProperty("id_message")
-    private Integer idMessage;
+    private Long idMessage;
 
     @JsonProperty("is_read")
     private String isRead;
@@ -37,7 +37,7 @@ public class MessageInboxItemDTO {
     }
 
     // Constructor completo
-    public MessageInboxItemDTO(Integer idMessage, String isRead, String message,
+    public MessageInboxItemDTO(Long idMessage, String isRead, String message,
                               Integer numAttachments, String senderName,
                               OffsetDateTime createdAt, String timeReceived) {
         this.idMessage = idMessage;
@@ -79,11 +79,11 @@ public class MessageInboxItemDTO {
     }
 
     // Getters y Setters
-    public Integer getIdMessage() {
+    public Long getIdMessage() {
         return idMessage;
     }
 
-    public void setIdMessage(Integer idMessage) {
+    public void setIdMessage(Long idMessage) {
         this.idMessage = idMessage;
     }
 
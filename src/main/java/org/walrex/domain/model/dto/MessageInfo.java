@@ -17,7 +17,7 @@ public class MessageInfo {
     /**
      * ID del mensaje
      */
-    private Integer idMessage;
+    private Long idMessage;
 
     /**
      * Asunto del mensaje
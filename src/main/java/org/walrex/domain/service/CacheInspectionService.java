@@ -0,0 +1,56 @@
+package org.walrex.domain.service;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.walrex.application.ports.input.InspectCacheUseCase;
+import org.walrex.application.ports.output.CacheInspectionPort;
+import org.walrex.domain.model.CacheKeyUsage;
+import org.walrex.domain.model.CacheStats;
+
+import java.util.List;
+
+/**
+ * Servicio de dominio para la inspección del cache
+ * Acota el número de claves pedido para que una consulta de administración no recorra Redis sin límite
+ */
+@ApplicationScoped
+public class CacheInspectionService implements InspectCacheUseCase {
+
+    private static final Logger LOG = Logger.getLogger(CacheInspectionService.class);
+
+    private final CacheInspectionPort cacheInspectionPort;
+    private final int maxTopKeys;
+
+    @Inject
+    public CacheInspectionService(
+            CacheInspectionPort cacheInspectionPort,
+            @ConfigProperty(name = "cache.admin.max-top-keys", defaultValue = "100") int maxTopKeys) {
+        this.cacheInspectionPort = cacheInspectionPort;
+        this.maxTopKeys = maxTopKeys;
+    }
+
+    @Override
+    public List<CacheStats> getStats() {
+        return cacheInspectionPort.getStats();
+    }
+
+    @Override
+    public boolean isRedisAvailable() {
+        return cacheInspectionPort.isRedisAvailable();
+    }
+
+    @Override
+    public Uni<List<CacheKeyUsage>> getLargestKeys(int limit) {
+        int effectiveLimit = Math.max(1, Math.min(limit, maxTopKeys));
+        LOG.debugf("[CacheInspectionService] Consultando las %d claves más grandes del cache", effectiveLimit);
+        return cacheInspectionPort.findLargestKeys(effectiveLimit);
+    }
+
+    @Override
+    public boolean isKeyScanSingleNode() {
+        return cacheInspectionPort.isKeyScanSingleNode();
+    }
+}
@@ -0,0 +1,85 @@
+package org.walrex.domain.service;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.walrex.application.ports.input.DeduplicateEventsUseCase;
+import org.walrex.application.ports.output.ProcessedEventPort;
+import org.walrex.domain.model.ProcessedEvent;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Servicio de dominio del consumidor idempotente
+ * Los eventos procesados se conservan durante una ventana de retención (consumer.idempotency.retention),
+ * que debe cubrir el tiempo máximo en que Kafka puede reentregar un record (rebalanceo, caída antes del commit)
+ *
+ * La purga borra por bloques (consumer.idempotency.purge-batch-size) para no retener locks largos
+ */
+@ApplicationScoped
+public class EventDeduplicationService implements DeduplicateEventsUseCase {
+
+    private static final Logger LOG = Logger.getLogger(EventDeduplicationService.class);
+
+    private final ProcessedEventPort processedEventPort;
+    private final Duration retention;
+    private final int purgeBatchSize;
+
+    @Inject
+    public EventDeduplicationService(
+            ProcessedEventPort processedEventPort,
+            @ConfigProperty(name = "consumer.idempotency.retention", defaultValue = "P1D") Duration retention,
+            @ConfigProperty(name = "consumer.idempotency.purge-batch-size", defaultValue = "5000") int purgeBatchSize) {
+        this.processedEventPort = processedEventPort;
+        this.retention = retention;
+        this.purgeBatchSize = Math.max(1, purgeBatchSize);
+    }
+
+    @Override
+    public Uni<Set<String>> findProcessed(String consumer, List<String> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Uni.createFrom().item(Set.of());
+        }
+        return processedEventPort.findProcessed(consumer, eventIds);
+    }
+
+    @Override
+    public Uni<Void> markProcessed(String consumer, List<ProcessedEvent> events) {
+        if (events.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return processedEventPort.markProcessed(consumer, events)
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[EventDeduplicationService] Error al registrar eventos procesados - Consumer: %s, eventos: %d",
+                        consumer, events.size())
+            );
+    }
+
+    @Override
+    public Uni<List<ProcessedEvent>> recentEvents(String consumer, String partitionKey, int limit) {
+        return processedEventPort.findRecent(consumer, partitionKey, limit);
+    }
+
+    @Override
+    public Uni<Integer> purgeExpired() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(retention);
+        return purgeFrom(cutoff, 0)
+            .onItem().invoke(total -> {
+                if (total > 0) {
+                    LOG.infof("[EventDeduplicationService] Eventos procesados purgados: %d (anteriores a %s)", total, cutoff);
+                }
+            });
+    }
+
+    private Uni<Integer> purgeFrom(OffsetDateTime cutoff, int purged) {
+        return processedEventPort.deleteProcessedBefore(cutoff, purgeBatchSize)
+            .chain(deleted -> deleted < purgeBatchSize
+                ? Uni.createFrom().item(purged + deleted)
+                : purgeFrom(cutoff, purged + deleted));
+    }
+}
@@ -0,0 +1,59 @@
+package org.walrex.domain.service;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.walrex.application.ports.input.SyncInboxIndexUseCase;
+import org.walrex.application.ports.output.InboxIndexPort;
+import org.walrex.application.ports.output.InboxMessagePort;
+
+import java.util.List;
+
+/**
+ * Servicio de dominio que inserta los mensajes recibidos en los índices de inbox en cache
+ * Solo actúa con cache.strategy=index; con la estrategia por página no hay índices que mantener
+ *
+ * Un error al indexar no detiene la ingesta: el índice es un cache y su TTL acota
+ * el tiempo que un usuario puede dejar de ver un mensaje nuevo
+ */
+@ApplicationScoped
+public class InboxIndexService implements SyncInboxIndexUseCase {
+
+    private static final Logger LOG = Logger.getLogger(InboxIndexService.class);
+
+    static final String INDEX_STRATEGY = "index";
+
+    private final InboxMessagePort inboxMessagePort;
+    private final InboxIndexPort inboxIndexPort;
+    private final boolean enabled;
+
+    @Inject
+    public InboxIndexService(
+            InboxMessagePort inboxMessagePort,
+            InboxIndexPort inboxIndexPort,
+            @ConfigProperty(name = "cache.strategy", defaultValue = "pages") String strategy) {
+        this.inboxMessagePort = inboxMessagePort;
+        this.inboxIndexPort = inboxIndexPort;
+        this.enabled = INDEX_STRATEGY.equalsIgnoreCase(strategy.trim());
+    }
+
+    @Override
+    public Uni<Integer> indexMessages(List<Long> messageIds) {
+        if (!enabled || messageIds.isEmpty()) {
+            return Uni.createFrom().item(0);
+        }
+
+        LOG.debugf("[InboxIndexService] Indexando mensajes en cache - mensajes: %d", messageIds.size());
+        return inboxMessagePort.findInboxItemsByMessageIds(messageIds)
+            .chain(inboxIndexPort::addItems)
+            .onItem().invoke(items ->
+                LOG.infof("[InboxIndexService] Índices de inbox actualizados - mensajes: %d, items: %d", messageIds.size(), items)
+            )
+            .onFailure().recoverWithItem(throwable -> {
+                LOG.errorf(throwable, "[InboxIndexService] Error al indexar mensajes - mensajes: %d", messageIds.size());
+                return 0;
+            });
+    }
+}
@@ -0,0 +1,60 @@
+package org.walrex.domain.service;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.walrex.application.ports.input.PersistInboxMessagesUseCase;
+import org.walrex.application.ports.output.InboxMessageIngestPort;
+import org.walrex.domain.model.IncomingInboxMessage;
+import org.walrex.domain.model.IngestResult;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servicio de dominio que persiste los mensajes recibidos por la ingesta
+ * Un batch de Kafka se escribe con unas pocas sentencias set-based en una transacción,
+ * así el throughput crece con el tamaño del batch y no con viajes a la BD por fila
+ *
+ * Un error se propaga: el consumidor reintenta el carril y, si sigue fallando, lo envía al DLQ
+ */
+@ApplicationScoped
+public class InboxMessageIngestService implements PersistInboxMessagesUseCase {
+
+    private static final Logger LOG = Logger.getLogger(InboxMessageIngestService.class);
+
+    private final InboxMessageIngestPort inboxMessageIngestPort;
+
+    @Inject
+    public InboxMessageIngestService(InboxMessageIngestPort inboxMessageIngestPort) {
+        this.inboxMessageIngestPort = inboxMessageIngestPort;
+    }
+
+    @Override
+    public Uni<IngestResult> persistMessages(List<IncomingInboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return Uni.createFrom().item(IngestResult.empty());
+        }
+
+        // Un mismo record puede llegar dos veces en el batch: se conserva la última versión
+        Map<String, IncomingInboxMessage> unique = new LinkedHashMap<>();
+        messages.forEach(message -> unique.put(message.getEventKey(), message));
+        List<IncomingInboxMessage> batch = List.copyOf(unique.values());
+
+        LOG.debugf("[InboxMessageIngestService] Persistiendo batch - mensajes: %d", batch.size());
+        return inboxMessageIngestPort.insertBatch(batch)
+            .onItem().invoke(result -> {
+                LOG.infof("[InboxMessageIngestService] Batch persistido - mensajes: %d, nuevos: %d, ya existentes: %d, en conflicto: %d",
+                        batch.size(), result.getInserted(), batch.size() - result.getInserted() - result.getConflicts().size(),
+                        result.getConflicts().size());
+                if (!result.getConflicts().isEmpty()) {
+                    LOG.warnf("[InboxMessageIngestService] Claves de evento ya usadas por otro mensaje: %s", result.getConflicts());
+                }
+            })
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[InboxMessageIngestService] Error al persistir batch - mensajes: %d", batch.size())
+            );
+    }
+}
@@ -0,0 +1,120 @@
+package org.walrex.domain.service;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.walrex.application.ports.input.WarmInboxPagesUseCase;
+import org.walrex.application.ports.output.InboxMessagePort;
+import org.walrex.domain.model.InboxCursor;
+import org.walrex.domain.model.MessageInboxItem;
+import org.walrex.domain.model.PagedResult;
+import org.walrex.domain.model.Pageable;
+import org.walrex.infrastructure.adapters.outbound.cache.MessageCacheAdapter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de dominio que lleva los mensajes recibidos al cache por página (cache.strategy=pages)
+ * Tras un envío masivo cada destinatario con su primera página en cache la conserva con el mensaje nuevo
+ * en lugar de fallar todos a la vez en su siguiente lectura; el resto de sus páginas se invalida
+ *
+ * Un error no detiene la ingesta: las páginas son cache y su TTL acota el tiempo
+ * que un usuario puede dejar de ver un mensaje nuevo
+ */
+@ApplicationScoped
+public class InboxPageWarmingService implements WarmInboxPagesUseCase {
+
+    private static final Logger LOG = Logger.getLogger(InboxPageWarmingService.class);
+
+    /**
+     * Orden del listado: create_at DESC, id_message DESC (sin fecha al final)
+     */
+    private static final Comparator<MessageInboxItem> INBOX_ORDER = Comparator
+            .comparing((MessageInboxItem item) -> item.getCreatedAt() == null ? null : item.getCreatedAt().toInstant(),
+                    Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(MessageInboxItem::getIdMessage)
+            .reversed();
+
+    private final InboxMessagePort inboxMessagePort;
+    private final MessageCacheAdapter<MessageInboxItem> cacheAdapter;
+    private final boolean enabled;
+
+    /**
+     * Página 0 de cada tamaño configurado, con y sin total exacto (cada una es una clave distinta)
+     */
+    private final List<Pageable> firstPages;
+
+    @Inject
+    public InboxPageWarmingService(
+            InboxMessagePort inboxMessagePort,
+            MessageCacheAdapter<MessageInboxItem> cacheAdapter,
+            @ConfigProperty(name = "cache.strategy", defaultValue = "pages") String strategy,
+            @ConfigProperty(name = "cache.warm.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "cache.warm.page-sizes", defaultValue = "20") List<Integer> pageSizes) {
+        this.inboxMessagePort = inboxMessagePort;
+        this.cacheAdapter = cacheAdapter;
+        this.enabled = enabled && !InboxIndexService.INDEX_STRATEGY.equalsIgnoreCase(strategy.trim());
+        this.firstPages = new ArrayList<>(pageSizes.size() * 2);
+        for (Integer size : pageSizes) {
+            Pageable first = Pageable.of(0, size);
+            firstPages.add(first);
+            firstPages.add(first.withoutTotal());
+        }
+        LOG.infof("[InboxPageWarmingService] Write-through del cache por página %s - tamaños de página: %s",
+                this.enabled ? "habilitado" : "deshabilitado", pageSizes);
+    }
+
+    @Override
+    public Uni<Integer> warmMessages(List<Long> messageIds) {
+        if (!enabled || messageIds.isEmpty()) {
+            return Uni.createFrom().item(0);
+        }
+
+        LOG.debugf("[InboxPageWarmingService] Actualizando primeras páginas en cache - mensajes: %d", messageIds.size());
+        return inboxMessagePort.findInboxItemsByMessageIds(messageIds)
+            .chain(itemsByRecipient -> cacheAdapter.pushToFirstPages(itemsByRecipient, firstPages,
+                    MessageInboxItem.class, InboxPageWarmingService::mergeFirstPage))
+            .onItem().invoke(pages ->
+                LOG.infof("[InboxPageWarmingService] Primeras páginas actualizadas - mensajes: %d, páginas: %d", messageIds.size(), pages)
+            )
+            .onFailure().recoverWithItem(throwable -> {
+                LOG.errorf(throwable, "[InboxPageWarmingService] Error al actualizar primeras páginas - mensajes: %d", messageIds.size());
+                return 0;
+            });
+    }
+
+    /**
+     * Inserta items nuevos en una primera página cacheada manteniendo el orden y el tamaño de página
+     * Los items que ya estaban en la página (batch reentregado por Kafka) no suman al total
+     */
+    static PagedResult<MessageInboxItem> mergeFirstPage(PagedResult<MessageInboxItem> page, List<MessageInboxItem> newItems) {
+        Set<Long> present = page.getData().stream()
+            .map(MessageInboxItem::getIdMessage)
+            .collect(Collectors.toSet());
+        List<MessageInboxItem> added = newItems.stream()
+            .filter(item -> !present.contains(item.getIdMessage()))
+            .toList();
+        if (added.isEmpty()) {
+            return page;
+        }
+
+        List<MessageInboxItem> merged = new ArrayList<>(page.getData().size() + added.size());
+        merged.addAll(page.getData());
+        merged.addAll(added);
+        merged.sort(INBOX_ORDER);
+
+        int size = page.getSize();
+        List<MessageInboxItem> items = merged.size() > size ? List.copyOf(merged.subList(0, size)) : merged;
+        String nextCursor = (merged.size() > size || page.getNextCursor() != null)
+            ? InboxCursor.after(items.get(items.size() - 1)).encode()
+            : null;
+        return new PagedResult<>(items, page.getTotalElements() + added.size(), page.getPage(), size,
+                nextCursor, page.isTotalExact());
+    }
+}
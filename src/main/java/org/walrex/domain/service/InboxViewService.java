@@ -0,0 +1,89 @@
+package org.walrex.domain.service;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.walrex.application.ports.input.SyncInboxViewUseCase;
+import org.walrex.application.ports.output.InboxViewPort;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio de dominio que mantiene el read model desnormalizado del inbox
+ * La escritura se habilita con inbox.view.enabled; mientras esté deshabilitada
+ * las operaciones no tocan la BD (la tabla puede no existir todavía)
+ */
+@ApplicationScoped
+public class InboxViewService implements SyncInboxViewUseCase {
+
+    private static final Logger LOG = Logger.getLogger(InboxViewService.class);
+
+    private final InboxViewPort inboxViewPort;
+    private final boolean enabled;
+    private final int backfillChunkSize;
+
+    @Inject
+    public InboxViewService(
+            InboxViewPort inboxViewPort,
+            @ConfigProperty(name = "inbox.view.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "inbox.view.backfill.chunk-size", defaultValue = "1000") int backfillChunkSize) {
+        this.inboxViewPort = inboxViewPort;
+        this.enabled = enabled;
+        this.backfillChunkSize = backfillChunkSize;
+    }
+
+    @Override
+    public Uni<Integer> syncMessages(List<Long> messageIds) {
+        if (!enabled || messageIds.isEmpty()) {
+            return Uni.createFrom().item(0);
+        }
+
+        LOG.debugf("[InboxViewService] Sincronizando inbox_view - mensajes: %d", messageIds.size());
+        return inboxViewPort.upsertMessages(messageIds)
+            .onItem().invoke(rows ->
+                LOG.infof("[InboxViewService] inbox_view sincronizada - mensajes: %d, filas: %d", messageIds.size(), rows)
+            )
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[InboxViewService] Error al sincronizar inbox_view - mensajes: %d", messageIds.size())
+            );
+    }
+
+    @Override
+    public Uni<Long> backfill() {
+        if (!enabled) {
+            LOG.warn("[InboxViewService] Backfill omitido: inbox.view.enabled=false");
+            return Uni.createFrom().item(0L);
+        }
+
+        LOG.infof("[InboxViewService] Iniciando backfill de inbox_view - tramo: %d", backfillChunkSize);
+        return backfillChunks()
+            .onItem().invoke(total ->
+                LOG.infof("[InboxViewService] Backfill de inbox_view completado - filas: %d", total)
+            )
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[InboxViewService] Error en backfill de inbox_view")
+            );
+    }
+
+    /**
+     * Proyecta tramos consecutivos (keyset por ID de destinatario) hasta que no queden filas
+     * Cada tramo es una sentencia independiente, así el backfill puede reanudarse y no bloquea la tabla
+     * Los tramos se repiten como un Multi (uno tras otro, sin anidar suscripciones) y se suman al final
+     */
+    private Uni<Long> backfillChunks() {
+        return Multi.createBy().repeating()
+            .uni(() -> new AtomicLong(0L), lastId -> inboxViewPort.upsertChunkAfter(lastId.get(), backfillChunkSize)
+                .onItem().invoke(ids -> {
+                    ids.stream().mapToLong(Long::longValue).max().ifPresent(lastId::set);
+                    LOG.debugf("[InboxViewService] Tramo de backfill proyectado - hasta id_recipient: %d, filas: %d",
+                            lastId.get(), ids.size());
+                }))
+            .until(List::isEmpty)
+            .onItem().scan(() -> 0L, (total, ids) -> total + ids.size())
+            .collect().last();
+    }
+}
@@ -1,19 +1,30 @@
 package org.walrex.domain.service;
 
 import io.quarkus.panache.common.Page;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 import org.walrex.application.ports.input.GetMessageByIdUseCase;
 import org.walrex.application.ports.input.GetMessagePaginationUseCase;
+import org.walrex.application.ports.input.RegisterCreatedMessagesUseCase;
+import org.walrex.application.ports.output.InboxIndexPort;
 import org.walrex.application.ports.output.InboxMessagePort;
+import org.walrex.application.ports.output.MessageDetailCachePort;
+import org.walrex.domain.model.InboxCursor;
 import org.walrex.domain.model.MessageInboxItem;
 import org.walrex.domain.model.PagedResult;
 import org.walrex.domain.model.Pageable;
 import org.walrex.domain.model.dto.MessageInfo;
 import org.walrex.infrastructure.adapters.outbound.cache.MessageCacheAdapter;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageDetailsDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageReadStateDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.exception.MessageNotFoundException;
+import org.walrex.infrastructure.adapters.outbound.persistence.mapper.MessageDetailsOverlayMapper;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -24,17 +35,32 @@ import java.util.Optional;
  * Esta clase pertenece a la capa de dominio y contiene la lógica de negocio
  */
 @ApplicationScoped
-public class MessageInboxService implements GetMessagePaginationUseCase, GetMessageByIdUseCase {
+public class MessageInboxService implements GetMessagePaginationUseCase, GetMessageByIdUseCase,
+        RegisterCreatedMessagesUseCase {
 
     private static final Logger LOG = Logger.getLogger(MessageInboxService.class);
 
     private final InboxMessagePort inboxMessagePort;
     private final MessageCacheAdapter<MessageInboxItem> cacheAdapter;
+    private final MessageDetailCachePort detailCache;
+    private final InboxIndexPort inboxIndex;
+
+    /**
+     * true con cache.strategy=index: el listado se sirve desde el índice de inbox en cache
+     * en lugar del cache por página
+     */
+    private final boolean indexStrategy;
 
     @Inject
-    public MessageInboxService(InboxMessagePort inboxMessagePort, MessageCacheAdapter<MessageInboxItem> cacheAdapter) {
+    public MessageInboxService(InboxMessagePort inboxMessagePort, MessageCacheAdapter<MessageInboxItem> cacheAdapter,
+                               MessageDetailCachePort detailCache, InboxIndexPort inboxIndex,
+                               @ConfigProperty(name = "cache.strategy", defaultValue = "pages") String cacheStrategy) {
         this.inboxMessagePort = inboxMessagePort;
         this.cacheAdapter = cacheAdapter;
+        this.detailCache = detailCache;
+        this.inboxIndex = inboxIndex;
+        this.indexStrategy = InboxIndexService.INDEX_STRATEGY.equalsIgnoreCase(cacheStrategy.trim());
+        LOG.infof("[MessageInboxService] Estrategia de cache del inbox: %s", indexStrategy ? "index" : "pages");
     }
 
     /**
@@ -42,18 +68,49 @@ public class MessageInboxService implements GetMessagePaginationUseCase, GetMess
      * Implementa cache-aside pattern:
      * 1. Intenta obtener del cache
      * 2. Si no existe en cache, consulta la BD y cachea el resultado
+     * Con cache.strategy=index la página sale del índice de inbox (cualquier tamaño de página)
+     * y el total es siempre exacto; si el inbox del usuario no cabe en el índice se usa el cache por página
      *
      * @param idUser ID del usuario destinatario
      * @param page Paginación opcional (Quarkus Panache Page)
+     * @param exactTotal false para omitir el conteo (se cachea con una clave distinta)
      * @return Uni reactivo con el resultado paginado que contiene los mensajes y metadatos
      */
     @Override
-    public Uni<PagedResult<MessageInboxItem>> getMessageByUser(Integer idUser, Optional<Page> page) {
-        LOG.infof("[MessageInboxService] Iniciando obtención de mensajes para usuario: %d, página: %s",
-                idUser, page.map(p -> "page=" + p.index + ", size=" + p.size).orElse("sin paginación"));
+    public Uni<PagedResult<MessageInboxItem>> getMessageByUser(Integer idUser, Optional<Page> page, boolean exactTotal) {
+        LOG.infof("[MessageInboxService] Iniciando obtención de mensajes para usuario: %d, página: %s, exactTotal: %s",
+                idUser, page.map(p -> "page=" + p.index + ", size=" + p.size).orElse("sin paginación"), exactTotal);
+
+        if (indexStrategy) {
+            return inboxIndex.getPage(idUser, convertToPageable(page), () -> inboxMessagePort.streamMessagesByUser(idUser))
+                .onItem().ifNull().switchTo(() -> getMessageByUserFromPageCache(idUser, page, exactTotal))
+                .onItem().invoke(result ->
+                    LOG.infof("[MessageInboxService] Mensajes obtenidos para usuario: %d - Total: %d, Página actual: %d elementos",
+                            idUser, result.getTotalElements(), result.getData().size())
+                )
+                .onFailure().invoke(throwable ->
+                    LOG.errorf(throwable, "[MessageInboxService] Error al obtener mensajes para usuario: %d", idUser)
+                );
+        }
+        return getMessageByUserFromPageCache(idUser, page, exactTotal);
+    }
+
+    /**
+     * Listado con el cache por página (una entrada por usuario, página, tamaño y modo de total)
+     * El listado sin paginación no se cachea: sería un único valor de Redis con el inbox completo,
+     * que se serializa y se transfiere entero en cada lectura y se invalida con cualquier mensaje nuevo
+     */
+    private Uni<PagedResult<MessageInboxItem>> getMessageByUserFromPageCache(Integer idUser, Optional<Page> page, boolean exactTotal) {
+        if (page.isEmpty()) {
+            LOG.debugf("[MessageInboxService] Listado sin paginación - se consulta la BD sin cache para usuario: %d", idUser);
+            return inboxMessagePort.findMessagesByUser(idUser, page, exactTotal)
+                .onFailure().invoke(throwable ->
+                    LOG.errorf(throwable, "[MessageInboxService] Error al obtener mensajes para usuario: %d", idUser)
+                );
+        }
 
         // Convertir Quarkus Panache Page a domain Pageable
-        Pageable pageable = convertToPageable(page);
+        Pageable pageable = exactTotal ? convertToPageable(page) : convertToPageable(page).withoutTotal();
 
         // Usar cache-aside pattern: intenta cache primero, si no existe consulta BD y cachea
         return cacheAdapter.getOrFetch(
@@ -62,7 +119,7 @@ public class MessageInboxService implements GetMessagePaginationUseCase, GetMess
                 MessageInboxItem.class,
                 () -> {
                     LOG.debugf("[MessageInboxService] Cache MISS - delegando a InboxMessagePort para usuario: %d", idUser);
-                    return inboxMessagePort.findMessagesByUser(idUser, page);
+                    return inboxMessagePort.findMessagesByUser(idUser, page, exactTotal);
                 }
         )
         .onItem().invoke(result ->
@@ -74,9 +131,61 @@ public class MessageInboxService implements GetMessagePaginationUseCase, GetMess
         );
     }
 
+    /**
+     * Obtiene la página del inbox posterior a un cursor (paginación keyset)
+     * Con la estrategia por página no usa el cache: cada cursor identifica una posición distinta y las
+     * páginas profundas rara vez se repiten, mientras que la consulta seek ya tiene latencia constante
+     * Con cache.strategy=index el cursor se resuelve en el índice (ZREVRANK + ZREVRANGE)
+     *
+     * @param idUser ID del usuario destinatario
+     * @param after Cursor del último mensaje recibido
+     * @param size Número de registros por página
+     * @param exactTotal false para omitir la consulta de conteo
+     * @return Uni reactivo con el resultado keyset
+     */
+    @Override
+    public Uni<PagedResult<MessageInboxItem>> getMessageByUserAfter(Integer idUser, InboxCursor after, int size, boolean exactTotal) {
+        LOG.infof("[MessageInboxService] Iniciando obtención de mensajes por cursor para usuario: %d, after: %s, size: %d, exactTotal: %s",
+                idUser, after, size, exactTotal);
+
+        Uni<PagedResult<MessageInboxItem>> afterPage = indexStrategy
+            ? inboxIndex.getPageAfter(idUser, after, size, () -> inboxMessagePort.streamMessagesByUser(idUser))
+                .onItem().ifNull().switchTo(() -> inboxMessagePort.findMessagesByUser(idUser, after, size, exactTotal))
+            : inboxMessagePort.findMessagesByUser(idUser, after, size, exactTotal);
+
+        return afterPage
+            .onItem().invoke(result ->
+                LOG.infof("[MessageInboxService] Mensajes por cursor obtenidos para usuario: %d - Página actual: %d elementos, hasNext: %s",
+                        idUser, result.getData().size(), result.hasNext())
+            )
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[MessageInboxService] Error al obtener mensajes por cursor para usuario: %d", idUser)
+            );
+    }
+
+    /**
+     * Emite el inbox completo de un usuario en streaming, sin cache ni lista intermedia
+     *
+     * @param idUser ID del usuario destinatario
+     * @return Multi reactivo con los mensajes del inbox
+     */
+    @Override
+    public Multi<MessageInboxItem> streamMessageByUser(Integer idUser) {
+        LOG.infof("[MessageInboxService] Iniciando streaming de mensajes para usuario: %d", idUser);
+
+        return inboxMessagePort.streamMessagesByUser(idUser)
+            .onCompletion().invoke(() ->
+                LOG.infof("[MessageInboxService] Streaming de mensajes completado para usuario: %d", idUser)
+            )
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[MessageInboxService] Error en streaming de mensajes para usuario: %d", idUser)
+            );
+    }
+
     /**
      * Convierte Quarkus Panache Page a domain Pageable
-     * Si no se proporciona paginación, usa valores por defecto (página 0, tamaño 20)
+     * Si no se proporciona paginación devuelve Pageable.unpaged() (el índice de inbox devuelve el listado
+     * completo; el cache por página no lo guarda)
      *
      * @param page Paginación opcional de Quarkus Panache
      * @return Pageable del dominio
@@ -86,8 +195,7 @@ public class MessageInboxService implements GetMessagePaginationUseCase, GetMess
             Page p = page.get();
             return Pageable.of(p.index, p.size);
         }
-        // Valores por defecto si no se proporciona paginación
-        return Pageable.of(0, 20);
+        return Pageable.unpaged();
     }
 
     /**
@@ -95,25 +203,48 @@ public class MessageInboxService implements GetMessagePaginationUseCase, GetMess
      * Debe llamarse cuando se crean, actualizan o eliminan mensajes
      *
      * @param userId ID del usuario
-     * @return Uni con el número de claves eliminadas del cache
+     * @return Uni con la nueva generación de cache del usuario
      */
     public Uni<Long> invalidateUserCache(Integer userId) {
         LOG.infof("[MessageInboxService] Invalidando cache para usuario: %d", userId);
-        return cacheAdapter.invalidateUserCache(userId)
-                .onItem().invoke(deletedKeys ->
-                    LOG.infof("[MessageInboxService] Cache invalidado exitosamente para usuario: %d - %d claves eliminadas",
-                            userId, deletedKeys)
+        Uni<Void> index = indexStrategy ? inboxIndex.evict(userId) : Uni.createFrom().voidItem();
+        return index.chain(() -> cacheAdapter.invalidateUserCache(userId))
+                .onItem().invoke(generation ->
+                    LOG.infof("[MessageInboxService] Cache invalidado exitosamente para usuario: %d - generación: %d",
+                            userId, generation)
                 )
                 .onFailure().invoke(throwable ->
                     LOG.errorf(throwable, "[MessageInboxService] Error al invalidar cache para usuario: %d", userId)
                 );
     }
 
+    /**
+     * Obtiene el detalle de un mensaje para un destinatario
+     * El detalle compartido (igual para todos los destinatarios) sale del cache por id_message;
+     * en paralelo se consulta el estado de lectura del destinatario y se superpone al detalle
+     *
+     * @param idMessage ID del mensaje
+     * @param idDestinatario ID del usuario que consulta
+     * @return Uni con el detalle del mensaje
+     */
     @Override
-    public Uni<MessageInfo> getMessageById(Integer idMessage, Integer idDestinatario) {
+    public Uni<MessageInfo> getMessageById(Long idMessage, Integer idDestinatario) {
         LOG.infof("[MessageInboxService] Obteniendo mensaje por ID - idMessage: %d, idDestinatario: %d", idMessage, idDestinatario);
 
-        return inboxMessagePort.getDetailMessageById(idMessage, idDestinatario)
+        // ID inexistente ya conocido: 404 sin consultar el detalle ni el estado de lectura
+        if (detailCache.isKnownMissing(idMessage)) {
+            LOG.debugf("[MessageInboxService] Mensaje inexistente (cache negativo) - idMessage: %d", idMessage);
+            return Uni.createFrom().failure(new MessageNotFoundException(idMessage));
+        }
+
+        Uni<MessageDetailsDTO> sharedDetail = detailCache.getOrFetch(idMessage, () -> {
+            LOG.debugf("[MessageInboxService] Cache MISS de detalle - delegando a InboxMessagePort, idMessage: %d", idMessage);
+            return inboxMessagePort.getSharedMessageDetail(idMessage);
+        });
+        Uni<MessageReadStateDTO> readState = inboxMessagePort.findReadState(idMessage, idDestinatario);
+
+        return Uni.combine().all().unis(sharedDetail, readState)
+            .with((detail, state) -> MessageDetailsOverlayMapper.forRecipient(detail, idDestinatario, state))
             .map(messageDetailsDTO -> {
                 LOG.debugf("[MessageInboxService] Mapeando MessageDetailsDTO a MessageInfo - idMessage: %d", idMessage);
                 return org.walrex.domain.model.mapper.MessageInfoMapper.toMessageInfo(messageDetailsDTO);
@@ -125,4 +256,19 @@ public class MessageInboxService implements GetMessagePaginationUseCase, GetMess
                 LOG.errorf(throwable, "[MessageInboxService] Error al obtener mensaje - idMessage: %d", idMessage)
             );
     }
+
+    /**
+     * Retira los mensajes recién creados del cache negativo del detalle
+     * Un error no detiene la ingesta: la entrada negativa expira por TTL
+     *
+     * @param messageIds IDs de mensaje del lote
+     * @return Uni que completa al terminar
+     */
+    @Override
+    public Uni<Void> registerCreated(List<Long> messageIds) {
+        if (messageIds.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return detailCache.forgetMissing(messageIds);
+    }
 }
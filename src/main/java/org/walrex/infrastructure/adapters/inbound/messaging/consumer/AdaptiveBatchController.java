@@ -0,0 +1,279 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.reactive.messaging.kafka.KafkaClientService;
+import io.vertx.mutiny.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.walrex.infrastructure.adapters.outbound.persistence.repository.InboxMessageBulkRepository;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control adaptativo (AIMD) del tamaño de batch efectivo del consumidor inbox-messages.
+ *
+ * CARACTERÍSTICAS:
+ * - Tras cada bloque procesado mide la latencia media de commit (ingest.db.commit) y la espera por
+ *   conexión del pool (ingest.db.pool.wait) de las transacciones de ese bloque
+ * - Dentro del objetivo: el límite crece de forma aditiva (consumer.adaptive.increase)
+ * - Fuera del objetivo o con error: el límite decrece de forma multiplicativa (consumer.adaptive.decrease-factor)
+ * - Limita la admisión de records: mientras la ventana (records recibidos aún sin procesar) supera el límite,
+ *   las particiones quedan pausadas y el cliente no trae más records; se reanudan cuando la ventana cabe
+ *   en un bloque
+ * - Muy por encima del objetivo (consumer.adaptive.pause-threshold veces): además mantiene la pausa al menos
+ *   consumer.adaptive.pause-duration desde la última sobrecarga medida
+ * - Solo pausa las particiones asignadas que no estaban ya pausadas y solo reanuda las que pausó él:
+ *   las pausas del propio conector (backpressure) no se tocan. El consumidor sigue haciendo poll
+ *   (sin rebalanceos) pero no recibe records de las particiones pausadas
+ *
+ * max.poll.records es configuración fija del cliente Kafka: el batch recibido se procesa en bloques
+ * consecutivos de batchLimit() records, cada uno con su ack antes de empezar el siguiente.
+ *
+ * MÉTRICAS:
+ * - consumer.adaptive.batch-limit: límite actual
+ * - consumer.adaptive.pauses: pausas de particiones (ventana por encima del límite o BD sobrecargada)
+ */
+@ApplicationScoped
+@Slf4j
+public class AdaptiveBatchController {
+
+    private static final String CHANNEL = "inbox-messages";
+
+    private final KafkaClientService kafkaClientService;
+    private final Vertx vertx;
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final long targetLatencyNanos;
+    private final long poolWaitTargetNanos;
+    private final int minBatch;
+    private final int maxBatch;
+    private final int increase;
+    private final double decreaseFactor;
+    private final double pauseThreshold;
+    private final Duration pauseDuration;
+    private final Counter pauses;
+    // Particiones pausadas por este control; solo se modifica en el hilo de poll del consumidor
+    private final Set<TopicPartition> pausedPartitions = ConcurrentHashMap.newKeySet();
+
+    private volatile int limit;
+    private int window;
+    private long overloadedUntilNanos;
+    private boolean paused;
+    private long lastCommitCount;
+    private double lastCommitTotal;
+    private long lastWaitCount;
+    private double lastWaitTotal;
+
+    @Inject
+    public AdaptiveBatchController(
+            KafkaClientService kafkaClientService,
+            Vertx vertx,
+            MeterRegistry registry,
+            @ConfigProperty(name = "consumer.adaptive.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "consumer.adaptive.target-latency", defaultValue = "PT0.5S") Duration targetLatency,
+            @ConfigProperty(name = "consumer.adaptive.pool-wait-target", defaultValue = "PT0.05S") Duration poolWaitTarget,
+            @ConfigProperty(name = "consumer.adaptive.min-batch", defaultValue = "25") int minBatch,
+            @ConfigProperty(name = "consumer.adaptive.max-batch", defaultValue = "500") int maxBatch,
+            @ConfigProperty(name = "consumer.adaptive.increase", defaultValue = "25") int increase,
+            @ConfigProperty(name = "consumer.adaptive.decrease-factor", defaultValue = "0.5") double decreaseFactor,
+            @ConfigProperty(name = "consumer.adaptive.pause-threshold", defaultValue = "3.0") double pauseThreshold,
+            @ConfigProperty(name = "consumer.adaptive.pause-duration", defaultValue = "PT2S") Duration pauseDuration) {
+        this.kafkaClientService = kafkaClientService;
+        this.vertx = vertx;
+        this.registry = registry;
+        this.enabled = enabled;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.poolWaitTargetNanos = poolWaitTarget.toNanos();
+        this.minBatch = Math.max(1, minBatch);
+        this.maxBatch = Math.max(this.minBatch, maxBatch);
+        this.increase = Math.max(1, increase);
+        this.decreaseFactor = decreaseFactor;
+        this.pauseThreshold = pauseThreshold;
+        this.pauseDuration = pauseDuration;
+        this.limit = this.maxBatch;
+        this.pauses = Counter.builder("consumer.adaptive.pauses")
+                .description("Pausas de particiones por ventana por encima del límite o BD sobrecargada")
+                .register(registry);
+        Gauge.builder("consumer.adaptive.batch-limit", this, controller -> controller.limit)
+                .description("Tamaño de batch efectivo del consumidor inbox-messages")
+                .register(registry);
+    }
+
+    /**
+     * @return Records a procesar por bloque; sin límite si el control adaptativo está deshabilitado
+     */
+    public int batchLimit() {
+        return enabled ? limit : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Particiones pausadas por este control (vacío si no hay pausa activa)
+     */
+    public Set<TopicPartition> pausedPartitions() {
+        return Set.copyOf(pausedPartitions);
+    }
+
+    /**
+     * Registra un batch recibido: sus records entran en la ventana hasta que se procesan
+     *
+     * @param records Records del batch
+     */
+    public synchronized void onBatchReceived(int records) {
+        if (!enabled) {
+            return;
+        }
+        window += records;
+        updatePause();
+    }
+
+    /**
+     * Ajusta el límite con las latencias de las transacciones del bloque recién procesado
+     *
+     * @param records Records del bloque
+     * @param elapsedNanos Duración del bloque completo, se usa si el bloque no abrió transacciones
+     */
+    public synchronized void onChunkCompleted(int records, long elapsedNanos) {
+        if (!enabled) {
+            return;
+        }
+        window = Math.max(0, window - records);
+        double commitMean = sampleMean(InboxMessageBulkRepository.COMMIT_TIMER, true);
+        double waitMean = sampleMean(InboxMessageBulkRepository.POOL_WAIT_TIMER, false);
+        if (Double.isNaN(commitMean)) {
+            commitMean = elapsedNanos;
+        }
+        double pressure = Math.max(commitMean / targetLatencyNanos,
+                Double.isNaN(waitMean) ? 0 : waitMean / poolWaitTargetNanos);
+
+        int previous = limit;
+        if (pressure <= 1.0) {
+            limit = Math.min(maxBatch, limit + increase);
+        } else {
+            limit = Math.max(minBatch, (int) (limit * decreaseFactor));
+        }
+        if (limit != previous) {
+            log.info("🎚️ Batch efectivo {} -> {} (commit medio {}ms, espera de pool {}ms, {} records)",
+                    previous, limit, TimeUnit.NANOSECONDS.toMillis((long) commitMean),
+                    Double.isNaN(waitMean) ? 0 : TimeUnit.NANOSECONDS.toMillis((long) waitMean), records);
+        }
+        if (pressure >= pauseThreshold) {
+            log.warn("⏸️ BD sobrecargada ({}x el objetivo): admisión detenida al menos {}ms",
+                    String.format("%.1f", pressure), pauseDuration.toMillis());
+            overloadedUntilNanos = System.nanoTime() + pauseDuration.toNanos();
+            vertx.setTimer(pauseDuration.toMillis(), timerId -> onOverloadExpired());
+        }
+        updatePause();
+    }
+
+    /**
+     * Un bloque fallido cuenta como congestión: decremento multiplicativo
+     *
+     * @param records Records del bloque
+     */
+    public synchronized void onChunkFailed(int records) {
+        if (!enabled) {
+            return;
+        }
+        window = Math.max(0, window - records);
+        limit = Math.max(minBatch, (int) (limit * decreaseFactor));
+        log.warn("🎚️ Bloque fallido, batch efectivo reducido a {}", limit);
+        updatePause();
+    }
+
+    private synchronized void onOverloadExpired() {
+        updatePause();
+    }
+
+    /**
+     * Media del timer desde la última muestra (NaN si no hubo registros nuevos)
+     */
+    private double sampleMean(String name, boolean commitTimer) {
+        Timer timer = registry.find(name).timer();
+        if (timer == null) {
+            return Double.NaN;
+        }
+        long count = timer.count();
+        double total = timer.totalTime(TimeUnit.NANOSECONDS);
+        long deltaCount = count - (commitTimer ? lastCommitCount : lastWaitCount);
+        double deltaTotal = total - (commitTimer ? lastCommitTotal : lastWaitTotal);
+        if (commitTimer) {
+            lastCommitCount = count;
+            lastCommitTotal = total;
+        } else {
+            lastWaitCount = count;
+            lastWaitTotal = total;
+        }
+        return deltaCount > 0 ? deltaTotal / deltaCount : Double.NaN;
+    }
+
+    /**
+     * Pausa mientras la ventana supera el límite o dura la sobrecarga; reanuda en cuanto ninguna de las dos se cumple
+     */
+    private void updatePause() {
+        boolean hold = window > limit || System.nanoTime() - overloadedUntilNanos < 0;
+        if (hold && !paused) {
+            pausePartitions();
+        } else if (!hold && paused) {
+            resumePartitions();
+        }
+    }
+
+    /**
+     * Pausa las particiones asignadas que no estaban pausadas y las anota como propias
+     * El poll continúa (heartbeats y max.poll.interval.ms en regla), solo deja de traer records
+     */
+    private void pausePartitions() {
+        var consumer = kafkaClientService.getConsumer(CHANNEL);
+        if (consumer == null) {
+            return;
+        }
+        paused = true;
+        pauses.increment();
+        int currentWindow = window;
+        int currentLimit = limit;
+        consumer.runOnPollingThread(client -> {
+                    Set<TopicPartition> toPause = new HashSet<>(client.assignment());
+                    toPause.removeAll(client.paused());
+                    client.pause(toPause);
+                    pausedPartitions.addAll(toPause);
+                    return toPause;
+                })
+                .subscribe().with(
+                        partitions -> log.warn("⏸️ Particiones pausadas: {} (ventana {} records, límite {})",
+                                partitions, currentWindow, currentLimit),
+                        error -> log.error("❌ Error pausando particiones: {}", error.getMessage(), error));
+    }
+
+    /**
+     * Reanuda solo las particiones que pausó este control y siguen asignadas
+     * Las acciones corren en orden en el hilo de poll, así que una reanudación nunca adelanta a su pausa
+     */
+    private void resumePartitions() {
+        var consumer = kafkaClientService.getConsumer(CHANNEL);
+        if (consumer == null) {
+            return;
+        }
+        paused = false;
+        consumer.runOnPollingThread(client -> {
+                    Set<TopicPartition> toResume = new HashSet<>(pausedPartitions);
+                    toResume.retainAll(client.assignment());
+                    client.resume(toResume);
+                    pausedPartitions.clear();
+                    return toResume;
+                })
+                .subscribe().with(
+                        partitions -> log.info("▶️ Particiones reanudadas: {}", partitions),
+                        error -> log.error("❌ Error reanudando particiones: {}", error.getMessage(), error));
+    }
+}
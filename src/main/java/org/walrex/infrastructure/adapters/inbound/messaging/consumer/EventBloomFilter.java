@@ -0,0 +1,104 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.consumer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+/**
+ * Filtro Bloom rotativo de IDs de evento para una partición
+ *
+ * - mightContain=false garantiza que el evento no se registró en este filtro; solo permite saltarse la BD
+ *   si además covers(offset): el filtro conoce todos los eventos procesados desde ese offset
+ * - mightContain=true puede ser un falso positivo (consumer.idempotency.bloom.fpp): se confirma en processed_events
+ * - Dos generaciones: al llenarse la actual (capacity inserciones) pasa a ser la anterior y se descarta
+ *   la más vieja, así la memoria queda acotada. Al descartar una generación la cobertura sube por encima
+ *   del mayor offset que contenía: por debajo los eventos se confirman siempre en la tabla
+ */
+class EventBloomFilter {
+
+    private final int capacity;
+    private final int bits;
+    private final int hashes;
+
+    private BitSet current;
+    private BitSet previous;
+    private int inserted;
+    private long currentMaxOffset = -1;
+    private long previousMaxOffset = -1;
+    private long coveredFrom;
+
+    /**
+     * @param coveredFrom Offset desde el que el filtro conoce todos los eventos procesados
+     *                    (0 si se precargó con todos los registrados de la partición)
+     */
+    EventBloomFilter(int capacity, double fpp, long coveredFrom) {
+        this.capacity = Math.max(1, capacity);
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        this.bits = (int) Math.max(64, Math.ceil(-this.capacity * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / this.capacity * Math.log(2)));
+        this.current = new BitSet(bits);
+        this.previous = new BitSet(bits);
+        this.coveredFrom = Math.max(0, coveredFrom);
+    }
+
+    /**
+     * @return true si cualquier evento procesado con este offset está en el filtro (offset desconocido: false)
+     */
+    synchronized boolean covers(long offset) {
+        return offset >= 0 && offset >= coveredFrom;
+    }
+
+    synchronized boolean mightContain(String eventId) {
+        long hash = hash64(eventId);
+        return contains(current, hash) || contains(previous, hash);
+    }
+
+    synchronized void put(String eventId, long offset) {
+        if (inserted >= capacity) {
+            // La generación anterior se descarta: sus eventos ya no están cubiertos
+            if (previousMaxOffset >= 0) {
+                coveredFrom = Math.max(coveredFrom, previousMaxOffset + 1);
+            }
+            previous = current;
+            previousMaxOffset = currentMaxOffset;
+            current = new BitSet(bits);
+            currentMaxOffset = -1;
+            inserted = 0;
+        }
+        long hash = hash64(eventId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            current.set(Math.floorMod(h1 + i * h2, bits));
+        }
+        currentMaxOffset = Math.max(currentMaxOffset, offset);
+        inserted++;
+    }
+
+    private boolean contains(BitSet set, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            if (!set.get(Math.floorMod(h1 + i * h2, bits))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a de 64 bits con el mezclado final de MurmurHash3 (fmix64)
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,277 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import io.vertx.mutiny.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.walrex.application.ports.input.DeduplicateEventsUseCase;
+import org.walrex.domain.model.ProcessedEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Capa de idempotencia delante de los consumidores de Kafka (entrega at-least-once, efecto exactly-once).
+ *
+ * CARACTERÍSTICAS:
+ * - ID de evento: header event-id si el productor lo envía; si no, topic-partición@offset (identifica
+ *   exactamente una reentrega tras un rebalanceo o una caída antes del commit)
+ * - Un filtro Bloom en memoria por partición descarta sin ir a la BD los eventos que seguro son nuevos;
+ *   los posibles duplicados se confirman contra processed_events (PK consumer + event_id)
+ * - El filtro solo decide por debajo de su cobertura: un record con offset anterior a lo que cubre el filtro
+ *   (precarga parcial o generación descartada) se confirma siempre en processed_events
+ * - Un ID del header event-id no está ligado al offset: el productor puede reenviar el evento y la copia llega
+ *   con un offset nuevo (cubierto) mientras el original quedó fuera del filtro. Por eso con un ID de header el
+ *   filtro solo evita la BD si cubre la partición entera (precarga completa y sin generaciones descartadas)
+ * - El filtro de una partición se precarga con sus eventos de mayor offset de processed_events la primera vez
+ *   que se usa, y se descarta al revocarse la partición (InboxMessagesRebalanceListener): otra instancia
+ *   pudo procesar eventos mientras tanto
+ * - Los eventos se registran después de aplicar su efecto; si la aplicación cae entre ambos pasos el record
+ *   se reprocesa, por eso los pasos de la ingesta son además idempotentes (ON CONFLICT, upserts)
+ * - Purga periódica de processed_events fuera de la ventana de retención (consumer.idempotency.cleanup-interval)
+ *
+ * Se habilita con consumer.idempotency.enabled; requiere la tabla de V1_2__create_processed_events.sql,
+ * que se aplica a mano (el build no incluye Flyway). Mientras esté deshabilitada los records pasan sin filtrar.
+ *
+ * MÉTRICAS:
+ * - consumer.idempotency.duplicates{consumer}: records descartados por ya procesados
+ * - consumer.idempotency.store.lookups{consumer}: IDs que el filtro no pudo descartar y se consultaron en la BD
+ */
+@ApplicationScoped
+@Slf4j
+public class IdempotentRecords {
+
+    static final String EVENT_ID_HEADER = "event-id";
+
+    private final DeduplicateEventsUseCase deduplicateEventsUseCase;
+    private final MeterRegistry registry;
+    private final Vertx vertx;
+    private final boolean enabled;
+    private final int bloomCapacity;
+    private final double bloomFpp;
+    private final Duration cleanupInterval;
+
+    private final Map<String, Uni<EventBloomFilter>> filters = new ConcurrentHashMap<>();
+    private volatile long cleanupTimerId = -1;
+
+    @Inject
+    public IdempotentRecords(
+            DeduplicateEventsUseCase deduplicateEventsUseCase,
+            MeterRegistry registry,
+            Vertx vertx,
+            @ConfigProperty(name = "consumer.idempotency.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "consumer.idempotency.bloom.capacity", defaultValue = "100000") int bloomCapacity,
+            @ConfigProperty(name = "consumer.idempotency.bloom.fpp", defaultValue = "0.01") double bloomFpp,
+            @ConfigProperty(name = "consumer.idempotency.cleanup-interval", defaultValue = "PT10M") Duration cleanupInterval) {
+        this.deduplicateEventsUseCase = deduplicateEventsUseCase;
+        this.registry = registry;
+        this.vertx = vertx;
+        this.enabled = enabled;
+        this.bloomCapacity = bloomCapacity;
+        this.bloomFpp = bloomFpp;
+        this.cleanupInterval = cleanupInterval;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        cleanupTimerId = vertx.setPeriodic(cleanupInterval.toMillis(), timerId -> deduplicateEventsUseCase.purgeExpired()
+                .subscribe().with(
+                        purged -> { },
+                        error -> log.warn("⚠️ Error purgando eventos procesados: {}", error.getMessage())
+                ));
+        log.info("🛡️  Consumidor idempotente activo - filtro Bloom por partición de {} eventos, purga cada {}",
+                bloomCapacity, cleanupInterval);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (cleanupTimerId >= 0) {
+            vertx.cancelTimer(cleanupTimerId);
+        }
+    }
+
+    /**
+     * Descarta los records cuyo efecto ya se aplicó (y los repetidos dentro de la misma lista)
+     *
+     * @param consumer Nombre del consumidor (canal)
+     * @param records Records en el orden de Kafka
+     * @return Uni con los records nuevos, en el mismo orden
+     */
+    public <K, V> Uni<List<KafkaRecord<K, V>>> filterNew(String consumer, List<KafkaRecord<K, V>> records) {
+        if (!enabled || records.isEmpty()) {
+            return Uni.createFrom().item(records);
+        }
+
+        Map<String, KafkaRecord<K, V>> byEventId = new LinkedHashMap<>();
+        Set<String> headerEventIds = new HashSet<>();
+        List<KafkaRecord<K, V>> withoutId = new ArrayList<>();
+        for (KafkaRecord<K, V> record : records) {
+            String eventId = eventId(record);
+            if (eventId == null) {
+                withoutId.add(record);
+            } else {
+                byEventId.putIfAbsent(eventId, record);
+                if (headerEventId(record) != null) {
+                    headerEventIds.add(eventId);
+                }
+            }
+        }
+
+        return loadFilters(consumer, byEventId.values())
+                .chain(loaded -> {
+                    List<String> maybeSeen = new ArrayList<>();
+                    byEventId.forEach((eventId, record) -> {
+                        EventBloomFilter filter = loaded.get(partitionKey(record));
+                        // Con un ID de header la copia reenviada puede estar en otro offset que el original
+                        boolean partitionCoverageNeeded = headerEventIds.contains(eventId);
+                        if (!filter.covers(offset(record)) || (partitionCoverageNeeded && !filter.covers(0))
+                                || filter.mightContain(eventId)) {
+                            maybeSeen.add(eventId);
+                        }
+                    });
+                    registry.counter("consumer.idempotency.store.lookups", "consumer", consumer).increment(maybeSeen.size());
+                    return deduplicateEventsUseCase.findProcessed(consumer, maybeSeen);
+                })
+                .map(processed -> {
+                    int duplicates = records.size() - withoutId.size() - byEventId.size() + processed.size();
+                    if (duplicates > 0) {
+                        registry.counter("consumer.idempotency.duplicates", "consumer", consumer).increment(duplicates);
+                        log.info("♻️ Descartados {} records ya procesados de {} - Consumer: {}",
+                                duplicates, records.size(), consumer);
+                    }
+                    Set<KafkaRecord<K, V>> fresh = new HashSet<>(withoutId);
+                    byEventId.forEach((eventId, record) -> {
+                        if (!processed.contains(eventId)) {
+                            fresh.add(record);
+                        }
+                    });
+                    return records.stream().filter(fresh::contains).toList();
+                });
+    }
+
+    /**
+     * Registra los records como procesados; llamar solo después de aplicar su efecto
+     */
+    public <K, V> Uni<Void> markProcessed(String consumer, List<KafkaRecord<K, V>> records) {
+        if (!enabled || records.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+
+        List<ProcessedEvent> events = new ArrayList<>(records.size());
+        for (KafkaRecord<K, V> record : records) {
+            String eventId = eventId(record);
+            if (eventId != null) {
+                events.add(new ProcessedEvent(eventId, partitionKey(record), offset(record)));
+            }
+        }
+
+        return deduplicateEventsUseCase.markProcessed(consumer, events)
+                .chain(() -> loadFilters(consumer, records))
+                .invoke(loaded -> events.forEach(event ->
+                        loaded.get(event.getPartitionKey()).put(event.getEventId(), event.getOffset())))
+                .replaceWithVoid();
+    }
+
+    /**
+     * Descarta los filtros de las particiones revocadas o perdidas: si vuelven a asignarse se precargan de nuevo
+     */
+    public void forget(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            String suffix = "|" + partition.topic() + "-" + partition.partition();
+            filters.keySet().removeIf(key -> key.endsWith(suffix));
+        }
+    }
+
+    /**
+     * Obtiene (precargando si hace falta) el filtro de cada partición presente en los records
+     */
+    private <K, V> Uni<Map<String, EventBloomFilter>> loadFilters(String consumer, Collection<KafkaRecord<K, V>> records) {
+        Set<String> partitionKeys = new HashSet<>();
+        records.forEach(record -> partitionKeys.add(partitionKey(record)));
+
+        List<Uni<Map.Entry<String, EventBloomFilter>>> loads = new ArrayList<>(partitionKeys.size());
+        for (String partitionKey : partitionKeys) {
+            loads.add(filterFor(consumer, partitionKey).map(filter -> Map.entry(partitionKey, filter)));
+        }
+        return Uni.join().all(loads).andFailFast()
+                .map(entries -> {
+                    Map<String, EventBloomFilter> loaded = new LinkedHashMap<>();
+                    entries.forEach(entry -> loaded.put(entry.getKey(), entry.getValue()));
+                    return loaded;
+                });
+    }
+
+    private Uni<EventBloomFilter> filterFor(String consumer, String partitionKey) {
+        String key = consumer + "|" + partitionKey;
+        return filters.computeIfAbsent(key, ignored -> deduplicateEventsUseCase
+                .recentEvents(consumer, partitionKey, bloomCapacity)
+                .map(recent -> {
+                    // Precarga completa (menos filas que la capacidad): el filtro cubre la partición entera;
+                    // si no, solo desde el menor offset cargado
+                    long coveredFrom = recent.size() < bloomCapacity ? 0 : recent.get(recent.size() - 1).getOffset();
+                    EventBloomFilter filter = new EventBloomFilter(bloomCapacity, bloomFpp, coveredFrom);
+                    // Del offset más bajo al más alto: si hay rotación, los recientes quedan en la generación actual
+                    for (int i = recent.size() - 1; i >= 0; i--) {
+                        filter.put(recent.get(i).getEventId(), recent.get(i).getOffset());
+                    }
+                    log.info("🛡️  Filtro de idempotencia precargado - Consumer: {}, Partición: {}, Eventos: {}, Cubre desde offset: {}",
+                            consumer, partitionKey, recent.size(), coveredFrom);
+                    return filter;
+                })
+                .onFailure().invoke(error -> filters.remove(key))
+                .memoize().indefinitely());
+    }
+
+    /**
+     * Offset del record en su partición (-1 si no se conoce: el filtro no lo cubre y se consulta la tabla)
+     */
+    private static long offset(KafkaRecord<?, ?> record) {
+        return record instanceof IncomingKafkaRecord<?, ?> incoming ? incoming.getOffset() : -1;
+    }
+
+    private static String partitionKey(KafkaRecord<?, ?> record) {
+        return record.getTopic() + "-" + record.getPartition();
+    }
+
+    /**
+     * ID del evento: header event-id o, en su defecto, topic-partición@offset
+     * Null si no hay forma de identificarlo (el record se procesa siempre)
+     */
+    private static String eventId(KafkaRecord<?, ?> record) {
+        String headerEventId = headerEventId(record);
+        if (headerEventId != null) {
+            return headerEventId;
+        }
+        if (record instanceof IncomingKafkaRecord<?, ?> incoming) {
+            return partitionKey(record) + "@" + incoming.getOffset();
+        }
+        return null;
+    }
+
+    /**
+     * ID asignado por el productor en el header event-id (null si no lo envía)
+     */
+    private static String headerEventId(KafkaRecord<?, ?> record) {
+        Header header = record.getHeaders() != null ? record.getHeaders().lastHeader(EVENT_ID_HEADER) : null;
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
@@ -1,19 +1,69 @@
 package org.walrex.infrastructure.adapters.inbound.messaging.consumer;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecordBatch;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.walrex.application.ports.input.PersistInboxMessagesUseCase;
+import org.walrex.application.ports.input.RegisterCreatedMessagesUseCase;
+import org.walrex.application.ports.input.SyncInboxIndexUseCase;
+import org.walrex.application.ports.input.SyncInboxViewUseCase;
+import org.walrex.application.ports.input.WarmInboxPagesUseCase;
+import org.walrex.domain.model.IncomingInboxMessage;
+import org.walrex.infrastructure.adapters.inbound.messaging.exception.InvalidInboxPayloadException;
+import org.walrex.infrastructure.adapters.inbound.messaging.mapper.InboxMessagePayloadMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Consumidor BATCH para procesamiento masivo eficiente.
  *
  * CARACTERÍSTICAS:
  * - Recibe múltiples mensajes en un solo lote (configurado en application.yml: max.poll.records)
- * - Procesa mensajes en paralelo usando Multi
- * - Commit después de procesar todo el batch
+ * - Descarta los records reentregados cuyo efecto ya se aplicó (IdempotentRecords: filtro Bloom por
+ *   partición confirmado contra processed_events) y registra los procesados al terminar cada carril
+ * - Persiste los mensajes completos del batch (mensaje, destinatarios y adjuntos) con tres INSERT
+ *   en bulk en una sola transacción; los records que solo traen messageId ya están en la BD
+ * - Los payloads fuera de contrato (IDs no numéricos, campos ausentes) y los que reutilizan la clave
+ *   de evento de otro mensaje se cuentan (consumer.dead-lettered{consumer}) y se envían al dead letter topic
+ *   (canal inbox-messages-dlq); nunca se confirman sin dejar rastro
+ * - Reparte el batch en carriles por clave (KeyOrderedLanes): cada carril corre el pipeline completo
+ *   en paralelo con los demás, conservando el orden de los records de una misma clave
+ * - Con consumer.virtual-threads.enabled (desactivado por defecto) cada carril corre en su propio virtual thread
+ *   (KeyOrderedLanes.processLanesBlocking) como código secuencial: idempotencia, conversión, persistencia y
+ *   proyección se esperan paso a paso en el virtual thread, que solo queda aparcado mientras la BD responde.
+ *   La persistencia sigue en bulk, una transacción por carril, y el número de carriles en vuelo lo limita
+ *   consumer.virtual-threads.max-concurrency
+ * - Commit (ack) solo después del commit de la transacción y de proyectar el carril
+ * - Un carril que falla se reintenta con backoff (consumer.lanes.retry); agotados los reintentos sus records
+ *   se rechazan (nack) y la failure-strategy dead-letter-queue del canal los publica en el DLQ,
+ *   así el offset avanza y el canal sigue consumiendo
+ * - Proyecta los mensajes del batch en el read model inbox_view con un único upsert
+ * - Retira los mensajes del batch del cache negativo del detalle (IDs consultados antes de existir)
+ * - Inserta los mensajes del batch en los índices de inbox en cache (cache.strategy=index)
+ *   o en las primeras páginas cacheadas de sus destinatarios (cache.strategy=pages, cache.warm.enabled)
+ * - Tamaño de batch efectivo adaptativo (AdaptiveBatchController): el batch recibido se procesa en bloques
+ *   que crecen o se reducen según la latencia de commit y la espera del pool; mientras lo pendiente del batch
+ *   supera el bloque, o con la BD saturada, pausa las particiones en lugar de seguir acumulando trabajo
  * - Mayor throughput que procesamiento mensaje por mensaje
  *
  * CUÁNDO USAR:
@@ -26,13 +76,50 @@ import org.eclipse.microprofile.reactive.messaging.Incoming;
  * - batch: true
  * - max.poll.records: 500 (o el tamaño que necesites)
  * - enable.auto.commit: false (para commit manual)
+ * - failure-strategy: dead-letter-queue (con fail, el primer nack detiene el canal)
  */
 @ApplicationScoped
 @Slf4j
 public class InboxMessageBatchConsumer {
 
-    // @Inject
-    // MessageProcessingService messageService;
+    private static final String CONSUMER = "inbox-messages";
+    private static final String ERROR_HEADER = "error-message";
+    private static final String ORIGINAL_TOPIC_HEADER = "original-topic";
+    private static final String ORIGINAL_PARTITION_HEADER = "original-partition";
+
+    @Inject
+    PersistInboxMessagesUseCase persistInboxMessagesUseCase;
+
+    @Inject
+    SyncInboxViewUseCase syncInboxViewUseCase;
+
+    @Inject
+    RegisterCreatedMessagesUseCase registerCreatedMessagesUseCase;
+
+    @Inject
+    SyncInboxIndexUseCase syncInboxIndexUseCase;
+
+    @Inject
+    WarmInboxPagesUseCase warmInboxPagesUseCase;
+
+    @Inject
+    KeyOrderedLanes keyOrderedLanes;
+
+    @Inject
+    IdempotentRecords idempotentRecords;
+
+    @Inject
+    AdaptiveBatchController adaptiveBatchController;
+
+    @Inject
+    VirtualThreadLanes virtualThreadLanes;
+
+    @Inject
+    MeterRegistry registry;
+
+    // Records apartados: payload fuera de contrato o clave de evento de otro mensaje
+    @Channel("inbox-messages-dlq")
+    Emitter<Message<?>> dlqEmitter;
 
     /**
      * Consume y procesa mensajes en batch.
@@ -46,57 +133,187 @@ public class InboxMessageBatchConsumer {
         log.info("📦 Recibido batch de {} mensajes", batchSize);
 
         long startTime = System.currentTimeMillis();
+        adaptiveBatchController.onBatchReceived(batchSize);
+
+        // Bloques consecutivos del tamaño que fije el control adaptativo; dentro de cada bloque,
+        // carriles por clave en paralelo y ack por partición hasta el primer record no completado
+        return processChunks(batch.getRecords(), 0)
+                .invoke(() -> {
+                    long duration = System.currentTimeMillis() - startTime;
+                    log.info("✅ Batch completado: {} mensajes en {}ms ({}msg/s)",
+                            batchSize, duration, batchSize * 1000.0 / duration);
+                })
+                // Un fallo aquí no viene de los carriles (esos ya se confirmaron o rechazaron en processChunks):
+                // se propaga y la failure-strategy del canal decide qué hacer con el batch
+                .onFailure().invoke(error ->
+                    log.error("❌ Error procesando batch de {} mensajes: {}",
+                            batchSize, error.getMessage(), error)
+                );
+    }
 
-        return Multi.createFrom().iterable(batch.getRecords())
-                // Procesar cada mensaje en paralelo (ajusta concurrencia según tus recursos)
-                .onItem().transformToUniAndConcatenate(record -> {
-                    String key = record.getKey();
-                    log.debug("📨 Procesando mensaje - Key: {}", key);
+    /**
+     * Procesa los records desde la posición {@code from} en bloques de batchLimit() records, uno tras otro
+     * Un bloque termina (y confirma sus records) antes de empezar el siguiente: el orden por clave se conserva
+     */
+    private Uni<Void> processChunks(List<KafkaRecord<String, Object>> records, int from) {
+        if (from >= records.size()) {
+            return Uni.createFrom().voidItem();
+        }
+        int to = (int) Math.min(records.size(), (long) from + adaptiveBatchController.batchLimit());
+        List<KafkaRecord<String, Object>> chunk = records.subList(from, to);
+        long startNanos = System.nanoTime();
 
-                    // TODO: Implementa tu lógica aquí
-                    // return messageService.processMessage(record.getPayload());
+        Uni<Void> lanes = virtualThreadLanes.isEnabled()
+                ? keyOrderedLanes.processLanesBlocking(chunk, this::processLaneBlocking)
+                : keyOrderedLanes.processLanes(chunk, this::processLane);
 
+        // Un carril que agota sus reintentos ya rechazó (nack) sus records: la failure-strategy del canal
+        // (dead-letter-queue) los publica en el DLQ y el offset avanza, así que se sigue con el siguiente bloque
+        return lanes
+                .invoke(() -> adaptiveBatchController.onChunkCompleted(chunk.size(), System.nanoTime() - startNanos))
+                .onFailure().recoverWithUni(error -> {
+                    adaptiveBatchController.onChunkFailed(chunk.size());
+                    log.error("❌ Bloque de {} records con carriles enviados al DLQ tras agotar los reintentos: {}",
+                            chunk.size(), error.getMessage());
                     return Uni.createFrom().voidItem();
                 })
-                // Agregar paralelismo: procesar hasta N mensajes concurrentemente
-                // .merge(10) // <- Descomenta esto para procesar 10 mensajes en paralelo
-                .collect().asList()
-                // Una vez procesados todos, hacer commit del batch completo
-                .chain(results -> {
-                    long duration = System.currentTimeMillis() - startTime;
-                    log.info("✅ Batch completado: {} mensajes en {}ms ({}msg/s)",
-                            batchSize, duration, batchSize * 1000.0 / duration);
+                .chain(() -> processChunks(records, to));
+    }
+
+    /**
+     * Procesa los records nuevos de un carril y los registra como procesados
+     * Los ya procesados (reentrega) se omiten, pero cuentan como completados para el ack
+     */
+    private Uni<Void> processLane(List<KafkaRecord<String, Object>> records) {
+        return idempotentRecords.filterNew(CONSUMER, records)
+                .call(fresh -> fresh.isEmpty()
+                        ? Uni.createFrom().voidItem()
+                        : Uni.createFrom().item(() -> decodeRecords(fresh)).chain(this::applyEffects))
+                .chain(fresh -> idempotentRecords.markProcessed(CONSUMER, fresh));
+    }
+
+    /**
+     * Modo virtual threads: el mismo pipeline que processLane, escrito de forma secuencial en el virtual thread
+     * del carril; cada paso reactivo se suscribe en el contexto Vert.x del consumidor y se espera
+     */
+    private void processLaneBlocking(List<KafkaRecord<String, Object>> records) {
+        List<KafkaRecord<String, Object>> fresh = virtualThreadLanes.await(() -> idempotentRecords.filterNew(CONSUMER, records));
+        if (!fresh.isEmpty()) {
+            DecodedLane lane = decodeRecords(fresh);
+            virtualThreadLanes.await(() -> applyEffects(lane));
+        }
+        virtualThreadLanes.await(() -> idempotentRecords.markProcessed(CONSUMER, fresh));
+    }
 
-                    return Uni.createFrom().completionStage(batch.ack());
+    /**
+     * Separa los records del carril en referencias a mensajes ya guardados, mensajes completos a persistir
+     * y records que no cumplen el contrato del payload
+     */
+    private DecodedLane decodeRecords(List<KafkaRecord<String, Object>> records) {
+        DecodedLane lane = new DecodedLane();
+        for (KafkaRecord<String, Object> record : records) {
+            try {
+                if (InboxMessagePayloadMapper.isReference(record.getPayload())) {
+                    lane.referencedIds.add(InboxMessagePayloadMapper.extractMessageId(record.getPayload()));
+                } else {
+                    IncomingInboxMessage message =
+                            InboxMessagePayloadMapper.toIncomingMessage(record.getPayload(), record.getTimestamp());
+                    lane.messages.add(message);
+                    lane.recordsByEventKey.put(message.getEventKey(), record);
+                }
+            } catch (InvalidInboxPayloadException e) {
+                log.warn("⚠️ Payload inválido - Key: {}, Partición: {}, Error: {}",
+                        record.getKey(), record.getPartition(), e.getMessage());
+                lane.rejected.put(record, e.getMessage());
+            }
+        }
+        return lane;
+    }
+
+    /**
+     * Aplica el efecto de los records: persistencia, read model y caches, en ese orden
+     * Los records que no cumplen el contrato del payload y los que chocan con un mensaje distinto
+     * (misma clave de evento) se apartan al dead letter topic al final, una vez aplicado el resto
+     */
+    private Uni<Void> applyEffects(DecodedLane lane) {
+        // Persistencia: INSERT en bulk de mensajes, destinatarios y adjuntos en una transacción
+        return persistInboxMessagesUseCase.persistMessages(lane.messages)
+                .chain(result -> {
+                    result.getConflicts().forEach(eventKey -> lane.rejected.put(lane.recordsByEventKey.get(eventKey),
+                            "La clave de evento " + eventKey + " ya pertenece a otro mensaje"));
+                    List<Long> messageIds = Stream.concat(lane.referencedIds.stream(), result.getMessageIds().values().stream())
+                            .distinct()
+                            .toList();
+                    return projectMessages(messageIds);
                 })
-                // Manejo de errores: si falla algún mensaje, NO hacemos commit
-                // El batch completo será reprocesado
-                .onFailure().invoke(error -> {
-                    log.error("❌ Error procesando batch de {} mensajes: {}",
-                            batchSize, error.getMessage(), error);
-                    // El batch será reprocesado desde el último offset commiteado
-                });
+                .chain(() -> deadLetter(lane.rejected));
     }
 
     /**
-     * ALTERNATIVA: Procesamiento batch optimizado para DB
-     *
-     * Si necesitas insertar todos los mensajes en DB de una vez:
+     * Proyecta los mensajes persistidos en el read model y en los caches
      */
-    /*
-    @Incoming("inbox-messages-db-batch")
-    public Uni<Void> consumeAndSaveToDbBatch(IncomingKafkaRecordBatch<String, Object> batch) {
-        List<Object> messages = batch.getRecords().stream()
-                .map(IncomingKafkaRecord::getPayload)
-                .collect(Collectors.toList());
+    private Uni<Void> projectMessages(List<Long> messageIds) {
+        if (messageIds.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        // Read model: un solo upsert en bulk con todos los mensajes del carril
+        return syncInboxViewUseCase.syncMessages(messageIds)
+                // Cache negativo del detalle: los IDs creados dejan de responder 404
+                .call(rows -> registerCreatedMessagesUseCase.registerCreated(messageIds))
+                // Índices de inbox en cache: inserción incremental de los mensajes nuevos (sin invalidar)
+                .chain(rows -> syncInboxIndexUseCase.indexMessages(messageIds))
+                // Cache por página: write-through de las primeras páginas, para que los destinatarios
+                // de un envío masivo no fallen todos a la vez en su siguiente lectura
+                .chain(items -> warmInboxPagesUseCase.warmMessages(messageIds))
+                .replaceWithVoid();
+    }
 
-        log.info("📦 Guardando batch de {} mensajes en DB", messages.size());
+    /**
+     * Envía los records apartados al dead letter topic y espera la confirmación del broker;
+     * después se confirman (ack) con el resto del carril
+     */
+    private Uni<Void> deadLetter(Map<KafkaRecord<String, Object>, String> rejected) {
+        if (rejected.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return Multi.createFrom().iterable(rejected.entrySet())
+                .onItem().transformToUniAndConcatenate(entry -> sendToDeadLetter(entry.getKey(), entry.getValue()))
+                .collect().last()
+                .replaceWithVoid();
+    }
 
-        // TODO: Implementa inserción batch en DB
-        // return messageRepository.saveAll(messages)
-        //     .chain(() -> Uni.createFrom().completionStage(batch.ack()));
+    private Uni<Void> sendToDeadLetter(KafkaRecord<String, Object> record, String reason) {
+        Headers headers = new RecordHeaders()
+                .add(ERROR_HEADER, reason.getBytes(StandardCharsets.UTF_8))
+                .add(ORIGINAL_TOPIC_HEADER, record.getTopic().getBytes(StandardCharsets.UTF_8))
+                .add(ORIGINAL_PARTITION_HEADER, String.valueOf(record.getPartition()).getBytes(StandardCharsets.UTF_8))
+                .add("failed-at", Instant.now().toString().getBytes(StandardCharsets.UTF_8));
+        CompletableFuture<Void> sent = new CompletableFuture<>();
+        Message<?> message = KafkaRecord.of(record.getKey(), record.getPayload())
+                .addMetadata(OutgoingKafkaRecordMetadata.<String>builder().withHeaders(headers).build())
+                .withAck(() -> {
+                    sent.complete(null);
+                    return CompletableFuture.completedFuture(null);
+                })
+                .withNack(error -> {
+                    sent.completeExceptionally(error);
+                    return CompletableFuture.completedFuture(null);
+                });
+        dlqEmitter.send(message);
+        return Uni.createFrom().completionStage(sent)
+                .invoke(() -> {
+                    registry.counter("consumer.dead-lettered", "consumer", CONSUMER).increment();
+                    log.warn("📮 Record enviado a DLQ - Key: {}, Motivo: {}", record.getKey(), reason);
+                });
+    }
 
-        return Uni.createFrom().completionStage(batch.ack());
+    /**
+     * Records de un carril ya convertidos: IDs referenciados, mensajes a persistir y records rechazados
+     */
+    private static final class DecodedLane {
+        private final List<Long> referencedIds = new ArrayList<>();
+        private final List<IncomingInboxMessage> messages = new ArrayList<>();
+        private final Map<String, KafkaRecord<String, Object>> recordsByEventKey = new HashMap<>();
+        private final Map<KafkaRecord<String, Object>, String> rejected = new LinkedHashMap<>();
     }
-    */
-}
\ No newline at end of file
+}
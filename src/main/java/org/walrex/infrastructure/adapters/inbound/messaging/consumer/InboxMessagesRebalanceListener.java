@@ -0,0 +1,44 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.consumer;
+
+import io.smallrye.common.annotation.Identifier;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumerRebalanceListener;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+
+/**
+ * Listener de rebalanceo del canal inbox-messages
+ * (mp.messaging.incoming.inbox-messages.consumer-rebalance-listener.name=inbox-messages-rebalancer)
+ *
+ * Al revocarse o perderse una partición descarta su estado en memoria (filtro de idempotencia):
+ * mientras la tuvo otra instancia pudo procesar eventos que este filtro no conoce
+ */
+@ApplicationScoped
+@Identifier("inbox-messages-rebalancer")
+@Slf4j
+public class InboxMessagesRebalanceListener implements KafkaConsumerRebalanceListener {
+
+    @Inject
+    IdempotentRecords idempotentRecords;
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        log.info("🔀 Particiones asignadas: {}", partitions);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        log.info("🔀 Particiones revocadas: {}", partitions);
+        idempotentRecords.forget(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        log.warn("⚠️ Particiones perdidas: {}", partitions);
+        idempotentRecords.forget(partitions);
+    }
+}
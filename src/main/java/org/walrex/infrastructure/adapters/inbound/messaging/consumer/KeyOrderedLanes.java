@@ -0,0 +1,215 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.consumer;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Procesamiento paralelo de un batch de Kafka conservando el orden por clave.
+ *
+ * CARACTERÍSTICAS:
+ * - Los records se reparten en carriles por clave de Kafka (hash de la clave % carriles):
+ *   todos los records de una misma clave (mensaje o destinatario) caen en el mismo carril
+ * - Los carriles corren en paralelo hasta consumer.lanes.max-concurrency; dentro de un carril
+ *   los records conservan el orden en que llegaron
+ * - Si un carril falla, sus records no se confirman (los siguientes de esa clave no se procesan fuera de orden)
+ *   y el resto de carriles termina su trabajo; el carril se reintenta completo hasta
+ *   consumer.lanes.retry.max-retries veces, con backoff exponencial entre initial-backoff y max-backoff
+ * - Agotados los reintentos, los records del carril se rechazan (nack) con el error:
+ *   la failure-strategy del canal decide su destino (dead-letter-queue los publica en el DLQ y el offset
+ *   avanza; con la estrategia por defecto, fail, el canal se detiene)
+ * - Al terminar, por cada partición se confirman (ack) o rechazan (nack) los records en orden de offset
+ *
+ * CUÁNDO USAR:
+ * - Una sola partición con mucho volumen que debe aprovechar varias conexiones a la BD
+ * - El procesamiento de claves distintas es independiente, pero el de una misma clave no puede reordenarse
+ *
+ * MODO VIRTUAL THREADS (processLanesBlocking):
+ * - Cada carril corre en un virtual thread (VirtualThreadLanes) y procesa sus records con código bloqueante
+ * - El número de carriles lo limita consumer.virtual-threads.max-concurrency en lugar de
+ *   consumer.lanes.max-concurrency: miles de records en vuelo sin agotar el pool de workers
+ *
+ * Los records sin clave no tienen orden que conservar y se reparten por posición.
+ */
+@ApplicationScoped
+@Slf4j
+public class KeyOrderedLanes {
+
+    private final int maxConcurrency;
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final VirtualThreadLanes virtualThreadLanes;
+
+    @Inject
+    public KeyOrderedLanes(
+            VirtualThreadLanes virtualThreadLanes,
+            @ConfigProperty(name = "consumer.lanes.max-concurrency", defaultValue = "1") int maxConcurrency,
+            @ConfigProperty(name = "consumer.lanes.retry.max-retries", defaultValue = "3") int maxRetries,
+            @ConfigProperty(name = "consumer.lanes.retry.initial-backoff", defaultValue = "200ms") Duration initialBackoff,
+            @ConfigProperty(name = "consumer.lanes.retry.max-backoff", defaultValue = "5s") Duration maxBackoff) {
+        this.virtualThreadLanes = virtualThreadLanes;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        log.info("🛣️  Carriles por clave: {} en paralelo, hasta {} reintentos por carril", this.maxConcurrency, this.maxRetries);
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Procesa cada carril como un sub-batch (p. ej. una transacción por carril)
+     *
+     * @param records Records del batch en el orden de Kafka
+     * @param laneProcessor Procesamiento de los records de un carril, en orden; se repite completo al reintentar
+     * @return Uni que completa tras confirmar los records procesados; si algún carril agotó sus reintentos
+     *         falla con su error, después de rechazar (nack) sus records
+     */
+    public <K, V> Uni<Void> processLanes(List<KafkaRecord<K, V>> records,
+                                         Function<List<KafkaRecord<K, V>>, Uni<Void>> laneProcessor) {
+        return run(records, maxConcurrency, (lane, completed) -> laneProcessor.apply(lane)
+                .invoke(() -> lane.forEach(record -> completed.put(record, Boolean.TRUE))));
+    }
+
+    /**
+     * Procesa cada carril como un sub-batch en su propio virtual thread, con código bloqueante
+     * Un fallo (excepción) detiene solo su carril; el carril se repite completo al reintentar
+     *
+     * @param records Records del batch en el orden de Kafka
+     * @param laneProcessor Procesamiento bloqueante de los records de un carril, en orden
+     * @return Uni que completa tras confirmar los records procesados; si algún carril agotó sus reintentos
+     *         falla con su error, después de rechazar (nack) sus records
+     */
+    public <K, V> Uni<Void> processLanesBlocking(List<KafkaRecord<K, V>> records,
+                                                 Consumer<List<KafkaRecord<K, V>>> laneProcessor) {
+        return run(records, virtualThreadLanes.maxConcurrency(), (lane, completed) -> virtualThreadLanes
+                .run(() -> laneProcessor.accept(lane))
+                .invoke(() -> lane.forEach(record -> completed.put(record, Boolean.TRUE))));
+    }
+
+    private interface LaneRunner<K, V> {
+        Uni<Void> run(List<KafkaRecord<K, V>> lane, Map<KafkaRecord<K, V>, Boolean> completed);
+    }
+
+    private <K, V> Uni<Void> run(List<KafkaRecord<K, V>> records, int concurrency, LaneRunner<K, V> runner) {
+        if (records.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        List<List<KafkaRecord<K, V>>> lanes = split(records, concurrency);
+        Map<KafkaRecord<K, V>, Boolean> completed = new ConcurrentHashMap<>();
+        Map<KafkaRecord<K, V>, Throwable> failed = new ConcurrentHashMap<>();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+        return Multi.createFrom().iterable(lanes)
+                .onItem().transformToUni(lane -> withRetry(Uni.createFrom().deferred(() -> runner.run(lane, completed)), lane)
+                        .onFailure().recoverWithUni(failure -> {
+                            firstFailure.compareAndSet(null, failure);
+                            lane.stream()
+                                    .filter(record -> !completed.containsKey(record))
+                                    .forEach(record -> failed.put(record, failure));
+                            log.error("❌ Carril descartado tras {} reintentos - records sin completar: {}, Error: {}",
+                                    maxRetries, lane.size() - lane.stream().filter(completed::containsKey).count(),
+                                    failure.getMessage());
+                            return Uni.createFrom().voidItem();
+                        }))
+                .merge(concurrency)
+                .collect().last()
+                .chain(() -> settle(records, completed, failed))
+                .chain(() -> firstFailure.get() == null
+                        ? Uni.createFrom().voidItem()
+                        : Uni.createFrom().failure(firstFailure.get()));
+    }
+
+    /**
+     * Reintenta el carril completo con backoff exponencial
+     */
+    private <K, V> Uni<Void> withRetry(Uni<Void> attempt, List<KafkaRecord<K, V>> lane) {
+        if (maxRetries == 0) {
+            return attempt;
+        }
+        return attempt
+                .onFailure().invoke(failure -> log.warn("🔄 Carril fallido, se reintenta - records en el carril: {}, Error: {}",
+                        lane.size(), failure.getMessage()))
+                .onFailure().retry().withBackOff(initialBackoff, maxBackoff).atMost(maxRetries);
+    }
+
+    /**
+     * Reparte los records en carriles por clave, conservando el orden de llegada dentro de cada carril
+     */
+    private <K, V> List<List<KafkaRecord<K, V>>> split(List<KafkaRecord<K, V>> records, int concurrency) {
+        int laneCount = Math.min(concurrency, records.size());
+        List<List<KafkaRecord<K, V>>> lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (int position = 0; position < records.size(); position++) {
+            KafkaRecord<K, V> record = records.get(position);
+            int hash = record.getKey() != null ? Objects.hashCode(record.getKey()) : position;
+            lanes.get(Math.floorMod(hash, laneCount)).add(record);
+        }
+        lanes.removeIf(List::isEmpty);
+        return lanes;
+    }
+
+    /**
+     * Confirma (ack) los records completados y rechaza (nack) los de carriles que agotaron sus reintentos,
+     * por partición y en orden de offset (dentro del batch los records de una partición llegan en ese orden)
+     * Un record que no está en ninguno de los dos grupos detiene su partición: el offset no lo sobrepasa
+     */
+    private <K, V> Uni<Void> settle(List<KafkaRecord<K, V>> records, Map<KafkaRecord<K, V>, Boolean> completed,
+                                    Map<KafkaRecord<K, V>, Throwable> failed) {
+        Map<String, List<KafkaRecord<K, V>>> byPartition = new LinkedHashMap<>();
+        for (KafkaRecord<K, V> record : records) {
+            byPartition.computeIfAbsent(record.getTopic() + "-" + record.getPartition(), partition -> new ArrayList<>())
+                    .add(record);
+        }
+
+        List<KafkaRecord<K, V>> toSettle = new ArrayList<>(records.size());
+        byPartition.forEach((partition, partitionRecords) -> {
+            int settled = 0;
+            int nacked = 0;
+            while (settled < partitionRecords.size()) {
+                KafkaRecord<K, V> record = partitionRecords.get(settled);
+                if (failed.containsKey(record)) {
+                    nacked++;
+                } else if (!completed.containsKey(record)) {
+                    break;
+                }
+                toSettle.add(record);
+                settled++;
+            }
+            if (nacked > 0) {
+                log.warn("⚠️ Partición {}: {} de {} records rechazados (nack) tras agotar los reintentos",
+                        partition, nacked, partitionRecords.size());
+            }
+            if (settled < partitionRecords.size()) {
+                log.warn("⚠️ Partición {}: confirmados {} de {} records, el offset se detiene en el primer pendiente",
+                        partition, settled, partitionRecords.size());
+            }
+        });
+
+        return Multi.createFrom().iterable(toSettle)
+                .onItem().transformToUniAndConcatenate(record -> Uni.createFrom().completionStage(
+                        failed.containsKey(record) ? record.nack(failed.get(record)) : record.ack()))
+                .collect().last()
+                .replaceWithVoid();
+    }
+}
@@ -0,0 +1,198 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Ejecutor de virtual threads (Java 21) para los carriles de los consumidores.
+ *
+ * CARACTERÍSTICAS:
+ * - Cada tarea corre en su propio virtual thread: un carril se escribe de forma secuencial y bloqueante
+ *   sin ocupar el event loop ni el pool de workers
+ * - Los pasos reactivos del carril (sesiones de Hibernate Reactive, pool reactivo) se esperan con await():
+ *   se suscriben en el contexto Vert.x de quien lanzó la tarea y el virtual thread queda aparcado hasta
+ *   su resultado, sin bloquear su carrier
+ * - Límite de tareas en vuelo (consumer.virtual-threads.max-concurrency) con un semáforo: las tareas
+ *   que exceden el límite esperan en su virtual thread, sin consumir threads de plataforma
+ * - Detección de pinning: un stream JFR escucha jdk.VirtualThreadPinned (un virtual thread que bloquea
+ *   su carrier dentro de un synchronized o una llamada nativa) y lo registra con el frame culpable
+ * - El resultado vuelve al contexto Vert.x del llamador, así el pipeline reactivo posterior
+ *   (sesiones de Hibernate Reactive, ack de Kafka) sigue en su hilo
+ *
+ * Se habilita con consumer.virtual-threads.enabled; deshabilitado no crea el ejecutor, no registra
+ * métricas ni inicia el stream JFR.
+ *
+ * MÉTRICAS:
+ * - consumer.virtual-threads.in-flight: tareas ejecutándose
+ * - consumer.virtual-threads.pinned: eventos de pinning por encima del umbral
+ */
+@ApplicationScoped
+@Slf4j
+public class VirtualThreadLanes {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Contexto Vert.x de quien lanzó la tarea, visible para await() dentro de su virtual thread
+    private static final ThreadLocal<Context> CALLER_CONTEXT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final int maxConcurrency;
+    private final boolean pinningDetection;
+    private final Duration pinningThreshold;
+    private final Semaphore permits;
+    private final Counter pinnedCounter;
+    private final ExecutorService executor;
+
+    private volatile RecordingStream pinningStream;
+
+    @Inject
+    public VirtualThreadLanes(
+            MeterRegistry registry,
+            @ConfigProperty(name = "consumer.virtual-threads.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "consumer.virtual-threads.max-concurrency", defaultValue = "1000") int maxConcurrency,
+            @ConfigProperty(name = "consumer.virtual-threads.pinning-detection", defaultValue = "true") boolean pinningDetection,
+            @ConfigProperty(name = "consumer.virtual-threads.pinning-threshold", defaultValue = "20ms") Duration pinningThreshold) {
+        this.enabled = enabled;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.pinningDetection = pinningDetection;
+        this.pinningThreshold = pinningThreshold;
+        this.permits = new Semaphore(this.maxConcurrency);
+        if (!enabled) {
+            this.executor = null;
+            this.pinnedCounter = null;
+            return;
+        }
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("consumer-vt-", 0).factory());
+        this.pinnedCounter = Counter.builder("consumer.virtual-threads.pinned")
+                .description("Virtual threads que bloquearon su carrier por encima del umbral")
+                .register(registry);
+        Gauge.builder("consumer.virtual-threads.in-flight", permits, p -> this.maxConcurrency - p.availablePermits())
+                .description("Tareas de los consumidores ejecutándose en virtual threads")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled || !pinningDetection) {
+            return;
+        }
+        try {
+            RecordingStream stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(pinningThreshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            pinningStream = stream;
+            log.info("🔍 Detección de pinning de virtual threads activa (umbral {}ms)", pinningThreshold.toMillis());
+        } catch (RuntimeException e) {
+            // JFR no disponible (p. ej. imagen nativa sin soporte): se sigue sin detección
+            log.warn("⚠️ No se pudo iniciar la detección de pinning: {}", e.getMessage());
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        RecordingStream stream = pinningStream;
+        pinningStream = null;
+        if (stream != null) {
+            stream.close();
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Ejecuta un paso bloqueante en un virtual thread, respetando el límite de tareas en vuelo
+     *
+     * @param task Paso bloqueante
+     * @return Uni con el resultado, emitido en el contexto Vert.x del llamador
+     * @throws IllegalStateException si consumer.virtual-threads.enabled está desactivado
+     */
+    public <T> Uni<T> supply(Supplier<T> task) {
+        if (!enabled) {
+            throw new IllegalStateException("Virtual threads deshabilitados (consumer.virtual-threads.enabled=false)");
+        }
+        Context context = Vertx.currentContext();
+        Uni<T> result = Uni.createFrom().completionStage(() -> CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            CALLER_CONTEXT.set(context);
+            try {
+                return task.get();
+            } finally {
+                CALLER_CONTEXT.remove();
+                permits.release();
+            }
+        }, executor));
+        return context == null ? result : result.emitOn(command -> context.runOnContext(ignored -> command.run()));
+    }
+
+    /**
+     * Ejecuta un paso bloqueante sin resultado en un virtual thread
+     */
+    public Uni<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Espera un paso reactivo desde una tarea de supply()/run(): el paso se suscribe en el contexto Vert.x
+     * de quien lanzó la tarea (lo necesitan Hibernate Reactive y el pool reactivo) y el virtual thread
+     * queda aparcado hasta su resultado
+     *
+     * @param step Paso reactivo; se crea al suscribirse
+     * @return Resultado del paso
+     */
+    public <T> T await(Supplier<Uni<T>> step) {
+        Context context = CALLER_CONTEXT.get();
+        Uni<T> uni = Uni.createFrom().deferred(step);
+        if (context != null) {
+            uni = uni.runSubscriptionOn(command -> context.runOnContext(ignored -> command.run()));
+        }
+        return uni.await().indefinitely();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        RecordedFrame frame = event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()
+                ? null
+                : event.getStackTrace().getFrames().stream()
+                        .filter(RecordedFrame::isJavaFrame)
+                        .filter(f -> f.getMethod().getType().getName().startsWith("org.walrex"))
+                        .findFirst()
+                        .orElse(event.getStackTrace().getFrames().get(0));
+        log.warn("📌 Virtual thread anclado a su carrier {}ms - Thread: {}, En: {}",
+                event.getDuration().toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : "?",
+                frame != null ? frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber() : "?");
+    }
+}
@@ -0,0 +1,13 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.exception;
+
+/**
+ * Excepción lanzada cuando el payload de un record del topic inbox-messages no se puede convertir
+ * (IDs no numéricos, campos obligatorios ausentes): reintentarlo no cambia el resultado,
+ * el consumidor lo aparta al dead letter topic en lugar de persistirlo
+ */
+public class InvalidInboxPayloadException extends RuntimeException {
+
+    public InvalidInboxPayloadException(String message) {
+        super(message);
+    }
+}
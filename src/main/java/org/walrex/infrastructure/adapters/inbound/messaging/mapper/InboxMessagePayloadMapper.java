@@ -0,0 +1,180 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.mapper;
+
+import org.apache.avro.generic.GenericRecord;
+import org.walrex.domain.model.IncomingInboxMessage;
+import org.walrex.infrastructure.adapters.inbound.messaging.exception.InvalidInboxPayloadException;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Extrae datos del payload Avro de los mensajes del topic inbox.messages
+ * Sin las clases Avro generadas el deserializador entrega un GenericRecord,
+ * por lo que los campos se leen por nombre según el esquema InboxMessage
+ *
+ * Contrato de IDs:
+ * - Un payload completo (messageId, senderId, recipientIds, subject, body, attachments, createdAt) se
+ *   persiste en la ingesta. Su messageId es la clave de evento del productor (texto, p. ej. un UUID) y
+ *   el id_message lo asigna la BD; senderId y recipientIds son IDs de usuario numéricos
+ * - Un payload que solo trae messageId corresponde a un mensaje ya guardado por el productor:
+ *   ese messageId es el id_message numérico
+ * Un payload que no cumple el contrato lanza InvalidInboxPayloadException: nunca se descarta en silencio
+ */
+public final class InboxMessagePayloadMapper {
+
+    private static final String FIELD_MESSAGE_ID = "messageId";
+    private static final String FIELD_SENDER_ID = "senderId";
+    private static final String FIELD_RECIPIENT_IDS = "recipientIds";
+    private static final String FIELD_SUBJECT = "subject";
+    private static final String FIELD_BODY = "body";
+    private static final String FIELD_CREATED_AT = "createdAt";
+    private static final String FIELD_ATTACHMENTS = "attachments";
+
+    /**
+     * Campos del record Attachment del esquema InboxMessage (columnas file_path, file_name y file_type)
+     * filePath y fileName son obligatorios; fileType puede faltar
+     */
+    private static final String FIELD_ATTACHMENT_PATH = "filePath";
+    private static final String FIELD_ATTACHMENT_NAME = "fileName";
+    private static final String FIELD_ATTACHMENT_TYPE = "fileType";
+
+    private InboxMessagePayloadMapper() {
+    }
+
+    /**
+     * Indica si el payload solo referencia un mensaje ya guardado (sin destinatarios)
+     *
+     * @param payload Valor del record de Kafka (GenericRecord, número o texto)
+     */
+    public static boolean isReference(Object payload) {
+        return !(payload instanceof GenericRecord record) || !record.hasField(FIELD_RECIPIENT_IDS);
+    }
+
+    /**
+     * Obtiene el ID del mensaje en BD (id_message) de un payload que referencia un mensaje existente
+     *
+     * @param payload Valor del record de Kafka (GenericRecord, número o texto)
+     * @return ID del mensaje
+     * @throws InvalidInboxPayloadException si el payload no trae un ID numérico
+     */
+    public static Long extractMessageId(Object payload) {
+        Object value = payload instanceof GenericRecord record && record.hasField(FIELD_MESSAGE_ID)
+                ? record.get(FIELD_MESSAGE_ID)
+                : payload;
+
+        return toLong(value).orElseThrow(() ->
+                new InvalidInboxPayloadException("messageId no numérico en un payload de referencia: " + value));
+    }
+
+    /**
+     * Convierte un payload completo en el mensaje a persistir
+     *
+     * @param payload Valor del record de Kafka
+     * @param receivedAt Timestamp del record, fecha del mensaje si el payload no trae createdAt
+     *                   (así una reentrega conserva la misma fecha)
+     * @return Mensaje con sus destinatarios y adjuntos
+     * @throws InvalidInboxPayloadException si falta messageId, algún ID de usuario no es numérico
+     *         o algún adjunto no trae filePath y fileName
+     */
+    public static IncomingInboxMessage toIncomingMessage(Object payload, Instant receivedAt) {
+        if (isReference(payload)) {
+            throw new InvalidInboxPayloadException("El payload no trae " + FIELD_RECIPIENT_IDS);
+        }
+        GenericRecord record = (GenericRecord) payload;
+        if (!(record.get(FIELD_RECIPIENT_IDS) instanceof List<?> rawRecipients) || rawRecipients.isEmpty()) {
+            throw new InvalidInboxPayloadException(FIELD_RECIPIENT_IDS + " vacío o ausente");
+        }
+        String eventKey = text(field(record, FIELD_MESSAGE_ID));
+        if (eventKey == null || eventKey.isBlank()) {
+            throw new InvalidInboxPayloadException(FIELD_MESSAGE_ID + " ausente");
+        }
+        Object rawSender = field(record, FIELD_SENDER_ID);
+        Long senderId = toInteger(rawSender).orElseThrow(() ->
+                new InvalidInboxPayloadException(FIELD_SENDER_ID + " no numérico: " + rawSender));
+
+        List<Integer> recipientIds = new ArrayList<>(rawRecipients.size());
+        for (Object rawRecipient : rawRecipients) {
+            recipientIds.add(toInteger(rawRecipient).orElseThrow(() ->
+                    new InvalidInboxPayloadException(FIELD_RECIPIENT_IDS + " con un ID no numérico: " + rawRecipient))
+                    .intValue());
+        }
+
+        List<IncomingInboxMessage.Attachment> attachments = new ArrayList<>();
+        if (field(record, FIELD_ATTACHMENTS) instanceof List<?> rawAttachments) {
+            for (Object rawAttachment : rawAttachments) {
+                attachments.add(toAttachment(rawAttachment));
+            }
+        }
+
+        return new IncomingInboxMessage(
+                eventKey,
+                senderId.intValue(),
+                text(field(record, FIELD_SUBJECT)),
+                text(field(record, FIELD_BODY)),
+                toOffsetDateTime(field(record, FIELD_CREATED_AT), receivedAt),
+                recipientIds,
+                attachments);
+    }
+
+    private static Object field(GenericRecord record, String name) {
+        return record.hasField(name) ? record.get(name) : null;
+    }
+
+    /**
+     * Un adjunto sin ruta o sin nombre rechaza el mensaje completo: persistirlo sin él perdería el archivo
+     */
+    private static IncomingInboxMessage.Attachment toAttachment(Object rawAttachment) {
+        if (!(rawAttachment instanceof GenericRecord attachment)) {
+            throw new InvalidInboxPayloadException(FIELD_ATTACHMENTS + " con un elemento que no es un record: " + rawAttachment);
+        }
+        String path = text(field(attachment, FIELD_ATTACHMENT_PATH));
+        String name = text(field(attachment, FIELD_ATTACHMENT_NAME));
+        if (path == null || path.isBlank() || name == null || name.isBlank()) {
+            throw new InvalidInboxPayloadException("Adjunto sin " + FIELD_ATTACHMENT_PATH + " o "
+                    + FIELD_ATTACHMENT_NAME + ": " + attachment);
+        }
+        return new IncomingInboxMessage.Attachment(path, name, text(field(attachment, FIELD_ATTACHMENT_TYPE)));
+    }
+
+    private static String text(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * createdAt del esquema es epoch en milisegundos; sin fecha se usa la del record
+     */
+    private static OffsetDateTime toOffsetDateTime(Object value, Instant receivedAt) {
+        if (value instanceof Number millis) {
+            return Instant.ofEpochMilli(millis.longValue()).atOffset(ZoneOffset.UTC);
+        }
+        if (value instanceof Instant instant) {
+            return instant.atOffset(ZoneOffset.UTC);
+        }
+        return (receivedAt != null ? receivedAt : Instant.now()).atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * ID de usuario: numérico y dentro del rango de int (columnas sender_id y recipient_id)
+     */
+    private static Optional<Long> toInteger(Object value) {
+        return toLong(value).filter(id -> id >= Integer.MIN_VALUE && id <= Integer.MAX_VALUE);
+    }
+
+    private static Optional<Long> toLong(Object value) {
+        if (value instanceof Number number) {
+            return Optional.of(number.longValue());
+        }
+        if (value instanceof CharSequence text) {
+            try {
+                return Optional.of(Long.parseLong(text.toString().trim()));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+}
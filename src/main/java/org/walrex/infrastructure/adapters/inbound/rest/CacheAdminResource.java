@@ -0,0 +1,161 @@
+package org.walrex.infrastructure.adapters.inbound.rest;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+import org.walrex.application.ports.input.InspectCacheUseCase;
+import org.walrex.infrastructure.adapters.inbound.rest.MessageInboxResource.ErrorResponse;
+import org.walrex.infrastructure.adapters.inbound.rest.response.CacheKeyResponse;
+import org.walrex.infrastructure.adapters.inbound.rest.response.CacheStatsResponse;
+import org.walrex.infrastructure.adapters.outbound.cache.exception.CacheUnavailableException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * REST Resource de administración del cache
+ * Endpoint: /admin/cache (solo con cache.admin.enabled; las claves incluyen IDs de usuario)
+ *
+ * Cada petición debe traer el token de cache.admin.token en la cabecera X-Admin-Token (401 si no coincide);
+ * sin token configurado el endpoint responde 404 aunque esté habilitado
+ *
+ * Las métricas completas (latencias por operación, histogramas) se exponen en /q/metrics;
+ * este endpoint resume el hit ratio de la instancia y las claves que más memoria ocupan en Redis
+ */
+@Path("/admin/cache")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Cache Admin", description = "Inspección de la efectividad y el uso de memoria del cache")
+public class CacheAdminResource {
+
+    private static final Logger LOG = Logger.getLogger(CacheAdminResource.class);
+
+    @Inject
+    InspectCacheUseCase inspectCacheUseCase;
+
+    @ConfigProperty(name = "cache.admin.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "cache.admin.token")
+    Optional<String> adminToken;
+
+    /**
+     * Efectividad de cada cache en esta instancia
+     *
+     * @return Estado de Redis y estadísticas por cache
+     */
+    @GET
+    @Path("/stats")
+    @Operation(summary = "Estadísticas del cache",
+            description = "Hit ratio, escrituras, invalidaciones, fallos de decodificación y tamaño medio de los valores " +
+                    "de cada cache (page, detail, index) desde el inicio de la instancia que atiende la petición.")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Estadísticas obtenidas"),
+            @APIResponse(responseCode = "401", description = "Token de administración ausente o inválido"),
+            @APIResponse(responseCode = "404", description = "Endpoint de administración deshabilitado")
+    })
+    public Response getStats(
+            @Parameter(description = "Token de administración (cache.admin.token)", required = true)
+            @HeaderParam("X-Admin-Token")
+            String token) {
+        Response denied = authorize(token);
+        if (denied != null) {
+            return denied;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("redis_available", inspectCacheUseCase.isRedisAvailable());
+        body.put("caches", inspectCacheUseCase.getStats().stream()
+                .map(CacheStatsResponse::fromDomain)
+                .toList());
+        return Response.ok(body).build();
+    }
+
+    /**
+     * Claves del cache que más memoria ocupan en Redis (sobre una muestra del keyspace)
+     * En Redis Cluster la muestra sale de un solo nodo; la respuesta lo indica en scan_scope
+     *
+     * @param token Token de administración
+     * @param top Número de claves a devolver
+     * @return Alcance de la muestra y claves de mayor a menor tamaño
+     */
+    @GET
+    @Path("/keys")
+    @Operation(summary = "Claves más grandes del cache",
+            description = "Recorre con SCAN una muestra acotada (cache.admin.scan-limit) de las claves del servicio " +
+                    "y devuelve las que más memoria ocupan según MEMORY USAGE, con su TTL restante. En Redis Cluster " +
+                    "el SCAN recorre un solo nodo (scan_scope = single-node): el ranking no cubre el resto del cluster.")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Claves obtenidas"),
+            @APIResponse(responseCode = "401", description = "Token de administración ausente o inválido"),
+            @APIResponse(responseCode = "404", description = "Endpoint de administración deshabilitado"),
+            @APIResponse(responseCode = "503", description = "Redis no disponible (circuito abierto)")
+    })
+    public Uni<Response> getLargestKeys(
+            @Parameter(description = "Token de administración (cache.admin.token)", required = true)
+            @HeaderParam("X-Admin-Token")
+            String token,
+            @Parameter(description = "Número de claves a devolver", example = "20")
+            @QueryParam("top")
+            @DefaultValue("20")
+            int top) {
+        Response denied = authorize(token);
+        if (denied != null) {
+            return Uni.createFrom().item(denied);
+        }
+        return inspectCacheUseCase.getLargestKeys(top)
+                .map(keys -> {
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("scan_scope", inspectCacheUseCase.isKeyScanSingleNode() ? "single-node" : "keyspace");
+                    body.put("keys", keys.stream().map(CacheKeyResponse::fromDomain).toList());
+                    return Response.ok(body).build();
+                })
+                .onFailure().recoverWithItem(throwable -> {
+                    if (throwable instanceof CacheUnavailableException) {
+                        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                                .entity(new ErrorResponse("Redis unavailable"))
+                                .build();
+                    }
+                    LOG.errorf(throwable, "[CacheAdminResource] Error al consultar las claves más grandes del cache");
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity(new ErrorResponse("Internal server error"))
+                            .build();
+                });
+    }
+
+    /**
+     * Comprueba que el endpoint esté habilitado y que la petición traiga el token de administración
+     * La comparación es de tiempo constante para no filtrar el token por latencia
+     *
+     * @return null si la petición está autorizada; si no, la respuesta de rechazo
+     */
+    private Response authorize(String token) {
+        if (!enabled || adminToken.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        if (token == null || !MessageDigest.isEqual(
+                adminToken.get().getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            LOG.warnf("[CacheAdminResource] Petición de administración rechazada: token %s",
+                    token == null ? "ausente" : "inválido");
+            return Response.status(Response.Status.UNAUTHORIZED)
+                    .entity(new ErrorResponse("Invalid admin token"))
+                    .build();
+        }
+        return null;
+    }
+}
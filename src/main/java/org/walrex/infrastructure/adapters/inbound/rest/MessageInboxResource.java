@@ -2,6 +2,7 @@ package org.walrex.infrastructure.adapters.inbound.rest;
 
 import io.quarkus.hibernate.reactive.panache.common.WithSession;
 import io.quarkus.panache.common.Page;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -15,8 +16,13 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import org.jboss.resteasy.reactive.common.util.RestMediaType;
 import org.walrex.application.ports.input.GetMessageByIdUseCase;
 import org.walrex.application.ports.input.GetMessagePaginationUseCase;
+import org.walrex.domain.model.InboxCursor;
+import org.walrex.domain.model.MessageInboxItem;
+import org.walrex.domain.model.PagedResult;
 import org.walrex.domain.model.dto.MessageInboxItemDTO;
 import org.walrex.domain.model.dto.MessageInfo;
 import org.walrex.infrastructure.adapters.inbound.rest.dto.PagedResponse;
@@ -39,6 +45,8 @@ public class MessageInboxResource {
 
     private static final Logger LOG = Logger.getLogger(MessageInboxResource.class);
 
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 20;
+
     @Inject
     GetMessagePaginationUseCase getMessagePaginationUseCase;
 
@@ -52,12 +60,20 @@ public class MessageInboxResource {
      * @param page Número de página (basado en 0), opcional
      * @param number Número de registros por página, opcional
      * @param search Término de búsqueda opcional (no implementado aún)
+     * @param after Cursor opaco (next_cursor de la respuesta anterior) para paginación keyset, opcional
+     * @param exactTotal false para omitir el conteo total (total_elements pasa a ser una cota inferior);
+     *                   si no se envía se cuenta en la paginación por offset y no en la keyset
      * @return Respuesta paginada con los mensajes del inbox
      */
     @GET
     @Operation(
         summary = "Obtener mensajes del inbox",
-        description = "Retorna los mensajes del inbox del usuario con paginación opcional. El ID del usuario se obtiene del header X-User-Id."
+        description = "Retorna los mensajes del inbox del usuario con paginación opcional. El ID del usuario se obtiene del header X-User-Id. " +
+            "Para recorrer inboxes grandes use el parámetro 'after' con el valor next_cursor de la respuesta anterior (paginación keyset). " +
+            "Con exact_total=false no se cuenta el total: total_elements es una cota inferior y total_exact indica si es exacto. " +
+            "Si exact_total no se envía se cuenta en la paginación por offset, pero no en las páginas keyset (after). " +
+            "Para obtener el inbox completo sin paginación en inboxes grandes envíe Accept: application/x-ndjson " +
+            "(o use GET /message-inbox/stream): los mensajes se emiten en streaming. El listado sin paginación en JSON no se cachea."
     )
     @APIResponses(
         value = {
@@ -96,10 +112,19 @@ public class MessageInboxResource {
         @Parameter(description = "Término de búsqueda", example = "")
         @QueryParam("search")
         @DefaultValue("")
-        String search
+        String search,
+
+        @Parameter(description = "Cursor opaco de la página anterior (next_cursor) para paginación keyset")
+        @QueryParam("after")
+        String after,
+
+        @Parameter(description = "Calcular el total exacto de elementos (false evita el conteo en inboxes grandes). " +
+            "Por defecto true con paginación por offset y false con 'after'", example = "true")
+        @QueryParam("exact_total")
+        Boolean exactTotal
     ) {
-        LOG.infof("[MessageInboxResource] ⬇️  REQUEST - GET /api/message-inbox - userId: %s, page: %s, size: %s, search: '%s'",
-                  userId, page, number, search);
+        LOG.infof("[MessageInboxResource] ⬇️  REQUEST - GET /api/message-inbox - userId: %s, page: %s, size: %s, search: '%s', after: %s, exactTotal: %s",
+                  userId, page, number, search, after, exactTotal);
 
         // 1. Validar que el userId esté presente en el header
         if (userId == null || userId.trim().isEmpty()) {
@@ -124,7 +149,12 @@ public class MessageInboxResource {
             );
         }
 
-        // 3. Crear objeto Page si page y number no son null
+        // 3. Modo keyset: si se envía un cursor se ignora la paginación por offset
+        if (after != null && !after.isBlank()) {
+            return getMessageInboxAfter(userIdInt, after, page, number, Boolean.TRUE.equals(exactTotal));
+        }
+
+        // 4. Crear objeto Page si page y number no son null
         Optional<Page> pageOptional = Optional.empty();
         if (page != null && number != null) {
             // Validar parámetros de paginación
@@ -152,10 +182,10 @@ public class MessageInboxResource {
             LOG.info("[MessageInboxResource] ✅ Validación exitosa - Sin paginación (retornará todos los mensajes)");
         }
 
-        // 4. Llamar al caso de uso
+        // 5. Llamar al caso de uso
         LOG.debugf("[MessageInboxResource] Delegando a GetMessagePaginationUseCase - userId: %d", userIdInt);
 
-        return getMessagePaginationUseCase.getMessageByUser(userIdInt, pageOptional)
+        return getMessagePaginationUseCase.getMessageByUser(userIdInt, pageOptional, !Boolean.FALSE.equals(exactTotal))
             .map(pagedResult -> {
                 LOG.debugf("[MessageInboxResource] Respuesta recibida del caso de uso - userId: %d, elementos: %d, total: %d",
                         (Object) userIdInt, (Object) pagedResult.getData().size(), (Object) pagedResult.getTotalElements());
@@ -171,6 +201,8 @@ public class MessageInboxResource {
                     .page(pagedResult.getPage())
                     .size(pagedResult.getSize())
                     .totalElements(pagedResult.getTotalElements())
+                    .nextCursor(pagedResult.getNextCursor())
+                    .totalExact(pagedResult.isTotalExact())
                     .build();
 
                 LOG.infof("[MessageInboxResource] ⬆️  RESPONSE 200 OK - userId: %d, elementos retornados: %d, página: %d de %d",
@@ -187,6 +219,185 @@ public class MessageInboxResource {
             });
     }
 
+    /**
+     * Atiende el listado del inbox en modo keyset (parámetro "after")
+     * El tamaño de página se toma de "number" (20 por defecto); "page" no puede combinarse con el cursor
+     *
+     * @param userIdInt ID del usuario ya validado
+     * @param after Cursor opaco recibido del cliente
+     * @param page Número de página (debe ser null en modo keyset)
+     * @param number Número de registros por página, opcional
+     * @param exactTotal true para contar el total (solo si el cliente lo pidió explícitamente)
+     * @return Respuesta paginada con el cursor de la página siguiente
+     */
+    private Uni<Response> getMessageInboxAfter(Integer userIdInt, String after, Integer page, Integer number,
+                                               boolean exactTotal) {
+        if (page != null) {
+            LOG.errorf("[MessageInboxResource] ❌ Validación fallida - 'page' y 'after' no pueden combinarse");
+            return Uni.createFrom().item(
+                Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Parameters 'page' and 'after' cannot be combined"))
+                    .build()
+            );
+        }
+
+        int size = number != null ? number : DEFAULT_CURSOR_PAGE_SIZE;
+        if (size <= 0 || size > 100) {
+            LOG.errorf("[MessageInboxResource] ❌ Validación fallida - Tamaño de página inválido: %d (debe estar entre 1 y 100)", size);
+            return Uni.createFrom().item(
+                Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Page size must be between 1 and 100"))
+                    .build()
+            );
+        }
+
+        InboxCursor cursor;
+        try {
+            cursor = InboxCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            LOG.errorf("[MessageInboxResource] ❌ Validación fallida - Cursor inválido: %s", after);
+            return Uni.createFrom().item(
+                Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid cursor"))
+                    .build()
+            );
+        }
+
+        LOG.infof("[MessageInboxResource] ✅ Validación exitosa - Paginación keyset: after=%s, size=%d", cursor, size);
+
+        return getMessagePaginationUseCase.getMessageByUserAfter(userIdInt, cursor, size, exactTotal)
+            .map(pagedResult -> {
+                PagedResponse<MessageInboxItemDTO> response = toKeysetResponse(pagedResult);
+
+                LOG.infof("[MessageInboxResource] ⬆️  RESPONSE 200 OK - userId: %d, elementos retornados: %d, hasNext: %s",
+                        userIdInt, response.getData().size(), response.isHasNext());
+
+                return Response.ok(response).build();
+            })
+            .onFailure().recoverWithItem(throwable -> {
+                LOG.errorf(throwable, "[MessageInboxResource] ❌ ERROR 500 - Error al obtener mensajes por cursor para usuario: %d", userIdInt);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Error fetching messages: " + throwable.getMessage()))
+                    .build();
+            });
+    }
+
+    /**
+     * Mapea un resultado keyset (dominio) a la respuesta paginada REST
+     *
+     * Solo se usa cuando la petición trae cursor, por lo que siempre existe una página anterior
+     *
+     * @param pagedResult Resultado keyset del caso de uso
+     * @return Respuesta con has_next derivado del cursor siguiente y has_previous = true
+     */
+    private PagedResponse<MessageInboxItemDTO> toKeysetResponse(PagedResult<MessageInboxItem> pagedResult) {
+        var messageDTOs = pagedResult.getData().stream()
+            .map(MessageInboxItemDTO::fromDomain)
+            .collect(Collectors.toList());
+
+        return PagedResponse.<MessageInboxItemDTO>builder()
+            .data(messageDTOs)
+            .page(pagedResult.getPage())
+            .size(pagedResult.getSize())
+            .totalElements(pagedResult.getTotalElements())
+            .nextCursor(pagedResult.getNextCursor())
+            .hasNext(pagedResult.hasNext())
+            .hasPrevious(true)
+            .totalExact(pagedResult.isTotalExact())
+            .build();
+    }
+
+    /**
+     * Negociación de contenido sobre GET /message-inbox: con Accept: application/x-ndjson el inbox completo
+     * se emite en streaming igual que en GET /message-inbox/stream en lugar de armar un listado en memoria
+     *
+     * @param userId ID del usuario desde el header X-User-Id
+     * @return Stream de mensajes del inbox en orden de más reciente a más antiguo
+     */
+    @GET
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(
+        summary = "Obtener el inbox completo en streaming (Accept: application/x-ndjson)",
+        description = "Misma respuesta que GET /message-inbox/stream, seleccionada por la cabecera Accept."
+    )
+    public Multi<MessageInboxItemDTO> getMessageInboxAsStream(
+        @Parameter(description = "ID del usuario (enviado por el API Gateway)", required = true)
+        @HeaderParam("X-User-Id")
+        String userId
+    ) {
+        return streamMessageInbox(userId);
+    }
+
+    /**
+     * Emite el inbox completo del usuario como NDJSON (un mensaje JSON por línea)
+     * Alternativa al listado sin paginación para inboxes grandes: las filas se escriben a medida
+     * que llegan de la BD, por lo que el heap no crece con el tamaño del inbox y el primer byte
+     * sale sin esperar a la última fila. Si el cliente se desconecta se cancela la consulta
+     *
+     * @param userId ID del usuario desde el header X-User-Id
+     * @return Stream de mensajes del inbox en orden de más reciente a más antiguo
+     */
+    @GET
+    @Path("/stream")
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(
+        summary = "Obtener el inbox completo en streaming",
+        description = "Retorna todos los mensajes del inbox como application/x-ndjson, un objeto JSON por línea, " +
+            "sin cargar el inbox completo en memoria. El ID del usuario se obtiene del header X-User-Id."
+    )
+    @APIResponses(
+        value = {
+            @APIResponse(
+                responseCode = "200",
+                description = "Stream de mensajes",
+                content = @Content(
+                    mediaType = RestMediaType.APPLICATION_NDJSON,
+                    schema = @Schema(implementation = MessageInboxItemDTO.class)
+                )
+            ),
+            @APIResponse(
+                responseCode = "400",
+                description = "Parámetros inválidos (user ID ausente o formato incorrecto)"
+            )
+        }
+    )
+    public Multi<MessageInboxItemDTO> streamMessageInbox(
+        @Parameter(description = "ID del usuario (enviado por el API Gateway)", required = true)
+        @HeaderParam("X-User-Id")
+        String userId
+    ) {
+        LOG.infof("[MessageInboxResource] ⬇️  REQUEST - GET /api/message-inbox/stream - userId: %s", userId);
+
+        // 1. Validar el header antes de abrir el stream: una vez enviado el 200 ya no se puede cambiar el status
+        if (userId == null || userId.trim().isEmpty()) {
+            LOG.error("[MessageInboxResource] ❌ Validación fallida - Header X-User-Id ausente");
+            throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
+                .entity(new ErrorResponse("Missing X-User-Id header"))
+                .type(MediaType.APPLICATION_JSON)
+                .build());
+        }
+
+        Integer userIdInt;
+        try {
+            userIdInt = Integer.parseInt(userId);
+        } catch (NumberFormatException e) {
+            LOG.errorf("[MessageInboxResource] ❌ Validación fallida - Formato de userId inválido: %s", userId);
+            throw new BadRequestException(Response.status(Response.Status.BAD_REQUEST)
+                .entity(new ErrorResponse("Invalid user ID format"))
+                .type(MediaType.APPLICATION_JSON)
+                .build());
+        }
+
+        // 2. Delegar al caso de uso y mapear cada elemento a DTO a medida que llega
+        return getMessagePaginationUseCase.streamMessageByUser(userIdInt)
+            .map(MessageInboxItemDTO::fromDomain)
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[MessageInboxResource] ❌ ERROR - Stream interrumpido para usuario: %d", userIdInt)
+            );
+    }
+
     /**
      * Obtiene el detalle de un mensaje específico
      *
@@ -232,7 +443,7 @@ public class MessageInboxResource {
 
         @Parameter(description = "ID del mensaje", required = true, example = "12345")
         @PathParam("id_message")
-        Integer idMessage
+        Long idMessage
     ) {
         LOG.infof("[MessageInboxResource] ⬇️  REQUEST - GET /api/message-inbox/%d - userId: %s", idMessage, userId);
 
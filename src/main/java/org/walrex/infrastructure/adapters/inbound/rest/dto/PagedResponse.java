@@ -1,5 +1,6 @@
 package org.walrex.infrastructure.adapters.inbound.rest.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
@@ -32,6 +33,13 @@ public class PagedResponse<T> {
     @JsonProperty("has_previous")
     private boolean hasPrevious;
 
+    @JsonProperty("total_exact")
+    private boolean totalExact = true;
+
+    @JsonProperty("next_cursor")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     // Constructor vacío
     public PagedResponse() {
     }
@@ -57,6 +65,10 @@ public class PagedResponse<T> {
         private int page;
         private int size;
         private long totalElements;
+        private String nextCursor;
+        private Boolean hasNext;
+        private Boolean hasPrevious;
+        private boolean totalExact = true;
 
         public Builder<T> data(List<T> data) {
             this.data = data;
@@ -78,8 +90,49 @@ public class PagedResponse<T> {
             return this;
         }
 
+        /**
+         * Cursor opaco para pedir la página siguiente con el parámetro "after"
+         */
+        public Builder<T> nextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+            return this;
+        }
+
+        /**
+         * Sobrescribe has_next cuando no se puede derivar de page/total (modo keyset)
+         */
+        public Builder<T> hasNext(boolean hasNext) {
+            this.hasNext = hasNext;
+            return this;
+        }
+
+        /**
+         * Sobrescribe has_previous cuando no se puede derivar de page (modo keyset)
+         */
+        public Builder<T> hasPrevious(boolean hasPrevious) {
+            this.hasPrevious = hasPrevious;
+            return this;
+        }
+
+        /**
+         * Indica si total_elements es exacto o una cota inferior (modo sin conteo)
+         */
+        public Builder<T> totalExact(boolean totalExact) {
+            this.totalExact = totalExact;
+            return this;
+        }
+
         public PagedResponse<T> build() {
-            return new PagedResponse<>(data, page, size, totalElements);
+            PagedResponse<T> response = new PagedResponse<>(data, page, size, totalElements);
+            response.setNextCursor(nextCursor);
+            response.setTotalExact(totalExact);
+            if (hasNext != null) {
+                response.setHasNext(hasNext);
+            }
+            if (hasPrevious != null) {
+                response.setHasPrevious(hasPrevious);
+            }
+            return response;
         }
     }
 
@@ -146,4 +199,20 @@ public class PagedResponse<T> {
     public void setHasPrevious(boolean hasPrevious) {
         this.hasPrevious = hasPrevious;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
+    public void setTotalExact(boolean totalExact) {
+        this.totalExact = totalExact;
+    }
 }
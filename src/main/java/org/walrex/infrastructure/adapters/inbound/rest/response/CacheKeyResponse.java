@@ -0,0 +1,34 @@
+package org.walrex.infrastructure.adapters.inbound.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.walrex.domain.model.CacheKeyUsage;
+
+/**
+ * DTO de respuesta con la memoria que ocupa una clave del cache en Redis
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Clave del cache y memoria que ocupa en Redis")
+public class CacheKeyResponse {
+
+    @JsonProperty("key")
+    @Schema(description = "Clave de Redis", example = "msg-svc-1001-list-g3-5f2b...")
+    private String key;
+
+    @JsonProperty("bytes")
+    @Schema(description = "Memoria ocupada según MEMORY USAGE", example = "18432")
+    private long bytes;
+
+    @JsonProperty("ttl_seconds")
+    @Schema(description = "Segundos hasta la expiración (-1 sin expiración)", example = "420")
+    private long ttlSeconds;
+
+    public static CacheKeyResponse fromDomain(CacheKeyUsage usage) {
+        return new CacheKeyResponse(usage.getKey(), usage.getBytes(), usage.getTtlSeconds());
+    }
+}
@@ -0,0 +1,68 @@
+package org.walrex.infrastructure.adapters.inbound.rest.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.walrex.domain.model.CacheStats;
+
+/**
+ * DTO de respuesta con la efectividad de un cache en la instancia que atiende la petición
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Efectividad de un cache desde el inicio de la instancia")
+public class CacheStatsResponse {
+
+    @JsonProperty("cache")
+    @Schema(description = "Cache (page, detail, index)", example = "page")
+    private String cache;
+
+    @JsonProperty("hit_ratio")
+    @Schema(description = "Lecturas servidas por el cache sobre el total (0 a 1)", example = "0.93")
+    private double hitRatio;
+
+    @JsonProperty("hits")
+    @Schema(description = "Lecturas servidas por el cache (L1 y Redis)", example = "15230")
+    private long hits;
+
+    @JsonProperty("stale_hits")
+    @Schema(description = "Lecturas servidas vencidas mientras se refrescaban en segundo plano", example = "120")
+    private long staleHits;
+
+    @JsonProperty("negative_hits")
+    @Schema(description = "Lecturas respondidas como inexistentes por el cache negativo", example = "40")
+    private long negativeHits;
+
+    @JsonProperty("misses")
+    @Schema(description = "Lecturas que consultaron la BD", example = "1100")
+    private long misses;
+
+    @JsonProperty("sets")
+    @Schema(description = "Escrituras en Redis", example = "1090")
+    private long sets;
+
+    @JsonProperty("invalidations")
+    @Schema(description = "Invalidaciones (usuarios, claves o lotes de la ingesta)", example = "350")
+    private long invalidations;
+
+    @JsonProperty("decode_failures")
+    @Schema(description = "Valores de Redis que no se pudieron decodificar (tratados como MISS)", example = "0")
+    private long decodeFailures;
+
+    @JsonProperty("mean_read_bytes")
+    @Schema(description = "Tamaño medio de los valores leídos de Redis", example = "4210.5")
+    private double meanReadBytes;
+
+    @JsonProperty("mean_write_bytes")
+    @Schema(description = "Tamaño medio de los valores escritos en Redis", example = "4180.2")
+    private double meanWriteBytes;
+
+    public static CacheStatsResponse fromDomain(CacheStats stats) {
+        return new CacheStatsResponse(stats.getCache(), stats.getHitRatio(), stats.getHits(), stats.getStaleHits(),
+                stats.getNegativeHits(), stats.getMisses(), stats.getSets(), stats.getInvalidations(),
+                stats.getDecodeFailures(), stats.getMeanReadBytes(), stats.getMeanWriteBytes());
+    }
+}
@@ -19,7 +19,7 @@ public class MessageDetailResponse {
 
     @JsonProperty("id_message")
     @Schema(description = "ID del mensaje", example = "12345")
-    private Integer idMessage;
+    private Long idMessage;
 
     @JsonProperty("asunto")
     @Schema(description = "Asunto del mensaje", example = "Reunión de equipo")
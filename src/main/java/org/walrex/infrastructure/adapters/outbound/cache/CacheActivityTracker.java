@@ -0,0 +1,92 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Niveles de TTL de las páginas según la actividad reciente de cada usuario
+ *
+ * Cuenta en memoria las lecturas de inbox por usuario en una ventana (cache.activity.window, contador que
+ * nace con la primera lectura y expira con la ventana) y elige el TTL duro de lo que se cachea:
+ * - hot (>= hot-threshold lecturas): hot-ttl, para los usuarios que generan la carga
+ * - cold (< cold-threshold lecturas): cold-ttl; 0 no cachea a los usuarios casi inactivos
+ * - resto: cache.page.hard-ttl
+ *
+ * Cada instancia ve solo su parte del tráfico: los umbrales son por instancia
+ */
+@ApplicationScoped
+public class CacheActivityTracker {
+
+    private static final Logger LOG = Logger.getLogger(CacheActivityTracker.class);
+
+    /**
+     * Máximo de usuarios con contador en memoria (los menos usados se descartan primero)
+     */
+    private static final long MAX_TRACKED_USERS = 100_000;
+
+    private final boolean enabled;
+    private final int hotThreshold;
+    private final int coldThreshold;
+    private final Duration hotTtl;
+    private final Duration coldTtl;
+    private final Cache<Integer, AtomicInteger> reads;
+
+    @Inject
+    public CacheActivityTracker(
+            @ConfigProperty(name = "cache.activity.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "cache.activity.window", defaultValue = "10m") Duration window,
+            @ConfigProperty(name = "cache.activity.hot-threshold", defaultValue = "20") int hotThreshold,
+            @ConfigProperty(name = "cache.activity.cold-threshold", defaultValue = "2") int coldThreshold,
+            @ConfigProperty(name = "cache.activity.hot-ttl", defaultValue = "30m") Duration hotTtl,
+            @ConfigProperty(name = "cache.activity.cold-ttl", defaultValue = "2m") Duration coldTtl) {
+        this.enabled = enabled;
+        this.hotThreshold = hotThreshold;
+        this.coldThreshold = coldThreshold;
+        this.hotTtl = hotTtl;
+        this.coldTtl = coldTtl;
+        this.reads = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_USERS)
+                .expireAfterWrite(window)
+                .build();
+        LOG.infof("[CacheActivityTracker] TTL por actividad %s - ventana: %s, hot >= %d lecturas (%s), cold < %d lecturas (%s)",
+                enabled ? "habilitado" : "deshabilitado", window, hotThreshold, hotTtl, coldThreshold, coldTtl);
+    }
+
+    /**
+     * Registra una lectura del inbox del usuario
+     */
+    public void recordRead(Integer userId) {
+        if (enabled) {
+            reads.get(userId, id -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    /**
+     * TTL duro para una página del usuario según su nivel de actividad
+     *
+     * @param userId ID del usuario
+     * @param defaultTtl TTL del nivel intermedio (cache.page.hard-ttl)
+     * @return TTL a aplicar; Duration.ZERO si no debe cachearse
+     */
+    public Duration ttlFor(Integer userId, Duration defaultTtl) {
+        if (!enabled) {
+            return defaultTtl;
+        }
+        AtomicInteger counter = reads.getIfPresent(userId);
+        int count = counter == null ? 0 : counter.get();
+        if (count >= hotThreshold) {
+            return hotTtl;
+        }
+        if (count < coldThreshold) {
+            return coldTtl;
+        }
+        return defaultTtl;
+    }
+}
@@ -0,0 +1,38 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+/**
+ * Codec de los valores guardados en Redis
+ * Cada valor codificado empieza con un byte de versión de formato; al decodificar, un valor
+ * escrito con otro formato (o con una versión anterior) se trata como MISS en lugar de fallar
+ */
+public interface CacheCodec {
+
+    /**
+     * Nombre del formato (json, smile, cbor), usado en la configuración y en logs
+     */
+    String name();
+
+    /**
+     * Byte de versión que identifica el formato de los valores codificados
+     */
+    byte formatVersion();
+
+    /**
+     * Codifica un valor anteponiendo el byte de versión de formato
+     *
+     * @param value Valor a codificar
+     * @return Bytes a guardar en Redis
+     */
+    byte[] encode(Object value);
+
+    /**
+     * Decodifica un valor leído de Redis
+     *
+     * @param bytes Bytes leídos de Redis
+     * @param type Tipo Jackson del valor (p. ej. PagedResult&lt;MessageInboxItem&gt;)
+     * @return Valor decodificado o null si el formato no coincide o los datos están corruptos
+     */
+    <V> V decode(byte[] bytes, JavaType type);
+}
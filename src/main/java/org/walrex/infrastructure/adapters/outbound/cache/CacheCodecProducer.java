@@ -0,0 +1,50 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Produce el CacheCodec configurado con cache.codec (json, smile o cbor)
+ * Los formatos binarios parten del ObjectMapper de la aplicación (mismos módulos, p. ej. java.time)
+ * y escriben las fechas como timestamp numérico en lugar de texto ISO
+ */
+@ApplicationScoped
+public class CacheCodecProducer {
+
+    private static final Logger LOG = Logger.getLogger(CacheCodecProducer.class);
+
+    /**
+     * Versiones de formato: 1-3 guardaban el PagedResult directamente,
+     * 4-6 lo guardan envuelto en CachedPage (con TTL blando y delta de XFetch)
+     */
+    static final byte JSON_FORMAT_VERSION = 4;
+    static final byte SMILE_FORMAT_VERSION = 5;
+    static final byte CBOR_FORMAT_VERSION = 6;
+
+    @Produces
+    @ApplicationScoped
+    CacheCodec cacheCodec(ObjectMapper objectMapper,
+                          @ConfigProperty(name = "cache.codec", defaultValue = "smile") String codec) {
+        CacheCodec cacheCodec = switch (codec.trim().toLowerCase()) {
+            case "json" -> new JacksonCacheCodec("json", JSON_FORMAT_VERSION, objectMapper);
+            case "smile" -> new JacksonCacheCodec("smile", SMILE_FORMAT_VERSION, binaryMapper(objectMapper, new SmileFactory()));
+            case "cbor" -> new JacksonCacheCodec("cbor", CBOR_FORMAT_VERSION, binaryMapper(objectMapper, new CBORFactory()));
+            default -> throw new IllegalArgumentException("Unsupported cache.codec: " + codec + " (json, smile, cbor)");
+        };
+        LOG.infof("[CacheCodecProducer] Codec de cache: %s (versión de formato %d)",
+                cacheCodec.name(), cacheCodec.formatVersion());
+        return cacheCodec;
+    }
+
+    private static ObjectMapper binaryMapper(ObjectMapper base, JsonFactory factory) {
+        return base.copyWith(factory)
+                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, true);
+    }
+}
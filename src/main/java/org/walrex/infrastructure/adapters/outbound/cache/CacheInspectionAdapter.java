@@ -0,0 +1,132 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.keys.KeyScanArgs;
+import io.quarkus.redis.datasource.keys.ReactiveKeyCommands;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.walrex.application.ports.output.CacheInspectionPort;
+import org.walrex.domain.model.CacheKeyUsage;
+import org.walrex.domain.model.CacheStats;
+import org.walrex.infrastructure.adapters.outbound.cache.exception.CacheUnavailableException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Adapter de inspección del cache: efectividad desde CacheMetrics y uso de memoria desde Redis
+ *
+ * Las claves más grandes se buscan con SCAN (MATCH msg-svc*) sobre como máximo cache.admin.scan-limit claves
+ * y MEMORY USAGE + TTL de cada una en pipeline; es una muestra, no un recorrido completo del keyspace.
+ * En Redis Cluster el SCAN recorre un solo nodo (el cliente no permite fijar el nodo de cada iteración del cursor):
+ * isKeyScanSingleNode lo indica para que la respuesta de administración lo declare
+ */
+@ApplicationScoped
+public class CacheInspectionAdapter implements CacheInspectionPort {
+
+    private static final Logger LOG = Logger.getLogger(CacheInspectionAdapter.class);
+
+    /**
+     * Claves por iteración de SCAN
+     */
+    private static final long SCAN_COUNT = 1000;
+
+    private final ReactiveKeyCommands<String> keyCommands;
+    private final RedisPipeline pipeline;
+    private final RedisCircuitBreaker breaker;
+    private final CacheKeys cacheKeys;
+    private final CacheMetrics metrics;
+    private final int scanLimit;
+
+    @Inject
+    public CacheInspectionAdapter(
+            ReactiveRedisDataSource redisDataSource,
+            RedisPipeline pipeline,
+            RedisCircuitBreaker breaker,
+            CacheKeys cacheKeys,
+            CacheMetrics metrics,
+            @ConfigProperty(name = "cache.admin.scan-limit", defaultValue = "10000") int scanLimit) {
+        this.keyCommands = redisDataSource.key();
+        this.pipeline = pipeline;
+        this.breaker = breaker;
+        this.cacheKeys = cacheKeys;
+        this.metrics = metrics;
+        this.scanLimit = scanLimit;
+    }
+
+    @Override
+    public List<CacheStats> getStats() {
+        return metrics.caches().stream()
+                .map(cache -> new CacheStats(
+                        cache,
+                        (long) metrics.gets(cache, CacheMetrics.HIT),
+                        (long) metrics.gets(cache, CacheMetrics.STALE),
+                        (long) metrics.gets(cache, CacheMetrics.NEGATIVE),
+                        (long) metrics.gets(cache, CacheMetrics.MISS),
+                        (long) metrics.sets(cache),
+                        (long) metrics.invalidations(cache),
+                        (long) metrics.decodeFailures(cache),
+                        metrics.meanPayloadBytes(cache, "get"),
+                        metrics.meanPayloadBytes(cache, "set")))
+                .toList();
+    }
+
+    @Override
+    public boolean isRedisAvailable() {
+        return !breaker.isOpen();
+    }
+
+    @Override
+    public Uni<List<CacheKeyUsage>> findLargestKeys(int limit) {
+        if (breaker.isOpen()) {
+            return Uni.createFrom().failure(new CacheUnavailableException("Circuito de Redis abierto"));
+        }
+        String pattern = cacheKeys.global() + "*";
+        return keyCommands.scan(new KeyScanArgs().match(pattern).count(SCAN_COUNT))
+                .toMulti()
+                .select().first(scanLimit)
+                .collect().asList()
+                .chain(keys -> {
+                    // Una clave por grupo: en Redis Cluster cada una puede estar en otro slot
+                    List<List<Request>> commands = keys.stream()
+                            .map(key -> List.of(
+                                    Request.cmd(Command.MEMORY).arg("USAGE").arg(key),
+                                    Request.cmd(Command.TTL).arg(key)))
+                            .toList();
+                    return pipeline.execute(commands)
+                            .map(responses -> largest(keys, responses, limit));
+                })
+                .invoke(largest -> LOG.debugf("[CacheInspectionAdapter] Claves más grandes calculadas - muestra máxima: %d, devueltas: %d",
+                        scanLimit, largest.size()));
+    }
+
+    @Override
+    public boolean isKeyScanSingleNode() {
+        return cacheKeys.isCluster();
+    }
+
+    /**
+     * Arma el ranking a partir de las respuestas (MEMORY USAGE, TTL) de cada clave
+     * Una clave que expiró entre el SCAN y el pipeline no tiene tamaño y se omite
+     */
+    private static List<CacheKeyUsage> largest(List<String> keys, List<Response> responses, int limit) {
+        List<CacheKeyUsage> usages = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Response memory = responses.get(i * 2);
+            Response ttl = responses.get(i * 2 + 1);
+            if (memory == null) {
+                continue;
+            }
+            usages.add(new CacheKeyUsage(keys.get(i), memory.toLong(), ttl == null ? -2 : ttl.toLong()));
+        }
+        usages.sort(Comparator.comparingLong(CacheKeyUsage::getBytes).reversed());
+        return usages.size() > limit ? List.copyOf(usages.subList(0, limit)) : usages;
+    }
+}
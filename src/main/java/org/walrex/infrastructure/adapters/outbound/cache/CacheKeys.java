@@ -0,0 +1,77 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Formato de las claves de cache en Redis
+ *
+ * - Standalone (por defecto): msg-svc-{userId}-list-..., el formato histórico
+ * - Redis Cluster (cache.cluster.enabled): msg-svc:{u123}:list:...; el hash tag {u123} hace que todas
+ *   las claves de un usuario (páginas, generación, índice y leases) caigan en el mismo slot, así las
+ *   operaciones multi-clave de un usuario (DEL del índice, pipelines) son válidas en el cluster
+ *   y la carga se reparte entre shards por usuario
+ *
+ * Cambiar de modo cambia todas las claves: las entradas previas dejan de leerse y expiran por TTL
+ */
+@ApplicationScoped
+public class CacheKeys {
+
+    private static final Logger LOG = Logger.getLogger(CacheKeys.class);
+
+    private static final String CACHE_PREFIX = "msg-svc";
+
+    private final boolean cluster;
+    private final String separator;
+
+    @Inject
+    public CacheKeys(@ConfigProperty(name = "cache.cluster.enabled", defaultValue = "false") boolean cluster) {
+        this.cluster = cluster;
+        this.separator = cluster ? ":" : "-";
+        LOG.infof("[CacheKeys] Formato de claves: %s", cluster ? "Redis Cluster (hash tag por usuario)" : "standalone");
+    }
+
+    /**
+     * true si las claves llevan hash tag y los pipelines deben agruparse por slot
+     */
+    public boolean isCluster() {
+        return cluster;
+    }
+
+    /**
+     * Clave de un usuario: msg-svc-{userId}-{partes} o msg-svc:{u{userId}}:{partes}
+     */
+    public String user(Integer userId, Object... parts) {
+        StringBuilder key = new StringBuilder(CACHE_PREFIX).append(separator);
+        if (cluster) {
+            key.append("{u").append(userId).append('}');
+        } else {
+            key.append(userId);
+        }
+        for (Object part : parts) {
+            key.append(separator).append(part);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Prefijo común de las claves de un usuario que empiezan con las partes indicadas (con separador final)
+     */
+    public String userPrefix(Integer userId, Object... parts) {
+        return user(userId, parts) + separator;
+    }
+
+    /**
+     * Clave no asociada a un usuario: msg-svc-{partes} o msg-svc:{partes}
+     * Sin hash tag: el cluster reparte estas claves por su nombre completo
+     */
+    public String global(Object... parts) {
+        StringBuilder key = new StringBuilder(CACHE_PREFIX);
+        for (Object part : parts) {
+            key.append(separator).append(part);
+        }
+        return key.toString();
+    }
+}
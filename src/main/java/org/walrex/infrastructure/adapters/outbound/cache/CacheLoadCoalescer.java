@@ -0,0 +1,59 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicación en proceso (single-flight) de las cargas tras un MISS de cache
+ * Las peticiones concurrentes con la misma clave comparten un único Uni memoizado:
+ * solo la primera ejecuta la carga (BD + SET en Redis) y el resto recibe su mismo resultado
+ *
+ * Es @ApplicationScoped porque MessageCacheAdapter es @Dependent y el mapa de cargas en curso
+ * debe ser único por instancia de la aplicación
+ */
+@ApplicationScoped
+public class CacheLoadCoalescer {
+
+    private static final Logger LOG = Logger.getLogger(CacheLoadCoalescer.class);
+
+    private final ConcurrentMap<String, Uni<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Ejecuta la carga de la clave o se une a la que ya está en curso
+     * La entrada se retira al terminar (con item o con error), por lo que un fallo no queda cacheado
+     * y la siguiente petición vuelve a intentar la carga
+     *
+     * @param key Clave de la carga (la clave versionada de Redis, para no mezclar generaciones)
+     * @param loader Carga a ejecutar si no hay otra en curso
+     * @return Uni compartido con el resultado de la carga
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Uni<V> coalesce(String key, Supplier<Uni<V>> loader) {
+        return Uni.createFrom().deferred(() -> {
+            Uni<?>[] created = new Uni<?>[1];
+            Uni<?> shared = inFlight.computeIfAbsent(key, k -> {
+                Uni<V> load = Uni.createFrom().<V>deferred(loader::get)
+                        .onTermination().invoke(() -> inFlight.remove(k, created[0]))
+                        .memoize().indefinitely();
+                created[0] = load;
+                return load;
+            });
+            if (shared != created[0]) {
+                LOG.debugf("[CacheLoadCoalescer] Carga en curso reutilizada - Key: %s", key);
+            }
+            return (Uni<V>) shared;
+        });
+    }
+
+    /**
+     * Número de cargas en curso (diagnóstico)
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
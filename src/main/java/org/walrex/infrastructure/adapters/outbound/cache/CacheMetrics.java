@@ -0,0 +1,142 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de efectividad del cache (Micrometer, expuestas en /q/metrics)
+ *
+ * - cache.gets{cache, tier, result}: lecturas por nivel (l1, redis) y resultado (hit, stale, miss, negative)
+ * - cache.sets{cache} / cache.invalidations{cache, scope}
+ * - cache.decode.failures{cache}: valores presentes en Redis que no se pudieron decodificar (se tratan como MISS)
+ * - cache.payload.bytes{cache, operation}: tamaño de los valores leídos (get) y escritos (set)
+ * - cache.redis.latency{operation, outcome}: tiempo de ida y vuelta a Redis de cada operación protegida
+ * - cache.redis.rejected{operation}: operaciones omitidas con el circuito abierto
+ *
+ * cache: page (páginas del inbox), detail (detalle compartido), index (índice por usuario)
+ */
+@ApplicationScoped
+public class CacheMetrics {
+
+    public static final String PAGE = "page";
+    public static final String DETAIL = "detail";
+    public static final String INDEX = "index";
+
+    public static final String TIER_L1 = "l1";
+    public static final String TIER_REDIS = "redis";
+
+    public static final String HIT = "hit";
+    public static final String STALE = "stale";
+    public static final String MISS = "miss";
+    public static final String NEGATIVE = "negative";
+
+    static final String GETS = "cache.gets";
+    static final String SETS = "cache.sets";
+    static final String INVALIDATIONS = "cache.invalidations";
+    static final String DECODE_FAILURES = "cache.decode.failures";
+    static final String PAYLOAD_BYTES = "cache.payload.bytes";
+    static final String REDIS_LATENCY = "cache.redis.latency";
+    static final String REDIS_REJECTED = "cache.redis.rejected";
+
+    private static final List<String> CACHES = List.of(PAGE, DETAIL, INDEX);
+
+    private final MeterRegistry registry;
+
+    @Inject
+    public CacheMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Nombres de los caches instrumentados
+     */
+    public List<String> caches() {
+        return CACHES;
+    }
+
+    public void recordGet(String cache, String tier, String result) {
+        registry.counter(GETS, "cache", cache, "tier", tier, "result", result).increment();
+    }
+
+    public void recordPayloadRead(String cache, int bytes) {
+        payloadSummary(cache, "get").record(bytes);
+    }
+
+    public void recordSet(String cache, int bytes) {
+        registry.counter(SETS, "cache", cache).increment();
+        payloadSummary(cache, "set").record(bytes);
+    }
+
+    /**
+     * @param scope user (todas las páginas de un usuario), key (una clave) o batch (lote de la ingesta)
+     */
+    public void recordInvalidation(String cache, String scope, int count) {
+        registry.counter(INVALIDATIONS, "cache", cache, "scope", scope).increment(count);
+    }
+
+    public void recordDecodeFailure(String cache) {
+        registry.counter(DECODE_FAILURES, "cache", cache).increment();
+    }
+
+    /**
+     * @param outcome success, failure o timeout
+     */
+    public void recordRedisLatency(String operation, String outcome, long nanos) {
+        Timer.builder(REDIS_LATENCY)
+                .tags("operation", operation, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRedisRejected(String operation) {
+        registry.counter(REDIS_REJECTED, "operation", operation).increment();
+    }
+
+    /**
+     * Suma de las lecturas de un cache con el resultado indicado (todos los niveles)
+     */
+    public double gets(String cache, String result) {
+        return sum(registry.find(GETS).tags("cache", cache, "result", result).counters());
+    }
+
+    public double sets(String cache) {
+        return sum(registry.find(SETS).tags("cache", cache).counters());
+    }
+
+    public double invalidations(String cache) {
+        return sum(registry.find(INVALIDATIONS).tags("cache", cache).counters());
+    }
+
+    public double decodeFailures(String cache) {
+        return sum(registry.find(DECODE_FAILURES).tags("cache", cache).counters());
+    }
+
+    /**
+     * Tamaño medio en bytes de los valores del cache para la operación indicada (0 sin muestras)
+     */
+    public double meanPayloadBytes(String cache, String operation) {
+        DistributionSummary summary = registry.find(PAYLOAD_BYTES).tags("cache", cache, "operation", operation).summary();
+        return summary == null ? 0 : summary.mean();
+    }
+
+    private DistributionSummary payloadSummary(String cache, String operation) {
+        return DistributionSummary.builder(PAYLOAD_BYTES)
+                .baseUnit("bytes")
+                .tags("cache", cache, "operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static double sum(Collection<Counter> counters) {
+        return counters.stream().mapToDouble(Counter::count).sum();
+    }
+}
@@ -0,0 +1,107 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Lease distribuido en Redis para reconstruir una entrada de cache desde un solo nodo
+ * Se adquiere con SET {clave}-lease {token} NX PX {ttl}; el nodo que lo obtiene consulta la BD
+ * y el resto espera a que aparezca la entrada en Redis (o agota la espera y carga por su cuenta)
+ *
+ * El TTL del lease acota el bloqueo si el nodo que lo tiene cae antes de liberarlo;
+ * la liberación compara el token para no borrar un lease que ya pasó a otro nodo
+ */
+@ApplicationScoped
+public class CacheRebuildLease {
+
+    private static final Logger LOG = Logger.getLogger(CacheRebuildLease.class);
+
+    private static final String LEASE_SUFFIX = "-lease";
+
+    /**
+     * Borra el lease solo si sigue siendo nuestro (GET + DEL atómico)
+     */
+    private static final String RELEASE_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    private final ReactiveRedisDataSource redisDataSource;
+    private final RedisCircuitBreaker breaker;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration wait;
+    private final Duration pollInterval;
+
+    @Inject
+    public CacheRebuildLease(
+            ReactiveRedisDataSource redisDataSource,
+            RedisCircuitBreaker breaker,
+            @ConfigProperty(name = "cache.lease.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "cache.lease.ttl", defaultValue = "5s") Duration ttl,
+            @ConfigProperty(name = "cache.lease.wait", defaultValue = "1s") Duration wait,
+            @ConfigProperty(name = "cache.lease.poll-interval", defaultValue = "50ms") Duration pollInterval) {
+        this.redisDataSource = redisDataSource;
+        this.breaker = breaker;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.wait = wait;
+        this.pollInterval = pollInterval;
+        LOG.infof("[CacheRebuildLease] Lease distribuido %s - ttl: %s, wait: %s, pollInterval: %s",
+                enabled ? "habilitado" : "deshabilitado", ttl, wait, pollInterval);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration pollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * Número de consultas a Redis que hace un nodo sin lease antes de cargar por su cuenta
+     */
+    public int pollAttempts() {
+        return (int) Math.max(1, wait.toMillis() / Math.max(1, pollInterval.toMillis()));
+    }
+
+    /**
+     * Intenta adquirir el lease de reconstrucción de una clave
+     * Si Redis falla (o no responde dentro del presupuesto) se devuelve un token igualmente:
+     * sin lease se degrada a carga local, no a error
+     *
+     * @param key Clave de cache a reconstruir
+     * @return Token del lease si se adquirió, null si otro nodo lo tiene
+     */
+    public Uni<String> tryAcquire(String key) {
+        String leaseKey = key + LEASE_SUFFIX;
+        String token = UUID.randomUUID().toString();
+        return breaker.write("lease.acquire", redisDataSource.execute("SET", leaseKey, token, "NX", "PX", String.valueOf(ttl.toMillis())))
+                .map(response -> response != null && "OK".equalsIgnoreCase(response.toString()) ? token : null)
+                .invoke(acquired -> LOG.debugf("[CacheRebuildLease] Lease %s - Key: %s",
+                        acquired != null ? "adquirido" : "ocupado por otro nodo", leaseKey))
+                .onFailure().recoverWithItem(throwable -> {
+                    LOG.warnf(throwable, "[CacheRebuildLease] Error al adquirir lease - Key: %s, se carga sin lease", leaseKey);
+                    return token;
+                });
+    }
+
+    /**
+     * Libera el lease si sigue perteneciendo al token indicado (los errores no se propagan)
+     */
+    public Uni<Void> release(String key, String token) {
+        String leaseKey = key + LEASE_SUFFIX;
+        return breaker.write("lease.release", redisDataSource.execute("EVAL", RELEASE_SCRIPT, "1", leaseKey, token))
+                .onFailure().invoke(throwable ->
+                    LOG.warnf(throwable, "[CacheRebuildLease] Error al liberar lease - Key: %s (expira por TTL)", leaseKey)
+                )
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+}
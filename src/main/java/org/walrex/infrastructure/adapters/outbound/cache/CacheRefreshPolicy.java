@@ -0,0 +1,83 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Política de expiración de las páginas cacheadas: TTL blando, TTL duro y refresco anticipado
+ *
+ * - Antes del TTL blando la entrada es fresca; aun así puede refrescarse antes con XFetch:
+ *   se refresca si now - delta * beta * ln(rand) >= softExpiresAt, donde delta es lo que tardó
+ *   en calcularse. Cuanto más cerca del vencimiento y más costosa la consulta, más probable;
+ *   con muchas lecturas casi siempre la refresca una sola antes de vencer
+ * - Entre el TTL blando y el duro la entrada se sirve stale y se refresca en segundo plano
+ * - Al TTL duro Redis la elimina y la siguiente lectura es un MISS
+ */
+@ApplicationScoped
+public class CacheRefreshPolicy {
+
+    private static final Logger LOG = Logger.getLogger(CacheRefreshPolicy.class);
+
+    private final Duration softTtl;
+    private final Duration hardTtl;
+    private final double beta;
+
+    @Inject
+    public CacheRefreshPolicy(
+            @ConfigProperty(name = "cache.page.soft-ttl", defaultValue = "5m") Duration softTtl,
+            @ConfigProperty(name = "cache.page.hard-ttl", defaultValue = "10m") Duration hardTtl,
+            @ConfigProperty(name = "cache.page.xfetch-beta", defaultValue = "1.0") double beta) {
+        if (softTtl.compareTo(hardTtl) > 0) {
+            throw new IllegalArgumentException("cache.page.soft-ttl (" + softTtl + ") must not exceed cache.page.hard-ttl (" + hardTtl + ")");
+        }
+        this.softTtl = softTtl;
+        this.hardTtl = hardTtl;
+        this.beta = beta;
+        LOG.infof("[CacheRefreshPolicy] softTtl: %s, hardTtl: %s, xfetchBeta: %s", softTtl, hardTtl, beta);
+    }
+
+    /**
+     * TTL duro por defecto (expiración en Redis)
+     */
+    public Duration hardTtl() {
+        return hardTtl;
+    }
+
+    /**
+     * Envuelve un valor con su vencimiento blando
+     * Si el TTL duro indicado es menor que el blando configurado, el blando se recorta al duro
+     *
+     * @param value Valor a cachear
+     * @param hardTtl TTL duro con el que se guardará en Redis
+     * @param computeMillis Tiempo que tomó calcular el valor (0 si se desconoce)
+     */
+    public <V> CachedPage<V> wrap(V value, Duration hardTtl, long computeMillis) {
+        Duration soft = softTtl.compareTo(hardTtl) > 0 ? hardTtl : softTtl;
+        return new CachedPage<>(value, System.currentTimeMillis() + soft.toMillis(), computeMillis);
+    }
+
+    /**
+     * Indica si la entrada pasó su TTL blando (se sirve y se refresca en segundo plano)
+     */
+    public boolean isStale(CachedPage<?> entry, long nowMillis) {
+        return nowMillis >= entry.getSoftExpiresAt();
+    }
+
+    /**
+     * Decisión probabilística de XFetch para una entrada aún fresca
+     * Con beta = 0 o delta desconocido nunca se anticipa el refresco
+     */
+    public boolean shouldRefreshEarly(CachedPage<?> entry, long nowMillis) {
+        if (beta <= 0 || entry.getComputeMillis() <= 0) {
+            return false;
+        }
+        // -ln(rand) es una exponencial de media 1; 1 - nextDouble() evita ln(0)
+        double gap = entry.getComputeMillis() * beta * -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return nowMillis + gap >= entry.getSoftExpiresAt();
+    }
+}
@@ -0,0 +1,31 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envoltorio de una página guardada en Redis con los metadatos de refresco
+ * El TTL duro lo aplica Redis (SETEX); el TTL blando y el tiempo de recálculo viajan con el valor
+ * para decidir en la lectura si la entrada está vencida (stale) o conviene refrescarla antes (XFetch)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedPage<V> {
+
+    /**
+     * Valor cacheado (p. ej. PagedResult&lt;MessageInboxItem&gt;)
+     */
+    private V value;
+
+    /**
+     * Instante (epoch ms) a partir del cual la entrada se sirve como stale y se refresca en segundo plano
+     */
+    private long softExpiresAt;
+
+    /**
+     * Milisegundos que tomó calcular el valor en la fuente (delta de XFetch, 0 si se desconoce)
+     */
+    private long computeMillis;
+}
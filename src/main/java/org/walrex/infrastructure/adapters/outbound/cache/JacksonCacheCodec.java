@@ -0,0 +1,71 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Implementación de CacheCodec sobre un ObjectMapper de Jackson (JSON, Smile o CBOR)
+ * Formato del valor: [versión de formato (1 byte)][payload del ObjectMapper]
+ */
+public class JacksonCacheCodec implements CacheCodec {
+
+    private static final Logger LOG = Logger.getLogger(JacksonCacheCodec.class);
+
+    private final String name;
+    private final byte formatVersion;
+    private final ObjectMapper mapper;
+
+    public JacksonCacheCodec(String name, byte formatVersion, ObjectMapper mapper) {
+        this.name = name;
+        this.formatVersion = formatVersion;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte formatVersion() {
+        return formatVersion;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        try {
+            byte[] payload = mapper.writeValueAsBytes(value);
+            byte[] encoded = new byte[payload.length + 1];
+            encoded[0] = formatVersion;
+            System.arraycopy(payload, 0, encoded, 1, payload.length);
+            return encoded;
+        } catch (IOException e) {
+            LOG.errorf(e, "[JacksonCacheCodec] Error al serializar valor con formato %s", name);
+            throw new IllegalStateException("Error de serialización " + name, e);
+        }
+    }
+
+    @Override
+    public <V> V decode(byte[] bytes, JavaType type) {
+        if (bytes == null || bytes.length < 2) {
+            return null;
+        }
+        if (bytes[0] != formatVersion) {
+            // Entrada escrita con otro formato o versión (p. ej. JSON anterior al codec): se trata como MISS
+            LOG.debugf("[JacksonCacheCodec] Versión de formato distinta - esperada: %d, recibida: %d",
+                    formatVersion, bytes[0]);
+            return null;
+        }
+        try {
+            return mapper.readValue(bytes, 1, bytes.length - 1, type);
+        } catch (IOException e) {
+            LOG.errorf(e, "[JacksonCacheCodec] Error al deserializar %s (Corrupt Cache) - primeros bytes: %s",
+                    name, Arrays.toString(Arrays.copyOf(bytes, Math.min(bytes.length, 8))));
+            return null;
+        }
+    }
+}
@@ -1,55 +1,165 @@
 package org.walrex.infrastructure.adapters.outbound.cache;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.hibernate.reactive.panache.Panache;
 import io.quarkus.redis.datasource.ReactiveRedisDataSource;
 import io.quarkus.redis.datasource.keys.ReactiveKeyCommands;
 import io.quarkus.redis.datasource.value.ReactiveValueCommands;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
-import io.vertx.core.json.JsonObject;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
 import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 import org.walrex.application.ports.output.MessageCacheAdapterPort;
-import org.walrex.domain.model.MessageInboxItem;
 import org.walrex.domain.model.PagedResult;
 import org.walrex.domain.model.Pageable;
+import org.walrex.infrastructure.adapters.outbound.cache.exception.CacheUnavailableException;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Adapter para gestionar el cache de mensajes paginados en Redis
- * Implementa estrategia de cache-aside con invalidación por patrón
+ * Implementa estrategia de cache-aside con invalidación por generación:
+ * cada usuario tiene un contador (msg-svc-{userId}-gen) que forma parte de las claves de sus páginas;
+ * invalidar es un INCR O(1) y las entradas de generaciones anteriores expiran por TTL
+ * Delante de Redis (L2) consulta un cache local en memoria (L1, PagedResultLocalCache)
+ *
+ * Cada página se guarda con TTL duro en Redis y un TTL blando dentro del valor (CachedPage):
+ * pasada la expiración blanda se sirve stale y se refresca en segundo plano, y antes de ella
+ * XFetch puede anticipar el refresco de las claves calientes (CacheRefreshPolicy)
+ *
+ * Las lecturas y escrituras de Redis tienen presupuesto de latencia y circuit breaker (RedisCircuitBreaker):
+ * si Redis es lento o no está disponible la petición se resuelve contra la BD sin esperar a Redis
+ *
+ * Con cache.client-tracking.enabled la generación y las páginas se leen por RedisClientSideCache
+ * (RESP3 + CLIENT TRACKING): las lecturas repetidas no salen del proceso y un INCR de generación en
+ * cualquier nodo invalida la copia local por push de Redis
+ *
+ * El TTL duro de cada página depende de la actividad reciente del usuario (CacheActivityTracker) y cada
+ * usuario puede tener como máximo cache.page.max-keys-per-user páginas por generación: la memoria
+ * de Redis se reparte entre los usuarios que generan la carga
  */
 @Dependent
 public class MessageCacheAdapter<T> implements MessageCacheAdapterPort<T> {
 
     private static final Logger LOG = Logger.getLogger(MessageCacheAdapter.class);
 
-    private static final String CACHE_PREFIX = "msg-svc";
     private static final String LIST_SUFFIX = "list";
-    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    private static final String GENERATION_SUFFIX = "gen";
+
+    /**
+     * Sufijo de la clave de coalescencia de los refrescos en segundo plano (distinta de la del MISS)
+     */
+    private static final String REFRESH_SUFFIX = "-refresh";
+
+    /**
+     * TTL del contador de generación: mayor que el de las páginas para que, si expira y vuelve a 0,
+     * ya no existan páginas vigentes de generaciones anteriores con el mismo número
+     */
+    private static final Duration GENERATION_TTL = Duration.ofDays(1);
+
+    /**
+     * Usuarios por pipeline en el write-through de la ingesta (acota el tamaño de cada lote de comandos)
+     */
+    private static final int PIPELINE_CHUNK = 500;
+
+    /**
+     * Sufijo del registro de páginas de una generación (sorted set clave de página -> instante del SET)
+     */
+    private static final String KEYS_SUFFIX = "keys";
+
+    /**
+     * SET de la página + registro en el sorted set de páginas del usuario; si supera el máximo
+     * se retiran del registro las páginas escritas hace más tiempo. El registro conserva el TTL más largo de sus páginas
+     * KEYS[1] = página, KEYS[2] = registro; ARGV = valor, TTL (s), instante (ms), máximo de páginas
+     * Devuelve las claves de las páginas desalojadas: el script solo toca las claves declaradas en KEYS
+     * y el cliente las borra con UNLINK (comparten slot con el registro por el hash tag del usuario)
+     * Se invoca con EVALSHA (RedisScript): el cuerpo del script no viaja en cada SET
+     */
+    private static final RedisScript CAPPED_SET_SCRIPT = new RedisScript("capped-set",
+            "redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2]) "
+            + "redis.call('ZADD', KEYS[2], ARGV[3], KEYS[1]) "
+            + "if redis.call('TTL', KEYS[2]) < tonumber(ARGV[2]) then redis.call('EXPIRE', KEYS[2], ARGV[2]) end "
+            + "local excess = redis.call('ZCARD', KEYS[2]) - tonumber(ARGV[4]) "
+            + "local evicted = {} "
+            + "if excess > 0 then "
+            + "  local popped = redis.call('ZPOPMIN', KEYS[2], excess) "
+            + "  for i = 1, #popped, 2 do evicted[#evicted + 1] = popped[i] end "
+            + "end "
+            + "return evicted");
 
     private final ReactiveValueCommands<String, String> valueCommands;
+    private final ReactiveValueCommands<String, byte[]> pageCommands;
     private final ReactiveKeyCommands<String> keyCommands;
+    private final RedisPipeline pipeline;
+    private final CacheKeys cacheKeys;
     private final ObjectMapper objectMapper;
+    private final PagedResultLocalCache localCache;
+    private final CacheCodec codec;
+    private final CacheLoadCoalescer loadCoalescer;
+    private final CacheRebuildLease rebuildLease;
+    private final CacheRefreshPolicy refreshPolicy;
+    private final RedisCircuitBreaker breaker;
+    private final RedisClientSideCache clientSideCache;
+    private final CacheActivityTracker activityTracker;
+    private final CacheMetrics metrics;
+    private final Redis redis;
+
+    /**
+     * Máximo de páginas cacheadas por usuario y generación (0 = sin límite)
+     */
+    private final int maxKeysPerUser;
 
     @Inject
-    public MessageCacheAdapter(ReactiveRedisDataSource redisDataSource, ObjectMapper objectMapper) {
+    public MessageCacheAdapter(ReactiveRedisDataSource redisDataSource, ObjectMapper objectMapper,
+                               PagedResultLocalCache localCache, CacheCodec codec,
+                               CacheLoadCoalescer loadCoalescer, CacheRebuildLease rebuildLease,
+                               CacheRefreshPolicy refreshPolicy, RedisCircuitBreaker breaker,
+                               RedisClientSideCache clientSideCache, CacheActivityTracker activityTracker, CacheMetrics metrics,
+                               RedisPipeline pipeline, CacheKeys cacheKeys,
+                               @ConfigProperty(name = "cache.page.max-keys-per-user", defaultValue = "50") int maxKeysPerUser) {
         this.valueCommands = redisDataSource.value(String.class);
+        this.pageCommands = redisDataSource.value(byte[].class);
         this.keyCommands = redisDataSource.key();
+        this.pipeline = pipeline;
+        this.cacheKeys = cacheKeys;
         this.objectMapper = objectMapper;
+        this.localCache = localCache;
+        this.codec = codec;
+        this.loadCoalescer = loadCoalescer;
+        this.rebuildLease = rebuildLease;
+        this.refreshPolicy = refreshPolicy;
+        this.breaker = breaker;
+        this.clientSideCache = clientSideCache;
+        this.activityTracker = activityTracker;
+        this.metrics = metrics;
+        this.redis = redisDataSource.getRedis();
+        this.maxKeysPerUser = maxKeysPerUser;
     }
 
     /**
-     * Genera una clave de cache para resultados paginados
-     * Formato: msg-svc-{userId}-list-{hashParametros}
+     * Genera la clave lógica de cache para resultados paginados (sin generación)
+     * Formato: msg-svc-{userId}-list-{hashParametros} (en cluster msg-svc:{u{userId}}:list:{hashParametros})
+     * Es la clave del L1 en memoria, que se invalida por pub/sub y no necesita la generación
      *
      * @param userId ID del usuario
      * @param pageable Parámetros de paginación
@@ -57,40 +167,34 @@ public class MessageCacheAdapter<T> implements MessageCacheAdapterPort<T> {
      */
     public String generateCacheKey(Integer userId, Pageable pageable) {
         String paramsHash = generateParametersHash(pageable);
-        return String.format("%s-%d-%s-%s", CACHE_PREFIX, userId, LIST_SUFFIX, paramsHash);
+        return cacheKeys.user(userId, LIST_SUFFIX, paramsHash);
     }
 
     /**
-     * Helper para DESERIALIZAR el String JSON a PagedResult<T> usando Jackson/ObjectMapper.
+     * Helper para DESERIALIZAR los bytes de Redis a CachedPage<PagedResult<T>> con el codec configurado.
      * Se requiere 'contentClass' para manejar correctamente el tipo genérico PagedResult<T>.
+     * Un valor con otra versión de formato, corrupto o sin página se trata como MISS (null).
      */
-    private PagedResult<T> deserialize(String json, Class<T> contentClass) {
-        if (json == null || json.isEmpty()) return null;
-        try {
-            // 1. Build the Java type for PagedResult<T> using ObjectMapper's TypeFactory
-            JavaType contentType = objectMapper.getTypeFactory().constructType(contentClass);
-            JavaType pagedResultType = objectMapper.getTypeFactory()
-                    .constructParametricType(PagedResult.class, contentType);
-
-            // 2. Deserialize using the constructed generic type
-            return objectMapper.readValue(json, pagedResultType);
-        } catch (JsonProcessingException e) {
-            LOG.errorf(e, "[Cache] Error deserializing JSON to PagedResult<%s> (Corrupt Cache)", contentClass.getSimpleName());
-            // If the cache is corrupt or there's an error, treat it as a MISS (return null)
+    private CachedPage<PagedResult<T>> deserialize(byte[] bytes, Class<T> contentClass) {
+        if (bytes == null || bytes.length == 0) return null;
+        JavaType contentType = objectMapper.getTypeFactory().constructType(contentClass);
+        JavaType pagedResultType = objectMapper.getTypeFactory()
+                .constructParametricType(PagedResult.class, contentType);
+        JavaType entryType = objectMapper.getTypeFactory()
+                .constructParametricType(CachedPage.class, pagedResultType);
+        CachedPage<PagedResult<T>> entry = codec.decode(bytes, entryType);
+        if (entry == null || entry.getValue() == null) {
+            metrics.recordDecodeFailure(CacheMetrics.PAGE);
             return null;
         }
+        return entry;
     }
 
     /**
-     * Helper para SERIALIZAR PagedResult<T> a una cadena JSON.
+     * Helper para SERIALIZAR la página con sus metadatos de refresco (byte de versión + payload).
      */
-    private String serialize(PagedResult<T> result) {
-        try {
-            return objectMapper.writeValueAsString(result);
-        } catch (JsonProcessingException e) {
-            LOG.errorf(e, "[Cache] Error al serializar PagedResult");
-            throw new RuntimeException("Error de serialización JSON", e);
-        }
+    private byte[] serialize(CachedPage<PagedResult<T>> entry) {
+        return codec.encode(entry);
     }
 
     /**
@@ -102,6 +206,10 @@ public class MessageCacheAdapter<T> implements MessageCacheAdapterPort<T> {
     private String generateParametersHash(Pageable pageable) {
         try {
             String params = String.format("page=%d&size=%d", pageable.getPage(), pageable.getSize());
+            if (!pageable.isCountTotal()) {
+                // Sin total exacto el resultado difiere (total como cota inferior): clave propia
+                params += "&total=false";
+            }
             MessageDigest digest = MessageDigest.getInstance("MD5");
             byte[] hash = digest.digest(params.getBytes(StandardCharsets.UTF_8));
 
@@ -119,12 +227,68 @@ public class MessageCacheAdapter<T> implements MessageCacheAdapterPort<T> {
         } catch (NoSuchAlgorithmException e) {
             LOG.error("Error generating parameters hash", e);
             // Fallback: usar toString de los parámetros
-            return String.format("%d-%d", pageable.getPage(), pageable.getSize());
+            return String.format("%d-%d%s", pageable.getPage(), pageable.getSize(),
+                    pageable.isCountTotal() ? "" : "-nt");
+        }
+    }
+
+    /**
+     * Genera la clave de Redis de una página para una generación concreta
+     * Formato: msg-svc-{userId}-list-g{generación}-{hashParametros}
+     */
+    private String generateVersionedKey(Integer userId, Pageable pageable, long generation) {
+        String paramsHash = generateParametersHash(pageable);
+        return cacheKeys.user(userId, LIST_SUFFIX, "g" + generation, paramsHash);
+    }
+
+    /**
+     * Registro de las páginas de una generación: msg-svc-{userId}-list-g{generación}-keys
+     */
+    private String pageRegistryKey(Integer userId, long generation) {
+        return cacheKeys.user(userId, LIST_SUFFIX, "g" + generation, KEYS_SUFFIX);
+    }
+
+    /**
+     * Clave del contador de generación del usuario: msg-svc-{userId}-gen
+     */
+    private String generationKey(Integer userId) {
+        return cacheKeys.user(userId, GENERATION_SUFFIX);
+    }
+
+    /**
+     * Prefijo común de todas las claves de listado de un usuario: msg-svc-{userId}-list-
+     */
+    private String userKeyPrefix(Integer userId) {
+        return cacheKeys.userPrefix(userId, LIST_SUFFIX);
+    }
+
+    /**
+     * Obtiene la generación vigente del usuario (0 si nunca se invalidó o el contador expiró)
+     */
+    private Uni<Long> currentGeneration(Integer userId) {
+        if (clientSideCache.isActive()) {
+            return clientSideCache.get(generationKey(userId))
+                    .map(bytes -> parseGeneration(userId, bytes.length == 0 ? null : new String(bytes, StandardCharsets.UTF_8)));
+        }
+        return valueCommands.get(generationKey(userId))
+                .map(value -> parseGeneration(userId, value));
+    }
+
+    private static long parseGeneration(Integer userId, String value) {
+        if (value == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            LOG.warnf("[MessageCacheAdapter] Generación inválida para usuario %d: %s - usando 0", userId, value);
+            return 0L;
         }
     }
 
     /**
      * Obtiene datos del cache
+     * Primero consulta el L1 en memoria; si no está, consulta Redis y, en HIT, lo guarda en el L1
      *
      * @param userId ID del usuario
      * @param pageable Parámetros de paginación
@@ -136,13 +300,52 @@ public class MessageCacheAdapter<T> implements MessageCacheAdapterPort<T> {
         LOG.debugf("[MessageCacheAdapter] Intentando obtener del cache - Key: %s (userId=%d, page=%d, size=%d)",
                 cacheKey, userId, pageable.getPage(), pageable.getSize());
 
-        return valueCommands.get(cacheKey)
+        PagedResult<T> local = localCache.get(cacheKey);
+        if (local != null) {
+            LOG.debugf("[MessageCacheAdapter] Cache L1 HIT - Key: %s", cacheKey);
+            metrics.recordGet(CacheMetrics.PAGE, CacheMetrics.TIER_L1, CacheMetrics.HIT);
+            return Uni.createFrom().item(local);
+        }
+
+        // Sin dataSupplier no hay refresco: una entrada stale se devuelve sin guardarla en el L1
+        long epoch = localCache.epoch(userKeyPrefix(userId));
+        return breaker.read("generation.get", currentGeneration(userId))
+                .chain(generation -> getFromRedis(generateVersionedKey(userId, pageable, generation), contentClass))
+                .onFailure().recoverWithItem(throwable -> {
+                    logUnavailable(cacheKey, throwable);
+                    return null;
+                })
+                .onItem().ifNotNull().transform(entry -> {
+                    boolean stale = refreshPolicy.isStale(entry, System.currentTimeMillis());
+                    if (!stale) {
+                        localCache.put(userKeyPrefix(userId), epoch, cacheKey, entry.getValue());
+                    }
+                    recordRedisGet(stale ? CacheMetrics.STALE : CacheMetrics.HIT);
+                    return entry.getValue();
+                })
+                .onItem().ifNull().continueWith(() -> {
+                    recordRedisGet(CacheMetrics.MISS);
+                    return null;
+                });
+    }
+
+    /**
+     * Lee una página de Redis (L2) por su clave versionada, con sus metadatos de refresco
+     *
+     * @param versionedKey Clave de Redis con la generación
+     */
+    private Uni<CachedPage<PagedResult<T>>> getFromRedis(String versionedKey, Class<T> contentClass) {
+        Uni<byte[]> read = clientSideCache.isActive()
+                ? clientSideCache.get(versionedKey)
+                : pageCommands.get(versionedKey);
+        return breaker.read("page.get", read)
                 .onItem().invoke(result -> {
-                    if(result!=null){
-                        LOG.infof("[MessageCacheAdapter] Cache HIT - Key: %s, Length: %d",
-                                cacheKey, result.length());
+                    if(result!=null && result.length > 0){
+                        metrics.recordPayloadRead(CacheMetrics.PAGE, result.length);
+                        LOG.debugf("[MessageCacheAdapter] Cache HIT - Key: %s, Length: %d bytes (%s)",
+                                versionedKey, result.length, codec.name());
                     }else{
-                        LOG.infof("[MessageCacheAdapter] Cache MISS - Key: %s, data source will be consulted", cacheKey);
+                        LOG.debugf("[MessageCacheAdapter] Cache MISS - Key: %s, data source will be consulted", versionedKey);
                     }
                 })
                 .onItem().ifNotNull().transform(result -> deserialize(result, contentClass));
@@ -150,6 +353,8 @@ public class MessageCacheAdapter<T> implements MessageCacheAdapterPort<T> {
 
     /**
      * Almacena datos en el cache con TTL personalizado
+     * Usa la generación vigente del usuario; getOrFetch en cambio reutiliza la leída antes del MISS
+     * El TTL indicado es el duro; el blando es el configurado (recortado al duro si lo supera)
      *
      * @param userId ID del usuario
      * @param pageable Parámetros de paginación
@@ -159,52 +364,233 @@ public class MessageCacheAdapter<T> implements MessageCacheAdapterPort<T> {
      */
     @Override
     public Uni<Void> set(Integer userId, Pageable pageable, PagedResult<T> data, Duration ttl) {
+        long epoch = localCache.epoch(userKeyPrefix(userId));
+        return breaker.read("generation.get", currentGeneration(userId))
+                .chain(generation -> set(userId, pageable, generation, epoch, data, ttl, 0L))
+                .onFailure().invoke(throwable -> logUnavailable(generateCacheKey(userId, pageable), throwable))
+                .onFailure().recoverWithNull();
+    }
+
+    /**
+     * Almacena una página bajo la generación indicada
+     * Si entre la lectura de la generación y la escritura se invalidó el usuario, la página queda
+     * bajo una generación vieja que ya nadie lee y expira por TTL, y no entra al L1 porque la época
+     * del usuario cambió (no se sirven datos obsoletos)
+     *
+     * @param epoch Época del L1 tomada antes de leer la generación
+     * @param computeMillis Tiempo que tomó obtener los datos de la fuente (delta de XFetch, 0 si se desconoce)
+     */
+    private Uni<Void> set(Integer userId, Pageable pageable, long generation, long epoch, PagedResult<T> data,
+                          Duration ttl, long computeMillis) {
         String cacheKey = generateCacheKey(userId, pageable);
-        String jsonData = serialize(data);
+        String versionedKey = generateVersionedKey(userId, pageable, generation);
+        byte[] encoded = serialize(refreshPolicy.wrap(data, ttl, computeMillis));
+        localCache.put(userKeyPrefix(userId), epoch, cacheKey, data);
+
+        Uni<?> write = maxKeysPerUser <= 0
+                ? pageCommands.setex(versionedKey, ttl.getSeconds(), encoded)
+                : CAPPED_SET_SCRIPT.send(redis, request -> request.arg(2)
+                        .arg(versionedKey).arg(pageRegistryKey(userId, generation))
+                        .arg(encoded).arg(ttl.getSeconds()).arg(System.currentTimeMillis()).arg(maxKeysPerUser))
+                        .chain(evicted -> unlinkEvicted(userId, evicted));
 
-        return valueCommands.setex(cacheKey, ttl.getSeconds(), jsonData)
+        return breaker.write("page.set", write)
+                .onItem().invoke(() -> metrics.recordSet(CacheMetrics.PAGE, encoded.length))
                 .onItem().invoke(() ->
-                    LOG.infof("[MessageCacheAdapter] Cache SET exitoso - Key: %s, Elementos: %d, TTL personalizado: %d segundos",
-                            cacheKey, data.getData().size(), ttl.getSeconds())
-                )
-                .onFailure().invoke(throwable ->
-                    LOG.errorf(throwable, "[MessageCacheAdapter] Error al guardar en cache - Key: %s", cacheKey)
+                    LOG.debugf("[MessageCacheAdapter] Cache SET exitoso - Key: %s, Elementos: %d, Tamaño: %d bytes (%s), TTL personalizado: %d segundos",
+                            versionedKey, data.getData().size(), encoded.length, codec.name(), ttl.getSeconds())
                 )
+                .onFailure().invoke(throwable -> logUnavailable(versionedKey, throwable))
+                // Un SET fallido no afecta la respuesta: los datos ya se obtuvieron de la BD
+                .onFailure().recoverWithNull()
                 .replaceWithVoid();
     }
 
     /**
-     * Invalida todas las claves de cache para un usuario
-     * Elimina todas las claves que coincidan con: msg-svc-{userId}-list-*
+     * Borra las páginas que CAPPED_SET_SCRIPT retiró del registro del usuario
+     * Si el UNLINK falla las páginas ya no están registradas y expiran por su TTL
+     *
+     * @param evicted Respuesta del script: claves de las páginas desalojadas
+     */
+    private Uni<Void> unlinkEvicted(Integer userId, Response evicted) {
+        if (evicted == null || evicted.size() == 0) {
+            return Uni.createFrom().voidItem();
+        }
+        Request unlink = Request.cmd(Command.UNLINK);
+        for (Response key : evicted) {
+            unlink.arg(key.toString());
+        }
+        LOG.debugf("[MessageCacheAdapter] Límite de páginas por usuario alcanzado - userId: %d, páginas desalojadas: %d",
+                userId, evicted.size());
+        return redis.send(unlink).replaceWithVoid();
+    }
+
+    /**
+     * Invalida todas las páginas cacheadas de un usuario incrementando su generación
+     * Un solo INCR O(1): las claves de la generación anterior dejan de leerse y expiran por TTL,
+     * sin recorrer el keyspace con KEYS. También limpia el L1 de todas las instancias (Redis pub/sub)
+     * después del INCR: una lectura que tomó la generación anterior ya no puede volver a poblar el L1
      *
      * @param userId ID del usuario
-     * @return Uni<Long> número de claves eliminadas
+     * @return Uni<Long> nueva generación del usuario
      */
     public Uni<Long> invalidateUserCache(Integer userId) {
-        String pattern = String.format("%s-%d-%s-*", CACHE_PREFIX, userId, LIST_SUFFIX);
-        LOG.infof("[MessageCacheAdapter] Invalidando cache completo para usuario: %d - Pattern: %s", userId, pattern);
-
-        return keyCommands.keys(pattern)
-                .onItem().transformToUni(keys -> {
-                    if (keys.isEmpty()) {
-                        LOG.infof("[MessageCacheAdapter] No se encontraron claves de cache para usuario: %d", userId);
-                        return Uni.createFrom().item(0L);
-                    }
+        String generationKey = generationKey(userId);
+        LOG.infof("[MessageCacheAdapter] Invalidando cache completo para usuario: %d - Key: %s", userId, generationKey);
 
-                    LOG.infof("[MessageCacheAdapter] Encontradas %d claves de cache para usuario: %d - Eliminando...", keys.size(), userId);
-                    return keyCommands.del(keys.toArray(new String[0]))
-                            .onItem().transform(deleted -> {
-                                LOG.infof("[MessageCacheAdapter] Cache invalidado exitosamente - Usuario: %d, Claves eliminadas: %d", userId, deleted);
-                                return deleted.longValue();
-                            });
-                })
+        // Con Redis caído la invalidación falla rápido (presupuesto de escritura) y el error se propaga;
+        // el L1 se limpia igualmente
+        return breaker.write("generation.incr", valueCommands.incr(generationKey))
+                .call(generation -> breaker.write("generation.expire", keyCommands.expire(generationKey, GENERATION_TTL)))
+                .eventually(() -> localCache.invalidatePrefix(userKeyPrefix(userId)))
+                .onItem().invoke(() -> metrics.recordInvalidation(CacheMetrics.PAGE, "user", 1))
+                .onItem().invoke(generation ->
+                    LOG.infof("[MessageCacheAdapter] Cache invalidado exitosamente - Usuario: %d, nueva generación: %d", userId, generation)
+                )
                 .onFailure().invoke(throwable ->
                     LOG.errorf(throwable, "[MessageCacheAdapter] Error al invalidar cache para usuario: %d", userId)
                 );
     }
 
     /**
-     * Invalida una clave específica de cache
+     * Write-through desde la ingesta: inserta items nuevos en las primeras páginas cacheadas de sus usuarios
+     * e invalida el resto de sus páginas (se desplazan) incrementando la generación
+     * Los comandos van en pipeline por bloques de usuarios (RedisPipeline), cuatro viajes por bloque y no por usuario:
+     * GET de las generaciones, GET de las primeras páginas, INCR + EXPIRE de las generaciones y SETEX
+     * de las páginas combinadas bajo la nueva generación. Un usuario sin primera página cacheada solo se invalida
+     *
+     * Si la generación de un usuario cambió entre la lectura y el INCR (otra invalidación concurrente)
+     * su página combinada no se escribe, porque podría no reflejar esa invalidación
+     *
+     * @param itemsByUser Items nuevos por ID de usuario
+     * @param firstPages Primeras páginas a mantener (página 0 de cada tamaño y modo de total)
+     * @param merger Combina una página cacheada con los items nuevos respetando el orden del listado
+     * @return Uni con el número de páginas escritas
+     */
+    public Uni<Integer> pushToFirstPages(Map<Integer, List<T>> itemsByUser, List<Pageable> firstPages,
+                                         Class<T> contentClass,
+                                         BiFunction<PagedResult<T>, List<T>, PagedResult<T>> merger) {
+        if (itemsByUser.isEmpty()) {
+            return Uni.createFrom().item(0);
+        }
+        if (breaker.isOpen()) {
+            return Uni.createFrom().failure(new CacheUnavailableException("Circuito de Redis abierto - write-through omitido"));
+        }
+        List<Integer> users = new ArrayList<>(itemsByUser.keySet());
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < users.size(); from += PIPELINE_CHUNK) {
+            chunks.add(users.subList(from, Math.min(from + PIPELINE_CHUNK, users.size())));
+        }
+        return Multi.createFrom().iterable(chunks)
+                .onItem().transformToUniAndConcatenate(chunk -> pushChunk(chunk, itemsByUser, firstPages, contentClass, merger))
+                .collect().with(Collectors.summingInt(Integer::intValue));
+    }
+
+    private Uni<Integer> pushChunk(List<Integer> users, Map<Integer, List<T>> itemsByUser, List<Pageable> firstPages,
+                                   Class<T> contentClass,
+                                   BiFunction<PagedResult<T>, List<T>, PagedResult<T>> merger) {
+        // Un grupo por usuario: en Redis Cluster todas sus claves comparten slot (hash tag)
+        List<List<Request>> generationReads = new ArrayList<>(users.size());
+        users.forEach(userId -> generationReads.add(List.of(Request.cmd(Command.GET).arg(generationKey(userId)))));
+
+        return pipeline.execute(generationReads)
+                .chain(generationResponses -> {
+                    long[] generations = new long[users.size()];
+                    List<List<Request>> pageReads = new ArrayList<>(users.size());
+                    for (int i = 0; i < users.size(); i++) {
+                        Response response = generationResponses.get(i);
+                        generations[i] = parseGeneration(users.get(i), response == null ? null : response.toString());
+                        List<Request> reads = new ArrayList<>(firstPages.size());
+                        for (Pageable pageable : firstPages) {
+                            reads.add(Request.cmd(Command.GET).arg(generateVersionedKey(users.get(i), pageable, generations[i])));
+                        }
+                        pageReads.add(reads);
+                    }
+                    return pipeline.execute(pageReads)
+                            .chain(pageResponses -> bumpAndWrite(users, generations, pageResponses,
+                                    itemsByUser, firstPages, contentClass, merger));
+                });
+    }
+
+    /**
+     * Combina las primeras páginas leídas, incrementa la generación de los usuarios y escribe las páginas
+     * combinadas bajo la nueva generación (y en el L1 local; el del resto de instancias se invalida)
+     */
+    private Uni<Integer> bumpAndWrite(List<Integer> users, long[] generations, List<Response> pageResponses,
+                                      Map<Integer, List<T>> itemsByUser, List<Pageable> firstPages, Class<T> contentClass,
+                                      BiFunction<PagedResult<T>, List<T>, PagedResult<T>> merger) {
+        List<CachedPage<PagedResult<T>>> merged = new ArrayList<>(pageResponses.size());
+        for (int i = 0; i < pageResponses.size(); i++) {
+            Response response = pageResponses.get(i);
+            CachedPage<PagedResult<T>> entry = response == null ? null : deserialize(response.toBytes(), contentClass);
+            Integer userId = users.get(i / firstPages.size());
+            // Se conserva el vencimiento blando: la combinación no refresca el resto de la página
+            merged.add(entry == null ? null : new CachedPage<>(merger.apply(entry.getValue(), itemsByUser.get(userId)),
+                    entry.getSoftExpiresAt(), entry.getComputeMillis()));
+        }
+
+        List<List<Request>> bumps = new ArrayList<>(users.size());
+        List<String> prefixes = new ArrayList<>(users.size());
+        for (Integer userId : users) {
+            bumps.add(List.of(
+                    Request.cmd(Command.INCR).arg(generationKey(userId)),
+                    Request.cmd(Command.EXPIRE).arg(generationKey(userId)).arg(GENERATION_TTL.getSeconds())));
+            prefixes.add(userKeyPrefix(userId));
+        }
+
+        // El L1 se limpia después del INCR (ver invalidateUserCache) y las épocas se toman después de limpiarlo
+        return pipeline.execute(bumps)
+                .call(() -> localCache.invalidatePrefixes(prefixes))
+                .invoke(() -> metrics.recordInvalidation(CacheMetrics.PAGE, "batch", users.size()))
+                .chain(bumpResponses -> {
+                    Map<Integer, List<Request>> writesByUser = new LinkedHashMap<>();
+                    List<Runnable> localPuts = new ArrayList<>();
+                    List<Integer> pageSizes = new ArrayList<>();
+                    for (int i = 0; i < merged.size(); i++) {
+                        CachedPage<PagedResult<T>> entry = merged.get(i);
+                        int userIndex = i / firstPages.size();
+                        long generation = bumpResponses.get(userIndex * 2).toLong();
+                        if (entry == null || generation != generations[userIndex] + 1) {
+                            continue;
+                        }
+                        Integer userId = users.get(userIndex);
+                        long ttlSeconds = activityTracker.ttlFor(userId, refreshPolicy.hardTtl()).getSeconds();
+                        if (ttlSeconds <= 0) {
+                            continue;
+                        }
+                        Pageable pageable = firstPages.get(i % firstPages.size());
+                        String versionedKey = generateVersionedKey(userId, pageable, generation);
+                        List<Request> userWrites = writesByUser.computeIfAbsent(userIndex, index -> new ArrayList<>());
+                        byte[] encoded = serialize(entry);
+                        userWrites.add(Request.cmd(Command.SETEX).arg(versionedKey).arg(ttlSeconds).arg(encoded));
+                        if (maxKeysPerUser > 0) {
+                            // Registro de la nueva generación: las primeras páginas cuentan para el límite
+                            String registryKey = pageRegistryKey(userId, generation);
+                            userWrites.add(Request.cmd(Command.ZADD).arg(registryKey).arg(System.currentTimeMillis()).arg(versionedKey));
+                            userWrites.add(Request.cmd(Command.EXPIRE).arg(registryKey).arg(ttlSeconds));
+                        }
+                        pageSizes.add(encoded.length);
+                        String cacheKey = generateCacheKey(userId, pageable);
+                        String keyPrefix = userKeyPrefix(userId);
+                        long epoch = localCache.epoch(keyPrefix);
+                        localPuts.add(() -> localCache.put(keyPrefix, epoch, cacheKey, entry.getValue()));
+                    }
+                    if (writesByUser.isEmpty()) {
+                        return Uni.createFrom().item(0);
+                    }
+                    return pipeline.execute(new ArrayList<>(writesByUser.values()))
+                            .invoke(() -> {
+                                localPuts.forEach(Runnable::run);
+                                pageSizes.forEach(size -> metrics.recordSet(CacheMetrics.PAGE, size));
+                            })
+                            .replaceWith(pageSizes.size());
+                })
+                .invoke(written -> LOG.infof("[MessageCacheAdapter] Write-through de ingesta - usuarios invalidados: %d, primeras páginas actualizadas: %d",
+                        users.size(), written));
+    }
+
+    /**
+     * Invalida una clave específica de cache (en la generación vigente)
      *
      * @param userId ID del usuario
      * @param pageable Parámetros de paginación
@@ -214,9 +600,12 @@ public class MessageCacheAdapter<T> implements MessageCacheAdapterPort<T> {
         String cacheKey = generateCacheKey(userId, pageable);
         LOG.debugf("[MessageCacheAdapter] Invalidando clave específica - Key: %s", cacheKey);
 
-        return keyCommands.del(cacheKey)
+        return localCache.invalidateKey(cacheKey)
+                .chain(() -> breaker.read("generation.get", currentGeneration(userId)))
+                .chain(generation -> breaker.write("page.del", keyCommands.del(generateVersionedKey(userId, pageable, generation))))
                 .onItem().transform(deleted -> {
                     boolean wasDeleted = deleted > 0;
+                    metrics.recordInvalidation(CacheMetrics.PAGE, "key", 1);
                     if (wasDeleted) {
                         LOG.infof("[MessageCacheAdapter] Clave de cache eliminada exitosamente - Key: %s", cacheKey);
                     } else {
@@ -232,6 +621,9 @@ public class MessageCacheAdapter<T> implements MessageCacheAdapterPort<T> {
     /**
      * Método helper para ejecutar una operación con cache-aside pattern
      * Si existe en cache, lo retorna. Si no existe, ejecuta el supplier, cachea el resultado y lo retorna.
+     * Los MISS concurrentes de la misma página comparten una sola carga (CacheLoadCoalescer) y, con
+     * cache.lease.enabled, un solo nodo del cluster la reconstruye (CacheRebuildLease)
+     * Una entrada stale (o elegida por XFetch) se retorna de inmediato y se refresca en segundo plano
      *
      * @param userId ID del usuario
      * @param pageable Parámetros de paginación
@@ -241,16 +633,180 @@ public class MessageCacheAdapter<T> implements MessageCacheAdapterPort<T> {
     @Override
     public Uni<PagedResult<T>> getOrFetch(Integer userId, Pageable pageable, Class<T> contentClass,
                                                Supplier<Uni<PagedResult<T>>> dataSupplier) {
-        return this.get(userId, pageable, contentClass)
-                .onItem().ifNotNull().transformToUni(cached -> {
-                    LOG.debugf("[MessageCacheAdapter] Cache HIT - devolviendo resultado cacheado");
-                    return Uni.createFrom().item(cached);
+        activityTracker.recordRead(userId);
+        String cacheKey = generateCacheKey(userId, pageable);
+        PagedResult<T> local = localCache.get(cacheKey);
+        if (local != null) {
+            LOG.debugf("[MessageCacheAdapter] Cache L1 HIT - Key: %s", cacheKey);
+            metrics.recordGet(CacheMetrics.PAGE, CacheMetrics.TIER_L1, CacheMetrics.HIT);
+            return Uni.createFrom().item(local);
+        }
+
+        // La generación se lee una sola vez y se reutiliza para el SET tras el MISS
+        // Sin generación (Redis lento, caído o circuito abierto) se consulta la BD sin cachear
+        // La época del L1 se toma antes: si el usuario se invalida durante la carga, el resultado no entra al L1
+        long epoch = localCache.epoch(userKeyPrefix(userId));
+        return breaker.read("generation.get", currentGeneration(userId))
+                .onFailure().recoverWithItem(throwable -> {
+                    logUnavailable(cacheKey, throwable);
+                    return null;
                 })
-                .onItem().ifNull().switchTo(()->{
-                    LOG.debugf("[MessageCacheAdapter] Cache MISS - ejecutando dataSupplier");
-                    return dataSupplier.get()
-                            .invoke(()->LOG.info("[MessageCacheAdapter] Ejecutando dataSupplier.get() - llamando BD"))
-                            .onItem().ifNotNull().call(result->set(userId, pageable, result, DEFAULT_TTL));
+                .chain(generation -> {
+                    if (generation == null) {
+                        recordRedisGet(CacheMetrics.MISS);
+                        return loadCoalescer.coalesce(cacheKey, dataSupplier);
+                    }
+                    String versionedKey = generateVersionedKey(userId, pageable, generation);
+                    Supplier<Uni<PagedResult<T>>> load = () -> loadAndSet(userId, pageable, generation, epoch, dataSupplier);
+                    return getFromRedis(versionedKey, contentClass)
+                            .onFailure().recoverWithItem(throwable -> {
+                                logUnavailable(versionedKey, throwable);
+                                return null;
+                            })
+                            .onItem().ifNotNull().transform(entry -> {
+                                long now = System.currentTimeMillis();
+                                if (refreshPolicy.isStale(entry, now)) {
+                                    recordRedisGet(CacheMetrics.STALE);
+                                    LOG.infof("[MessageCacheAdapter] Cache STALE - sirviendo entrada vencida y refrescando en segundo plano, Key: %s", versionedKey);
+                                    refreshInBackground(versionedKey, load);
+                                } else {
+                                    recordRedisGet(CacheMetrics.HIT);
+                                    if (refreshPolicy.shouldRefreshEarly(entry, now)) {
+                                        LOG.debugf("[MessageCacheAdapter] XFetch - refresco anticipado de Key: %s", versionedKey);
+                                        refreshInBackground(versionedKey, load);
+                                    }
+                                    localCache.put(userKeyPrefix(userId), epoch, cacheKey, entry.getValue());
+                                }
+                                LOG.debugf("[MessageCacheAdapter] Cache HIT - devolviendo resultado cacheado");
+                                return entry.getValue();
+                            })
+                            .onItem().ifNull().switchTo(() -> {
+                                LOG.debugf("[MessageCacheAdapter] Cache MISS - ejecutando dataSupplier");
+                                recordRedisGet(CacheMetrics.MISS);
+                                // La clave versionada evita que una petición posterior a una invalidación
+                                // se una a una carga de la generación anterior
+                                return loadCoalescer.coalesce(versionedKey, rebuildLease.isEnabled()
+                                        ? () -> loadWithLease(userKeyPrefix(userId), epoch, cacheKey, versionedKey, contentClass, load)
+                                        : load);
+                            });
                 });
     }
+
+    /**
+     * Consulta la fuente original y guarda el resultado bajo la generación leída antes del MISS,
+     * junto con el tiempo que tomó la consulta (delta de XFetch)
+     * El TTL duro sale del nivel de actividad del usuario; con TTL 0 el resultado no se cachea
+     */
+    private Uni<PagedResult<T>> loadAndSet(Integer userId, Pageable pageable, long generation, long epoch,
+                                           Supplier<Uni<PagedResult<T>>> dataSupplier) {
+        return Uni.createFrom().deferred(() -> {
+            long start = System.nanoTime();
+            return dataSupplier.get()
+                    .invoke(()->LOG.debug("[MessageCacheAdapter] Ejecutando dataSupplier.get() - llamando BD"))
+                    .onItem().ifNotNull().call(result -> {
+                        Duration ttl = activityTracker.ttlFor(userId, refreshPolicy.hardTtl());
+                        if (ttl.isZero()) {
+                            LOG.debugf("[MessageCacheAdapter] Usuario poco activo - no se cachea, userId: %d", userId);
+                            return Uni.createFrom().voidItem();
+                        }
+                        return set(userId, pageable, generation, epoch, result, ttl,
+                                Duration.ofNanos(System.nanoTime() - start).toMillis());
+                    });
+        });
+    }
+
+    /**
+     * Refresca una entrada sin bloquear la respuesta: una sola vez por clave y nodo (CacheLoadCoalescer)
+     * y, con lease distribuido, solo en el nodo que lo obtiene (el resto sigue sirviendo la entrada actual)
+     *
+     * Corre en un contexto Vert.x duplicado y nuevo con su propia sesión reactiva: la sesión de la
+     * petición (@WithSession) se cierra al responder, antes de que termine el refresco
+     */
+    private void refreshInBackground(String versionedKey, Supplier<Uni<PagedResult<T>>> load) {
+        Supplier<Uni<PagedResult<T>>> refresh = () -> loadCoalescer.coalesce(versionedKey + REFRESH_SUFFIX,
+                rebuildLease.isEnabled()
+                        ? () -> rebuildLease.tryAcquire(versionedKey).chain(token -> token == null
+                                ? Uni.createFrom().<PagedResult<T>>nullItem()
+                                : load.get().eventually(() -> rebuildLease.release(versionedKey, token)))
+                        : load);
+        Runnable task = () -> Panache.withSession(refresh)
+                .subscribe().with(
+                        result -> LOG.debugf("[MessageCacheAdapter] Refresco en segundo plano %s - Key: %s",
+                                result != null ? "completado" : "omitido (lease de otro nodo)", versionedKey),
+                        throwable -> LOG.warnf(throwable, "[MessageCacheAdapter] Error en refresco en segundo plano - Key: %s", versionedKey)
+                );
+
+        Context context = VertxContext.createNewDuplicatedContext();
+        if (context != null) {
+            context.runOnContext(ignored -> task.run());
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * Carga con lease distribuido: el nodo que obtiene el lease consulta la BD y lo libera al terminar;
+     * el resto espera a que la entrada aparezca en Redis y, si se agota la espera, carga por su cuenta
+     */
+    private Uni<PagedResult<T>> loadWithLease(String keyPrefix, long epoch, String cacheKey, String versionedKey,
+                                              Class<T> contentClass, Supplier<Uni<PagedResult<T>>> load) {
+        return rebuildLease.tryAcquire(versionedKey)
+                .chain(token -> {
+                    if (token != null) {
+                        return load.get().eventually(() -> rebuildLease.release(versionedKey, token));
+                    }
+                    LOG.debugf("[MessageCacheAdapter] Otro nodo reconstruye la entrada - esperando Key: %s", versionedKey);
+                    return awaitRebuild(keyPrefix, epoch, cacheKey, versionedKey, contentClass,
+                            rebuildLease.pollAttempts(), load);
+                });
+    }
+
+    /**
+     * Consulta Redis cada pollInterval hasta que otro nodo publique la entrada o se agoten los intentos
+     */
+    private Uni<PagedResult<T>> awaitRebuild(String keyPrefix, long epoch, String cacheKey, String versionedKey,
+                                             Class<T> contentClass, int attemptsLeft,
+                                             Supplier<Uni<PagedResult<T>>> load) {
+        if (attemptsLeft <= 0) {
+            LOG.infof("[MessageCacheAdapter] Espera del lease agotada - cargando desde BD, Key: %s", versionedKey);
+            return load.get();
+        }
+        return pause(rebuildLease.pollInterval())
+                .chain(() -> breaker.read("page.get", pageCommands.get(versionedKey)))
+                .onFailure().recoverWithNull()
+                .chain(bytes -> {
+                    CachedPage<PagedResult<T>> rebuilt = deserialize(bytes, contentClass);
+                    if (rebuilt == null) {
+                        return awaitRebuild(keyPrefix, epoch, cacheKey, versionedKey, contentClass, attemptsLeft - 1, load);
+                    }
+                    LOG.debugf("[MessageCacheAdapter] Entrada reconstruida por otro nodo - Key: %s", versionedKey);
+                    localCache.put(keyPrefix, epoch, cacheKey, rebuilt.getValue());
+                    return Uni.createFrom().item(rebuilt.getValue());
+                });
+    }
+
+    private void recordRedisGet(String result) {
+        metrics.recordGet(CacheMetrics.PAGE, CacheMetrics.TIER_REDIS, result);
+    }
+
+    /**
+     * Registra la degradación a BD; con el circuito abierto en debug para no inundar el log
+     */
+    private void logUnavailable(String key, Throwable throwable) {
+        if (breaker.isOpen()) {
+            LOG.debugf("[MessageCacheAdapter] Redis omitido (circuito abierto) - Key: %s, se usa la BD", key);
+        } else {
+            LOG.warnf("[MessageCacheAdapter] Redis no disponible - Key: %s, se usa la BD: %s", key, throwable.getMessage());
+        }
+    }
+
+    /**
+     * Espera sin bloquear y continúa en el contexto Vert.x actual: la sesión reactiva de la
+     * carga posterior no puede usarse desde el hilo del temporizador de Mutiny
+     */
+    private static Uni<Void> pause(Duration duration) {
+        Context context = Vertx.currentContext();
+        Uni<Void> delay = Uni.createFrom().voidItem().onItem().delayIt().by(duration);
+        return context == null ? delay : delay.emitOn(command -> context.runOnContext(ignored -> command.run()));
+    }
 }
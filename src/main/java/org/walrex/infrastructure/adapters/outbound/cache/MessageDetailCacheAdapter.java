@@ -0,0 +1,368 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.keys.ReactiveKeyCommands;
+import io.quarkus.redis.datasource.pubsub.ReactivePubSubCommands;
+import io.quarkus.redis.datasource.value.ReactiveValueCommands;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Request;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.walrex.application.ports.output.MessageDetailCachePort;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageDetailsDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.exception.MessageNotFoundException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Adapter del cache del detalle compartido de mensajes (cuerpo, remitente, destinatarios y adjuntos)
+ * Clave por mensaje: msg-svc-detail-{idMessage}; un mensaje difundido a cientos de destinatarios
+ * se carga de la BD una sola vez y cada apertura solo consulta su estado de lectura
+ *
+ * Como el detalle no cambia tras el envío no hay invalidación por generación: el TTL es largo,
+ * y delante de Redis hay un L1 en memoria acotado con TTL corto que limita cuánto puede
+ * seguir sirviéndose en otra instancia un mensaje invalidado
+ *
+ * Cache negativo: un ID inexistente se guarda como tombstone (valor vacío) en la misma clave de Redis
+ * con TTL corto (cache.detail.negative.ttl) y en un L1 propio aún más corto, así los reintentos de bots
+ * o enlaces viejos responden 404 sin consultar Postgres. La ingesta lo borra al crearse el mensaje
+ * (forgetMissing) y lo difunde por el canal pub/sub de invalidación (msg-svc:cache-invalidation) para
+ * limpiar el L1 negativo de las demás instancias
+ *
+ * Cada ID tiene una época (por franjas) que forgetMissing incrementa, también al recibir la invalidación de
+ * otra instancia. Una lectura toma la época antes de consultar Redis o la BD y solo registra el tombstone si
+ * no cambió: una carga que empezó antes de crearse el mensaje no vuelve a marcarlo como inexistente
+ */
+@ApplicationScoped
+public class MessageDetailCacheAdapter implements MessageDetailCachePort {
+
+    private static final Logger LOG = Logger.getLogger(MessageDetailCacheAdapter.class);
+
+    private static final String DETAIL_SUFFIX = "detail";
+    private static final String SCOPE_MISSING = "detail-missing";
+    private static final char SEPARATOR = '|';
+    private static final String LIST_SEPARATOR = ",";
+    private static final int EPOCH_STRIPES = 1024;
+
+    /**
+     * Identifica a esta instancia para ignorar sus propios mensajes de invalidación
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ReactiveValueCommands<String, byte[]> detailCommands;
+    private final ReactiveKeyCommands<String> keyCommands;
+    private final CacheCodec codec;
+    private final CacheLoadCoalescer loadCoalescer;
+    private final CacheKeys cacheKeys;
+    private final RedisCircuitBreaker breaker;
+    private final JavaType detailType;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Cache<Long, MessageDetailsDTO> localCache;
+    private final boolean negativeEnabled;
+    private final Duration negativeTtl;
+    private final Cache<Long, Boolean> missingIds;
+    private final RedisPipeline pipeline;
+    private final CacheMetrics metrics;
+    private final ReactivePubSubCommands<String> pubSubCommands;
+    private final AtomicLongArray missingEpochs = new AtomicLongArray(EPOCH_STRIPES);
+
+    @Inject
+    public MessageDetailCacheAdapter(
+            ReactiveRedisDataSource redisDataSource,
+            ObjectMapper objectMapper,
+            CacheCodec codec,
+            CacheLoadCoalescer loadCoalescer,
+            CacheKeys cacheKeys,
+            RedisCircuitBreaker breaker,
+            RedisPipeline pipeline,
+            CacheMetrics metrics,
+            @ConfigProperty(name = "cache.detail.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "cache.detail.ttl", defaultValue = "1h") Duration ttl,
+            @ConfigProperty(name = "cache.detail.l1.maximum-size", defaultValue = "1000") long l1MaximumSize,
+            @ConfigProperty(name = "cache.detail.l1.ttl", defaultValue = "5m") Duration l1Ttl,
+            @ConfigProperty(name = "cache.detail.negative.enabled", defaultValue = "true") boolean negativeEnabled,
+            @ConfigProperty(name = "cache.detail.negative.ttl", defaultValue = "60s") Duration negativeTtl,
+            @ConfigProperty(name = "cache.detail.negative.l1-ttl", defaultValue = "10s") Duration negativeL1Ttl) {
+        this.detailCommands = redisDataSource.value(byte[].class);
+        this.keyCommands = redisDataSource.key();
+        this.pubSubCommands = redisDataSource.pubsub(String.class);
+        this.codec = codec;
+        this.loadCoalescer = loadCoalescer;
+        this.cacheKeys = cacheKeys;
+        this.breaker = breaker;
+        this.pipeline = pipeline;
+        this.metrics = metrics;
+        this.detailType = objectMapper.getTypeFactory().constructType(MessageDetailsDTO.class);
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(l1MaximumSize)
+                .expireAfterWrite(l1Ttl)
+                .build();
+        this.negativeEnabled = enabled && negativeEnabled;
+        this.negativeTtl = negativeTtl;
+        this.missingIds = Caffeine.newBuilder()
+                .maximumSize(l1MaximumSize)
+                .expireAfterWrite(negativeL1Ttl)
+                .build();
+        LOG.infof("[MessageDetailCacheAdapter] Cache de detalle %s - ttl: %s, L1 maximumSize: %d, L1 ttl: %s",
+                enabled ? "habilitado" : "deshabilitado", ttl, l1MaximumSize, l1Ttl);
+        LOG.infof("[MessageDetailCacheAdapter] Cache negativo %s - ttl: %s, L1 ttl: %s",
+                this.negativeEnabled ? "habilitado" : "deshabilitado", negativeTtl, negativeL1Ttl);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        subscribeInvalidations().subscribe().with(
+                ignored -> { },
+                throwable -> LOG.errorf(throwable, "[MessageDetailCacheAdapter] Error al suscribirse al canal de invalidación: %s",
+                        PagedResultLocalCache.INVALIDATION_CHANNEL)
+        );
+    }
+
+    /**
+     * Se suscribe al canal de invalidación para recibir los IDs creados en otras instancias
+     */
+    Uni<Void> subscribeInvalidations() {
+        if (!negativeEnabled) {
+            return Uni.createFrom().voidItem();
+        }
+        return pubSubCommands.subscribe(PagedResultLocalCache.INVALIDATION_CHANNEL, this::onInvalidationMessage)
+                .invoke(subscriber -> LOG.infof("[MessageDetailCacheAdapter] Suscrito al canal de invalidación: %s",
+                        PagedResultLocalCache.INVALIDATION_CHANNEL))
+                .replaceWithVoid();
+    }
+
+    /**
+     * Clave de Redis del detalle de un mensaje: msg-svc-detail-{idMessage} (en cluster msg-svc:detail:{idMessage})
+     */
+    public String generateCacheKey(Long idMessage) {
+        return cacheKeys.global(DETAIL_SUFFIX, idMessage);
+    }
+
+    @Override
+    public Uni<MessageDetailsDTO> getOrFetch(Long idMessage, Supplier<Uni<MessageDetailsDTO>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        MessageDetailsDTO local = localCache.getIfPresent(idMessage);
+        if (local != null) {
+            LOG.debugf("[MessageDetailCacheAdapter] Cache L1 HIT - idMessage: %d", idMessage);
+            metrics.recordGet(CacheMetrics.DETAIL, CacheMetrics.TIER_L1, CacheMetrics.HIT);
+            return Uni.createFrom().item(local);
+        }
+        if (isKnownMissing(idMessage)) {
+            LOG.debugf("[MessageDetailCacheAdapter] Cache negativo L1 HIT - idMessage: %d", idMessage);
+            metrics.recordGet(CacheMetrics.DETAIL, CacheMetrics.TIER_L1, CacheMetrics.NEGATIVE);
+            return Uni.createFrom().failure(new MessageNotFoundException(idMessage));
+        }
+
+        String cacheKey = generateCacheKey(idMessage);
+        // Época antes de leer: si el mensaje se crea durante la lectura no se registra como inexistente
+        long epoch = missingEpochs.get(stripe(idMessage));
+        return breaker.read("detail.get", detailCommands.get(cacheKey))
+                .onItem().transformToUni(bytes -> {
+                    if (bytes != null && bytes.length == 0) {
+                        LOG.debugf("[MessageDetailCacheAdapter] Cache negativo HIT - Key: %s", cacheKey);
+                        metrics.recordGet(CacheMetrics.DETAIL, CacheMetrics.TIER_REDIS, CacheMetrics.NEGATIVE);
+                        rememberMissing(idMessage, epoch);
+                        return Uni.createFrom().<byte[]>failure(new MessageNotFoundException(idMessage));
+                    }
+                    return Uni.createFrom().item(bytes);
+                })
+                .map(this::decode)
+                .onFailure(throwable -> !(throwable instanceof MessageNotFoundException)).recoverWithItem(throwable -> {
+                    // Redis caído o lento no debe impedir abrir mensajes: se degrada a la BD
+                    if (!breaker.isOpen()) {
+                        LOG.warnf("[MessageDetailCacheAdapter] Error al leer cache - Key: %s, consultando BD: %s", cacheKey, throwable.getMessage());
+                    }
+                    return null;
+                })
+                .onItem().ifNotNull().invoke(cached -> {
+                    LOG.debugf("[MessageDetailCacheAdapter] Cache HIT - Key: %s", cacheKey);
+                    metrics.recordGet(CacheMetrics.DETAIL, CacheMetrics.TIER_REDIS, CacheMetrics.HIT);
+                    localCache.put(idMessage, cached);
+                })
+                .onItem().ifNull().switchTo(() -> {
+                    LOG.infof("[MessageDetailCacheAdapter] Cache MISS - Key: %s, consultando BD", cacheKey);
+                    metrics.recordGet(CacheMetrics.DETAIL, CacheMetrics.TIER_REDIS, CacheMetrics.MISS);
+                    return loadCoalescer.coalesce(cacheKey, () -> loader.get()
+                            .onItem().ifNotNull().call(detail -> set(idMessage, cacheKey, detail))
+                            .onFailure(MessageNotFoundException.class).call(() -> setMissing(idMessage, cacheKey, epoch)));
+                });
+    }
+
+    @Override
+    public boolean isKnownMissing(Long idMessage) {
+        return negativeEnabled && missingIds.getIfPresent(idMessage) != null;
+    }
+
+    /**
+     * Borra los tombstones de los mensajes recién creados: un DEL por clave en pipeline
+     * (las claves de detalle no comparten slot en Redis Cluster) y un único mensaje pub/sub
+     * para el L1 negativo de las demás instancias. Si además había un detalle cacheado
+     * (batch reentregado) se vuelve a cargar en la siguiente apertura
+     */
+    @Override
+    public Uni<Void> forgetMissing(List<Long> idMessages) {
+        if (!negativeEnabled || idMessages.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        forgetLocally(idMessages);
+        if (breaker.isOpen()) {
+            return Uni.createFrom().voidItem();
+        }
+        List<List<Request>> deletes = idMessages.stream()
+                .map(idMessage -> List.of(Request.cmd(Command.DEL).arg(generateCacheKey(idMessage))))
+                .toList();
+        return pipeline.execute(deletes)
+                .invoke(responses -> {
+                    metrics.recordInvalidation(CacheMetrics.DETAIL, "negative", idMessages.size());
+                    LOG.debugf("[MessageDetailCacheAdapter] Cache negativo limpiado - mensajes: %d", idMessages.size());
+                })
+                .chain(responses -> publishMissing(idMessages))
+                .onFailure().invoke(throwable ->
+                    LOG.errorf(throwable, "[MessageDetailCacheAdapter] Error al limpiar cache negativo - mensajes: %d (expira en %s)",
+                            idMessages.size(), negativeTtl)
+                )
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    @Override
+    public Uni<Void> invalidate(Long idMessage) {
+        String cacheKey = generateCacheKey(idMessage);
+        localCache.invalidate(idMessage);
+        missingIds.invalidate(idMessage);
+        return breaker.write("detail.del", keyCommands.del(cacheKey))
+                .invoke(deleted -> {
+                    metrics.recordInvalidation(CacheMetrics.DETAIL, "key", 1);
+                    LOG.infof("[MessageDetailCacheAdapter] Detalle invalidado - Key: %s, eliminado: %s", cacheKey, deleted > 0);
+                })
+                .replaceWithVoid();
+    }
+
+    /**
+     * Decodifica el detalle leído de Redis; un valor que no se puede decodificar cuenta como MISS
+     */
+    private MessageDetailsDTO decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        metrics.recordPayloadRead(CacheMetrics.DETAIL, bytes.length);
+        MessageDetailsDTO detail = codec.decode(bytes, detailType);
+        if (detail == null) {
+            metrics.recordDecodeFailure(CacheMetrics.DETAIL);
+        }
+        return detail;
+    }
+
+    /**
+     * Registra un ID inexistente en el L1 negativo y como tombstone en Redis (errores no propagados)
+     * No registra nada si el mensaje se creó desde que se tomó la época (carga anterior a la creación)
+     */
+    private Uni<Void> setMissing(Long idMessage, String cacheKey, long epoch) {
+        if (!negativeEnabled || !rememberMissing(idMessage, epoch)) {
+            return Uni.createFrom().voidItem();
+        }
+        return breaker.write("detail.set-missing", detailCommands.setex(cacheKey, negativeTtl.getSeconds(), new byte[0]))
+                .invoke(() -> LOG.debugf("[MessageDetailCacheAdapter] Cache negativo SET - Key: %s, TTL: %d segundos",
+                        cacheKey, negativeTtl.getSeconds()))
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    /**
+     * Anota el ID en el L1 negativo si su época no cambió desde epoch
+     *
+     * @return false si el mensaje se creó entretanto (no se anota)
+     */
+    private boolean rememberMissing(Long idMessage, long epoch) {
+        int stripe = stripe(idMessage);
+        if (missingEpochs.get(stripe) != epoch) {
+            LOG.debugf("[MessageDetailCacheAdapter] Tombstone descartado, el mensaje se creó durante la lectura - idMessage: %d", idMessage);
+            return false;
+        }
+        missingIds.put(idMessage, Boolean.TRUE);
+        // Un forgetMissing concurrente pudo limpiar el L1 antes de esta escritura
+        if (missingEpochs.get(stripe) != epoch) {
+            missingIds.invalidate(idMessage);
+            return false;
+        }
+        return true;
+    }
+
+    private void forgetLocally(List<Long> idMessages) {
+        idMessages.forEach(idMessage -> missingEpochs.incrementAndGet(stripe(idMessage)));
+        missingIds.invalidateAll(idMessages);
+    }
+
+    private static int stripe(Long idMessage) {
+        return Math.floorMod(Long.hashCode(idMessage), EPOCH_STRIPES);
+    }
+
+    /**
+     * Difunde los IDs creados a las demás instancias
+     * Formato del mensaje (el del canal de invalidación): {nodeId}|detail-missing|{id,id,...}
+     */
+    private Uni<Void> publishMissing(List<Long> idMessages) {
+        String ids = idMessages.stream().map(String::valueOf).collect(Collectors.joining(LIST_SEPARATOR));
+        return pubSubCommands.publish(PagedResultLocalCache.INVALIDATION_CHANNEL, nodeId + SEPARATOR + SCOPE_MISSING + SEPARATOR + ids)
+                .replaceWithVoid();
+    }
+
+    /**
+     * Aplica los IDs creados en otra instancia; ignora los propios y los demás ámbitos del canal
+     */
+    private void onInvalidationMessage(String message) {
+        int first = message.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : message.indexOf(SEPARATOR, first + 1);
+        if (second < 0 || nodeId.equals(message.substring(0, first))
+                || !SCOPE_MISSING.equals(message.substring(first + 1, second))) {
+            return;
+        }
+        try {
+            List<Long> idMessages = Arrays.stream(message.substring(second + 1).split(LIST_SEPARATOR))
+                    .map(Long::valueOf)
+                    .toList();
+            forgetLocally(idMessages);
+            LOG.debugf("[MessageDetailCacheAdapter] Cache negativo remoto limpiado - mensajes: %d", idMessages.size());
+        } catch (NumberFormatException e) {
+            LOG.warnf("[MessageDetailCacheAdapter] Mensaje de invalidación inválido: %s", message);
+        }
+    }
+
+    /**
+     * Guarda el detalle en el L1 y en Redis; un error de Redis se registra y no afecta la respuesta
+     */
+    private Uni<Void> set(Long idMessage, String cacheKey, MessageDetailsDTO detail) {
+        localCache.put(idMessage, detail);
+        byte[] encoded = codec.encode(detail);
+        return breaker.write("detail.set", detailCommands.setex(cacheKey, ttl.getSeconds(), encoded))
+                .invoke(() -> {
+                    metrics.recordSet(CacheMetrics.DETAIL, encoded.length);
+                    LOG.debugf("[MessageDetailCacheAdapter] Cache SET - Key: %s, Tamaño: %d bytes (%s), TTL: %d segundos",
+                            cacheKey, encoded.length, codec.name(), ttl.getSeconds());
+                })
+                .onFailure().invoke(throwable ->
+                    LOG.errorf(throwable, "[MessageDetailCacheAdapter] Error al guardar en cache - Key: %s", cacheKey)
+                )
+                .onFailure().recoverWithNull();
+    }
+}
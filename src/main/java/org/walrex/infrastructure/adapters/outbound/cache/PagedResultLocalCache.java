@@ -0,0 +1,228 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.pubsub.ReactivePubSubCommands;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.walrex.domain.model.PagedResult;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache local en memoria (L1) delante de Redis (L2) para resultados paginados
+ * Guarda los PagedResult ya deserializados en un Caffeine acotado (W-TinyLFU) con TTL corto:
+ * un HIT no toca la red ni el parser JSON
+ *
+ * La invalidación se propaga a todas las instancias por Redis pub/sub; el TTL corto acota
+ * el tiempo que una instancia puede servir datos viejos si pierde un mensaje de invalidación
+ *
+ * Cada invalidación por prefijo incrementa una época (por franjas de prefijo). Quien lee de Redis o de la BD
+ * toma la época antes de leer la generación y escribe con put(prefix, epoch, ...): si entretanto se invalidó
+ * el prefijo, el resultado (de la generación anterior) no entra al L1
+ *
+ * Con cache.client-tracking.enabled el L1 se desactiva: RedisClientSideCache guarda en memoria las
+ * lecturas y Redis invalida las copias por push, sin este protocolo pub/sub
+ */
+@ApplicationScoped
+public class PagedResultLocalCache {
+
+    private static final Logger LOG = Logger.getLogger(PagedResultLocalCache.class);
+
+    /**
+     * Canal de Redis por el que se difunden las invalidaciones entre instancias
+     * (en Redis Cluster PUBLISH se propaga a todos los nodos, no depende de un slot)
+     */
+    static final String INVALIDATION_CHANNEL = "msg-svc:cache-invalidation";
+
+    private static final String SCOPE_PREFIX = "prefix";
+    private static final String SCOPE_PREFIXES = "prefixes";
+    private static final String SCOPE_KEY = "key";
+    private static final char SEPARATOR = '|';
+    private static final int EPOCH_STRIPES = 1024;
+    private static final String LIST_SEPARATOR = ",";
+
+    /**
+     * Identifica a esta instancia para ignorar sus propios mensajes de invalidación
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final boolean enabled;
+    private final Cache<String, PagedResult<?>> cache;
+    private final ReactivePubSubCommands<String> pubSubCommands;
+    private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_STRIPES);
+
+    @Inject
+    public PagedResultLocalCache(
+            ReactiveRedisDataSource redisDataSource,
+            @ConfigProperty(name = "cache.l1.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "cache.l1.maximum-size", defaultValue = "10000") long maximumSize,
+            @ConfigProperty(name = "cache.l1.ttl", defaultValue = "30s") Duration ttl,
+            @ConfigProperty(name = "cache.client-tracking.enabled", defaultValue = "false") boolean clientTracking) {
+        this.enabled = enabled && !clientTracking;
+        this.pubSubCommands = redisDataSource.pubsub(String.class);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        LOG.infof("[PagedResultLocalCache] L1 %s - maximumSize: %d, ttl: %s",
+                this.enabled ? "habilitado" : (clientTracking ? "deshabilitado (client tracking)" : "deshabilitado"), maximumSize, ttl);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        pubSubCommands.subscribe(INVALIDATION_CHANNEL, this::onInvalidationMessage)
+                .subscribe().with(
+                        subscriber -> LOG.infof("[PagedResultLocalCache] Suscrito al canal de invalidación: %s", INVALIDATION_CHANNEL),
+                        throwable -> LOG.errorf(throwable, "[PagedResultLocalCache] Error al suscribirse al canal de invalidación: %s", INVALIDATION_CHANNEL)
+                );
+    }
+
+    /**
+     * Obtiene un resultado del L1
+     *
+     * @param key Clave de cache (la misma que en Redis)
+     * @return Resultado cacheado o null si no está (o el L1 está deshabilitado)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> PagedResult<T> get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        return (PagedResult<T>) cache.getIfPresent(key);
+    }
+
+    /**
+     * Época de invalidación del prefijo; se toma antes de leer la generación del usuario
+     *
+     * @param keyPrefix Prefijo de clave del usuario
+     */
+    public long epoch(String keyPrefix) {
+        return epochs.get(stripe(keyPrefix));
+    }
+
+    /**
+     * Guarda un resultado en el L1 si el prefijo no se invalidó desde que se tomó la época
+     *
+     * @param keyPrefix Prefijo de clave del usuario (el mismo que se invalida)
+     * @param epoch Época tomada con epoch(keyPrefix) antes de leer la generación
+     * @param key Clave de cache
+     */
+    public void put(String keyPrefix, long epoch, String key, PagedResult<?> value) {
+        if (!enabled || value == null) {
+            return;
+        }
+        int stripe = stripe(keyPrefix);
+        if (epochs.get(stripe) != epoch) {
+            LOG.debugf("[PagedResultLocalCache] Escritura descartada, el prefijo se invalidó durante la lectura - Key: %s", key);
+            return;
+        }
+        cache.put(key, value);
+        // Una invalidación concurrente pudo recorrer el L1 antes de esta escritura
+        if (epochs.get(stripe) != epoch) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Elimina del L1 de todas las instancias las claves que empiezan con el prefijo indicado
+     *
+     * @param keyPrefix Prefijo de clave (p. ej. todas las páginas de un usuario)
+     * @return Uni que completa tras publicar la invalidación (los errores de publicación no se propagan)
+     */
+    public Uni<Void> invalidatePrefix(String keyPrefix) {
+        if (!enabled) {
+            return Uni.createFrom().voidItem();
+        }
+        evictPrefix(keyPrefix);
+        return publish(SCOPE_PREFIX, keyPrefix);
+    }
+
+    /**
+     * Elimina del L1 de todas las instancias las claves de varios prefijos con un único mensaje pub/sub
+     * (p. ej. todos los destinatarios de un lote de la ingesta)
+     *
+     * @param keyPrefixes Prefijos de clave (no pueden contener ',')
+     */
+    public Uni<Void> invalidatePrefixes(Collection<String> keyPrefixes) {
+        if (!enabled || keyPrefixes.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        keyPrefixes.forEach(this::evictPrefix);
+        return publish(SCOPE_PREFIXES, String.join(LIST_SEPARATOR, keyPrefixes));
+    }
+
+    /**
+     * Elimina una clave del L1 de todas las instancias
+     */
+    public Uni<Void> invalidateKey(String key) {
+        if (!enabled) {
+            return Uni.createFrom().voidItem();
+        }
+        cache.invalidate(key);
+        return publish(SCOPE_KEY, key);
+    }
+
+    private void evictPrefix(String keyPrefix) {
+        epochs.incrementAndGet(stripe(keyPrefix));
+        cache.asMap().keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    private static int stripe(String keyPrefix) {
+        return Math.floorMod(keyPrefix.hashCode(), EPOCH_STRIPES);
+    }
+
+    private Uni<Void> publish(String scope, String value) {
+        String message = nodeId + SEPARATOR + scope + SEPARATOR + value;
+        return pubSubCommands.publish(INVALIDATION_CHANNEL, message)
+                .onFailure().invoke(throwable ->
+                    LOG.errorf(throwable, "[PagedResultLocalCache] Error al publicar invalidación - %s: %s", scope, value)
+                )
+                .onFailure().recoverWithNull();
+    }
+
+    /**
+     * Aplica una invalidación recibida de otra instancia
+     * Formato del mensaje: {nodeId}|{prefix|prefixes|key}|{valor}
+     */
+    private void onInvalidationMessage(String message) {
+        int first = message.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : message.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            LOG.warnf("[PagedResultLocalCache] Mensaje de invalidación inválido: %s", message);
+            return;
+        }
+
+        String sender = message.substring(0, first);
+        if (nodeId.equals(sender)) {
+            return;
+        }
+
+        String scope = message.substring(first + 1, second);
+        String value = message.substring(second + 1);
+        if (SCOPE_PREFIX.equals(scope)) {
+            evictPrefix(value);
+        } else if (SCOPE_PREFIXES.equals(scope)) {
+            for (String keyPrefix : value.split(LIST_SEPARATOR)) {
+                evictPrefix(keyPrefix);
+            }
+        } else if (SCOPE_KEY.equals(scope)) {
+            cache.invalidate(value);
+        } else {
+            // Ámbito de otro cache que comparte el canal (p. ej. detail-missing)
+            return;
+        }
+        LOG.debugf("[PagedResultLocalCache] Invalidación remota aplicada - %s: %s", scope, value);
+    }
+}
@@ -0,0 +1,164 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.TimeoutException;
+import io.vertx.core.Context;
+import io.vertx.mutiny.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.walrex.infrastructure.adapters.outbound.cache.exception.CacheUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Presupuesto de latencia y circuit breaker de las operaciones de cache en Redis
+ *
+ * Cada operación protegida tiene un tiempo máximo (cache.breaker.read-budget / write-budget) muy por
+ * debajo de quarkus.redis.timeout: si Redis no responde a tiempo la operación falla y el adapter
+ * degrada a la BD. Tras failure-threshold fallos consecutivos el circuito se abre y las operaciones
+ * fallan de inmediato sin tocar Redis; mientras está abierto un PING en segundo plano cada
+ * probe-interval comprueba si Redis se recuperó y, al responder a tiempo, lo cierra
+ *
+ * Con el circuito abierto el servicio responde a velocidad de BD en lugar de esperar a Redis
+ *
+ * Cada operación se identifica por nombre (p. ej. page.get, detail.set) y su tiempo de ida y vuelta
+ * se registra en CacheMetrics (cache.redis.latency) con su resultado
+ */
+@ApplicationScoped
+public class RedisCircuitBreaker {
+
+    private static final Logger LOG = Logger.getLogger(RedisCircuitBreaker.class);
+
+    private final ReactiveRedisDataSource redisDataSource;
+    private final Vertx vertx;
+    private final CacheMetrics metrics;
+    private final boolean enabled;
+    private final Duration readBudget;
+    private final Duration writeBudget;
+    private final int failureThreshold;
+    private final Duration probeInterval;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean open = new AtomicBoolean();
+
+    @Inject
+    public RedisCircuitBreaker(
+            ReactiveRedisDataSource redisDataSource,
+            Vertx vertx,
+            CacheMetrics metrics,
+            @ConfigProperty(name = "cache.breaker.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "cache.breaker.read-budget", defaultValue = "20ms") Duration readBudget,
+            @ConfigProperty(name = "cache.breaker.write-budget", defaultValue = "100ms") Duration writeBudget,
+            @ConfigProperty(name = "cache.breaker.failure-threshold", defaultValue = "5") int failureThreshold,
+            @ConfigProperty(name = "cache.breaker.probe-interval", defaultValue = "2s") Duration probeInterval) {
+        this.redisDataSource = redisDataSource;
+        this.vertx = vertx;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.readBudget = readBudget;
+        this.writeBudget = writeBudget;
+        this.failureThreshold = failureThreshold;
+        this.probeInterval = probeInterval;
+        LOG.infof("[RedisCircuitBreaker] Circuit breaker %s - readBudget: %s, writeBudget: %s, failureThreshold: %d, probeInterval: %s",
+                enabled ? "habilitado" : "deshabilitado", readBudget, writeBudget, failureThreshold, probeInterval);
+    }
+
+    /**
+     * true si el circuito está abierto (Redis se omite hasta que el sondeo lo cierre)
+     */
+    public boolean isOpen() {
+        return enabled && open.get();
+    }
+
+    /**
+     * Ejecuta una lectura con el presupuesto de lectura
+     *
+     * @param name Nombre de la operación para las métricas (p. ej. page.get)
+     */
+    public <T> Uni<T> read(String name, Uni<T> operation) {
+        return protect(name, operation, readBudget);
+    }
+
+    /**
+     * Ejecuta una escritura con el presupuesto de escritura
+     *
+     * @param name Nombre de la operación para las métricas (p. ej. page.set)
+     */
+    public <T> Uni<T> write(String name, Uni<T> operation) {
+        return protect(name, operation, writeBudget);
+    }
+
+    /**
+     * Con el circuito abierto falla de inmediato sin suscribirse a la operación; si no, la ejecuta con
+     * el presupuesto indicado y registra el resultado. Todo fallo se entrega como CacheUnavailableException
+     */
+    private <T> Uni<T> protect(String name, Uni<T> operation, Duration budget) {
+        Uni<T> guarded = Uni.createFrom().deferred(() -> {
+            if (enabled && open.get()) {
+                metrics.recordRedisRejected(name);
+                return Uni.createFrom().failure(new CacheUnavailableException("Circuito de Redis abierto"));
+            }
+            Context context = io.vertx.core.Vertx.currentContext();
+            long start = System.nanoTime();
+            Uni<T> timed = operation.onItemOrFailure().invoke((item, failure) ->
+                    metrics.recordRedisLatency(name, failure == null ? "success" : "failure", System.nanoTime() - start));
+            if (!enabled) {
+                return timed;
+            }
+            return timed
+                    .ifNoItem().after(budget).failWith(() -> {
+                        metrics.recordRedisLatency(name, "timeout", System.nanoTime() - start);
+                        return new CacheUnavailableException("Redis no respondió en " + budget.toMillis() + "ms");
+                    })
+                    .onItemOrFailure().invoke((item, failure) -> {
+                        if (failure == null) {
+                            consecutiveFailures.set(0);
+                        } else {
+                            recordFailure(failure);
+                        }
+                    })
+                    // El timeout llega en el hilo del temporizador de Mutiny: se vuelve al contexto Vert.x
+                    // del llamador para que la consulta a la BD que sigue use su sesión reactiva
+                    .onFailure().recoverWithUni(failure -> context == null || io.vertx.core.Vertx.currentContext() == context
+                            ? Uni.createFrom().<T>failure(failure)
+                            : Uni.createFrom().<T>failure(failure).emitOn(command -> context.runOnContext(ignored -> command.run())));
+        });
+        return guarded.onFailure().transform(failure -> failure instanceof CacheUnavailableException
+                ? failure
+                : new CacheUnavailableException("Error de Redis: " + failure.getMessage(), failure));
+    }
+
+    private void recordFailure(Throwable failure) {
+        int failures = consecutiveFailures.incrementAndGet();
+        LOG.debugf("[RedisCircuitBreaker] Fallo de Redis (%d consecutivos): %s", failures, failure.getMessage());
+        if (failures >= failureThreshold && open.compareAndSet(false, true)) {
+            LOG.warnf("[RedisCircuitBreaker] Circuito ABIERTO tras %d fallos consecutivos - se omite Redis y se sondea cada %s",
+                    failures, probeInterval);
+            scheduleProbe();
+        }
+    }
+
+    /**
+     * PING en segundo plano hasta que Redis responda dentro del presupuesto de lectura
+     */
+    private void scheduleProbe() {
+        vertx.setTimer(probeInterval.toMillis(), timerId -> redisDataSource.execute("PING")
+                .ifNoItem().after(readBudget).fail()
+                .subscribe().with(
+                        response -> {
+                            consecutiveFailures.set(0);
+                            open.set(false);
+                            LOG.infof("[RedisCircuitBreaker] Circuito CERRADO - Redis respondió al sondeo");
+                        },
+                        throwable -> {
+                            LOG.debugf("[RedisCircuitBreaker] Sondeo fallido, circuito sigue abierto: %s",
+                                    throwable instanceof TimeoutException ? "timeout" : throwable.getMessage());
+                            scheduleProbe();
+                        }));
+    }
+}
@@ -0,0 +1,225 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.RedisConnection;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+
+/**
+ * Cache en el cliente asistido por el servidor (Redis 6+, RESP3 + CLIENT TRACKING)
+ *
+ * Las lecturas se hacen por una conexión dedicada con tracking activado: Redis recuerda las claves
+ * leídas por esa conexión y, cuando cualquier cliente las modifica, expiran o se desalojan, envía un
+ * push "invalidate" por la misma conexión. El valor leído se guarda en memoria hasta ese push, así
+ * una lectura repetida de una clave caliente no hace ningún viaje a Redis y todos los nodos ven
+ * el cambio sin un protocolo pub/sub propio
+ *
+ * Como la respuesta y los push llegan en orden por la misma conexión, no puede guardarse un valor
+ * leído antes de una invalidación ya recibida. Si la conexión se pierde se vacía el cache (pudo perderse
+ * algún push) y se reconecta; mientras tanto isActive() es false y el adapter lee por el cliente normal
+ *
+ * La conexión dedicada sale del pool de quarkus.redis (quarkus.redis.protocol=resp3) y se mantiene abierta.
+ * Solo Redis standalone: en Redis Cluster el tracking es por nodo y el modo se desactiva. Si el servidor
+ * rechaza HELLO 3 (Redis anterior a 6 o un proxy sin RESP3) el modo se desactiva con un aviso en lugar
+ * de reintentar: no hay push de invalidación posible por esa conexión
+ */
+@ApplicationScoped
+public class RedisClientSideCache {
+
+    private static final Logger LOG = Logger.getLogger(RedisClientSideCache.class);
+
+    private static final String INVALIDATE = "invalidate";
+
+    /**
+     * Marca de clave inexistente (también se rastrea: un SET posterior la invalida)
+     */
+    private static final byte[] ABSENT = new byte[0];
+
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(1);
+
+    private final Redis redis;
+    private final Vertx vertx;
+    private final Cache<String, byte[]> values;
+
+    private volatile boolean enabled;
+
+    private volatile RedisConnection connection;
+    private volatile boolean shuttingDown;
+
+    @Inject
+    public RedisClientSideCache(
+            ReactiveRedisDataSource redisDataSource,
+            Vertx vertx,
+            CacheKeys cacheKeys,
+            @ConfigProperty(name = "cache.client-tracking.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "cache.client-tracking.maximum-size", defaultValue = "10000") long maximumSize) {
+        this.redis = redisDataSource.getRedis();
+        this.vertx = vertx;
+        if (enabled && cacheKeys.isCluster()) {
+            LOG.warn("[RedisClientSideCache] CLIENT TRACKING no soportado con cache.cluster.enabled - deshabilitado");
+        }
+        this.enabled = enabled && !cacheKeys.isCluster();
+        this.values = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        LOG.infof("[RedisClientSideCache] Client-side caching %s - maximumSize: %d",
+                this.enabled ? "habilitado" : "deshabilitado", maximumSize);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            connect();
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        shuttingDown = true;
+        RedisConnection current = connection;
+        connection = null;
+        if (current != null) {
+            current.closeAndForget();
+        }
+    }
+
+    /**
+     * false si el modo está deshabilitado por configuración o porque el servidor no acepta RESP3
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * true si el modo está habilitado y la conexión con tracking está lista
+     */
+    public boolean isActive() {
+        return connection != null;
+    }
+
+    /**
+     * GET de una clave: desde memoria si sigue vigente, si no por la conexión con tracking
+     *
+     * @return Valor de la clave, o un arreglo vacío si no existe
+     */
+    public Uni<byte[]> get(String key) {
+        byte[] cached = values.getIfPresent(key);
+        if (cached != null) {
+            return Uni.createFrom().item(cached);
+        }
+        RedisConnection current = connection;
+        if (current == null) {
+            return Uni.createFrom().failure(new IllegalStateException("Conexión con CLIENT TRACKING no disponible"));
+        }
+        return current.send(Request.cmd(Command.GET).arg(key))
+                .map(response -> {
+                    byte[] value = response == null ? ABSENT : response.toBytes();
+                    // Solo si la conexión no cambió: con otra conexión la clave no está rastreada
+                    if (connection == current) {
+                        values.put(key, value);
+                    }
+                    return value;
+                });
+    }
+
+    /**
+     * Número de claves en memoria (diagnóstico)
+     */
+    public long size() {
+        return values.estimatedSize();
+    }
+
+    private void connect() {
+        redis.connect()
+                .chain(candidate -> candidate.send(Request.cmd(Command.HELLO).arg(3))
+                        .onFailure().transform(Resp3UnsupportedException::new)
+                        .chain(() -> candidate.send(Request.cmd(Command.CLIENT).arg("TRACKING").arg("ON")))
+                        .replaceWith(candidate)
+                        .onFailure().call(candidate::close))
+                .subscribe().with(
+                        tracked -> {
+                            tracked.handler(this::onPush);
+                            tracked.exceptionHandler(throwable -> onConnectionLost(tracked, throwable));
+                            tracked.endHandler(() -> onConnectionLost(tracked, null));
+                            values.invalidateAll();
+                            connection = tracked;
+                            LOG.info("[RedisClientSideCache] Conexión RESP3 con CLIENT TRACKING lista");
+                        },
+                        throwable -> {
+                            if (throwable instanceof Resp3UnsupportedException) {
+                                enabled = false;
+                                LOG.warnf("[RedisClientSideCache] El servidor rechazó HELLO 3 (requiere Redis 6+ con RESP3): %s - " +
+                                        "client-side caching deshabilitado, las lecturas van por el cliente normal",
+                                        throwable.getCause().getMessage());
+                                return;
+                            }
+                            LOG.warnf("[RedisClientSideCache] No se pudo activar CLIENT TRACKING: %s - reintento en %s",
+                                    throwable.getMessage(), RECONNECT_DELAY);
+                            scheduleReconnect();
+                        });
+    }
+
+    /**
+     * Push de invalidación: ["invalidate", [claves]] o ["invalidate", null] tras un FLUSHALL
+     */
+    private void onPush(Response push) {
+        if (push.type() != ResponseType.PUSH || push.size() < 2 || !INVALIDATE.equalsIgnoreCase(push.get(0).toString())) {
+            return;
+        }
+        Response keys = push.get(1);
+        if (keys == null) {
+            values.invalidateAll();
+            LOG.debug("[RedisClientSideCache] Invalidación total recibida");
+            return;
+        }
+        for (Response key : keys) {
+            values.invalidate(key.toString());
+        }
+        LOG.debugf("[RedisClientSideCache] Invalidación recibida - claves: %d", keys.size());
+    }
+
+    private void onConnectionLost(RedisConnection lost, Throwable throwable) {
+        if (connection != lost) {
+            return;
+        }
+        connection = null;
+        // Sin conexión pueden haberse perdido invalidaciones: nada de lo guardado es confiable
+        values.invalidateAll();
+        if (shuttingDown) {
+            return;
+        }
+        LOG.warnf("[RedisClientSideCache] Conexión con CLIENT TRACKING perdida%s - reconectando",
+                throwable != null ? ": " + throwable.getMessage() : "");
+        lost.closeAndForget();
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (!shuttingDown && enabled) {
+            vertx.setTimer(RECONNECT_DELAY.toMillis(), timerId -> connect());
+        }
+    }
+
+    /**
+     * HELLO 3 rechazado: el servidor no habla RESP3 y reintentar no cambia el resultado
+     */
+    private static final class Resp3UnsupportedException extends RuntimeException {
+        private Resp3UnsupportedException(Throwable cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+}
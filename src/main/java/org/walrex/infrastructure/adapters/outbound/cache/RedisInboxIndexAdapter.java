@@ -0,0 +1,531 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.hash.ReactiveHashCommands;
+import io.quarkus.redis.datasource.keys.ReactiveKeyCommands;
+import io.quarkus.redis.datasource.sortedset.ReactiveSortedSetCommands;
+import io.quarkus.redis.datasource.sortedset.ScoreRange;
+import io.quarkus.redis.datasource.sortedset.ScoredValue;
+import io.quarkus.redis.datasource.sortedset.ZRangeArgs;
+import io.quarkus.redis.datasource.value.ReactiveValueCommands;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.walrex.application.ports.output.InboxIndexPort;
+import org.walrex.domain.model.InboxCursor;
+import org.walrex.domain.model.MessageInboxItem;
+import org.walrex.domain.model.PagedResult;
+import org.walrex.domain.model.Pageable;
+import org.walrex.infrastructure.adapters.outbound.cache.exception.CacheUnavailableException;
+import org.walrex.infrastructure.adapters.outbound.persistence.mapper.MessageInboxItemMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Índice de inbox por usuario en Redis (estrategia cache.strategy=index)
+ *
+ * - msg-svc-{userId}-inbox2-z: sorted set con los IDs de mensaje, score = create_at en microsegundos
+ * - msg-svc-{userId}-inbox2-h: hash ID de mensaje -> resumen (MessageInboxItem codificado con CacheCodec)
+ * - msg-svc-{userId}-inbox2-state: "ready" cuando el índice tiene el inbox completo, "building" mientras
+ *   se construye y "oversize" si el inbox supera cache.index.max-items (se sirve con la estrategia por página)
+ * (en Redis Cluster msg-svc:{u{userId}}:inbox2-z, etc.: las tres claves en el mismo slot, ver CacheKeys)
+ * El prefijo inbox2 corresponde a los miembros de 19 dígitos (IDs Long); las claves inbox-* anteriores,
+ * con miembros de 10 dígitos, no se leen y expiran por TTL
+ *
+ * Los miembros son el ID con ceros a la izquierda: a igual score Redis ordena por miembro y así
+ * ZREVRANGE respeta el orden del listado (create_at DESC, id_message DESC)
+ * Una página es ZREVRANGE + ZCARD + HMGET; un cursor es ZREVRANK + ZREVRANGE (o ZREVRANGEBYSCORE
+ * si el mensaje del cursor ya no está en el índice)
+ *
+ * La ingesta solo escribe en índices listos o en construcción (comprobado de forma atómica en Redis):
+ * si una construcción está en curso, la unión de su snapshot y de lo escrito por la ingesta contiene todos
+ * los mensajes. Los usuarios sin índice u "oversize" se omiten y la ingesta nunca renueva la clave de estado
+ * Una construcción solo marca el índice como listo si nadie lo eliminó mientras tanto
+ */
+@ApplicationScoped
+public class RedisInboxIndexAdapter implements InboxIndexPort {
+
+    private static final Logger LOG = Logger.getLogger(RedisInboxIndexAdapter.class);
+
+    private static final String INDEX_SUFFIX = "inbox2-z";
+    private static final String ITEMS_SUFFIX = "inbox2-h";
+    private static final String STATE_SUFFIX = "inbox2-state";
+    private static final String BUILD_SUFFIX = "-build";
+
+    private static final String STATE_READY = "ready";
+    private static final String STATE_BUILDING = "building";
+    private static final String STATE_OVERSIZE = "oversize";
+
+    /**
+     * ZADD + HSET de los items de un usuario solo si su índice está listo o en construcción,
+     * y renovación del TTL del sorted set y del hash (la clave de estado no se toca)
+     * KEYS[1] = sorted set, KEYS[2] = hash, KEYS[3] = estado; ARGV = TTL (s) y ternas score, miembro, resumen
+     */
+    private static final RedisScript ADD_ITEMS_SCRIPT = new RedisScript("index-add",
+            "local state = redis.call('GET', KEYS[3]) "
+            + "if state ~= '" + STATE_READY + "' and state ~= '" + STATE_BUILDING + "' then return 0 end "
+            + "for i = 2, #ARGV, 3 do "
+            + "  redis.call('ZADD', KEYS[1], ARGV[i], ARGV[i + 1]) "
+            + "  redis.call('HSET', KEYS[2], ARGV[i + 1], ARGV[i + 2]) "
+            + "end "
+            + "redis.call('EXPIRE', KEYS[1], ARGV[1]) "
+            + "redis.call('EXPIRE', KEYS[2], ARGV[1]) "
+            + "return (#ARGV - 1) / 3");
+
+    /**
+     * Marca el índice como listo solo si sigue en construcción (no se eliminó durante la construcción)
+     * KEYS[1] = estado; ARGV[1] = TTL (s)
+     */
+    private static final RedisScript MARK_READY_SCRIPT = new RedisScript("index-ready",
+            "if redis.call('GET', KEYS[1]) == '" + STATE_BUILDING + "' then "
+            + "  redis.call('SET', KEYS[1], '" + STATE_READY + "', 'EX', ARGV[1]) "
+            + "  return 1 "
+            + "end "
+            + "return 0");
+
+    /**
+     * Ancho del ID con ceros a la izquierda (cubre cualquier Long positivo)
+     */
+    private static final String MEMBER_FORMAT = "%019d";
+
+    /**
+     * Usuarios por pipeline al indexar un lote de la ingesta (acota el tamaño de cada lote de comandos)
+     */
+    private static final int PIPELINE_CHUNK = 500;
+
+    private final ReactiveSortedSetCommands<String, String> sortedSetCommands;
+    private final ReactiveHashCommands<String, String, byte[]> hashCommands;
+    private final ReactiveValueCommands<String, String> valueCommands;
+    private final ReactiveKeyCommands<String> keyCommands;
+    private final Redis redis;
+    private final RedisPipeline pipeline;
+    private final CacheKeys cacheKeys;
+    private final RedisCircuitBreaker breaker;
+    private final CacheCodec codec;
+    private final CacheLoadCoalescer loadCoalescer;
+    private final CacheMetrics metrics;
+    private final JavaType itemType;
+    private final Duration ttl;
+    private final int maxItems;
+
+    @Inject
+    public RedisInboxIndexAdapter(
+            ReactiveRedisDataSource redisDataSource,
+            ObjectMapper objectMapper,
+            CacheCodec codec,
+            CacheLoadCoalescer loadCoalescer,
+            RedisPipeline pipeline,
+            CacheKeys cacheKeys,
+            RedisCircuitBreaker breaker,
+            CacheMetrics metrics,
+            @ConfigProperty(name = "cache.index.ttl", defaultValue = "1h") Duration ttl,
+            @ConfigProperty(name = "cache.index.max-items", defaultValue = "5000") int maxItems) {
+        this.sortedSetCommands = redisDataSource.sortedSet(String.class, String.class);
+        this.hashCommands = redisDataSource.hash(String.class, String.class, byte[].class);
+        this.valueCommands = redisDataSource.value(String.class);
+        this.keyCommands = redisDataSource.key();
+        this.redis = redisDataSource.getRedis();
+        this.pipeline = pipeline;
+        this.cacheKeys = cacheKeys;
+        this.breaker = breaker;
+        this.codec = codec;
+        this.loadCoalescer = loadCoalescer;
+        this.metrics = metrics;
+        this.itemType = objectMapper.getTypeFactory().constructType(MessageInboxItem.class);
+        this.ttl = ttl;
+        this.maxItems = maxItems;
+    }
+
+    @Override
+    public Uni<PagedResult<MessageInboxItem>> getPage(Integer userId, Pageable pageable,
+                                                      Supplier<Multi<MessageInboxItem>> source) {
+        return breaker.read("index.state", valueCommands.get(stateKey(userId)))
+                .chain(state -> {
+                    if (STATE_OVERSIZE.equals(state)) {
+                        return Uni.createFrom().nullItem();
+                    }
+                    if (STATE_READY.equals(state)) {
+                        return breaker.read("index.page", readPage(userId, pageable))
+                                .invoke(page -> recordGet(page != null))
+                                .onItem().ifNull().switchTo(() -> rebuildAndSlice(userId, source, items -> slicePage(items, pageable)));
+                    }
+                    recordGet(false);
+                    return buildAndSlice(userId, source, items -> slicePage(items, pageable));
+                })
+                .onFailure().recoverWithItem(throwable -> unavailable(userId, throwable));
+    }
+
+    @Override
+    public Uni<PagedResult<MessageInboxItem>> getPageAfter(Integer userId, InboxCursor after, int size,
+                                                           Supplier<Multi<MessageInboxItem>> source) {
+        return breaker.read("index.state", valueCommands.get(stateKey(userId)))
+                .chain(state -> {
+                    if (STATE_OVERSIZE.equals(state)) {
+                        return Uni.createFrom().nullItem();
+                    }
+                    if (STATE_READY.equals(state)) {
+                        return breaker.read("index.page-after", readPageAfter(userId, after, size))
+                                .invoke(page -> recordGet(page != null))
+                                .onItem().ifNull().switchTo(() -> rebuildAndSlice(userId, source, items -> slicePageAfter(items, after, size)));
+                    }
+                    recordGet(false);
+                    return buildAndSlice(userId, source, items -> slicePageAfter(items, after, size));
+                })
+                .onFailure().recoverWithItem(throwable -> unavailable(userId, throwable));
+    }
+
+    /**
+     * La escritura de cada destinatario es un script (ADD_ITEMS_SCRIPT) que comprueba el estado de su índice;
+     * los scripts de todos los destinatarios se envían en pipeline (RedisPipeline), un viaje a Redis por bloque
+     * de usuarios; en Redis Cluster las claves de cada usuario comparten slot
+     *
+     * @return Uni con el número de items escritos (los de usuarios sin índice listo no cuentan)
+     */
+    @Override
+    public Uni<Integer> addItems(Map<Integer, List<MessageInboxItem>> itemsByRecipient) {
+        List<Map.Entry<Integer, List<MessageInboxItem>>> entries = itemsByRecipient.entrySet().stream()
+                .filter(entry -> !entry.getValue().isEmpty())
+                .toList();
+        if (entries.isEmpty()) {
+            return Uni.createFrom().item(0);
+        }
+        if (breaker.isOpen()) {
+            return Uni.createFrom().failure(new CacheUnavailableException("Circuito de Redis abierto - indexación omitida"));
+        }
+        List<List<Map.Entry<Integer, List<MessageInboxItem>>>> chunks = new ArrayList<>();
+        for (int from = 0; from < entries.size(); from += PIPELINE_CHUNK) {
+            chunks.add(entries.subList(from, Math.min(from + PIPELINE_CHUNK, entries.size())));
+        }
+        return Multi.createFrom().iterable(chunks)
+                .onItem().transformToUniAndConcatenate(chunk -> ADD_ITEMS_SCRIPT.execute(redis, pipeline, script -> {
+                            List<List<Request>> commands = new ArrayList<>(chunk.size());
+                            for (Map.Entry<Integer, List<MessageInboxItem>> entry : chunk) {
+                                commands.add(List.of(script.apply(request -> addItemsArgs(request, entry.getKey(), entry.getValue()))));
+                            }
+                            return commands;
+                        })
+                        .map(responses -> responses.stream()
+                                .mapToInt(response -> response == null ? 0 : response.toInteger())
+                                .sum()))
+                .collect().with(Collectors.summingInt(Integer::intValue));
+    }
+
+    /**
+     * Claves y argumentos de ADD_ITEMS_SCRIPT para los items de un usuario
+     */
+    private Request addItemsArgs(Request request, Integer userId, List<MessageInboxItem> items) {
+        request.arg(3).arg(indexKey(userId)).arg(itemsKey(userId)).arg(stateKey(userId)).arg(ttl.getSeconds());
+        for (MessageInboxItem item : items) {
+            request.arg((long) score(item.getCreatedAt())).arg(member(item.getIdMessage())).arg(codec.encode(item));
+        }
+        return request;
+    }
+
+    @Override
+    public Uni<Void> evict(Integer userId) {
+        return breaker.write("index.evict", keyCommands.del(stateKey(userId), indexKey(userId), itemsKey(userId)))
+                .invoke(deleted -> {
+                    metrics.recordInvalidation(CacheMetrics.INDEX, "user", 1);
+                    LOG.infof("[RedisInboxIndexAdapter] Índice eliminado - userId: %d, claves: %d", userId, deleted);
+                })
+                .replaceWithVoid();
+    }
+
+    private void recordGet(boolean hit) {
+        metrics.recordGet(CacheMetrics.INDEX, CacheMetrics.TIER_REDIS, hit ? CacheMetrics.HIT : CacheMetrics.MISS);
+    }
+
+    /**
+     * Redis lento o caído (presupuesto agotado, circuito abierto o cualquier otro error): null hace que
+     * el servicio use el cache por página, que a su vez degrada a la BD
+     */
+    private PagedResult<MessageInboxItem> unavailable(Integer userId, Throwable throwable) {
+        if (!breaker.isOpen()) {
+            LOG.warnf("[RedisInboxIndexAdapter] Índice no disponible - userId: %d: %s", userId, throwable.getMessage());
+        }
+        return null;
+    }
+
+    private String indexKey(Integer userId) {
+        return cacheKeys.user(userId, INDEX_SUFFIX);
+    }
+
+    private String itemsKey(Integer userId) {
+        return cacheKeys.user(userId, ITEMS_SUFFIX);
+    }
+
+    private String stateKey(Integer userId) {
+        return cacheKeys.user(userId, STATE_SUFFIX);
+    }
+
+    private static String member(Long idMessage) {
+        return String.format(MEMBER_FORMAT, idMessage);
+    }
+
+    /**
+     * Score de un mensaje: create_at en microsegundos desde epoch (exacto en un double hasta el año 2255)
+     */
+    private static double score(OffsetDateTime createdAt) {
+        if (createdAt == null) {
+            return 0;
+        }
+        Instant instant = createdAt.toInstant();
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000L;
+    }
+
+    /**
+     * Lee una página desde el índice; null si el índice está incompleto (falta algún resumen)
+     */
+    private Uni<PagedResult<MessageInboxItem>> readPage(Integer userId, Pageable pageable) {
+        String indexKey = indexKey(userId);
+        long start = pageable.isPaged() ? (long) pageable.getOffset() : 0L;
+        long stop = pageable.isPaged() ? start + pageable.getSize() - 1 : -1L;
+
+        return Uni.combine().all().unis(
+                        sortedSetCommands.zrange(indexKey, start, stop, new ZRangeArgs().rev()),
+                        sortedSetCommands.zcard(indexKey))
+                .asTuple()
+                .chain(tuple -> readItems(userId, tuple.getItem1())
+                        .map(items -> {
+                            if (items == null) {
+                                return null;
+                            }
+                            long total = tuple.getItem2();
+                            LOG.debugf("[RedisInboxIndexAdapter] Página servida desde el índice - userId: %d, page: %d, elementos: %d, total: %d",
+                                    userId, pageable.getPage(), items.size(), total);
+                            if (!pageable.isPaged()) {
+                                return new PagedResult<>(items);
+                            }
+                            String nextCursor = (!items.isEmpty() && start + pageable.getSize() < total)
+                                    ? InboxCursor.after(items.get(items.size() - 1)).encode()
+                                    : null;
+                            return new PagedResult<>(items, total, pageable.getPage(), pageable.getSize(), nextCursor);
+                        }));
+    }
+
+    /**
+     * Lee la página posterior a un cursor; null si el índice está incompleto
+     */
+    private Uni<PagedResult<MessageInboxItem>> readPageAfter(Integer userId, InboxCursor after, int size) {
+        String indexKey = indexKey(userId);
+        Uni<List<String>> ids = sortedSetCommands.zrevrank(indexKey, member(after.getIdMessage()))
+                .chain(rank -> {
+                    if (rank != null) {
+                        return sortedSetCommands.zrange(indexKey, rank + 1, rank + size + 1, new ZRangeArgs().rev());
+                    }
+                    return readMembersAfterScore(indexKey, after, size + 1);
+                });
+
+        return Uni.combine().all().unis(ids, sortedSetCommands.zcard(indexKey))
+                .asTuple()
+                .chain(tuple -> {
+                    List<String> page = tuple.getItem1();
+                    boolean hasNext = page.size() > size;
+                    return readItems(userId, hasNext ? page.subList(0, size) : page)
+                            .map(items -> {
+                                if (items == null) {
+                                    return null;
+                                }
+                                String nextCursor = hasNext ? InboxCursor.after(items.get(items.size() - 1)).encode() : null;
+                                return PagedResult.keyset(items, tuple.getItem2(), size, nextCursor);
+                            });
+                });
+    }
+
+    /**
+     * Miembros posteriores a un cursor cuyo mensaje ya no está en el índice
+     * El rango incluye el score del cursor (mensajes con el mismo create_at) y se filtra por (score, miembro)
+     * como en isAfter; se piden además tantos miembros como comparten ese score para que el filtro
+     * no deje la página corta
+     */
+    private Uni<List<String>> readMembersAfterScore(String indexKey, InboxCursor after, int limit) {
+        double cursorScore = score(after.getCreatedAt());
+        String cursorMember = member(after.getIdMessage());
+        return sortedSetCommands.zcount(indexKey, new ScoreRange<>(cursorScore, cursorScore))
+                .chain(ties -> sortedSetCommands.zrangebyscoreWithScores(indexKey,
+                        new ScoreRange<>(Double.NEGATIVE_INFINITY, true, cursorScore, true),
+                        new ZRangeArgs().rev().limit(0, limit + ties.intValue())))
+                .map(values -> values.stream()
+                        .filter(value -> value.score() < cursorScore || value.value().compareTo(cursorMember) < 0)
+                        .map(ScoredValue::value)
+                        .limit(limit)
+                        .toList());
+    }
+
+    /**
+     * HMGET de los resúmenes de los IDs indicados, en el mismo orden
+     * El tiempo transcurrido se recalcula: el resumen guardado puede tener horas
+     */
+    private Uni<List<MessageInboxItem>> readItems(Integer userId, List<String> members) {
+        if (members.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        return hashCommands.hmget(itemsKey(userId), members.toArray(new String[0]))
+                .map(values -> {
+                    List<MessageInboxItem> items = new ArrayList<>(members.size());
+                    for (String member : members) {
+                        byte[] bytes = values.get(member);
+                        MessageInboxItem item = bytes == null ? null : codec.decode(bytes, itemType);
+                        if (bytes != null && item == null) {
+                            metrics.recordDecodeFailure(CacheMetrics.INDEX);
+                        }
+                        if (item == null) {
+                            LOG.warnf("[RedisInboxIndexAdapter] Índice incompleto - userId: %d, falta el resumen de %s; se reconstruye",
+                                    userId, member);
+                            return null;
+                        }
+                        item.setTimeReceived(MessageInboxItemMapper.formatTimeReceived(item.getCreatedAt()));
+                        items.add(item);
+                    }
+                    return items;
+                });
+    }
+
+    /**
+     * Construye el índice del usuario con su inbox completo y sirve la página desde esos datos
+     * Las construcciones concurrentes del mismo usuario se ejecutan una sola vez (CacheLoadCoalescer)
+     */
+    private Uni<PagedResult<MessageInboxItem>> buildAndSlice(Integer userId, Supplier<Multi<MessageInboxItem>> source,
+                                                             Function<List<MessageInboxItem>, PagedResult<MessageInboxItem>> slicer) {
+        return loadCoalescer.coalesce(indexKey(userId) + BUILD_SUFFIX, () -> build(userId, source))
+                .map(items -> items == null ? null : slicer.apply(items));
+    }
+
+    private Uni<PagedResult<MessageInboxItem>> rebuildAndSlice(Integer userId, Supplier<Multi<MessageInboxItem>> source,
+                                                               Function<List<MessageInboxItem>, PagedResult<MessageInboxItem>> slicer) {
+        return evict(userId).chain(() -> buildAndSlice(userId, source, slicer));
+    }
+
+    /**
+     * Marca el índice como "building" (desde ese momento la ingesta escribe en él) y lee hasta max-items + 1
+     * mensajes de la fuente; si caben, los escribe en el índice y lo marca listo, si no, marca al usuario
+     * como "oversize" para no reintentar la construcción hasta que expire
+     * Cada escritura en Redis pasa por el circuit breaker; si falla una escritura posterior a la lectura
+     * de la fuente, la página se sirve con lo leído y el índice queda sin marcar como listo
+     *
+     * @return Inbox completo del usuario o null si supera el máximo
+     */
+    private Uni<List<MessageInboxItem>> build(Integer userId, Supplier<Multi<MessageInboxItem>> source) {
+        LOG.infof("[RedisInboxIndexAdapter] Construyendo índice de inbox - userId: %d", userId);
+        long startTime = System.currentTimeMillis();
+
+        return breaker.write("index.building", valueCommands.setex(stateKey(userId), ttl.getSeconds(), STATE_BUILDING))
+                .chain(() -> source.get()
+                        .select().first(maxItems + 1)
+                        .collect().asList())
+                .chain(items -> {
+                    if (items.size() > maxItems) {
+                        LOG.infof("[RedisInboxIndexAdapter] Inbox mayor que cache.index.max-items (%d) - userId: %d, se usa el cache por página",
+                                maxItems, userId);
+                        return breaker.write("index.oversize", valueCommands.setex(stateKey(userId), ttl.getSeconds(), STATE_OVERSIZE))
+                                .onFailure().invoke(throwable -> unavailable(userId, throwable))
+                                .onFailure().recoverWithNull()
+                                .replaceWith((List<MessageInboxItem>) null);
+                    }
+                    return breaker.write("index.write", write(userId, items))
+                            .chain(() -> breaker.write("index.ready", MARK_READY_SCRIPT.send(redis, request -> request.arg(1)
+                                    .arg(stateKey(userId)).arg(ttl.getSeconds()))))
+                            .invoke(marked -> {
+                                if (marked != null && marked.toInteger() == 1) {
+                                    LOG.infof("[RedisInboxIndexAdapter] Índice construido - userId: %d, mensajes: %d, %dms",
+                                            userId, items.size(), System.currentTimeMillis() - startTime);
+                                } else {
+                                    LOG.infof("[RedisInboxIndexAdapter] Índice eliminado durante la construcción - userId: %d, no se marca como listo",
+                                            userId);
+                                }
+                            })
+                            // La página se sirve igualmente: los datos ya se leyeron de la fuente
+                            .onFailure().invoke(throwable -> unavailable(userId, throwable))
+                            .onFailure().recoverWithNull()
+                            .replaceWith(items);
+                });
+    }
+
+    /**
+     * ZADD + HSET de los items de un usuario y renovación del TTL del sorted set y del hash
+     * (el estado lo fija build)
+     */
+    private Uni<Void> write(Integer userId, List<MessageInboxItem> items) {
+        String indexKey = indexKey(userId);
+        String itemsKey = itemsKey(userId);
+        if (items.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+
+        Map<String, Double> scores = new HashMap<>(items.size() * 2);
+        Map<String, byte[]> summaries = new HashMap<>(items.size() * 2);
+        for (MessageInboxItem item : items) {
+            String member = member(item.getIdMessage());
+            scores.put(member, score(item.getCreatedAt()));
+            summaries.put(member, codec.encode(item));
+        }
+
+        return Uni.combine().all().unis(
+                        sortedSetCommands.zadd(indexKey, scores),
+                        hashCommands.hset(itemsKey, summaries))
+                .discardItems()
+                .chain(() -> Uni.combine().all().unis(
+                                keyCommands.expire(indexKey, ttl),
+                                keyCommands.expire(itemsKey, ttl))
+                        .discardItems());
+    }
+
+    /**
+     * Página por offset sobre el inbox completo recién leído de la fuente
+     */
+    private static PagedResult<MessageInboxItem> slicePage(List<MessageInboxItem> all, Pageable pageable) {
+        if (!pageable.isPaged()) {
+            return new PagedResult<>(all);
+        }
+        int from = Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getSize(), all.size());
+        List<MessageInboxItem> items = List.copyOf(all.subList(from, to));
+        String nextCursor = (!items.isEmpty() && to < all.size())
+                ? InboxCursor.after(items.get(items.size() - 1)).encode()
+                : null;
+        return new PagedResult<>(items, all.size(), pageable.getPage(), pageable.getSize(), nextCursor);
+    }
+
+    /**
+     * Página keyset sobre el inbox completo recién leído de la fuente
+     */
+    private static PagedResult<MessageInboxItem> slicePageAfter(List<MessageInboxItem> all, InboxCursor after, int size) {
+        int from = 0;
+        while (from < all.size() && !isAfter(all.get(from), after)) {
+            from++;
+        }
+        int to = Math.min(from + size, all.size());
+        List<MessageInboxItem> items = List.copyOf(all.subList(from, to));
+        String nextCursor = (!items.isEmpty() && to < all.size())
+                ? InboxCursor.after(items.get(items.size() - 1)).encode()
+                : null;
+        return PagedResult.keyset(items, all.size(), size, nextCursor);
+    }
+
+    /**
+     * Indica si el item va después del cursor en el orden create_at DESC, id_message DESC
+     */
+    private static boolean isAfter(MessageInboxItem item, InboxCursor after) {
+        if (item.getCreatedAt() == null) {
+            return true;
+        }
+        int byDate = item.getCreatedAt().toInstant().compareTo(after.getCreatedAt().toInstant());
+        return byDate < 0 || (byDate == 0 && item.getIdMessage() < after.getIdMessage());
+    }
+}
@@ -0,0 +1,84 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envío de comandos Redis en pipeline respetando los slots de Redis Cluster
+ *
+ * Cada grupo contiene comandos cuyas claves están en un mismo slot (p. ej. las de un usuario con hash tag)
+ * - Standalone: todos los grupos van en un solo Redis.batch (un viaje)
+ * - Cluster: el cliente de Vert.x rechaza un batch con claves de slots distintos, así que cada grupo es
+ *   un batch propio sobre una misma conexión de cluster, que los reparte en pipeline a cada shard
+ *
+ * Las respuestas se devuelven en el orden de los comandos, como si fuera un único batch
+ * El tiempo de cada pipeline completo se registra como cache.redis.latency{operation=pipeline}
+ */
+@ApplicationScoped
+public class RedisPipeline {
+
+    /**
+     * Grupos en vuelo a la vez en modo cluster
+     */
+    private static final int CLUSTER_CONCURRENCY = 32;
+
+    private static final String PIPELINE_OPERATION = "pipeline";
+
+    private final Redis redis;
+    private final boolean cluster;
+    private final CacheMetrics metrics;
+
+    @Inject
+    public RedisPipeline(ReactiveRedisDataSource redisDataSource, CacheKeys cacheKeys, CacheMetrics metrics) {
+        this.redis = redisDataSource.getRedis();
+        this.cluster = cacheKeys.isCluster();
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param groups Comandos agrupados por slot
+     * @return Uni con las respuestas de todos los comandos, en orden
+     */
+    public Uni<List<Response>> execute(List<List<Request>> groups) {
+        if (groups.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        return Uni.createFrom().deferred(() -> {
+            long start = System.nanoTime();
+            return send(groups).onItemOrFailure().invoke((responses, failure) -> metrics.recordRedisLatency(
+                    PIPELINE_OPERATION, failure == null ? "success" : "failure", System.nanoTime() - start));
+        });
+    }
+
+    private Uni<List<Response>> send(List<List<Request>> groups) {
+        if (!cluster) {
+            List<Request> all = new ArrayList<>();
+            groups.forEach(all::addAll);
+            return redis.batch(all);
+        }
+        return redis.connect().chain(connection -> Multi.createFrom().range(0, groups.size())
+                .onItem().transformToUni(index -> connection.batch(groups.get(index))
+                        .map(responses -> (Map.Entry<Integer, List<Response>>) new AbstractMap.SimpleEntry<>(index, responses)))
+                .merge(CLUSTER_CONCURRENCY)
+                .collect().asList()
+                .map(results -> {
+                    results.sort(Comparator.comparing(Map.Entry::getKey));
+                    List<Response> all = new ArrayList<>();
+                    results.forEach(result -> all.addAll(result.getValue()));
+                    return all;
+                })
+                .eventually(connection::close));
+    }
+}
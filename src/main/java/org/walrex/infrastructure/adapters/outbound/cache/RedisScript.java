@@ -0,0 +1,99 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Script Lua invocado con EVALSHA para no enviar el cuerpo del script en cada llamada
+ *
+ * - El script se registra con SCRIPT LOAD la primera vez que se usa y se guarda su SHA1
+ * - Si Redis responde NOSCRIPT (reinicio, SCRIPT FLUSH, failover o un shard de Redis Cluster donde
+ *   no se cargó) la llamada se repite con EVAL, que además deja el script en la caché de ese nodo
+ * - Si SCRIPT LOAD falla se usa EVAL hasta que una carga posterior tenga éxito
+ */
+class RedisScript {
+
+    private static final Logger LOG = Logger.getLogger(RedisScript.class);
+
+    private static final String NOSCRIPT = "NOSCRIPT";
+
+    private final String name;
+    private final String source;
+    private volatile String sha;
+
+    RedisScript(String name, String source) {
+        this.name = name;
+        this.source = source;
+    }
+
+    /**
+     * @param args Añade numkeys, claves y argumentos a la petición
+     * @return Uni con la respuesta del script
+     */
+    Uni<Response> send(Redis redis, UnaryOperator<Request> args) {
+        return load(redis).chain(loaded -> loaded == null
+                ? redis.send(eval(args))
+                : redis.send(evalsha(loaded, args))
+                        .onFailure(RedisScript::isNoScript).recoverWithUni(throwable -> {
+                            LOG.debugf("[RedisScript] NOSCRIPT - script: %s, se reintenta con EVAL", name);
+                            return redis.send(eval(args));
+                        }));
+    }
+
+    /**
+     * Envía en pipeline grupos de comandos que invocan el script
+     *
+     * @param groups Construye los grupos a partir de la función que crea cada invocación del script
+     * @return Uni con las respuestas de todos los comandos, en orden
+     */
+    Uni<List<Response>> execute(Redis redis, RedisPipeline pipeline,
+                                Function<Function<UnaryOperator<Request>, Request>, List<List<Request>>> groups) {
+        return load(redis).chain(loaded -> loaded == null
+                ? pipeline.execute(groups.apply(this::eval))
+                : pipeline.execute(groups.apply(args -> evalsha(loaded, args)))
+                        .onFailure(RedisScript::isNoScript).recoverWithUni(throwable -> {
+                            LOG.debugf("[RedisScript] NOSCRIPT en pipeline - script: %s, se reintenta con EVAL", name);
+                            return pipeline.execute(groups.apply(this::eval));
+                        }));
+    }
+
+    /**
+     * @return Uni con el SHA1 del script, o null si no se pudo cargar (se usa EVAL)
+     */
+    private Uni<String> load(Redis redis) {
+        String loaded = sha;
+        if (loaded != null) {
+            return Uni.createFrom().item(loaded);
+        }
+        return redis.send(Request.cmd(Command.SCRIPT).arg("LOAD").arg(source))
+                .map(response -> {
+                    sha = response.toString();
+                    LOG.debugf("[RedisScript] Script cargado - script: %s, sha: %s", name, sha);
+                    return sha;
+                })
+                .onFailure().recoverWithItem(throwable -> {
+                    LOG.debugf("[RedisScript] SCRIPT LOAD fallido - script: %s: %s, se usa EVAL", name, throwable.getMessage());
+                    return null;
+                });
+    }
+
+    private Request evalsha(String loaded, UnaryOperator<Request> args) {
+        return args.apply(Request.cmd(Command.EVALSHA).arg(loaded));
+    }
+
+    private Request eval(UnaryOperator<Request> args) {
+        return args.apply(Request.cmd(Command.EVAL).arg(source));
+    }
+
+    private static boolean isNoScript(Throwable throwable) {
+        return throwable.getMessage() != null && throwable.getMessage().startsWith(NOSCRIPT);
+    }
+}
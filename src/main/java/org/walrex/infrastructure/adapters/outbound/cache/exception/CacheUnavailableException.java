@@ -0,0 +1,17 @@
+package org.walrex.infrastructure.adapters.outbound.cache.exception;
+
+/**
+ * Excepción lanzada cuando una operación de cache se omite o se abandona:
+ * circuito abierto o presupuesto de latencia agotado
+ * Los adapters de cache la recuperan y degradan a la fuente original (BD)
+ */
+public class CacheUnavailableException extends RuntimeException {
+
+    public CacheUnavailableException(String message) {
+        super(message);
+    }
+
+    public CacheUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -46,13 +46,14 @@ public class InboxMessageProducer {
      * import com.walrex.avro.MessagePriority;
      * import com.walrex.avro.Attachment;
      *
-     * // Crear mensaje Avro:
+     * // Crear mensaje Avro (messageId es la clave de evento; senderId y recipientIds,
+     * // IDs numéricos de usuario: el consumidor aparta al DLQ los que no lo son)
      * InboxMessage avroMessage = InboxMessage.newBuilder()
      *     .setMessageId(UUID.randomUUID().toString())
-     *     .setSenderId("user123")
+     *     .setSenderId("123")
      *     .setSenderName("Juan Pérez")
      *     .setSenderEmail("juan@example.com")
-     *     .setRecipientIds(List.of("user456", "user789"))
+     *     .setRecipientIds(List.of("456", "789"))
      *     .setSubject("Bienvenido")
      *     .setBody("Mensaje de bienvenida...")
      *     .setPriority(MessagePriority.NORMAL)
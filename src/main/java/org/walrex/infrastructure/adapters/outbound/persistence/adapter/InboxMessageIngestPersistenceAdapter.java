@@ -0,0 +1,33 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.adapter;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.walrex.application.ports.output.InboxMessageIngestPort;
+import org.walrex.domain.model.IncomingInboxMessage;
+import org.walrex.domain.model.IngestResult;
+import org.walrex.infrastructure.adapters.outbound.persistence.repository.InboxMessageBulkRepository;
+
+import java.util.List;
+
+/**
+ * Adaptador de persistencia que implementa el puerto de salida InboxMessageIngestPort
+ * Escribe los mensajes de la ingesta con inserts en bulk (unnest) sobre el cliente reactivo de Postgres
+ *
+ * Esta clase pertenece a la capa de infraestructura
+ */
+@ApplicationScoped
+public class InboxMessageIngestPersistenceAdapter implements InboxMessageIngestPort {
+
+    private final InboxMessageBulkRepository inboxMessageBulkRepository;
+
+    @Inject
+    public InboxMessageIngestPersistenceAdapter(InboxMessageBulkRepository inboxMessageBulkRepository) {
+        this.inboxMessageBulkRepository = inboxMessageBulkRepository;
+    }
+
+    @Override
+    public Uni<IngestResult> insertBatch(List<IncomingInboxMessage> messages) {
+        return inboxMessageBulkRepository.insertBatch(messages);
+    }
+}
@@ -0,0 +1,36 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.adapter;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.walrex.application.ports.output.InboxViewPort;
+import org.walrex.infrastructure.adapters.outbound.persistence.repository.InboxViewRepository;
+
+import java.util.List;
+
+/**
+ * Adaptador de persistencia que implementa el puerto de salida InboxViewPort
+ * Escribe el read model inbox_view con upserts en bulk sobre el cliente reactivo de Postgres
+ *
+ * Esta clase pertenece a la capa de infraestructura
+ */
+@ApplicationScoped
+public class InboxViewPersistenceAdapter implements InboxViewPort {
+
+    private final InboxViewRepository inboxViewRepository;
+
+    @Inject
+    public InboxViewPersistenceAdapter(InboxViewRepository inboxViewRepository) {
+        this.inboxViewRepository = inboxViewRepository;
+    }
+
+    @Override
+    public Uni<Integer> upsertMessages(List<Long> messageIds) {
+        return inboxViewRepository.upsertByMessageIds(messageIds);
+    }
+
+    @Override
+    public Uni<List<Long>> upsertChunkAfter(long afterIdRecipient, int chunkSize) {
+        return inboxViewRepository.upsertChunkAfter(afterIdRecipient, chunkSize);
+    }
+}
@@ -0,0 +1,158 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.adapter;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.panache.common.Page;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.walrex.application.ports.output.InboxMessagePort;
+import org.walrex.domain.model.InboxCursor;
+import org.walrex.domain.model.MessageInboxItem;
+import org.walrex.domain.model.PagedResult;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.InboxViewRowDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageDetailsDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageReadStateDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.mapper.MessageInboxItemMapper;
+import org.walrex.infrastructure.adapters.outbound.persistence.repository.InboxViewRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Adaptador de InboxMessagePort que sirve el listado del inbox desde el read model inbox_view
+ * Cada lectura es un range scan sobre (recipient_id, created_at DESC, id_message DESC) sin JOINs
+ * El detalle de un mensaje y su estado de lectura se siguen resolviendo con el modelo relacional
+ * (MessageInboxPersistenceAdapter)
+ *
+ * Se activa en build con inbox.view.serve-reads=true y reemplaza a MessageInboxPersistenceAdapter;
+ * requiere la vista poblada (inbox.view.enabled=true y backfill ejecutado)
+ */
+@Alternative
+@Priority(1)
+@IfBuildProperty(name = "inbox.view.serve-reads", stringValue = "true")
+@ApplicationScoped
+public class InboxViewReadAdapter implements InboxMessagePort {
+
+    private static final Logger LOG = Logger.getLogger(InboxViewReadAdapter.class);
+
+    private final InboxViewRepository inboxViewRepository;
+    private final MessageInboxPersistenceAdapter relationalAdapter;
+
+    @Inject
+    public InboxViewReadAdapter(InboxViewRepository inboxViewRepository,
+                                MessageInboxPersistenceAdapter relationalAdapter) {
+        this.inboxViewRepository = inboxViewRepository;
+        this.relationalAdapter = relationalAdapter;
+    }
+
+    @Override
+    public Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, Optional<Page> page, boolean exactTotal) {
+        if (page.isEmpty()) {
+            LOG.infof("[InboxViewReadAdapter] Consultando inbox_view sin paginación - userId: %d", userId);
+            return inboxViewRepository.findAllByRecipientId(userId)
+                .map(rows -> new PagedResult<>(toDomain(rows)))
+                .onFailure().invoke(throwable ->
+                    LOG.errorf(throwable, "[InboxViewReadAdapter] Error al consultar inbox_view sin paginación - userId: %d", userId)
+                );
+        }
+
+        Page p = page.get();
+        int offset = p.index * p.size;
+        LOG.infof("[InboxViewReadAdapter] Consultando inbox_view con paginación - userId: %d, page: %d, size: %d, exactTotal: %s",
+                userId, p.index, p.size, exactTotal);
+
+        Uni<PagedResult<MessageInboxItem>> result;
+        if (exactTotal) {
+            result = inboxViewRepository.findPageWithTotal(userId, offset, p.size)
+                .chain(rows -> {
+                    Uni<Long> total;
+                    if (!rows.isEmpty()) {
+                        total = Uni.createFrom().item(rows.get(0).getTotalCount());
+                    } else if (p.index == 0) {
+                        total = Uni.createFrom().item(0L);
+                    } else {
+                        total = inboxViewRepository.countByRecipientId(userId);
+                    }
+                    List<MessageInboxItem> items = toDomain(rows);
+                    return total.map(totalCount -> {
+                        String nextCursor = (!items.isEmpty() && (long) (p.index + 1) * p.size < totalCount)
+                            ? InboxCursor.after(items.get(items.size() - 1)).encode()
+                            : null;
+                        return new PagedResult<>(items, totalCount, p.index, p.size, nextCursor);
+                    });
+                });
+        } else {
+            result = inboxViewRepository.findPage(userId, offset, p.size + 1)
+                .map(rows -> {
+                    boolean hasNext = rows.size() > p.size;
+                    List<MessageInboxItem> items = toDomain(hasNext ? rows.subList(0, p.size) : rows);
+                    String nextCursor = hasNext ? InboxCursor.after(items.get(items.size() - 1)).encode() : null;
+                    boolean totalExact = !hasNext && (!rows.isEmpty() || p.index == 0);
+                    return new PagedResult<>(items, (long) offset + rows.size(), p.index, p.size, nextCursor, totalExact);
+                });
+        }
+
+        return result.onFailure().invoke(throwable ->
+            LOG.errorf(throwable, "[InboxViewReadAdapter] Error al consultar inbox_view - userId: %d", userId)
+        );
+    }
+
+    @Override
+    public Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, InboxCursor after, int size, boolean exactTotal) {
+        LOG.infof("[InboxViewReadAdapter] Consultando inbox_view con cursor - userId: %d, after: %s, size: %d, exactTotal: %s",
+                userId, after, size, exactTotal);
+
+        return inboxViewRepository.findAfter(userId, after.getCreatedAt(), after.getIdMessage(), size + 1)
+            .chain(rows -> {
+                boolean hasNext = rows.size() > size;
+                List<MessageInboxItem> items = toDomain(hasNext ? rows.subList(0, size) : rows);
+                String nextCursor = hasNext ? InboxCursor.after(items.get(items.size() - 1)).encode() : null;
+                if (!exactTotal) {
+                    return Uni.createFrom().item(
+                        PagedResult.keyset(items, items.size() + (hasNext ? 1L : 0L), size, nextCursor, false));
+                }
+                return inboxViewRepository.countByRecipientId(userId)
+                    .map(totalCount -> PagedResult.keyset(items, totalCount, size, nextCursor));
+            })
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[InboxViewReadAdapter] Error al consultar inbox_view con cursor - userId: %d", userId)
+            );
+    }
+
+    @Override
+    public Multi<MessageInboxItem> streamMessagesByUser(Integer userId) {
+        LOG.infof("[InboxViewReadAdapter] Consultando inbox_view en streaming - userId: %d", userId);
+
+        return inboxViewRepository.streamByRecipientId(userId)
+            .map(MessageInboxItemMapper::toDomain)
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[InboxViewReadAdapter] Error al consultar inbox_view en streaming - userId: %d", userId)
+            );
+    }
+
+    @Override
+    public Uni<Map<Integer, List<MessageInboxItem>>> findInboxItemsByMessageIds(List<Long> messageIds) {
+        return relationalAdapter.findInboxItemsByMessageIds(messageIds);
+    }
+
+    @Override
+    public Uni<MessageDetailsDTO> getSharedMessageDetail(Long idMessage) {
+        return relationalAdapter.getSharedMessageDetail(idMessage);
+    }
+
+    @Override
+    public Uni<MessageReadStateDTO> findReadState(Long idMessage, Integer idDestinatario) {
+        return relationalAdapter.findReadState(idMessage, idDestinatario);
+    }
+
+    private static List<MessageInboxItem> toDomain(List<InboxViewRowDTO> rows) {
+        return rows.stream()
+            .map(MessageInboxItemMapper::toDomain)
+            .toList();
+    }
+}
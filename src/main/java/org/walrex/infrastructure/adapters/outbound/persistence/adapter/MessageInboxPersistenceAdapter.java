@@ -1,31 +1,41 @@
 package org.walrex.infrastructure.adapters.outbound.persistence.adapter;
 
 import io.quarkus.panache.common.Page;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 import org.walrex.application.ports.output.InboxMessagePort;
+import org.walrex.domain.model.InboxCursor;
 import org.walrex.domain.model.MessageInboxItem;
 import org.walrex.domain.model.PagedResult;
 import org.walrex.infrastructure.adapters.outbound.persistence.dto.AttachmentInfoDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.InboxPageKeyDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.InboxViewRowDTO;
 import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageDetailsDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageInboxRowDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageReadStateDTO;
 import org.walrex.infrastructure.adapters.outbound.persistence.dto.ReceiverInfoDTO;
 import org.walrex.infrastructure.adapters.outbound.persistence.dto.RemitentInfoDTO;
 import org.walrex.infrastructure.adapters.outbound.persistence.entity.AttachmentEntity;
 import org.walrex.infrastructure.adapters.outbound.persistence.entity.EmpleadoEntity;
-import org.walrex.infrastructure.adapters.outbound.persistence.entity.MessageEntity;
 import org.walrex.infrastructure.adapters.outbound.persistence.entity.MessageRecipientEntity;
 import org.walrex.infrastructure.adapters.outbound.persistence.entity.UsuarioEntity;
+import org.walrex.infrastructure.adapters.outbound.persistence.mapper.MessageInboxItemMapper;
 import org.walrex.infrastructure.adapters.outbound.persistence.repository.AttachmentRepository;
+import org.walrex.infrastructure.adapters.outbound.persistence.repository.InboxViewRepository;
+import org.walrex.infrastructure.adapters.outbound.persistence.repository.MessageInboxStreamRepository;
+import org.walrex.infrastructure.adapters.outbound.persistence.repository.MessageReadStateRepository;
 import org.walrex.infrastructure.adapters.outbound.persistence.repository.MessageRecipientRepository;
 import org.walrex.infrastructure.adapters.outbound.persistence.repository.MessageRepository;
 import org.walrex.infrastructure.adapters.outbound.persistence.exception.MessageNotFoundException;
 
-import java.time.Duration;
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -42,73 +52,68 @@ public class MessageInboxPersistenceAdapter implements InboxMessagePort {
     private final MessageRecipientRepository messageRecipientRepository;
     private final MessageRepository messageRepository;
     private final AttachmentRepository attachmentRepository;
+    private final MessageInboxStreamRepository messageInboxStreamRepository;
+    private final MessageReadStateRepository messageReadStateRepository;
+    private final InboxViewRepository inboxViewRepository;
 
     @Inject
     public MessageInboxPersistenceAdapter(
             MessageRecipientRepository messageRecipientRepository,
             MessageRepository messageRepository,
-            AttachmentRepository attachmentRepository) {
+            AttachmentRepository attachmentRepository,
+            MessageInboxStreamRepository messageInboxStreamRepository,
+            MessageReadStateRepository messageReadStateRepository,
+            InboxViewRepository inboxViewRepository) {
         this.messageRecipientRepository = messageRecipientRepository;
         this.messageRepository = messageRepository;
         this.attachmentRepository = attachmentRepository;
+        this.messageInboxStreamRepository = messageInboxStreamRepository;
+        this.messageReadStateRepository = messageReadStateRepository;
+        this.inboxViewRepository = inboxViewRepository;
     }
 
     /**
      * Obtiene los mensajes del inbox de un usuario desde la base de datos
-     * Utiliza el repositorio reactivo para obtener los destinatarios con sus mensajes
-     * Incluye el conteo total de registros para metadatos de paginación
+     * Con paginación, consulta en dos fases: primero los IDs de la página (LIMIT real en SQL)
+     * y luego proyecta solo esas filas a DTO; así Hibernate no pagina en memoria ni hidrata entidades
+     * El total exacto viaja en la misma consulta de IDs (COUNT(*) OVER ()); sin total exacto
+     * se piden size + 1 IDs y totalElements es una cota inferior
      *
      * @param userId ID del usuario destinatario
      * @param page Parámetro opcional para paginación (Quarkus Panache Page)
+     * @param exactTotal true para calcular el total exacto de elementos
      * @return Uni reactivo con el resultado paginado que contiene los mensajes y metadatos
      */
     @Override
-    public Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, Optional<Page> page) {
+    public Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, Optional<Page> page, boolean exactTotal) {
         if (page.isPresent()) {
             Page p = page.get();
-            LOG.infof("[MessageInboxPersistenceAdapter] Consultando BD con paginación - userId: %d, page: %d, size: %d",
-                    userId, p.index, p.size);
-
-            // Obtener el total de registros y los datos paginados en paralelo
-            Uni<Long> totalCountUni = messageRecipientRepository.countByRecipientId(userId);
-            Uni<List<MessageRecipientEntity>> recipientsUni =
-                messageRecipientRepository.findByRecipientIdWithMessagePaged(userId, p.index, p.size);
-
-            // Combinar ambos resultados
-            return Uni.combine().all().unis(recipientsUni, totalCountUni)
-                .asTuple()
-                .map(tuple -> {
-                    List<MessageRecipientEntity> recipients = tuple.getItem1();
-                    Long totalCount = tuple.getItem2();
-
-                    LOG.debugf("[MessageInboxPersistenceAdapter] Datos obtenidos de BD - userId: %d, total en BD: %d, página actual: %d registros",
-                            (Object) userId, (Object) totalCount, (Object) recipients.size());
-
-                    // Mapear entidades a dominio
-                    List<MessageInboxItem> items = recipients.stream()
-                        .map(this::mapToDomain)
-                        .toList();
-
-                    // Crear PagedResult con metadatos
-                    PagedResult<MessageInboxItem> result = new PagedResult<>(items, totalCount, p.index, p.size);
-                    LOG.infof("[MessageInboxPersistenceAdapter] Resultado mapeado exitosamente - userId: %d, elementos: %d, total: %d",
-                            userId, items.size(), totalCount);
-                    return result;
-                })
+            LOG.infof("[MessageInboxPersistenceAdapter] Consultando BD con paginación - userId: %d, page: %d, size: %d, exactTotal: %s",
+                    userId, p.index, p.size, exactTotal);
+
+            Uni<PagedResult<MessageInboxItem>> result = exactTotal
+                ? findPageWithTotal(userId, p)
+                : findPageWithoutTotal(userId, p);
+
+            return result
+                .onItem().invoke(paged ->
+                    LOG.infof("[MessageInboxPersistenceAdapter] Resultado mapeado exitosamente - userId: %d, elementos: %d, total: %d, exacto: %s",
+                            userId, paged.getData().size(), paged.getTotalElements(), paged.isTotalExact())
+                )
                 .onFailure().invoke(throwable ->
                     LOG.errorf(throwable, "[MessageInboxPersistenceAdapter] Error al consultar BD - userId: %d", userId)
                 );
         } else {
             LOG.infof("[MessageInboxPersistenceAdapter] Consultando BD sin paginación - userId: %d", userId);
 
-            // Sin paginación - retornar todos los mensajes
-            return messageRecipientRepository.findByRecipientIdWithMessage(userId)
-                .map(recipients -> {
+            // Sin paginación - retornar todos los mensajes (proyección, sin entidades)
+            return messageRecipientRepository.findInboxRowsByRecipientId(userId)
+                .map(rows -> {
                     LOG.debugf("[MessageInboxPersistenceAdapter] Datos obtenidos de BD - userId: %d, total: %d registros",
-                            (Object) userId, (Object) recipients.size());
+                            (Object) userId, (Object) rows.size());
 
-                    List<MessageInboxItem> items = recipients.stream()
-                        .map(this::mapToDomain)
+                    List<MessageInboxItem> items = rows.stream()
+                        .map(MessageInboxItemMapper::toDomain)
                         .toList();
 
                     // Crear PagedResult sin paginación
@@ -124,131 +129,200 @@ public class MessageInboxPersistenceAdapter implements InboxMessagePort {
     }
 
     /**
-     * Mapea una entidad MessageRecipientEntity a un objeto de dominio MessageInboxItem
-     *
-     * @param recipientEntity Entidad de persistencia
-     * @return Objeto de dominio
+     * Página con total exacto: claves + COUNT(*) OVER () en una sola consulta, luego proyección de la página
+     * Solo cuando la página solicitada queda fuera de rango (sin filas) se recurre a un COUNT aparte
+     * El cursor siguiente sale de la última clave de la fase 1, no del último item hidratado
      */
-    private MessageInboxItem mapToDomain(MessageRecipientEntity recipientEntity) {
-        var message = recipientEntity.getMessage();
-
-        return MessageInboxItem.builder()
-            .idMessage(message.getIdMessage().intValue())
-            .isRead(recipientEntity.getIsRead())
-            .message(message.getAsunto()) // Usamos el asunto como mensaje principal
-            .numAttachments(message.getAttachments() != null ? message.getAttachments().size() : 0)
-            .senderName(getSenderName(message))
-            .createdAt(message.getCreateAt())
-            .timeReceived(formatTimeReceived(message.getCreateAt()))
-            .build();
+    private Uni<PagedResult<MessageInboxItem>> findPageWithTotal(Integer userId, Page p) {
+        return messageRecipientRepository.findKeysWithTotalByRecipientIdPaged(userId, p.index, p.size)
+            .chain(keys -> {
+                Uni<Long> total;
+                if (!keys.isEmpty()) {
+                    total = Uni.createFrom().item(keys.get(0).getTotal());
+                } else if (p.index == 0) {
+                    total = Uni.createFrom().item(0L);
+                } else {
+                    total = messageRecipientRepository.countByRecipientId(userId);
+                }
+
+                return total.chain(totalCount -> hydratePage(keys)
+                    .map(items -> {
+                        LOG.debugf("[MessageInboxPersistenceAdapter] Datos obtenidos de BD - userId: %d, total en BD: %d, página actual: %d registros",
+                                (Object) userId, (Object) totalCount, (Object) items.size());
+
+                        // Crear PagedResult con metadatos y el cursor para continuar en modo keyset
+                        String nextCursor = (!keys.isEmpty() && (long) (p.index + 1) * p.size < totalCount)
+                            ? cursorAfter(keys)
+                            : null;
+                        return new PagedResult<>(items, totalCount, p.index, p.size, nextCursor);
+                    }));
+            });
     }
 
     /**
-     * Obtiene el nombre completo del remitente desde la entidad del mensaje
-     * Concatena primerApellido, segundoApellido y nombres del empleado asociado
-     *
-     * @param message Entidad del mensaje con el sender cargado
-     * @return Nombre completo del remitente o fallback si no está disponible
+     * Página sin total exacto: se piden size + 1 claves para saber si hay página siguiente sin contar
+     * totalElements es la cota inferior offset + filas vistas; solo es exacto cuando no hay página
+     * siguiente y la página no quedó fuera de rango
      */
-    private String getSenderName(MessageEntity message) {
-        if (message.getSender() == null) {
-            return "User #" + message.getSenderId();
-        }
-
-        if (message.getSender().getEmpleado() == null) {
-            // Fallback: usar nombre de usuario
-            if (message.getSender().getNameUser() != null) {
-                return message.getSender().getNameUser();
-            }
-            return "User #" + message.getSenderId();
-        }
-
-        EmpleadoEntity empleado = message.getSender().getEmpleado();
-        StringBuilder nombreCompleto = new StringBuilder();
-
-        if (empleado.getPrimerApellido() != null && !empleado.getPrimerApellido().isBlank()) {
-            nombreCompleto.append(empleado.getPrimerApellido().trim());
-        }
+    private Uni<PagedResult<MessageInboxItem>> findPageWithoutTotal(Integer userId, Page p) {
+        int offset = p.index * p.size;
+        return messageRecipientRepository.findKeysByRecipientIdPaged(userId, offset, p.size + 1)
+            .chain(keys -> {
+                boolean hasNext = keys.size() > p.size;
+                long lowerBound = (long) offset + keys.size();
+                List<InboxPageKeyDTO> pageKeys = hasNext ? keys.subList(0, p.size) : keys;
+                return hydratePage(pageKeys)
+                    .map(items -> {
+                        String nextCursor = hasNext ? cursorAfter(pageKeys) : null;
+                        boolean totalExact = !hasNext && (!keys.isEmpty() || p.index == 0);
+                        return new PagedResult<>(items, lowerBound, p.index, p.size, nextCursor, totalExact);
+                    });
+            });
+    }
 
-        if (empleado.getSegundoApellido() != null && !empleado.getSegundoApellido().isBlank()) {
-            if (nombreCompleto.length() > 0) {
-                nombreCompleto.append(" ");
-            }
-            nombreCompleto.append(empleado.getSegundoApellido().trim());
-        }
+    /**
+     * Obtiene una página del inbox posterior al cursor usando una consulta seek
+     * Se pide un registro adicional (size + 1) para saber si existe una página siguiente
+     * sin depender del conteo total; el COUNT solo se ejecuta si se pide el total exacto
+     *
+     * @param userId ID del usuario destinatario
+     * @param after Cursor del último mensaje recibido
+     * @param size Número de registros por página
+     * @param exactTotal true para calcular el total exacto de elementos
+     * @return Uni reactivo con el resultado keyset
+     */
+    @Override
+    public Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, InboxCursor after, int size, boolean exactTotal) {
+        LOG.infof("[MessageInboxPersistenceAdapter] Consultando BD con cursor - userId: %d, after: %s, size: %d, exactTotal: %s",
+                userId, after, size, exactTotal);
+
+        return messageRecipientRepository.findKeysByRecipientIdAfter(
+                    userId, after.getCreatedAt(), after.getIdMessage(), size + 1)
+            .chain(keys -> {
+                boolean hasNext = keys.size() > size;
+                List<InboxPageKeyDTO> pageKeys = hasNext ? keys.subList(0, size) : keys;
+                return hydratePage(pageKeys)
+                    .chain(items -> {
+                        // Las filas borradas entre fase 1 y fase 2 no se hidratan, pero su clave sigue marcando el avance
+                        String nextCursor = hasNext ? cursorAfter(pageKeys) : null;
+                        if (!exactTotal) {
+                            // Sin conteo: el total solo refleja lo visto en esta página (cota inferior)
+                            long seen = items.size() + (hasNext ? 1 : 0);
+                            LOG.infof("[MessageInboxPersistenceAdapter] Resultado keyset mapeado sin total - userId: %d, elementos: %d, hasNext: %s",
+                                    userId, items.size(), hasNext);
+                            return Uni.createFrom().item(PagedResult.keyset(items, seen, size, nextCursor, false));
+                        }
+                        return messageRecipientRepository.countByRecipientId(userId)
+                            .map(totalCount -> {
+                                LOG.infof("[MessageInboxPersistenceAdapter] Resultado keyset mapeado - userId: %d, elementos: %d, total: %d, hasNext: %s",
+                                        userId, items.size(), totalCount, hasNext);
+                                return PagedResult.keyset(items, totalCount, size, nextCursor);
+                            });
+                    });
+            })
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[MessageInboxPersistenceAdapter] Error al consultar BD con cursor - userId: %d", userId)
+            );
+    }
 
-        if (empleado.getNombres() != null && !empleado.getNombres().isBlank()) {
-            if (nombreCompleto.length() > 0) {
-                nombreCompleto.append(" ");
-            }
-            nombreCompleto.append(empleado.getNombres().trim());
-        }
+    /**
+     * Emite el inbox completo de un usuario leyendo con un cursor del servidor
+     * Cada fila se mapea al dominio en cuanto llega; no se acumula ninguna lista
+     *
+     * @param userId ID del usuario destinatario
+     * @return Multi reactivo con los mensajes del inbox
+     */
+    @Override
+    public Multi<MessageInboxItem> streamMessagesByUser(Integer userId) {
+        LOG.infof("[MessageInboxPersistenceAdapter] Consultando BD en streaming - userId: %d", userId);
+
+        return messageInboxStreamRepository.streamInboxRowsByRecipientId(userId)
+            .map(MessageInboxItemMapper::toDomain)
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[MessageInboxPersistenceAdapter] Error al consultar BD en streaming - userId: %d", userId)
+            );
+    }
 
-        if (nombreCompleto.length() > 0) {
-            return nombreCompleto.toString();
+    /**
+     * Fase 2 del listado: proyecta los destinatarios de la página en una sola consulta por IDs
+     * y los devuelve en el mismo orden que la lista recibida (el orden de la fase 1)
+     * Las filas borradas entre ambas fases se omiten, por lo que la página puede quedar corta o vacía
+     * La memoria usada es proporcional al tamaño de página, no al tamaño del inbox
+     *
+     * @param keys Claves de MessageRecipientEntity obtenidas en la fase 1
+     * @return Uni con los items de dominio en el orden de la página
+     */
+    private Uni<List<MessageInboxItem>> hydratePage(List<InboxPageKeyDTO> keys) {
+        if (keys.isEmpty()) {
+            return Uni.createFrom().item(List.of());
         }
 
-        // Fallback: usar nombre de usuario o ID
-        if (message.getSender().getNameUser() != null) {
-            return message.getSender().getNameUser();
-        }
+        List<Long> ids = keys.stream()
+            .map(InboxPageKeyDTO::getIdRecipient)
+            .toList();
 
-        return "User #" + message.getSenderId();
+        return messageRecipientRepository.findInboxRowsByIds(ids)
+            .map(rows -> {
+                Map<Long, MessageInboxItem> byId = new HashMap<>(rows.size() * 2);
+                for (MessageInboxRowDTO row : rows) {
+                    byId.put(row.getIdRecipient(), MessageInboxItemMapper.toDomain(row));
+                }
+                return ids.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            });
     }
 
     /**
-     * Formatea el timestamp a un string legible para el usuario
-     * Ejemplos: "Hace 5 minutos", "Hace 2 horas", "Hace 3 días"
+     * Cursor de la página siguiente a partir de la última clave de la fase 1
      *
-     * @param createdAt Timestamp de creación del mensaje
-     * @return String formateado con el tiempo transcurrido
+     * @param pageKeys Claves de la página actual (no vacía)
+     * @return Cursor codificado
      */
-    private String formatTimeReceived(OffsetDateTime createdAt) {
-        if (createdAt == null) {
-            return "Desconocido";
-        }
+    private static String cursorAfter(List<InboxPageKeyDTO> pageKeys) {
+        InboxPageKeyDTO last = pageKeys.get(pageKeys.size() - 1);
+        return InboxCursor.of(last.getCreatedAt(), last.getIdMessage()).encode();
+    }
 
-        OffsetDateTime now = OffsetDateTime.now();
-        Duration duration = Duration.between(createdAt, now);
-
-        long seconds = duration.getSeconds();
-        long minutes = seconds / 60;
-        long hours = minutes / 60;
-        long days = hours / 24;
-
-        if (seconds < 60) {
-            return "Hace " + seconds + " segundo" + (seconds != 1 ? "s" : "");
-        } else if (minutes < 60) {
-            return "Hace " + minutes + " minuto" + (minutes != 1 ? "s" : "");
-        } else if (hours < 24) {
-            return "Hace " + hours + " hora" + (hours != 1 ? "s" : "");
-        } else if (days < 7) {
-            return "Hace " + days + " día" + (days != 1 ? "s" : "");
-        } else if (days < 30) {
-            long weeks = days / 7;
-            return "Hace " + weeks + " semana" + (weeks != 1 ? "s" : "");
-        } else if (days < 365) {
-            long months = days / 30;
-            return "Hace " + months + " mes" + (months != 1 ? "es" : "");
-        } else {
-            // Si es muy antiguo, mostrar fecha completa
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            return createdAt.format(formatter);
-        }
+    /**
+     * Obtiene los items del inbox de los mensajes indicados, agrupados por destinatario
+     * Una sola consulta nativa (la misma proyección que alimenta inbox_view)
+     *
+     * @param messageIds IDs de mensaje
+     * @return Uni con los items de cada destinatario
+     */
+    @Override
+    public Uni<Map<Integer, List<MessageInboxItem>>> findInboxItemsByMessageIds(List<Long> messageIds) {
+        LOG.debugf("[MessageInboxPersistenceAdapter] Consultando items de inbox por mensajes - mensajes: %d", messageIds.size());
+
+        return inboxViewRepository.findSourceRowsByMessageIds(messageIds)
+            .map(rows -> {
+                Map<Integer, List<MessageInboxItem>> byRecipient = new HashMap<>();
+                for (InboxViewRowDTO row : rows) {
+                    byRecipient.computeIfAbsent(row.getRecipientId(), id -> new ArrayList<>())
+                        .add(MessageInboxItemMapper.toDomain(row));
+                }
+                return byRecipient;
+            })
+            .onFailure().invoke(throwable ->
+                LOG.errorf(throwable, "[MessageInboxPersistenceAdapter] Error al consultar items de inbox por mensajes - mensajes: %d", messageIds.size())
+            );
     }
 
     /**
-     * Obtiene el detalle completo de un mensaje por su ID
+     * Obtiene el detalle compartido de un mensaje por su ID (igual para todos sus destinatarios)
+     * receivers incluye a todos los destinatarios salvo el remitente; isRead y readAt quedan en null
      *
      * @param idMessage ID del mensaje a consultar
      * @return Uni reactivo con el detalle completo del mensaje
      */
     @Override
-    public Uni<MessageDetailsDTO> getDetailMessageById(Integer idMessage, Integer idDestinatario) {
+    public Uni<MessageDetailsDTO> getSharedMessageDetail(Long idMessage) {
         LOG.infof("[MessageInboxPersistenceAdapter] Consultando detalle del mensaje - idMessage: %d", idMessage);
 
         // Primera consulta: cargar mensaje con recipients (y sus relaciones)
-        return messageRepository.findByIdWithFullDetails(idMessage.longValue())
+        return messageRepository.findByIdWithFullDetails(idMessage)
             .onItem().ifNull().failWith(() -> {
                 LOG.errorf("[MessageInboxPersistenceAdapter] Mensaje no encontrado - idMessage: %d", idMessage);
                 return new MessageNotFoundException(idMessage);
@@ -259,7 +333,7 @@ public class MessageInboxPersistenceAdapter implements InboxMessagePort {
                     idMessage, recipientsCount);
 
                 // Segunda consulta (secuencial): cargar attachments
-                return messageRepository.findByIdWithAttachments(idMessage.longValue())
+                return messageRepository.findByIdWithAttachments(idMessage)
                     .onItem().ifNull().continueWith(msg) // Si no hay attachments, continuar con el mensaje original
                     .map(msgWithAttachments -> {
                         // Combinar los datos de ambas consultas
@@ -268,7 +342,7 @@ public class MessageInboxPersistenceAdapter implements InboxMessagePort {
 
                 MessageDetailsDTO messageDetailsDTO = new MessageDetailsDTO();
 
-                messageDetailsDTO.setId(msg.getIdMessage().intValue());
+                messageDetailsDTO.setId(msg.getIdMessage());
 
                 if (msg.getSender() != null) {
                     RemitentInfoDTO remitente = new RemitentInfoDTO();
@@ -301,16 +375,11 @@ public class MessageInboxPersistenceAdapter implements InboxMessagePort {
                     for (MessageRecipientEntity recipientEntity : recipientsList) {
                         Integer recipientId = recipientEntity.getRecipientId();
 
-                        if (recipientId.equals(idDestinatario)) {
-                            messageDetailsDTO.setIsRead(recipientEntity.getIsRead());
-
-                            // Convertir LocalDateTime a LocalDate
-                            if (recipientEntity.getReadAt() != null) {
-                                messageDetailsDTO.setReadAt(recipientEntity.getReadAt().toLocalDate());
-                            }
-                        }
-                        else if (senderId == null || !recipientId.equals(senderId)) {
+                        // El destinatario que consulta se excluye al aplicar su estado de lectura
+                        // (MessageDetailsOverlayMapper), no aquí: el detalle se comparte entre destinatarios
+                        if (senderId == null || !recipientId.equals(senderId)) {
                             ReceiverInfoDTO receiver = new ReceiverInfoDTO();
+                            receiver.setId(recipientId);
                             UsuarioEntity recipientUser = recipientEntity.getRecipient();
 
                             if (recipientUser != null) {
@@ -357,4 +426,18 @@ public class MessageInboxPersistenceAdapter implements InboxMessagePort {
                     });
             });
     }
+
+    /**
+     * Obtiene el estado de lectura de un destinatario para un mensaje
+     *
+     * @param idMessage ID del mensaje
+     * @param idDestinatario ID del usuario destinatario
+     * @return Uni con el estado de lectura o null si el usuario no es destinatario del mensaje
+     */
+    @Override
+    public Uni<MessageReadStateDTO> findReadState(Long idMessage, Integer idDestinatario) {
+        LOG.debugf("[MessageInboxPersistenceAdapter] Consultando estado de lectura - idMessage: %d, idDestinatario: %d",
+                idMessage, idDestinatario);
+        return messageReadStateRepository.findByMessageAndRecipient(idMessage, idDestinatario);
+    }
 }
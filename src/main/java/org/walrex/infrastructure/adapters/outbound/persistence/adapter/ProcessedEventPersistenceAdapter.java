@@ -0,0 +1,49 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.adapter;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.walrex.application.ports.output.ProcessedEventPort;
+import org.walrex.domain.model.ProcessedEvent;
+import org.walrex.infrastructure.adapters.outbound.persistence.repository.ProcessedEventRepository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adaptador de persistencia que implementa el puerto de salida ProcessedEventPort
+ * Registro de eventos procesados sobre el cliente reactivo de Postgres
+ *
+ * Esta clase pertenece a la capa de infraestructura
+ */
+@ApplicationScoped
+public class ProcessedEventPersistenceAdapter implements ProcessedEventPort {
+
+    private final ProcessedEventRepository processedEventRepository;
+
+    @Inject
+    public ProcessedEventPersistenceAdapter(ProcessedEventRepository processedEventRepository) {
+        this.processedEventRepository = processedEventRepository;
+    }
+
+    @Override
+    public Uni<Set<String>> findProcessed(String consumer, List<String> eventIds) {
+        return processedEventRepository.findProcessed(consumer, eventIds);
+    }
+
+    @Override
+    public Uni<Void> markProcessed(String consumer, List<ProcessedEvent> events) {
+        return processedEventRepository.markProcessed(consumer, events);
+    }
+
+    @Override
+    public Uni<List<ProcessedEvent>> findRecent(String consumer, String partitionKey, int limit) {
+        return processedEventRepository.findRecent(consumer, partitionKey, limit);
+    }
+
+    @Override
+    public Uni<Integer> deleteProcessedBefore(OffsetDateTime cutoff, int limit) {
+        return processedEventRepository.deleteProcessedBefore(cutoff, limit);
+    }
+}
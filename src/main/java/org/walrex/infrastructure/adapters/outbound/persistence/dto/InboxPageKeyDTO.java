@@ -0,0 +1,42 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Fila de la fase 1 del listado paginado: ID del destinatario y clave de orden (createAt, idMessage)
+ * La clave permite construir el cursor de la página siguiente aunque la fila desaparezca
+ * antes de la fase 2 (hidratación)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxPageKeyDTO {
+
+    /**
+     * ID de MessageRecipientEntity
+     */
+    private Long idRecipient;
+
+    /**
+     * Fecha de creación del mensaje
+     */
+    private OffsetDateTime createdAt;
+
+    /**
+     * ID del mensaje
+     */
+    private Long idMessage;
+
+    /**
+     * Total de filas del filtro (COUNT(*) OVER ()); null en las consultas sin total
+     */
+    private Long total;
+
+    public InboxPageKeyDTO(Long idRecipient, OffsetDateTime createdAt, Long idMessage) {
+        this(idRecipient, createdAt, idMessage, null);
+    }
+}
@@ -0,0 +1,63 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Fila del read model desnormalizado inbox_messages.inbox_view
+ * Contiene ya resueltos el nombre del remitente y el número de adjuntos,
+ * por lo que se mapea al dominio sin consultas adicionales
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxViewRowDTO {
+
+    /**
+     * ID del registro en message_recipients (clave de la vista)
+     */
+    private Long idRecipient;
+
+    /**
+     * ID del usuario destinatario
+     */
+    private Integer recipientId;
+
+    /**
+     * ID del mensaje
+     */
+    private Long idMessage;
+
+    /**
+     * Asunto del mensaje
+     */
+    private String subject;
+
+    /**
+     * Nombre a mostrar del remitente
+     */
+    private String senderName;
+
+    /**
+     * Número de adjuntos del mensaje
+     */
+    private Integer numAttachments;
+
+    /**
+     * Fecha de creación del mensaje
+     */
+    private OffsetDateTime createdAt;
+
+    /**
+     * Estado de lectura del destinatario (Y/N)
+     */
+    private String isRead;
+
+    /**
+     * Total de filas del destinatario (solo en consultas con COUNT(*) OVER (), null en el resto)
+     */
+    private Long totalCount;
+}
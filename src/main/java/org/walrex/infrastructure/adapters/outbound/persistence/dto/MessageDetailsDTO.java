@@ -18,7 +18,7 @@ public class MessageDetailsDTO {
     /**
      * ID del mensaje
      */
-    private Integer id;
+    private Long id;
 
     /**
      * Información del remitente
@@ -0,0 +1,73 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Proyección plana de una fila del listado del inbox
+ * Se construye directamente desde HQL (SELECT new ...) sin hidratar entidades,
+ * por lo que no genera snapshots de dirty-checking ni crece el contexto de persistencia
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageInboxRowDTO {
+
+    /**
+     * ID del registro en message_recipients
+     */
+    private Long idRecipient;
+
+    /**
+     * ID del mensaje
+     */
+    private Long idMessage;
+
+    /**
+     * Estado de lectura del destinatario (Y/N)
+     */
+    private String isRead;
+
+    /**
+     * Asunto del mensaje
+     */
+    private String asunto;
+
+    /**
+     * Fecha de creación del mensaje
+     */
+    private OffsetDateTime createAt;
+
+    /**
+     * ID del usuario remitente
+     */
+    private Integer senderId;
+
+    /**
+     * Nombre de usuario del remitente
+     */
+    private String senderUserName;
+
+    /**
+     * Primer apellido del empleado remitente
+     */
+    private String senderPrimerApellido;
+
+    /**
+     * Segundo apellido del empleado remitente
+     */
+    private String senderSegundoApellido;
+
+    /**
+     * Nombres del empleado remitente
+     */
+    private String senderNombres;
+
+    /**
+     * Número de adjuntos del mensaje (COUNT correlacionado)
+     */
+    private Long numAttachments;
+}
@@ -0,0 +1,27 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de lectura de un mensaje para un destinatario concreto
+ * Es la única parte del detalle que varía entre destinatarios; se superpone al detalle compartido
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageReadStateDTO {
+
+    /**
+     * Estado de lectura (Y/N)
+     */
+    private String isRead;
+
+    /**
+     * Fecha y hora de lectura (null si no se ha leído)
+     */
+    private LocalDateTime readAt;
+}
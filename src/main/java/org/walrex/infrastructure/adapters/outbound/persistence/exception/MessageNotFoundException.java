@@ -5,24 +5,24 @@ package org.walrex.infrastructure.adapters.outbound.persistence.exception;
  */
 public class MessageNotFoundException extends RuntimeException {
 
-    private final Integer messageId;
+    private final Long messageId;
 
-    public MessageNotFoundException(Integer messageId) {
+    public MessageNotFoundException(Long messageId) {
         super("Message not found with id: " + messageId);
         this.messageId = messageId;
     }
 
-    public MessageNotFoundException(Integer messageId, String message) {
+    public MessageNotFoundException(Long messageId, String message) {
         super(message);
         this.messageId = messageId;
     }
 
-    public MessageNotFoundException(Integer messageId, String message, Throwable cause) {
+    public MessageNotFoundException(Long messageId, String message, Throwable cause) {
         super(message, cause);
         this.messageId = messageId;
     }
 
-    public Integer getMessageId() {
+    public Long getMessageId() {
         return messageId;
     }
 }
@@ -0,0 +1,58 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.mapper;
+
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageDetailsDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageReadStateDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.ReceiverInfoDTO;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Arma el detalle de un mensaje para un destinatario a partir del detalle compartido
+ * (cacheado por id_message) y del estado de lectura de ese destinatario
+ */
+public final class MessageDetailsOverlayMapper {
+
+    private MessageDetailsOverlayMapper() {
+    }
+
+    /**
+     * Devuelve una copia del detalle compartido con el estado de lectura del destinatario
+     * y sin él en la lista de receivers; el detalle compartido no se modifica (puede estar en cache)
+     *
+     * @param shared Detalle compartido del mensaje
+     * @param idDestinatario ID del usuario que consulta
+     * @param readState Estado de lectura del usuario (null si no es destinatario)
+     * @return Detalle del mensaje para el destinatario
+     */
+    public static MessageDetailsDTO forRecipient(MessageDetailsDTO shared, Integer idDestinatario,
+                                                 MessageReadStateDTO readState) {
+        if (shared == null) {
+            return null;
+        }
+
+        List<ReceiverInfoDTO> receivers = shared.getReceivers() == null ? null : shared.getReceivers().stream()
+                .filter(receiver -> !Objects.equals(receiver.getId(), idDestinatario))
+                .toList();
+
+        MessageDetailsDTO detail = new MessageDetailsDTO(
+                shared.getId(),
+                shared.getRemitente(),
+                shared.getContent(),
+                shared.getCreateAt(),
+                shared.getSubject(),
+                receivers,
+                null,
+                null,
+                shared.getAttachments()
+        );
+
+        if (readState != null) {
+            detail.setIsRead(readState.getIsRead());
+            if (readState.getReadAt() != null) {
+                detail.setReadAt(readState.getReadAt().toLocalDate());
+            }
+        }
+        return detail;
+    }
+}
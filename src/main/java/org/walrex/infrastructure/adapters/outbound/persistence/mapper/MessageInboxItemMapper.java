@@ -0,0 +1,139 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.mapper;
+
+import org.walrex.domain.model.MessageInboxItem;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.InboxViewRowDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageInboxRowDTO;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Mapper para convertir filas proyectadas del inbox (o del read model inbox_view) al modelo de dominio MessageInboxItem
+ * Centraliza el armado del nombre del remitente y del texto de tiempo transcurrido
+ */
+public final class MessageInboxItemMapper {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private MessageInboxItemMapper() {
+    }
+
+    /**
+     * Convierte una fila proyectada a MessageInboxItem
+     *
+     * @param row Proyección de la consulta del inbox
+     * @return Objeto de dominio
+     */
+    public static MessageInboxItem toDomain(MessageInboxRowDTO row) {
+        return MessageInboxItem.builder()
+            .idMessage(row.getIdMessage())
+            .isRead(row.getIsRead())
+            .message(row.getAsunto()) // Usamos el asunto como mensaje principal
+            .numAttachments(row.getNumAttachments() != null ? row.getNumAttachments().intValue() : 0)
+            .senderName(buildSenderName(row.getSenderId(), row.getSenderUserName(),
+                    row.getSenderPrimerApellido(), row.getSenderSegundoApellido(), row.getSenderNombres()))
+            .createdAt(row.getCreateAt())
+            .timeReceived(formatTimeReceived(row.getCreateAt()))
+            .build();
+    }
+
+    /**
+     * Convierte una fila del read model inbox_view a MessageInboxItem
+     * El nombre del remitente y el número de adjuntos ya vienen resueltos en la vista
+     *
+     * @param row Fila de inbox_messages.inbox_view
+     * @return Objeto de dominio
+     */
+    public static MessageInboxItem toDomain(InboxViewRowDTO row) {
+        return MessageInboxItem.builder()
+            .idMessage(row.getIdMessage())
+            .isRead(row.getIsRead())
+            .message(row.getSubject())
+            .numAttachments(row.getNumAttachments() != null ? row.getNumAttachments() : 0)
+            .senderName(row.getSenderName())
+            .createdAt(row.getCreatedAt())
+            .timeReceived(formatTimeReceived(row.getCreatedAt()))
+            .build();
+    }
+
+    /**
+     * Obtiene el nombre completo del remitente
+     * Concatena primerApellido, segundoApellido y nombres del empleado asociado;
+     * si no hay datos de empleado usa el nombre de usuario y, en último caso, el ID
+     *
+     * @param senderId ID del usuario remitente
+     * @param userName Nombre de usuario (null si el usuario no existe)
+     * @param primerApellido Primer apellido del empleado (null si no tiene empleado)
+     * @param segundoApellido Segundo apellido del empleado
+     * @param nombres Nombres del empleado
+     * @return Nombre completo del remitente o fallback si no está disponible
+     */
+    public static String buildSenderName(Integer senderId, String userName,
+                                         String primerApellido, String segundoApellido, String nombres) {
+        StringBuilder nombreCompleto = new StringBuilder();
+        appendPart(nombreCompleto, primerApellido);
+        appendPart(nombreCompleto, segundoApellido);
+        appendPart(nombreCompleto, nombres);
+
+        if (nombreCompleto.length() > 0) {
+            return nombreCompleto.toString();
+        }
+
+        // Fallback: usar nombre de usuario o ID
+        if (userName != null) {
+            return userName;
+        }
+
+        return "User #" + senderId;
+    }
+
+    private static void appendPart(StringBuilder nombreCompleto, String part) {
+        if (part != null && !part.isBlank()) {
+            if (nombreCompleto.length() > 0) {
+                nombreCompleto.append(" ");
+            }
+            nombreCompleto.append(part.trim());
+        }
+    }
+
+    /**
+     * Formatea el timestamp a un string legible para el usuario
+     * Ejemplos: "Hace 5 minutos", "Hace 2 horas", "Hace 3 días"
+     *
+     * @param createdAt Timestamp de creación del mensaje
+     * @return String formateado con el tiempo transcurrido
+     */
+    public static String formatTimeReceived(OffsetDateTime createdAt) {
+        if (createdAt == null) {
+            return "Desconocido";
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        Duration duration = Duration.between(createdAt, now);
+
+        long seconds = duration.getSeconds();
+        long minutes = seconds / 60;
+        long hours = minutes / 60;
+        long days = hours / 24;
+
+        if (seconds < 60) {
+            return "Hace " + seconds + " segundo" + (seconds != 1 ? "s" : "");
+        } else if (minutes < 60) {
+            return "Hace " + minutes + " minuto" + (minutes != 1 ? "s" : "");
+        } else if (hours < 24) {
+            return "Hace " + hours + " hora" + (hours != 1 ? "s" : "");
+        } else if (days < 7) {
+            return "Hace " + days + " día" + (days != 1 ? "s" : "");
+        } else if (days < 30) {
+            long weeks = days / 7;
+            return "Hace " + weeks + " semana" + (weeks != 1 ? "s" : "");
+        } else if (days < 365) {
+            long months = days / 30;
+            return "Hace " + months + " mes" + (months != 1 ? "es" : "");
+        } else {
+            // Si es muy antiguo, mostrar fecha completa
+            return createdAt.format(DATE_FORMATTER);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.walrex.domain.model.IncomingInboxMessage;
+import org.walrex.domain.model.IngestResult;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository de escritura en bulk de la ingesta: messages, message_recipients y attachments
+ * Cada tabla se escribe con un único INSERT ... SELECT FROM unnest(arrays): un parámetro por columna
+ * sin importar cuántas filas lleve el batch (sin el límite de 65535 parámetros de un VALUES multi-fila)
+ * y un solo plan preparado para cualquier tamaño de batch
+ *
+ * El id_message lo asigna la BD (IDENTITY); la reentrega se detecta por la clave de evento del productor
+ * (messages.event_key, única). ON CONFLICT (event_key) DO NOTHING omite los mensajes ya insertados y sus
+ * destinatarios y adjuntos solo se insertan para las claves que devolvió el RETURNING, así reprocesar
+ * un batch no duplica filas. Las claves omitidas se comparan con la fila existente: si coincide es una
+ * reentrega (se devuelve su id_message), si no es un conflicto que el llamador debe apartar
+ *
+ * Métricas (las usa AdaptiveBatchController para ajustar el tamaño de batch del consumidor):
+ * - ingest.db.pool.wait: espera hasta obtener una conexión del pool e iniciar la transacción
+ * - ingest.db.commit: tiempo total de la transacción, desde pedir la conexión hasta el commit
+ */
+@ApplicationScoped
+public class InboxMessageBulkRepository {
+
+    private static final String INSERT_MESSAGES =
+            "INSERT INTO inbox_messages.messages (event_key, sender_id, asunto, content, create_at) " +
+            "SELECT * FROM unnest($1::text[], $2::int[], $3::text[], $4::text[], $5::timestamptz[]) " +
+            "ON CONFLICT (event_key) DO NOTHING " +
+            "RETURNING event_key, id_message";
+
+    private static final String SELECT_EXISTING =
+            "SELECT event_key, id_message, sender_id, asunto, content, create_at " +
+            "FROM inbox_messages.messages " +
+            "WHERE event_key = ANY($1::text[])";
+
+    private static final String INSERT_RECIPIENTS =
+            "INSERT INTO inbox_messages.message_recipients (message_id, recipient_id, is_read) " +
+            "SELECT m.id_message, r.recipient_id, 'N' " +
+            "FROM unnest($1::text[], $2::int[]) AS r(event_key, recipient_id) " +
+            "JOIN unnest($3::text[], $4::bigint[]) AS m(event_key, id_message) USING (event_key)";
+
+    private static final String INSERT_ATTACHMENTS =
+            "INSERT INTO inbox_messages.attachments (message_id, file_path, file_name, file_type, uploaded_at) " +
+            "SELECT m.id_message, a.file_path, a.file_name, a.file_type, a.uploaded_at " +
+            "FROM unnest($1::text[], $2::text[], $3::text[], $4::text[], $5::timestamptz[]) " +
+            "AS a(event_key, file_path, file_name, file_type, uploaded_at) " +
+            "JOIN unnest($6::text[], $7::bigint[]) AS m(event_key, id_message) USING (event_key)";
+
+    public static final String POOL_WAIT_TIMER = "ingest.db.pool.wait";
+    public static final String COMMIT_TIMER = "ingest.db.commit";
+
+    private final Pool pool;
+    private final Timer poolWait;
+    private final Timer commit;
+
+    @Inject
+    public InboxMessageBulkRepository(Pool pool, MeterRegistry registry) {
+        this.pool = pool;
+        this.poolWait = Timer.builder(POOL_WAIT_TIMER)
+                .description("Espera por una conexión del pool en la ingesta")
+                .register(registry);
+        this.commit = Timer.builder(COMMIT_TIMER)
+                .description("Duración de la transacción de ingesta hasta el commit")
+                .register(registry);
+    }
+
+    /**
+     * Inserta mensajes, destinatarios y adjuntos en una transacción (tres o cuatro sentencias por batch)
+     *
+     * @param messages Mensajes con clave de evento única dentro del batch
+     * @return id_message por clave de evento (insertados y reentregas idénticas) y claves en conflicto;
+     *         completa tras el commit
+     */
+    public Uni<IngestResult> insertBatch(List<IncomingInboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return Uni.createFrom().item(IngestResult.empty());
+        }
+        long requestedAt = System.nanoTime();
+        return pool.withTransaction(connection -> {
+                    poolWait.record(System.nanoTime() - requestedAt, TimeUnit.NANOSECONDS);
+                    return insertMessages(connection, messages)
+                            .call(inserted -> inserted.isEmpty()
+                                    ? Uni.createFrom().voidItem()
+                                    : insertRecipients(connection, messages, inserted)
+                                            .chain(() -> insertAttachments(connection, messages, inserted)))
+                            .chain(inserted -> resolveExisting(connection, messages, inserted));
+                })
+                .invoke(() -> commit.record(System.nanoTime() - requestedAt, TimeUnit.NANOSECONDS));
+    }
+
+    private Uni<Map<String, Long>> insertMessages(SqlConnection connection, List<IncomingInboxMessage> messages) {
+        int size = messages.size();
+        String[] eventKeys = new String[size];
+        Integer[] senders = new Integer[size];
+        String[] subjects = new String[size];
+        String[] bodies = new String[size];
+        OffsetDateTime[] createdAt = new OffsetDateTime[size];
+        for (int i = 0; i < size; i++) {
+            IncomingInboxMessage message = messages.get(i);
+            eventKeys[i] = message.getEventKey();
+            senders[i] = message.getSenderId();
+            subjects[i] = message.getSubject();
+            bodies[i] = message.getBody();
+            createdAt[i] = message.getCreatedAt();
+        }
+        return connection.preparedQuery(INSERT_MESSAGES)
+                .execute(Tuple.tuple()
+                        .addArrayOfString(eventKeys)
+                        .addArrayOfInteger(senders)
+                        .addArrayOfString(subjects)
+                        .addArrayOfString(bodies)
+                        .addArrayOfOffsetDateTime(createdAt))
+                .map(rows -> {
+                    Map<String, Long> inserted = new LinkedHashMap<>();
+                    for (Row row : rows) {
+                        inserted.put(row.getString("event_key"), row.getLong("id_message"));
+                    }
+                    return inserted;
+                });
+    }
+
+    /**
+     * Compara los mensajes omitidos por ON CONFLICT con la fila que ya tiene su clave de evento
+     * Coincide (remitente, asunto, contenido, fecha): reentrega, se devuelve su id_message
+     * No coincide: la clave ya la usa otro mensaje y se informa como conflicto
+     */
+    private Uni<IngestResult> resolveExisting(SqlConnection connection, List<IncomingInboxMessage> messages,
+                                              Map<String, Long> inserted) {
+        List<IncomingInboxMessage> skipped = messages.stream()
+                .filter(message -> !inserted.containsKey(message.getEventKey()))
+                .toList();
+        if (skipped.isEmpty()) {
+            return Uni.createFrom().item(new IngestResult(inserted, inserted.size(), Set.of()));
+        }
+        String[] eventKeys = skipped.stream().map(IncomingInboxMessage::getEventKey).toArray(String[]::new);
+        return connection.preparedQuery(SELECT_EXISTING)
+                .execute(Tuple.tuple().addArrayOfString(eventKeys))
+                .map(rows -> {
+                    Map<String, Row> existing = new HashMap<>();
+                    for (Row row : rows) {
+                        existing.put(row.getString("event_key"), row);
+                    }
+                    Map<String, Long> messageIds = new LinkedHashMap<>(inserted);
+                    Set<String> conflicts = new LinkedHashSet<>();
+                    for (IncomingInboxMessage message : skipped) {
+                        Row row = existing.get(message.getEventKey());
+                        if (row != null && matches(message, row)) {
+                            messageIds.put(message.getEventKey(), row.getLong("id_message"));
+                        } else {
+                            conflicts.add(message.getEventKey());
+                        }
+                    }
+                    return new IngestResult(messageIds, inserted.size(), conflicts);
+                });
+    }
+
+    private static boolean matches(IncomingInboxMessage message, Row row) {
+        OffsetDateTime createdAt = row.getOffsetDateTime("create_at");
+        return Objects.equals(message.getSenderId(), row.getInteger("sender_id"))
+                && Objects.equals(message.getSubject(), row.getString("asunto"))
+                && Objects.equals(message.getBody(), row.getString("content"))
+                && createdAt != null && createdAt.isEqual(message.getCreatedAt());
+    }
+
+    private Uni<Void> insertRecipients(SqlConnection connection, List<IncomingInboxMessage> messages,
+                                       Map<String, Long> inserted) {
+        List<String> eventKeys = new ArrayList<>();
+        List<Integer> recipientIds = new ArrayList<>();
+        for (IncomingInboxMessage message : messages) {
+            for (Integer recipientId : message.getRecipientIds()) {
+                eventKeys.add(message.getEventKey());
+                recipientIds.add(recipientId);
+            }
+        }
+        if (eventKeys.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return connection.preparedQuery(INSERT_RECIPIENTS)
+                .execute(Tuple.tuple()
+                        .addArrayOfString(eventKeys.toArray(new String[0]))
+                        .addArrayOfInteger(recipientIds.toArray(new Integer[0]))
+                        .addArrayOfString(inserted.keySet().toArray(new String[0]))
+                        .addArrayOfLong(inserted.values().toArray(new Long[0])))
+                .replaceWithVoid();
+    }
+
+    private Uni<Void> insertAttachments(SqlConnection connection, List<IncomingInboxMessage> messages,
+                                        Map<String, Long> inserted) {
+        List<String> eventKeys = new ArrayList<>();
+        List<String> paths = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        List<OffsetDateTime> uploadedAt = new ArrayList<>();
+        for (IncomingInboxMessage message : messages) {
+            for (IncomingInboxMessage.Attachment attachment : message.getAttachments()) {
+                eventKeys.add(message.getEventKey());
+                paths.add(attachment.getFilePath());
+                names.add(attachment.getFileName());
+                types.add(attachment.getFileType());
+                uploadedAt.add(message.getCreatedAt());
+            }
+        }
+        if (eventKeys.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return connection.preparedQuery(INSERT_ATTACHMENTS)
+                .execute(Tuple.tuple()
+                        .addArrayOfString(eventKeys.toArray(new String[0]))
+                        .addArrayOfString(paths.toArray(new String[0]))
+                        .addArrayOfString(names.toArray(new String[0]))
+                        .addArrayOfString(types.toArray(new String[0]))
+                        .addArrayOfOffsetDateTime(uploadedAt.toArray(new OffsetDateTime[0]))
+                        .addArrayOfString(inserted.keySet().toArray(new String[0]))
+                        .addArrayOfLong(inserted.values().toArray(new Long[0])))
+                .replaceWithVoid();
+    }
+}
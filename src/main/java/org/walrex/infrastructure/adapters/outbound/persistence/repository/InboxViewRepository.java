@@ -0,0 +1,219 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.repository;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.InboxViewRowDTO;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository del read model desnormalizado inbox_messages.inbox_view
+ * Trabaja con SQL nativo sobre el cliente reactivo de Postgres: la vista no es una entidad
+ * y las escrituras son upserts en bulk (INSERT ... SELECT ... ON CONFLICT)
+ *
+ * Las lecturas se resuelven con un range scan sobre ix_inbox_view_recipient_created
+ * (recipient_id, created_at DESC, id_message DESC), sin JOINs
+ */
+@ApplicationScoped
+public class InboxViewRepository {
+
+    /**
+     * Número de filas que Postgres entrega por cada lectura del cursor en streaming
+     */
+    private static final int FETCH_SIZE = 200;
+
+    private static final String VIEW_COLUMNS =
+            "id_recipient, recipient_id, id_message, subject, sender_name, num_attachments, created_at, is_read";
+
+    private static final String VIEW_SELECT =
+            "SELECT " + VIEW_COLUMNS + " FROM inbox_messages.inbox_view ";
+
+    private static final String VIEW_ORDER = "ORDER BY created_at DESC, id_message DESC ";
+
+    /**
+     * Nombre del remitente con el mismo criterio que MessageInboxItemMapper.buildSenderName:
+     * apellidos y nombres del empleado; si no hay, nombre de usuario; en último caso el ID
+     */
+    private static final String SENDER_NAME_SQL =
+            "COALESCE(NULLIF(concat_ws(' ', NULLIF(btrim(p.no_apepat), ''), NULLIF(btrim(p.no_apemat), ''), " +
+            "NULLIF(btrim(p.no_nombres), '')), ''), u.no_usuario, 'User #' || m.sender_id)";
+
+    /**
+     * Origen de las filas de la vista a partir del modelo relacional
+     * Las columnas llevan los nombres de la vista para poder leerse también como InboxViewRowDTO
+     */
+    private static final String SOURCE_SELECT =
+            "SELECT mr.id AS id_recipient, mr.recipient_id, m.id_message, m.asunto AS subject, " +
+            SENDER_NAME_SQL + " AS sender_name, " +
+            "(SELECT COUNT(*) FROM inbox_messages.attachments a WHERE a.message_id = m.id_message)::int AS num_attachments, " +
+            "m.create_at AS created_at, COALESCE(mr.is_read, 'N') AS is_read " +
+            "FROM inbox_messages.message_recipients mr " +
+            "JOIN inbox_messages.messages m ON m.id_message = mr.message_id " +
+            "LEFT JOIN seguridad.tbusuarios u ON u.id_usuario = m.sender_id " +
+            "LEFT JOIN rrhh.tbpersonal p ON p.id_personal = u.id_empleado ";
+
+    private static final String UPSERT_PREFIX =
+            "INSERT INTO inbox_messages.inbox_view (" + VIEW_COLUMNS + ") ";
+
+    private static final String UPSERT_SUFFIX =
+            "ON CONFLICT (id_recipient) DO UPDATE SET " +
+            "subject = EXCLUDED.subject, sender_name = EXCLUDED.sender_name, " +
+            "num_attachments = EXCLUDED.num_attachments, created_at = EXCLUDED.created_at, " +
+            "is_read = EXCLUDED.is_read ";
+
+    private static final String UPSERT_BY_MESSAGE_IDS =
+            UPSERT_PREFIX + SOURCE_SELECT +
+            "WHERE m.id_message = ANY($1) " +
+            UPSERT_SUFFIX;
+
+    private static final String UPSERT_CHUNK_AFTER =
+            UPSERT_PREFIX + SOURCE_SELECT +
+            "WHERE mr.id > $1 ORDER BY mr.id LIMIT $2 " +
+            UPSERT_SUFFIX +
+            "RETURNING id_recipient";
+
+    private final Pool pool;
+
+    @Inject
+    public InboxViewRepository(Pool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Página por offset con el total en la misma consulta (COUNT(*) OVER ())
+     * Cada fila trae el total en totalCount; si la página está vacía el total debe obtenerse aparte
+     */
+    public Uni<List<InboxViewRowDTO>> findPageWithTotal(Integer recipientId, int offset, int limit) {
+        return pool.preparedQuery("SELECT " + VIEW_COLUMNS + ", COUNT(*) OVER () AS total_count " +
+                        "FROM inbox_messages.inbox_view WHERE recipient_id = $1 " + VIEW_ORDER +
+                        "OFFSET $2 LIMIT $3")
+                .execute(Tuple.of(recipientId, offset, limit))
+                .map(InboxViewRepository::toRowDTOs);
+    }
+
+    /**
+     * Página por offset sin conteo (el modo sin total pide limit = size + 1)
+     */
+    public Uni<List<InboxViewRowDTO>> findPage(Integer recipientId, int offset, int limit) {
+        return pool.preparedQuery(VIEW_SELECT + "WHERE recipient_id = $1 " + VIEW_ORDER + "OFFSET $2 LIMIT $3")
+                .execute(Tuple.of(recipientId, offset, limit))
+                .map(InboxViewRepository::toRowDTOs);
+    }
+
+    /**
+     * Página keyset (seek): filas posteriores a (createdAt, idMessage) en el orden del listado
+     */
+    public Uni<List<InboxViewRowDTO>> findAfter(Integer recipientId, OffsetDateTime createdAt, Long idMessage, int limit) {
+        return pool.preparedQuery(VIEW_SELECT +
+                        "WHERE recipient_id = $1 AND (created_at, id_message) < ($2, $3) " + VIEW_ORDER + "LIMIT $4")
+                .execute(Tuple.of(recipientId, createdAt, idMessage, limit))
+                .map(InboxViewRepository::toRowDTOs);
+    }
+
+    /**
+     * Todas las filas de un destinatario (listado sin paginación)
+     */
+    public Uni<List<InboxViewRowDTO>> findAllByRecipientId(Integer recipientId) {
+        return pool.preparedQuery(VIEW_SELECT + "WHERE recipient_id = $1 " + VIEW_ORDER)
+                .execute(Tuple.of(recipientId))
+                .map(InboxViewRepository::toRowDTOs);
+    }
+
+    /**
+     * Todas las filas de un destinatario leídas con un cursor del servidor
+     */
+    public Multi<InboxViewRowDTO> streamByRecipientId(Integer recipientId) {
+        return PgCursorStreams.stream(pool, VIEW_SELECT + "WHERE recipient_id = $1 " + VIEW_ORDER,
+                        Tuple.of(recipientId), FETCH_SIZE)
+                .map(InboxViewRepository::toRowDTO);
+    }
+
+    /**
+     * Cuenta las filas de un destinatario
+     */
+    public Uni<Long> countByRecipientId(Integer recipientId) {
+        return pool.preparedQuery("SELECT COUNT(*) FROM inbox_messages.inbox_view WHERE recipient_id = $1")
+                .execute(Tuple.of(recipientId))
+                .map(rows -> rows.iterator().next().getLong(0));
+    }
+
+    /**
+     * Filas del inbox (una por destinatario) de los mensajes indicados, proyectadas desde el modelo
+     * relacional sin pasar por la vista; sirve aunque el read model inbox_view esté deshabilitado
+     *
+     * @param messageIds IDs de mensaje
+     * @return Filas de todos los destinatarios de esos mensajes
+     */
+    public Uni<List<InboxViewRowDTO>> findSourceRowsByMessageIds(List<Long> messageIds) {
+        if (messageIds.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        return pool.preparedQuery(SOURCE_SELECT + "WHERE m.id_message = ANY($1)")
+                .execute(Tuple.tuple().addArrayOfLong(messageIds.toArray(new Long[0])))
+                .map(InboxViewRepository::toRowDTOs);
+    }
+
+    /**
+     * Upsert en bulk de las filas de la vista de los mensajes indicados (todos sus destinatarios)
+     * Una sola sentencia por lote, sin importar cuántos mensajes o destinatarios incluya
+     *
+     * @param messageIds IDs de mensaje a (re)proyectar
+     * @return Número de filas insertadas o actualizadas
+     */
+    public Uni<Integer> upsertByMessageIds(List<Long> messageIds) {
+        if (messageIds.isEmpty()) {
+            return Uni.createFrom().item(0);
+        }
+        return pool.preparedQuery(UPSERT_BY_MESSAGE_IDS)
+                .execute(Tuple.tuple().addArrayOfLong(messageIds.toArray(new Long[0])))
+                .map(RowSet::rowCount);
+    }
+
+    /**
+     * Upsert de un tramo del backfill: las siguientes {@code limit} filas de message_recipients
+     * con id mayor a {@code afterIdRecipient}, en orden de id
+     *
+     * @return IDs de message_recipients proyectados en el tramo (vacío al terminar)
+     */
+    public Uni<List<Long>> upsertChunkAfter(long afterIdRecipient, int limit) {
+        return pool.preparedQuery(UPSERT_CHUNK_AFTER)
+                .execute(Tuple.of(afterIdRecipient, limit))
+                .map(rows -> {
+                    List<Long> ids = new ArrayList<>(rows.rowCount());
+                    for (Row row : rows) {
+                        ids.add(row.getLong("id_recipient"));
+                    }
+                    return ids;
+                });
+    }
+
+    private static List<InboxViewRowDTO> toRowDTOs(RowSet<Row> rows) {
+        List<InboxViewRowDTO> result = new ArrayList<>(rows.rowCount());
+        for (Row row : rows) {
+            result.add(toRowDTO(row));
+        }
+        return result;
+    }
+
+    private static InboxViewRowDTO toRowDTO(Row row) {
+        return new InboxViewRowDTO(
+            row.getLong("id_recipient"),
+            row.getInteger("recipient_id"),
+            row.getLong("id_message"),
+            row.getString("subject"),
+            row.getString("sender_name"),
+            row.getInteger("num_attachments"),
+            row.getOffsetDateTime("created_at"),
+            row.getString("is_read"),
+            row.getColumnIndex("total_count") >= 0 ? row.getLong("total_count") : null
+        );
+    }
+}
@@ -0,0 +1,73 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.repository;
+
+import io.smallrye.mutiny.Multi;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageInboxRowDTO;
+
+/**
+ * Repository de lectura en streaming del inbox sobre el cliente reactivo de Postgres
+ * Usa un cursor del servidor (RowStream) para entregar las filas por lotes a medida que
+ * el consumidor las pide, sin materializar el inbox completo en una lista ni pasar por
+ * el contexto de persistencia de Hibernate
+ */
+@ApplicationScoped
+public class MessageInboxStreamRepository {
+
+    /**
+     * Número de filas que Postgres entrega por cada lectura del cursor
+     */
+    private static final int FETCH_SIZE = 200;
+
+    /**
+     * Misma proyección que MessageRecipientRepository.INBOX_ROW_SELECT, en SQL nativo
+     */
+    private static final String INBOX_ROWS_SQL =
+            "SELECT mr.id, m.id_message, mr.is_read, m.asunto, m.create_at, m.sender_id, " +
+            "u.no_usuario, p.no_apepat, p.no_apemat, p.no_nombres, " +
+            "(SELECT COUNT(*) FROM inbox_messages.attachments a WHERE a.message_id = m.id_message) AS num_attachments " +
+            "FROM inbox_messages.message_recipients mr " +
+            "JOIN inbox_messages.messages m ON m.id_message = mr.message_id " +
+            "LEFT JOIN seguridad.tbusuarios u ON u.id_usuario = m.sender_id " +
+            "LEFT JOIN rrhh.tbpersonal p ON p.id_personal = u.id_empleado " +
+            "WHERE mr.recipient_id = $1 " +
+            "ORDER BY m.create_at DESC, m.id_message DESC";
+
+    private final Pool pool;
+
+    @Inject
+    public MessageInboxStreamRepository(Pool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Emite las filas del inbox de un destinatario en orden create_at DESC, id_message DESC
+     * La transacción y la conexión del cursor se liberan al terminar o cancelar el stream
+     *
+     * @param recipientId ID del usuario destinatario
+     * @return Multi con las filas proyectadas, con backpressure hacia el cursor
+     */
+    public Multi<MessageInboxRowDTO> streamInboxRowsByRecipientId(Integer recipientId) {
+        return PgCursorStreams.stream(pool, INBOX_ROWS_SQL, Tuple.of(recipientId), FETCH_SIZE)
+            .map(MessageInboxStreamRepository::toRowDTO);
+    }
+
+    private static MessageInboxRowDTO toRowDTO(Row row) {
+        return new MessageInboxRowDTO(
+            row.getLong("id"),
+            row.getLong("id_message"),
+            row.getString("is_read"),
+            row.getString("asunto"),
+            row.getOffsetDateTime("create_at"),
+            row.getInteger("sender_id"),
+            row.getString("no_usuario"),
+            row.getString("no_apepat"),
+            row.getString("no_apemat"),
+            row.getString("no_nombres"),
+            row.getLong("num_attachments")
+        );
+    }
+}
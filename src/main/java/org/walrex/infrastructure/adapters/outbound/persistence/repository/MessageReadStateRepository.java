@@ -0,0 +1,48 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.repository;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageReadStateDTO;
+
+/**
+ * Repository del estado de lectura por (mensaje, destinatario) sobre el cliente reactivo de Postgres
+ * Usa su propia conexión del pool y no la sesión de Hibernate, por lo que puede ejecutarse
+ * en paralelo con la carga (o lectura de cache) del detalle compartido del mensaje
+ */
+@ApplicationScoped
+public class MessageReadStateRepository {
+
+    private static final String READ_STATE_SQL =
+            "SELECT is_read, read_at FROM inbox_messages.message_recipients " +
+            "WHERE message_id = $1 AND recipient_id = $2 LIMIT 1";
+
+    private final Pool pool;
+
+    @Inject
+    public MessageReadStateRepository(Pool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Busca el estado de lectura de un destinatario para un mensaje
+     *
+     * @return Uni con el estado de lectura o null si el usuario no es destinatario del mensaje
+     */
+    public Uni<MessageReadStateDTO> findByMessageAndRecipient(Long messageId, Integer recipientId) {
+        return pool.preparedQuery(READ_STATE_SQL)
+                .execute(Tuple.of(messageId, recipientId))
+                .map(rows -> {
+                    RowIterator<Row> iterator = rows.iterator();
+                    if (!iterator.hasNext()) {
+                        return null;
+                    }
+                    Row row = iterator.next();
+                    return new MessageReadStateDTO(row.getString("is_read"), row.getLocalDateTime("read_at"));
+                });
+    }
+}
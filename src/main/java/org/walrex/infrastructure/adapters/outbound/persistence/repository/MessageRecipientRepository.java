@@ -5,9 +5,12 @@ import io.quarkus.panache.common.Sort;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.InboxPageKeyDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageInboxRowDTO;
 import org.walrex.infrastructure.adapters.outbound.persistence.entity.MessageRecipientEntity;
 
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 /**
@@ -17,6 +20,25 @@ import java.util.List;
 @ApplicationScoped
 public class MessageRecipientRepository implements PanacheRepository<MessageRecipientEntity> {
 
+    /**
+     * SELECT común de la proyección del listado del inbox (MessageInboxRowDTO)
+     */
+    private static final String INBOX_ROW_SELECT =
+            "SELECT new org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageInboxRowDTO(" +
+            "mr.id, m.idMessage, mr.isRead, m.asunto, m.createAt, m.senderId, " +
+            "s.nameUser, e.primerApellido, e.segundoApellido, e.nombres, " +
+            "(SELECT COUNT(a) FROM AttachmentEntity a WHERE a.message = m)) " +
+            "FROM MessageRecipientEntity mr " +
+            "JOIN mr.message m " +
+            "LEFT JOIN m.sender s " +
+            "LEFT JOIN s.empleado e ";
+
+    private static final String INBOX_KEY_SELECT =
+            "SELECT new org.walrex.infrastructure.adapters.outbound.persistence.dto.InboxPageKeyDTO(" +
+            "mr.id, m.createAt, m.idMessage) " +
+            "FROM MessageRecipientEntity mr " +
+            "JOIN mr.message m ";
+
     /**
      * Buscar todos los destinatarios de un mensaje
      */
@@ -209,6 +231,10 @@ public class MessageRecipientRepository implements PanacheRepository<MessageReci
      * Buscar destinatarios con el mensaje y attachments cargados (EAGER) con paginación
      * Los attachments se cargan para permitir el conteo sin lazy loading
      * También carga el sender con su empleado para obtener el nombre completo
+     *
+     * NOTA: al combinar JOIN FETCH de una colección con page(), Hibernate trae todas las filas
+     * del usuario y pagina en memoria. Para el listado del inbox usar
+     * findKeysByRecipientIdPaged + findInboxRowsByIds
      */
     public Uni<List<MessageRecipientEntity>> findByRecipientIdWithMessagePaged(Integer recipientId, int page, int size) {
         return find("SELECT DISTINCT mr FROM MessageRecipientEntity mr " +
@@ -217,11 +243,106 @@ public class MessageRecipientRepository implements PanacheRepository<MessageReci
                     "LEFT JOIN FETCH m.sender s " +
                     "LEFT JOIN FETCH s.empleado " +
                     "WHERE mr.recipientId = ?1 " +
-                    "ORDER BY m.createAt DESC", recipientId)
+                    "ORDER BY m.createAt DESC, m.idMessage DESC", recipientId)
                 .page(page, size)
                 .list();
     }
 
+    /**
+     * Fase 1 del listado paginado: obtiene solo los IDs de destinatario de la página y su clave de orden
+     * No hace JOIN FETCH de colecciones, por lo que OFFSET/LIMIT se aplican en SQL
+     * y la consulta puede resolverse con el índice de recipient_id sin cargar entidades
+     * Se usa en el modo sin total exacto, pidiendo limit = size + 1 para detectar la página siguiente
+     *
+     * @param offset Número de filas a saltar
+     * @param limit Número máximo de filas a devolver
+     * @return Claves (mr.id, createAt, idMessage) en orden createAt DESC, idMessage DESC
+     */
+    public Uni<List<InboxPageKeyDTO>> findKeysByRecipientIdPaged(Integer recipientId, int offset, int limit) {
+        return getSession().chain(session -> session
+                .createSelectionQuery(INBOX_KEY_SELECT +
+                        "WHERE mr.recipientId = ?1 " +
+                        "ORDER BY m.createAt DESC, m.idMessage DESC", InboxPageKeyDTO.class)
+                .setParameter(1, recipientId)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    /**
+     * Fase 1 del listado paginado con total exacto: claves de la página y conteo total en una sola consulta
+     * COUNT(*) OVER () se evalúa sobre todas las filas del filtro antes de aplicar OFFSET/LIMIT,
+     * por lo que cada fila trae el total sin un round-trip COUNT adicional
+     * Si la página está vacía (offset fuera de rango) no hay filas y el total debe obtenerse aparte
+     *
+     * @return Claves (mr.id, createAt, idMessage, total) en orden createAt DESC, idMessage DESC
+     */
+    public Uni<List<InboxPageKeyDTO>> findKeysWithTotalByRecipientIdPaged(Integer recipientId, int page, int size) {
+        return getSession().chain(session -> session
+                .createSelectionQuery("SELECT new org.walrex.infrastructure.adapters.outbound.persistence.dto.InboxPageKeyDTO(" +
+                        "mr.id, m.createAt, m.idMessage, COUNT(*) OVER ()) " +
+                        "FROM MessageRecipientEntity mr " +
+                        "JOIN mr.message m " +
+                        "WHERE mr.recipientId = ?1 " +
+                        "ORDER BY m.createAt DESC, m.idMessage DESC", InboxPageKeyDTO.class)
+                .setParameter(1, recipientId)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList());
+    }
+
+    /**
+     * Fase 1 del listado keyset (seek): obtiene las claves de los destinatarios posteriores al cursor
+     * Filtra por (createAt, idMessage) en lugar de usar OFFSET, de modo que Postgres no descarta
+     * las filas de las páginas anteriores. La comparación por fila (row value) es la que Postgres
+     * resuelve como rango sobre ix_messages_created_desc (V1_4__add_inbox_keyset_indexes.sql)
+     *
+     * @return Claves (mr.id, createAt, idMessage) en orden createAt DESC, idMessage DESC
+     */
+    public Uni<List<InboxPageKeyDTO>> findKeysByRecipientIdAfter(Integer recipientId,
+                                                                 OffsetDateTime createdAt,
+                                                                 Long idMessage,
+                                                                 int limit) {
+        return getSession().chain(session -> session
+                .createSelectionQuery(INBOX_KEY_SELECT +
+                        "WHERE mr.recipientId = ?1 " +
+                        "AND (m.createAt, m.idMessage) < (?2, ?3) " +
+                        "ORDER BY m.createAt DESC, m.idMessage DESC", InboxPageKeyDTO.class)
+                .setParameter(1, recipientId)
+                .setParameter(2, createdAt)
+                .setParameter(3, idMessage)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    /**
+     * Fase 2 del listado paginado: proyecta solo las filas de la página directamente a DTO
+     * Selecciona únicamente las columnas que necesita el inbox (asunto, estado de lectura, fecha,
+     * datos del remitente) y cuenta los adjuntos con una subconsulta COUNT correlacionada,
+     * sin hidratar entidades ni cargar la colección de adjuntos
+     * El orden del resultado no está garantizado: debe reordenarse según la lista de IDs
+     */
+    public Uni<List<MessageInboxRowDTO>> findInboxRowsByIds(List<Long> ids) {
+        return getSession().chain(session -> session
+                .createSelectionQuery(INBOX_ROW_SELECT +
+                        "WHERE mr.id IN ?1", MessageInboxRowDTO.class)
+                .setParameter(1, ids)
+                .getResultList());
+    }
+
+    /**
+     * Proyección del inbox completo de un destinatario (sin paginación)
+     * Misma proyección que findInboxRowsByIds, ordenada por createAt DESC, idMessage DESC
+     */
+    public Uni<List<MessageInboxRowDTO>> findInboxRowsByRecipientId(Integer recipientId) {
+        return getSession().chain(session -> session
+                .createSelectionQuery(INBOX_ROW_SELECT +
+                        "WHERE mr.recipientId = ?1 " +
+                        "ORDER BY m.createAt DESC, m.idMessage DESC", MessageInboxRowDTO.class)
+                .setParameter(1, recipientId)
+                .getResultList());
+    }
+
     /**
      * Buscar mensajes no leídos con el mensaje cargado (EAGER)
      */
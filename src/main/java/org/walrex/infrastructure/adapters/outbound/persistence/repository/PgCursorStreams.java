@@ -0,0 +1,43 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.repository;
+
+import io.smallrye.mutiny.Multi;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import org.jboss.logging.Logger;
+
+/**
+ * Utilidad para leer consultas grandes con un cursor del servidor de Postgres (RowStream)
+ * Las filas se piden por lotes de fetchSize según la demanda del suscriptor, sin materializar el resultado
+ */
+final class PgCursorStreams {
+
+    private static final Logger LOG = Logger.getLogger(PgCursorStreams.class);
+
+    private PgCursorStreams() {
+    }
+
+    /**
+     * Ejecuta la consulta con un cursor y emite sus filas
+     * El cursor de Postgres requiere una transacción: se abre al suscribirse y se cierra
+     * (junto con la conexión) al completar, fallar o cancelar el stream, p. ej. si el cliente HTTP se desconecta
+     *
+     * @param pool Pool reactivo de Postgres
+     * @param sql Consulta SQL nativa con parámetros $n
+     * @param params Parámetros de la consulta
+     * @param fetchSize Número de filas por lectura del cursor
+     * @return Multi con las filas, con backpressure hacia el cursor
+     */
+    static Multi<Row> stream(Pool pool, String sql, Tuple params, int fetchSize) {
+        return pool.getConnection()
+            .onItem().transformToMulti(conn -> conn.begin()
+                .onItem().transformToMulti(tx -> conn.prepare(sql)
+                    .onItem().transformToMulti(ps -> ps.createStream(fetchSize, params).toMulti())
+                    // Solo lectura: rollback libera el cursor sin importar cómo terminó el stream
+                    .onTermination().call(() -> tx.rollback().onFailure().recoverWithNull()))
+                .onTermination().call(() -> conn.close()
+                    .onFailure().invoke(throwable ->
+                        LOG.warnf(throwable, "[PgCursorStreams] Error al cerrar la conexión del cursor"))
+                    .onFailure().recoverWithNull()));
+    }
+}
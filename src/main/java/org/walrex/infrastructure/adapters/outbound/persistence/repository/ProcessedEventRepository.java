@@ -0,0 +1,98 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.repository;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.walrex.domain.model.ProcessedEvent;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repository del registro de eventos procesados (inbox_messages.processed_events)
+ * Igual que la ingesta, cada operación es una sola sentencia con arrays (unnest / ANY) sin importar el tamaño del batch
+ */
+@ApplicationScoped
+public class ProcessedEventRepository {
+
+    private static final String SELECT_PROCESSED =
+            "SELECT event_id FROM inbox_messages.processed_events " +
+            "WHERE consumer = $1 AND event_id = ANY($2::varchar[])";
+
+    private static final String INSERT_PROCESSED =
+            "INSERT INTO inbox_messages.processed_events (consumer, event_id, partition_key, event_offset) " +
+            "SELECT $1, e.event_id, e.partition_key, e.event_offset " +
+            "FROM unnest($2::varchar[], $3::varchar[], $4::bigint[]) AS e(event_id, partition_key, event_offset) " +
+            "ON CONFLICT (consumer, event_id) DO NOTHING";
+
+    private static final String SELECT_RECENT =
+            "SELECT event_id, partition_key, event_offset FROM inbox_messages.processed_events " +
+            "WHERE consumer = $1 AND partition_key = $2 " +
+            "ORDER BY event_offset DESC LIMIT $3";
+
+    private static final String DELETE_BEFORE =
+            "DELETE FROM inbox_messages.processed_events WHERE ctid = ANY(ARRAY(" +
+            "SELECT ctid FROM inbox_messages.processed_events WHERE processed_at < $1 LIMIT $2))";
+
+    private final Pool pool;
+
+    @Inject
+    public ProcessedEventRepository(Pool pool) {
+        this.pool = pool;
+    }
+
+    public Uni<Set<String>> findProcessed(String consumer, List<String> eventIds) {
+        return pool.preparedQuery(SELECT_PROCESSED)
+                .execute(Tuple.of(consumer).addArrayOfString(eventIds.toArray(new String[0])))
+                .map(rows -> {
+                    Set<String> processed = new HashSet<>(rows.rowCount());
+                    for (Row row : rows) {
+                        processed.add(row.getString("event_id"));
+                    }
+                    return processed;
+                });
+    }
+
+    public Uni<Void> markProcessed(String consumer, List<ProcessedEvent> events) {
+        int size = events.size();
+        String[] eventIds = new String[size];
+        String[] partitionKeys = new String[size];
+        Long[] offsets = new Long[size];
+        for (int i = 0; i < size; i++) {
+            eventIds[i] = events.get(i).getEventId();
+            partitionKeys[i] = events.get(i).getPartitionKey();
+            offsets[i] = events.get(i).getOffset();
+        }
+        return pool.preparedQuery(INSERT_PROCESSED)
+                .execute(Tuple.of(consumer)
+                        .addArrayOfString(eventIds)
+                        .addArrayOfString(partitionKeys)
+                        .addArrayOfLong(offsets))
+                .replaceWithVoid();
+    }
+
+    public Uni<List<ProcessedEvent>> findRecent(String consumer, String partitionKey, int limit) {
+        return pool.preparedQuery(SELECT_RECENT)
+                .execute(Tuple.of(consumer, partitionKey, limit))
+                .map(rows -> {
+                    List<ProcessedEvent> recent = new ArrayList<>(rows.rowCount());
+                    for (Row row : rows) {
+                        recent.add(new ProcessedEvent(row.getString("event_id"),
+                                row.getString("partition_key"), row.getLong("event_offset")));
+                    }
+                    return recent;
+                });
+    }
+
+    public Uni<Integer> deleteProcessedBefore(OffsetDateTime cutoff, int limit) {
+        return pool.preparedQuery(DELETE_BEFORE)
+                .execute(Tuple.of(cutoff, limit))
+                .map(rows -> rows.rowCount());
+    }
+}
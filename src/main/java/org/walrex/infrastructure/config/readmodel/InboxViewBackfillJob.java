@@ -0,0 +1,38 @@
+package org.walrex.infrastructure.config.readmodel;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.walrex.application.ports.input.SyncInboxViewUseCase;
+
+/**
+ * Ejecuta el backfill del read model inbox_view al iniciar la aplicación
+ * Se habilita con inbox.view.backfill.on-start=true (una sola vez, tras crear la tabla);
+ * corre en segundo plano para no retrasar el arranque
+ */
+@ApplicationScoped
+@Slf4j
+public class InboxViewBackfillJob {
+
+    @Inject
+    SyncInboxViewUseCase syncInboxViewUseCase;
+
+    @ConfigProperty(name = "inbox.view.backfill.on-start", defaultValue = "false")
+    boolean backfillOnStart;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!backfillOnStart) {
+            return;
+        }
+
+        log.info("🔄 Iniciando backfill de inbox_view en segundo plano");
+        syncInboxViewUseCase.backfill()
+                .subscribe().with(
+                        total -> log.info("✅ Backfill de inbox_view completado: {} filas", total),
+                        error -> log.error("❌ Error en backfill de inbox_view: {}", error.getMessage(), error)
+                );
+    }
+}
@@ -0,0 +1,48 @@
+-- =====================================================================
+-- Read model desnormalizado del inbox
+-- Una fila por (destinatario, mensaje) con todo lo que muestra el listado,
+-- para servir las lecturas con un único range scan sobre
+-- (recipient_id, created_at DESC, id_message DESC) sin JOINs
+-- Lo mantiene InboxMessageBatchConsumer (upsert en bulk) y el backfill inicial
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS inbox_messages.inbox_view (
+    id_recipient    BIGINT       NOT NULL,
+    recipient_id    INTEGER      NOT NULL,
+    id_message      BIGINT       NOT NULL,
+    subject         TEXT,
+    sender_name     TEXT         NOT NULL,
+    num_attachments INTEGER      NOT NULL DEFAULT 0,
+    created_at      TIMESTAMPTZ  NOT NULL,
+    is_read         VARCHAR(1)   NOT NULL DEFAULT 'N',
+    CONSTRAINT pk_inbox_view PRIMARY KEY (id_recipient),
+    CONSTRAINT fk_inbox_view_recipient FOREIGN KEY (id_recipient)
+        REFERENCES inbox_messages.message_recipients (id) ON DELETE CASCADE
+);
+
+-- Índice del listado: mismo orden que la paginación (offset y keyset)
+CREATE INDEX IF NOT EXISTS ix_inbox_view_recipient_created
+    ON inbox_messages.inbox_view (recipient_id, created_at DESC, id_message DESC);
+
+-- Upsert en bulk por mensaje
+CREATE INDEX IF NOT EXISTS ix_inbox_view_message
+    ON inbox_messages.inbox_view (id_message);
+
+-- El estado de lectura cambia en message_recipients: se replica en la vista fila a fila
+CREATE OR REPLACE FUNCTION inbox_messages.fn_inbox_view_sync_read()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE inbox_messages.inbox_view
+       SET is_read = COALESCE(NEW.is_read, 'N')
+     WHERE id_recipient = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_message_recipients_sync_read ON inbox_messages.message_recipients;
+
+CREATE TRIGGER trg_message_recipients_sync_read
+    AFTER UPDATE OF is_read ON inbox_messages.message_recipients
+    FOR EACH ROW
+    WHEN (OLD.is_read IS DISTINCT FROM NEW.is_read)
+    EXECUTE FUNCTION inbox_messages.fn_inbox_view_sync_read();
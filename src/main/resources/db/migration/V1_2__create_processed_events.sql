@@ -0,0 +1,27 @@
+-- =====================================================================
+-- Registro de eventos de Kafka ya procesados (consumidor idempotente)
+-- Una fila por (consumidor, evento); la PK es la confirmación definitiva
+-- de que un record reentregado (rebalanceo, caída antes del commit) ya
+-- tuvo efecto. partition_key y event_offset permiten precargar el filtro
+-- Bloom en memoria de una partición al asignarla y saber desde qué offset
+-- cubre el filtro (por debajo se consulta la tabla). Las filas se purgan
+-- pasada la ventana de retención (consumer.idempotency.retention)
+-- Se aplica a mano antes de activar consumer.idempotency.enabled
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS inbox_messages.processed_events (
+    consumer        VARCHAR(100) NOT NULL,
+    event_id        VARCHAR(200) NOT NULL,
+    partition_key   VARCHAR(200) NOT NULL,
+    event_offset    BIGINT       NOT NULL,
+    processed_at    TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    CONSTRAINT pk_processed_events PRIMARY KEY (consumer, event_id)
+);
+
+-- Precarga del filtro Bloom por partición (offsets más altos primero)
+CREATE INDEX IF NOT EXISTS ix_processed_events_partition
+    ON inbox_messages.processed_events (consumer, partition_key, event_offset DESC);
+
+-- Purga por ventana de tiempo
+CREATE INDEX IF NOT EXISTS ix_processed_events_processed_at
+    ON inbox_messages.processed_events (processed_at);
@@ -0,0 +1,13 @@
+-- =====================================================================
+-- Clave de evento de los mensajes creados por la ingesta (topic inbox-messages)
+-- El productor identifica cada mensaje con su messageId (texto, p. ej. un UUID);
+-- el id_message lo sigue asignando la BD (IDENTITY). La unicidad de event_key
+-- es la que descarta una reentrega del mismo record (ON CONFLICT (event_key))
+-- Las filas creadas por otras vías quedan con event_key NULL (no colisionan)
+-- =====================================================================
+
+ALTER TABLE inbox_messages.messages
+    ADD COLUMN IF NOT EXISTS event_key VARCHAR(200);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_messages_event_key
+    ON inbox_messages.messages (event_key);
@@ -0,0 +1,19 @@
+-- =====================================================================
+-- Índices del listado keyset (seek) sobre el modelo relacional
+-- MessageRecipientRepository.findKeysByRecipientIdAfter filtra por
+-- recipient_id (message_recipients) y busca por (create_at, id_message)
+-- (messages): un índice compuesto no puede cruzar las dos tablas, así que
+-- el seek se apoya en uno por lado:
+-- - messages en el orden del listado: el plan recorre los mensajes desde el
+--   cursor hacia atrás y se detiene al completar la página
+-- - message_recipients por (recipient_id, message_id): el cruce con cada
+--   mensaje es un index-only scan
+-- El read model inbox_view ya tiene su índice (recipient_id, created_at DESC,
+-- id_message DESC) en V1_1__create_inbox_view.sql
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS ix_messages_created_desc
+    ON inbox_messages.messages (create_at DESC, id_message DESC);
+
+CREATE INDEX IF NOT EXISTS ix_message_recipients_recipient_message
+    ON inbox_messages.message_recipients (recipient_id, message_id);
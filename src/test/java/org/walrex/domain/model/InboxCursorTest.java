@@ -0,0 +1,73 @@
+package org.walrex.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InboxCursorTest {
+
+    @Test
+    void encodeDecodeRoundTripKeepsInstantAndId() {
+        OffsetDateTime createdAt = OffsetDateTime.of(2025, 3, 14, 10, 15, 30, 123_456_789, ZoneOffset.ofHours(-5));
+        InboxCursor cursor = InboxCursor.of(createdAt, 4321L);
+
+        InboxCursor decoded = InboxCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals(createdAt.toInstant(), decoded.getCreatedAt().toInstant());
+        assertEquals(4321L, decoded.getIdMessage());
+    }
+
+    @Test
+    void decodedCursorIsInUtc() {
+        OffsetDateTime createdAt = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.ofHours(3));
+
+        InboxCursor decoded = InboxCursor.decode(InboxCursor.of(createdAt, 1L).encode());
+
+        assertEquals(ZoneOffset.UTC, decoded.getCreatedAt().getOffset());
+    }
+
+    @Test
+    void tokenIsUrlSafeWithoutPadding() {
+        String token = InboxCursor.of(OffsetDateTime.now(ZoneOffset.UTC), Long.MAX_VALUE).encode();
+
+        assertFalse(token.contains("="));
+        assertFalse(token.contains("+"));
+        assertFalse(token.contains("/"));
+    }
+
+    @Test
+    void afterUsesCreatedAtAndIdOfTheItem() {
+        OffsetDateTime createdAt = OffsetDateTime.of(2025, 6, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+        MessageInboxItem item = MessageInboxItem.builder().idMessage(77L).createdAt(createdAt).build();
+
+        assertEquals(InboxCursor.of(createdAt, 77L), InboxCursor.after(item));
+    }
+
+    @Test
+    void ofRejectsMissingFields() {
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.of(null, 1L));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.of(OffsetDateTime.now(), null));
+    }
+
+    @Test
+    void decodeRejectsInvalidTokens() {
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode("  "));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode(token("1700000000:12")));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode(token("12:1700000000.5")));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode(token("abc.0:12")));
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
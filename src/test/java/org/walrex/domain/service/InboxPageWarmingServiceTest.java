@@ -0,0 +1,99 @@
+package org.walrex.domain.service;
+
+import org.junit.jupiter.api.Test;
+import org.walrex.domain.model.InboxCursor;
+import org.walrex.domain.model.MessageInboxItem;
+import org.walrex.domain.model.PagedResult;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InboxPageWarmingServiceTest {
+
+    private static final OffsetDateTime BASE = OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void redeliveredItemsLeaveThePageUntouched() {
+        PagedResult<MessageInboxItem> page = new PagedResult<>(List.of(item(3, 30), item(2, 20)), 2, 0, 2);
+
+        PagedResult<MessageInboxItem> merged = InboxPageWarmingService.mergeFirstPage(page, List.of(item(3, 30)));
+
+        assertSame(page, merged);
+        assertEquals(2, merged.getTotalElements());
+    }
+
+    @Test
+    void newerItemGoesFirstAndPushesTheTailOut() {
+        PagedResult<MessageInboxItem> page = new PagedResult<>(List.of(item(3, 30), item(2, 20)), 2, 0, 2);
+
+        PagedResult<MessageInboxItem> merged = InboxPageWarmingService.mergeFirstPage(page, List.of(item(4, 40)));
+
+        assertEquals(List.of(4L, 3L), ids(merged));
+        assertEquals(3, merged.getTotalElements());
+        assertEquals(InboxCursor.after(item(3, 30)).encode(), merged.getNextCursor());
+    }
+
+    @Test
+    void itemOlderThanTheTailOfAFullPageOnlyCountsInTheTotal() {
+        PagedResult<MessageInboxItem> page = new PagedResult<>(List.of(item(3, 30), item(2, 20)), 5, 0, 2,
+                InboxCursor.after(item(2, 20)).encode());
+
+        PagedResult<MessageInboxItem> merged = InboxPageWarmingService.mergeFirstPage(page, List.of(item(1, 10)));
+
+        assertEquals(List.of(3L, 2L), ids(merged));
+        assertEquals(6, merged.getTotalElements());
+        assertEquals(InboxCursor.after(item(2, 20)).encode(), merged.getNextCursor());
+    }
+
+    @Test
+    void itemOlderThanTheTailOfTheLastPageIsAppended() {
+        PagedResult<MessageInboxItem> page = new PagedResult<>(List.of(item(3, 30)), 1, 0, 2);
+
+        PagedResult<MessageInboxItem> merged = InboxPageWarmingService.mergeFirstPage(page, List.of(item(1, 10)));
+
+        assertEquals(List.of(3L, 1L), ids(merged));
+        assertEquals(2, merged.getTotalElements());
+        assertNull(merged.getNextCursor());
+    }
+
+    @Test
+    void sameTimestampIsOrderedByIdDescending() {
+        PagedResult<MessageInboxItem> page = new PagedResult<>(List.of(item(5, 30), item(3, 30)), 2, 0, 3);
+
+        PagedResult<MessageInboxItem> merged = InboxPageWarmingService.mergeFirstPage(page, List.of(item(4, 30)));
+
+        assertEquals(List.of(5L, 4L, 3L), ids(merged));
+    }
+
+    @Test
+    void pageWithoutExactTotalKeepsItsLowerBound() {
+        PagedResult<MessageInboxItem> page = new PagedResult<>(List.of(item(3, 30), item(2, 20)), 3, 0, 2,
+                InboxCursor.after(item(2, 20)).encode(), false);
+
+        PagedResult<MessageInboxItem> merged = InboxPageWarmingService.mergeFirstPage(page,
+                List.of(item(4, 40), item(3, 30)));
+
+        assertEquals(List.of(4L, 3L), ids(merged));
+        assertEquals(4, merged.getTotalElements());
+        assertFalse(merged.isTotalExact());
+        assertTrue(merged.hasNext());
+    }
+
+    private static MessageInboxItem item(long idMessage, int minutes) {
+        return MessageInboxItem.builder()
+                .idMessage(idMessage)
+                .createdAt(BASE.plusMinutes(minutes))
+                .build();
+    }
+
+    private static List<Long> ids(PagedResult<MessageInboxItem> page) {
+        return page.getData().stream().map(MessageInboxItem::getIdMessage).toList();
+    }
+}
@@ -0,0 +1,72 @@
+package org.walrex.domain.service;
+
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.Test;
+import org.walrex.application.ports.output.InboxViewPort;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InboxViewServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    void backfillAdvancesTheKeysetUntilAnEmptyChunk() {
+        FakeInboxViewPort port = new FakeInboxViewPort(25);
+        InboxViewService service = new InboxViewService(port, true, 10);
+
+        long total = service.backfill().await().atMost(TIMEOUT);
+
+        assertEquals(25, total);
+        assertEquals(List.of(0L, 10L, 20L, 25L), port.cursors);
+    }
+
+    @Test
+    void backfillOfManyChunksDoesNotNestSubscriptions() {
+        // Con un tramo por fila, una cadena recursiva de Uni desbordaría la pila
+        FakeInboxViewPort port = new FakeInboxViewPort(50_000);
+        InboxViewService service = new InboxViewService(port, true, 1);
+
+        long total = service.backfill().await().atMost(TIMEOUT);
+
+        assertEquals(50_000, total);
+    }
+
+    @Test
+    void disabledViewSkipsTheBackfill() {
+        FakeInboxViewPort port = new FakeInboxViewPort(25);
+        InboxViewService service = new InboxViewService(port, false, 10);
+
+        assertEquals(0, service.backfill().await().atMost(TIMEOUT));
+        assertEquals(List.of(), port.cursors);
+    }
+
+    /**
+     * Tabla de destinatarios con IDs 1..rows que responde de forma síncrona, como un pool ya conectado
+     */
+    private static final class FakeInboxViewPort implements InboxViewPort {
+        private final long rows;
+        private final List<Long> cursors = new ArrayList<>();
+
+        private FakeInboxViewPort(long rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Uni<Integer> upsertMessages(List<Long> messageIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<List<Long>> upsertChunkAfter(long afterIdRecipient, int chunkSize) {
+            cursors.add(afterIdRecipient);
+            long last = Math.min(rows, afterIdRecipient + chunkSize);
+            return Uni.createFrom().item(LongStream.rangeClosed(afterIdRecipient + 1, last).boxed().toList());
+        }
+    }
+}
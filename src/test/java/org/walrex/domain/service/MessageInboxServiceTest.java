@@ -0,0 +1,184 @@
+package org.walrex.domain.service;
+
+import io.quarkus.panache.common.Page;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.Test;
+import org.walrex.application.ports.output.InboxMessagePort;
+import org.walrex.application.ports.output.MessageDetailCachePort;
+import org.walrex.domain.model.InboxCursor;
+import org.walrex.domain.model.MessageInboxItem;
+import org.walrex.domain.model.PagedResult;
+import org.walrex.domain.model.dto.MessageInfo;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageDetailsDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageReadStateDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.ReceiverInfoDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.exception.MessageNotFoundException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageInboxServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final long ID_MESSAGE = 42L;
+
+    private final FakeInboxMessagePort port = new FakeInboxMessagePort();
+    private final FakeDetailCache detailCache = new FakeDetailCache();
+    private final MessageInboxService service = new MessageInboxService(port, null, detailCache, null, "pages");
+
+    @Test
+    void sharedDetailIsLoadedOnceAndReadStateIsQueriedPerRecipient() {
+        MessageInfo first = service.getMessageById(ID_MESSAGE, 10).await().atMost(TIMEOUT);
+        MessageInfo second = service.getMessageById(ID_MESSAGE, 11).await().atMost(TIMEOUT);
+
+        assertEquals(ID_MESSAGE, first.getIdMessage());
+        assertEquals("asunto", second.getAsunto());
+        assertEquals(1, port.detailLoads);
+        assertEquals(List.of(10, 11), port.readStateQueries);
+    }
+
+    @Test
+    void readStateOverlayDoesNotModifyTheCachedDetail() {
+        port.readStates.put(10, new MessageReadStateDTO("Y", LocalDateTime.of(2025, 6, 2, 9, 30)));
+
+        service.getMessageById(ID_MESSAGE, 10).await().atMost(TIMEOUT);
+        service.getMessageById(ID_MESSAGE, 11).await().atMost(TIMEOUT);
+
+        MessageDetailsDTO cached = detailCache.entries.get(ID_MESSAGE);
+        assertNull(cached.getIsRead());
+        assertNull(cached.getReadAt());
+        assertEquals(List.of(10, 11), cached.getReceivers().stream().map(ReceiverInfoDTO::getId).toList());
+    }
+
+    @Test
+    void knownMissingIdFailsWithoutQueryingDetailOrReadState() {
+        detailCache.missing.add(ID_MESSAGE);
+
+        assertThrows(MessageNotFoundException.class,
+                () -> service.getMessageById(ID_MESSAGE, 10).await().atMost(TIMEOUT));
+
+        assertEquals(0, port.detailLoads);
+        assertTrue(port.readStateQueries.isEmpty());
+    }
+
+    @Test
+    void readStateFailureFailsTheRequest() {
+        port.readStateFailure = new IllegalStateException("BD caída");
+
+        assertThrows(IllegalStateException.class,
+                () -> service.getMessageById(ID_MESSAGE, 10).await().atMost(TIMEOUT));
+    }
+
+    @Test
+    void unpagedListingGoesToTheDatabaseWithoutThePageCache() {
+        // El servicio se construye sin cache por página: si el listado completo pasara por él fallaría
+        PagedResult<MessageInboxItem> result = service.getMessageByUser(10, Optional.empty(), true)
+                .await().atMost(TIMEOUT);
+
+        assertEquals(List.of(ID_MESSAGE), result.getData().stream().map(MessageInboxItem::getIdMessage).toList());
+        assertEquals(1, port.listQueries);
+    }
+
+    private static MessageDetailsDTO sharedDetail() {
+        return new MessageDetailsDTO(ID_MESSAGE, null, "cuerpo", LocalDate.of(2025, 6, 1), "asunto",
+                List.of(new ReceiverInfoDTO(10, "Pérez", "Ana", "aperez"), new ReceiverInfoDTO(11, "Ruiz", "Luis", "lruiz")),
+                null, null, List.of());
+    }
+
+    /**
+     * Puerto de persistencia que solo resuelve el detalle compartido y el estado de lectura
+     */
+    private static final class FakeInboxMessagePort implements InboxMessagePort {
+        private final Map<Integer, MessageReadStateDTO> readStates = new HashMap<>();
+        private final List<Integer> readStateQueries = new ArrayList<>();
+        private int detailLoads;
+        private int listQueries;
+        private RuntimeException readStateFailure;
+
+        @Override
+        public Uni<MessageDetailsDTO> getSharedMessageDetail(Long idMessage) {
+            detailLoads++;
+            return Uni.createFrom().item(sharedDetail());
+        }
+
+        @Override
+        public Uni<MessageReadStateDTO> findReadState(Long idMessage, Integer idDestinatario) {
+            readStateQueries.add(idDestinatario);
+            if (readStateFailure != null) {
+                return Uni.createFrom().failure(readStateFailure);
+            }
+            return Uni.createFrom().item(readStates.getOrDefault(idDestinatario, new MessageReadStateDTO("N", null)));
+        }
+
+        @Override
+        public Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, Optional<Page> page, boolean exactTotal) {
+            listQueries++;
+            List<MessageInboxItem> items = List.of(MessageInboxItem.builder().idMessage(ID_MESSAGE).build());
+            return Uni.createFrom().item(new PagedResult<>(items, items.size(), 0, items.size()));
+        }
+
+        @Override
+        public Uni<PagedResult<MessageInboxItem>> findMessagesByUser(Integer userId, InboxCursor after, int size, boolean exactTotal) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Multi<MessageInboxItem> streamMessagesByUser(Integer userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<Map<Integer, List<MessageInboxItem>>> findInboxItemsByMessageIds(List<Long> messageIds) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Cache del detalle en memoria: guarda lo que devuelve el loader y responde 404 para los IDs marcados
+     */
+    private static final class FakeDetailCache implements MessageDetailCachePort {
+        private final Map<Long, MessageDetailsDTO> entries = new HashMap<>();
+        private final Set<Long> missing = new HashSet<>();
+
+        @Override
+        public Uni<MessageDetailsDTO> getOrFetch(Long idMessage, Supplier<Uni<MessageDetailsDTO>> loader) {
+            MessageDetailsDTO cached = entries.get(idMessage);
+            if (cached != null) {
+                return Uni.createFrom().item(cached);
+            }
+            return loader.get().invoke(detail -> entries.put(idMessage, detail));
+        }
+
+        @Override
+        public boolean isKnownMissing(Long idMessage) {
+            return missing.contains(idMessage);
+        }
+
+        @Override
+        public Uni<Void> forgetMissing(List<Long> idMessages) {
+            idMessages.forEach(missing::remove);
+            return Uni.createFrom().voidItem();
+        }
+
+        @Override
+        public Uni<Void> invalidate(Long idMessage) {
+            entries.remove(idMessage);
+            return Uni.createFrom().voidItem();
+        }
+    }
+}
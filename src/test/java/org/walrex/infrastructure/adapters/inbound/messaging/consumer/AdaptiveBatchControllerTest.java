@@ -0,0 +1,268 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.KafkaClientService;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumer;
+import io.smallrye.reactive.messaging.kafka.KafkaProducer;
+import io.vertx.mutiny.core.Vertx;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.walrex.infrastructure.adapters.outbound.persistence.repository.InboxMessageBulkRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveBatchControllerTest {
+
+    private static final Duration TARGET_LATENCY = Duration.ofMillis(500);
+    private static final Duration POOL_WAIT_TARGET = Duration.ofMillis(50);
+    private static final Duration PAUSE_DURATION = Duration.ofMillis(100);
+    private static final int MIN_BATCH = 25;
+    private static final int MAX_BATCH = 500;
+    private static final int INCREASE = 25;
+    private static final TopicPartition P0 = new TopicPartition("inbox-messages", 0);
+    private static final TopicPartition P1 = new TopicPartition("inbox-messages", 1);
+
+    private final Vertx vertx = Vertx.vertx();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final Set<TopicPartition> assigned = Set.of(P0, P1);
+    private final Set<TopicPartition> paused = ConcurrentHashMap.newKeySet();
+
+    @AfterEach
+    void closeVertx() {
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void disabledControllerDoesNotLimitTheBatch() {
+        AdaptiveBatchController controller = controller(false);
+
+        controller.onBatchReceived(500);
+        controller.onChunkCompleted(500, TARGET_LATENCY.toNanos() * 10);
+        controller.onChunkFailed(0);
+
+        assertEquals(Integer.MAX_VALUE, controller.batchLimit());
+        assertTrue(paused.isEmpty());
+    }
+
+    @Test
+    void startsAtMaxBatchAndNeverExceedsIt() {
+        AdaptiveBatchController controller = controller(true);
+
+        assertEquals(MAX_BATCH, controller.batchLimit());
+        commits(Duration.ofMillis(100), 5);
+        controller.onChunkCompleted(500, 0);
+
+        assertEquals(MAX_BATCH, controller.batchLimit());
+    }
+
+    @Test
+    void slowCommitsDecreaseMultiplicatively() {
+        AdaptiveBatchController controller = controller(true);
+
+        commits(Duration.ofMillis(1_000), 5);
+        controller.onChunkCompleted(500, 0);
+
+        assertEquals(MAX_BATCH / 2, controller.batchLimit());
+    }
+
+    @Test
+    void fastCommitsIncreaseAdditivelyAfterADecrease() {
+        AdaptiveBatchController controller = controller(true);
+        commits(Duration.ofMillis(1_000), 5);
+        controller.onChunkCompleted(500, 0);
+
+        commits(Duration.ofMillis(100), 5);
+        controller.onChunkCompleted(250, 0);
+
+        // Solo cuentan los commits registrados desde la muestra anterior
+        assertEquals(MAX_BATCH / 2 + INCREASE, controller.batchLimit());
+    }
+
+    @Test
+    void poolWaitOverTargetDecreasesEvenWithFastCommits() {
+        AdaptiveBatchController controller = controller(true);
+
+        commits(Duration.ofMillis(100), 5);
+        registry.timer(InboxMessageBulkRepository.POOL_WAIT_TIMER).record(Duration.ofMillis(80));
+        controller.onChunkCompleted(500, 0);
+
+        assertEquals(MAX_BATCH / 2, controller.batchLimit());
+    }
+
+    @Test
+    void chunkDurationIsUsedWhenNoTransactionWasCommitted() {
+        AdaptiveBatchController controller = controller(true);
+
+        controller.onChunkCompleted(500, TARGET_LATENCY.toNanos() * 2);
+
+        assertEquals(MAX_BATCH / 2, controller.batchLimit());
+    }
+
+    @Test
+    void limitNeverGoesBelowMinBatch() {
+        AdaptiveBatchController controller = controller(true);
+
+        for (int i = 0; i < 20; i++) {
+            controller.onChunkFailed(0);
+        }
+
+        assertEquals(MIN_BATCH, controller.batchLimit());
+    }
+
+    @Test
+    void failedChunkDecreasesMultiplicatively() {
+        AdaptiveBatchController controller = controller(true);
+
+        controller.onChunkFailed(0);
+
+        assertEquals(MAX_BATCH / 2, controller.batchLimit());
+    }
+
+    @Test
+    void overloadPausesPartitionsOnceAndResumesAfterThePauseDuration() throws InterruptedException {
+        AdaptiveBatchController controller = controller(true);
+
+        commits(Duration.ofMillis(2_000), 5);
+        controller.onChunkCompleted(500, 0);
+        commits(Duration.ofMillis(2_000), 5);
+        controller.onChunkCompleted(250, 0);
+
+        // La segunda sobrecarga llega con las particiones ya pausadas
+        assertEquals(Set.of(P0, P1), paused);
+        assertEquals(1.0, registry.get("consumer.adaptive.pauses").counter().count());
+        awaitUntil(paused::isEmpty);
+        assertTrue(controller.pausedPartitions().isEmpty());
+    }
+
+    @Test
+    void windowOverTheLimitHoldsThePauseUntilItFitsInAChunk() {
+        AdaptiveBatchController controller = controller(true);
+        controller.onChunkFailed(0);
+
+        controller.onBatchReceived(500);
+        assertEquals(Set.of(P0, P1), paused);
+
+        commits(Duration.ofMillis(100), 5);
+        controller.onChunkCompleted(MAX_BATCH / 2, 0);
+
+        // Quedan 250 records y el límite subió a 275: caben en un bloque, se reanuda
+        assertTrue(paused.isEmpty());
+    }
+
+    @Test
+    void onlyThePartitionsItPausedAreResumed() {
+        AdaptiveBatchController controller = controller(true);
+        controller.onChunkFailed(0);
+        // Partición pausada por el propio conector (backpressure)
+        paused.add(P1);
+
+        controller.onBatchReceived(500);
+        assertEquals(Set.of(P0), controller.pausedPartitions());
+
+        commits(Duration.ofMillis(100), 5);
+        controller.onChunkCompleted(500, 0);
+
+        assertEquals(Set.of(P1), paused);
+        assertTrue(controller.pausedPartitions().isEmpty());
+    }
+
+    @Test
+    void overloadBelowPauseThresholdDoesNotPause() {
+        AdaptiveBatchController controller = controller(true);
+
+        commits(Duration.ofMillis(1_000), 5);
+        controller.onChunkCompleted(500, 0);
+
+        assertTrue(paused.isEmpty());
+    }
+
+    private void commits(Duration latency, int count) {
+        for (int i = 0; i < count; i++) {
+            registry.timer(InboxMessageBulkRepository.COMMIT_TIMER).record(latency);
+        }
+    }
+
+    private AdaptiveBatchController controller(boolean enabled) {
+        return new AdaptiveBatchController(kafkaClientService(), vertx, registry, enabled,
+                TARGET_LATENCY, POOL_WAIT_TARGET, MIN_BATCH, MAX_BATCH, INCREASE, 0.5, 3.0, PAUSE_DURATION);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "La condición no se cumplió en 5s");
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Consumidor de Kafka que ejecuta las acciones del hilo de poll sobre un cliente con dos particiones
+     * asignadas; el cliente solo implementa assignment(), paused(), pause() y resume()
+     */
+    @SuppressWarnings("unchecked")
+    private KafkaClientService kafkaClientService() {
+        org.apache.kafka.clients.consumer.Consumer<Object, Object> client =
+                (org.apache.kafka.clients.consumer.Consumer<Object, Object>) Proxy.newProxyInstance(
+                        getClass().getClassLoader(), new Class<?>[]{org.apache.kafka.clients.consumer.Consumer.class},
+                        (proxy, method, args) -> switch (method.getName()) {
+                            case "assignment" -> assigned;
+                            case "paused" -> Set.copyOf(paused);
+                            case "pause" -> {
+                                paused.addAll((Collection<TopicPartition>) args[0]);
+                                yield null;
+                            }
+                            case "resume" -> {
+                                paused.removeAll((Collection<TopicPartition>) args[0]);
+                                yield null;
+                            }
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        });
+        KafkaConsumer<Object, Object> consumer = (KafkaConsumer<Object, Object>) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{KafkaConsumer.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("runOnPollingThread") && args[0] instanceof Function<?, ?> action) {
+                        return Uni.createFrom().item(((Function<Object, Object>) action).apply(client));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        return new KafkaClientService() {
+            @Override
+            public <K, V> KafkaConsumer<K, V> getConsumer(String channel) {
+                return (KafkaConsumer<K, V>) consumer;
+            }
+
+            @Override
+            public <K, V> List<KafkaConsumer<K, V>> getConsumers(String channel) {
+                return List.of((KafkaConsumer<K, V>) consumer);
+            }
+
+            @Override
+            public <K, V> KafkaProducer<K, V> getProducer(String channel) {
+                return null;
+            }
+
+            @Override
+            public Set<String> getConsumerChannels() {
+                return Set.of("inbox-messages");
+            }
+
+            @Override
+            public Set<String> getProducerChannels() {
+                return Set.of();
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.consumer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventBloomFilterTest {
+
+    @Test
+    void insertedEventsAreAlwaysFound() {
+        EventBloomFilter filter = new EventBloomFilter(1_000, 0.01, 0);
+        for (int offset = 0; offset < 1_000; offset++) {
+            filter.put("event-" + offset, offset);
+        }
+
+        for (int offset = 0; offset < 1_000; offset++) {
+            assertTrue(filter.mightContain("event-" + offset));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredFpp() {
+        EventBloomFilter filter = new EventBloomFilter(1_000, 0.01, 0);
+        for (int offset = 0; offset < 1_000; offset++) {
+            filter.put("event-" + offset, offset);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "falsos positivos: " + falsePositives);
+    }
+
+    @Test
+    void coverageStartsAtTheGivenOffset() {
+        EventBloomFilter filter = new EventBloomFilter(10, 0.01, 500);
+
+        assertFalse(filter.covers(499));
+        assertTrue(filter.covers(500));
+        assertTrue(filter.covers(10_000));
+    }
+
+    @Test
+    void unknownOffsetIsNeverCovered() {
+        EventBloomFilter filter = new EventBloomFilter(10, 0.01, 0);
+
+        assertFalse(filter.covers(-1));
+    }
+
+    @Test
+    void firstRotationKeepsCoverage() {
+        EventBloomFilter filter = new EventBloomFilter(10, 0.01, 0);
+        for (int offset = 0; offset < 20; offset++) {
+            filter.put("event-" + offset, offset);
+        }
+
+        // La primera generación pasó a ser la anterior: sigue en el filtro
+        assertTrue(filter.covers(0));
+        for (int offset = 0; offset < 20; offset++) {
+            assertTrue(filter.mightContain("event-" + offset));
+        }
+    }
+
+    @Test
+    void discardedGenerationRaisesCoverageAboveItsHighestOffset() {
+        EventBloomFilter filter = new EventBloomFilter(10, 0.01, 0);
+        for (int offset = 0; offset < 21; offset++) {
+            filter.put("event-" + offset, offset);
+        }
+
+        // Offsets 0-9 se descartaron: por debajo de 10 hay que confirmar en processed_events
+        assertFalse(filter.covers(9));
+        assertTrue(filter.covers(10));
+        for (int offset = 10; offset < 21; offset++) {
+            assertTrue(filter.mightContain("event-" + offset));
+        }
+    }
+
+    @Test
+    void coverageNeverMovesBackwards() {
+        EventBloomFilter filter = new EventBloomFilter(5, 0.01, 1_000);
+        for (int offset = 0; offset < 11; offset++) {
+            filter.put("event-" + offset, offset);
+        }
+
+        // Los offsets descartados (0-4) están por debajo de la cobertura inicial
+        assertFalse(filter.covers(999));
+        assertTrue(filter.covers(1_000));
+    }
+}
@@ -0,0 +1,158 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.walrex.application.ports.input.DeduplicateEventsUseCase;
+import org.walrex.domain.model.ProcessedEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotentRecordsTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String CONSUMER = "inbox-messages";
+    private static final String TOPIC = "inbox";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FakeDeduplicateEvents store = new FakeDeduplicateEvents();
+
+    @Test
+    void bloomMissOfACoveredOffsetSkipsTheStore() {
+        IdempotentRecords idempotentRecords = idempotentRecords(100);
+
+        List<KafkaRecord<String, String>> fresh = idempotentRecords.filterNew(CONSUMER,
+                List.of(record(0, 5, null), record(0, 6, "evt-6"))).await().atMost(TIMEOUT);
+
+        assertEquals(List.of("p0-5", "p0-6"), payloads(fresh));
+        assertEquals(List.of(List.of()), store.lookups);
+    }
+
+    @Test
+    void bloomHitIsConfirmedInTheStoreBeforeDroppingTheRecord() {
+        IdempotentRecords idempotentRecords = idempotentRecords(100);
+        KafkaRecord<String, String> processed = record(0, 5, null);
+        idempotentRecords.markProcessed(CONSUMER, List.of(processed)).await().atMost(TIMEOUT);
+
+        List<KafkaRecord<String, String>> fresh = idempotentRecords.filterNew(CONSUMER,
+                List.of(record(0, 5, null), record(0, 6, null))).await().atMost(TIMEOUT);
+
+        assertEquals(List.of("p0-6"), payloads(fresh));
+        assertEquals(List.of(List.of(TOPIC + "-0@5")), store.lookups);
+        assertEquals(1, registry.get("consumer.idempotency.duplicates").tag("consumer", CONSUMER).counter().count());
+    }
+
+    @Test
+    void headerIdRedeliveredAtANewOffsetIsCheckedInTheStoreOnceTheFilterLostCoverage() {
+        // Precarga parcial (tantos eventos como la capacidad): el filtro cubre solo desde el offset 10
+        store.recent.put(TOPIC + "-0", List.of(new ProcessedEvent("evt-11", TOPIC + "-0", 11),
+                new ProcessedEvent("evt-10", TOPIC + "-0", 10)));
+        store.processed.add("evt-3");
+        IdempotentRecords idempotentRecords = idempotentRecords(2);
+
+        // El productor reenvió evt-3 (procesado en el offset 3) y la copia llegó en el offset 20
+        List<KafkaRecord<String, String>> fresh = idempotentRecords.filterNew(CONSUMER,
+                List.of(record(0, 20, "evt-3"), record(0, 21, null))).await().atMost(TIMEOUT);
+
+        assertEquals(List.of("p0-21"), payloads(fresh));
+        assertEquals(List.of(List.of("evt-3")), store.lookups);
+    }
+
+    @Test
+    void forgetDropsTheFilterSoTheReassignedPartitionIsPreloadedAgain() {
+        IdempotentRecords idempotentRecords = idempotentRecords(100);
+        idempotentRecords.filterNew(CONSUMER, List.of(record(0, 1, null), record(1, 1, null))).await().atMost(TIMEOUT);
+
+        // Otra instancia procesó el offset 2 mientras la partición 0 estuvo asignada a ella
+        store.recent.put(TOPIC + "-0", List.of(new ProcessedEvent(TOPIC + "-0@2", TOPIC + "-0", 2)));
+        store.processed.add(TOPIC + "-0@2");
+        idempotentRecords.forget(List.of(new TopicPartition(TOPIC, 0)));
+
+        List<KafkaRecord<String, String>> fresh = idempotentRecords.filterNew(CONSUMER,
+                List.of(record(0, 2, null), record(1, 2, null))).await().atMost(TIMEOUT);
+
+        assertEquals(List.of("p1-2"), payloads(fresh));
+        assertEquals(2, Collections.frequency(store.preloads, TOPIC + "-0"));
+        assertEquals(1, Collections.frequency(store.preloads, TOPIC + "-1"));
+    }
+
+    @Test
+    void disabledIdempotencyPassesRecordsThrough() {
+        IdempotentRecords disabled = new IdempotentRecords(store, registry, null, false, 100, 0.01, Duration.ofMinutes(10));
+        List<KafkaRecord<String, String>> records = List.of(record(0, 1, null), record(0, 1, null));
+
+        assertEquals(records, disabled.filterNew(CONSUMER, records).await().atMost(TIMEOUT));
+        assertTrue(store.lookups.isEmpty());
+    }
+
+    private IdempotentRecords idempotentRecords(int bloomCapacity) {
+        return new IdempotentRecords(store, registry, null, true, bloomCapacity, 0.01, Duration.ofMinutes(10));
+    }
+
+    private static List<String> payloads(List<KafkaRecord<String, String>> records) {
+        return records.stream().map(KafkaRecord::getPayload).toList();
+    }
+
+    /**
+     * Record recibido de la partición indicada con payload "p{partición}-{offset}" y, opcionalmente,
+     * el header event-id del productor
+     */
+    private static KafkaRecord<String, String> record(int partition, long offset, String eventId) {
+        ConsumerRecord<String, String> consumerRecord = new ConsumerRecord<>(TOPIC, partition, offset, "k",
+                "p" + partition + "-" + offset);
+        if (eventId != null) {
+            consumerRecord.headers().add(IdempotentRecords.EVENT_ID_HEADER, eventId.getBytes(StandardCharsets.UTF_8));
+        }
+        return new IncomingKafkaRecord<>(consumerRecord, CONSUMER, -1, null, null, false, false);
+    }
+
+    /**
+     * processed_events en memoria: anota cada consulta de IDs y cada precarga de partición
+     */
+    private static final class FakeDeduplicateEvents implements DeduplicateEventsUseCase {
+        private final Set<String> processed = new HashSet<>();
+        private final Map<String, List<ProcessedEvent>> recent = new HashMap<>();
+        private final List<List<String>> lookups = new ArrayList<>();
+        private final List<String> preloads = new ArrayList<>();
+
+        @Override
+        public Uni<Set<String>> findProcessed(String consumer, List<String> eventIds) {
+            lookups.add(List.copyOf(eventIds));
+            Set<String> found = new HashSet<>(eventIds);
+            found.retainAll(processed);
+            return Uni.createFrom().item(found);
+        }
+
+        @Override
+        public Uni<Void> markProcessed(String consumer, List<ProcessedEvent> events) {
+            events.forEach(event -> processed.add(event.getEventId()));
+            return Uni.createFrom().voidItem();
+        }
+
+        @Override
+        public Uni<List<ProcessedEvent>> recentEvents(String consumer, String partitionKey, int limit) {
+            preloads.add(partitionKey);
+            return Uni.createFrom().item(recent.getOrDefault(partitionKey, List.of()));
+        }
+
+        @Override
+        public Uni<Integer> purgeExpired() {
+            return Uni.createFrom().item(0);
+        }
+    }
+}
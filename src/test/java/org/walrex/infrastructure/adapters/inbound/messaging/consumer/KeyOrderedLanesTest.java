@@ -0,0 +1,275 @@
+package org.walrex.infrastructure.adapters.inbound.messaging.consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyOrderedLanesTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final List<String> acked = new CopyOnWriteArrayList<>();
+    private final List<String> nacked = new CopyOnWriteArrayList<>();
+    private final KeyOrderedLanes lanes = new KeyOrderedLanes(
+            new VirtualThreadLanes(new SimpleMeterRegistry(), true, 16, false, Duration.ofMillis(20)), 4,
+            2, Duration.ofMillis(1), Duration.ofMillis(5));
+
+    @Test
+    void acksEveryRecordWhenAllLanesComplete() {
+        List<KafkaRecord<String, String>> records = List.of(
+                record(0, 0, "a"), record(0, 1, "b"), record(1, 0, "a"), record(1, 1, "c"), record(0, 2, "d"));
+
+        lanes.processLanes(records, lane -> Uni.createFrom().voidItem()).await().atMost(TIMEOUT);
+
+        assertEquals(List.of("p0-0", "p0-1", "p0-2", "p1-0", "p1-1"), sorted(acked));
+    }
+
+    @Test
+    void exhaustedLaneIsNackedAndOtherLanesAreAcked() {
+        // "k1" y "k2" caen en carriles distintos; el carril de k2 falla siempre
+        List<KafkaRecord<String, String>> records = List.of(
+                record(0, 0, "k1"), record(0, 1, "k2"), record(0, 2, "k1"), record(0, 3, "k2"));
+        List<String> processed = new CopyOnWriteArrayList<>();
+
+        Uni<Void> result = lanes.processLanes(records, lane -> {
+            if (lane.get(0).getKey().equals("k2")) {
+                return Uni.createFrom().failure(new IllegalStateException("boom"));
+            }
+            lane.forEach(record -> processed.add(record.getPayload()));
+            return Uni.createFrom().voidItem();
+        });
+
+        assertThrows(IllegalStateException.class, () -> result.await().atMost(TIMEOUT));
+        assertEquals(List.of("p0-0", "p0-2"), sorted(processed));
+        assertEquals(List.of("p0-0", "p0-2"), sorted(acked));
+        assertEquals(List.of("p0-1", "p0-3"), nacked);
+    }
+
+    @Test
+    void otherPartitionsAdvanceIndependently() {
+        List<KafkaRecord<String, String>> records = List.of(
+                record(0, 0, "k1"), record(1, 0, "k2"), record(1, 1, "k2"), record(0, 1, "k1"));
+
+        Uni<Void> result = lanes.processLanes(records, lane -> lane.get(0).getKey().equals("k1")
+                ? Uni.createFrom().failure(new IllegalStateException("boom"))
+                : Uni.createFrom().voidItem());
+
+        assertThrows(IllegalStateException.class, () -> result.await().atMost(TIMEOUT));
+        assertEquals(List.of("p1-0", "p1-1"), sorted(acked));
+        assertEquals(List.of("p0-0", "p0-1"), nacked);
+    }
+
+    @Test
+    void failedLaneNacksAllOfItsRecords() {
+        List<KafkaRecord<String, String>> records = List.of(
+                record(0, 0, "k1"), record(0, 1, "k2"), record(0, 2, "k2"));
+        AtomicInteger attempts = new AtomicInteger();
+
+        Uni<Void> result = lanes.processLanes(records, lane -> {
+            if (lane.get(0).getKey().equals("k2")) {
+                attempts.incrementAndGet();
+                return Uni.createFrom().failure(new IllegalStateException("boom"));
+            }
+            return Uni.createFrom().voidItem();
+        });
+
+        assertThrows(IllegalStateException.class, () -> result.await().atMost(TIMEOUT));
+        assertEquals(3, attempts.get(), "un intento más dos reintentos");
+        assertEquals(List.of("p0-0"), acked);
+        assertEquals(List.of("p0-1", "p0-2"), nacked);
+    }
+
+    @Test
+    void laneThatRecoversOnRetryIsAcked() {
+        List<KafkaRecord<String, String>> records = List.of(
+                record(0, 0, "k1"), record(0, 1, "k2"), record(0, 2, "k2"));
+        AtomicInteger attempts = new AtomicInteger();
+
+        lanes.processLanes(records, lane -> lane.get(0).getKey().equals("k2") && attempts.incrementAndGet() == 1
+                        ? Uni.createFrom().failure(new IllegalStateException("transitorio"))
+                        : Uni.createFrom().voidItem())
+                .await().atMost(TIMEOUT);
+
+        assertEquals(2, attempts.get());
+        assertEquals(List.of("p0-0", "p0-1", "p0-2"), acked);
+        assertTrue(nacked.isEmpty());
+    }
+
+    @Test
+    void recordsOfTheSameKeyKeepTheirOrder() {
+        List<KafkaRecord<String, String>> records = new ArrayList<>();
+        for (int offset = 0; offset < 50; offset++) {
+            records.add(record(0, offset, offset % 2 == 0 ? "even" : "odd"));
+        }
+        List<String> even = new CopyOnWriteArrayList<>();
+
+        lanes.processLanes(records, lane -> {
+                    lane.stream()
+                            .filter(record -> record.getKey().equals("even"))
+                            .forEach(record -> even.add(record.getPayload()));
+                    return Uni.createFrom().voidItem();
+                })
+                .await().atMost(TIMEOUT);
+
+        List<String> expected = new ArrayList<>();
+        for (int offset = 0; offset < 50; offset += 2) {
+            expected.add("p0-" + offset);
+        }
+        assertEquals(expected, even);
+        assertEquals(50, acked.size());
+    }
+
+    @Test
+    void blockingLanesApplyTheSameWatermark() {
+        List<KafkaRecord<String, String>> records = List.of(
+                record(0, 0, "k1"), record(0, 1, "k2"), record(0, 2, "k1"), record(1, 0, "k1"));
+        List<Boolean> onVirtualThread = new CopyOnWriteArrayList<>();
+
+        Uni<Void> result = lanes.processLanesBlocking(records, lane -> {
+            onVirtualThread.add(Thread.currentThread().isVirtual());
+            if (lane.get(0).getKey().equals("k2")) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> result.await().atMost(TIMEOUT));
+        assertFalse(onVirtualThread.isEmpty());
+        assertTrue(onVirtualThread.stream().allMatch(Boolean::booleanValue));
+        assertEquals(List.of("p0-0", "p0-2", "p1-0"), sorted(acked));
+        assertEquals(List.of("p0-1"), nacked);
+    }
+
+    @Test
+    void blockingLaneAwaitsReactiveSteps() {
+        VirtualThreadLanes virtualThreadLanes = new VirtualThreadLanes(new SimpleMeterRegistry(), true, 16, false,
+                Duration.ofMillis(20));
+        KeyOrderedLanes blockingLanes = new KeyOrderedLanes(virtualThreadLanes, 4, 0, Duration.ofMillis(1),
+                Duration.ofMillis(5));
+        List<String> processed = new CopyOnWriteArrayList<>();
+
+        blockingLanes.processLanesBlocking(List.of(record(0, 0, "k1"), record(0, 1, "k1")), lane ->
+                        lane.forEach(record -> processed.add(virtualThreadLanes.await(() -> Uni.createFrom()
+                                .item(record.getPayload())
+                                .onItem().delayIt().by(Duration.ofMillis(5))))))
+                .await().atMost(TIMEOUT);
+
+        assertEquals(List.of("p0-0", "p0-1"), processed);
+        assertEquals(List.of("p0-0", "p0-1"), acked);
+    }
+
+    @Test
+    void disabledVirtualThreadsRejectBlockingLanes() {
+        VirtualThreadLanes disabled = new VirtualThreadLanes(new SimpleMeterRegistry(), false, 16, true,
+                Duration.ofMillis(20));
+
+        assertFalse(disabled.isEnabled());
+        assertThrows(IllegalStateException.class, () -> disabled.supply(() -> "x"));
+    }
+
+    @Test
+    void emptyBatchCompletesWithoutAcks() {
+        lanes.processLanes(List.<KafkaRecord<String, String>>of(), lane -> Uni.createFrom().voidItem())
+                .await().atMost(TIMEOUT);
+
+        assertTrue(acked.isEmpty());
+        assertTrue(nacked.isEmpty());
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> copy = new ArrayList<>(values);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    /**
+     * Record de la partición indicada cuyo payload es "p{partición}-{offset}"; el ack se anota en acked
+     * y el nack en nacked
+     */
+    private KafkaRecord<String, String> record(int partition, int offset, String key) {
+        return new TestRecord(partition, "p" + partition + "-" + offset, key);
+    }
+
+    private final class TestRecord implements KafkaRecord<String, String> {
+
+        private final int partition;
+        private final String payload;
+        private final String key;
+
+        private TestRecord(int partition, String payload, String key) {
+            this.partition = partition;
+            this.payload = payload;
+            this.key = key;
+        }
+
+        @Override
+        public String getPayload() {
+            return payload;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getTopic() {
+            return "inbox-messages";
+        }
+
+        @Override
+        public int getPartition() {
+            return partition;
+        }
+
+        @Override
+        public Instant getTimestamp() {
+            return Instant.EPOCH;
+        }
+
+        @Override
+        public Headers getHeaders() {
+            return new RecordHeaders();
+        }
+
+        @Override
+        public CompletionStage<Void> ack() {
+            acked.add(payload);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletionStage<Void> ack(Metadata metadata) {
+            return ack();
+        }
+
+        @Override
+        public CompletionStage<Void> nack(Throwable reason) {
+            nacked.add(payload);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletionStage<Void> nack(Throwable reason, Metadata metadata) {
+            return nack(reason);
+        }
+    }
+}
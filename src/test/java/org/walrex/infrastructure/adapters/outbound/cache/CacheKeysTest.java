@@ -0,0 +1,91 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheKeysTest {
+
+    private final CacheKeys standalone = new CacheKeys(false);
+    private final CacheKeys cluster = new CacheKeys(true);
+
+    @Test
+    void standaloneKeepsHistoricalFormat() {
+        assertFalse(standalone.isCluster());
+        assertEquals("msg-svc-123-list-page-0-size-20", standalone.user(123, "list", "page", 0, "size", 20));
+        assertEquals("msg-svc-123-list-", standalone.userPrefix(123, "list"));
+        assertEquals("msg-svc-detail-9", standalone.global("detail", 9));
+    }
+
+    @Test
+    void clusterTagsUserKeysWithUserHashTag() {
+        assertTrue(cluster.isCluster());
+        assertEquals("msg-svc:{u123}:list:page:0:size:20", cluster.user(123, "list", "page", 0, "size", 20));
+        assertEquals("msg-svc:{u123}:list:", cluster.userPrefix(123, "list"));
+        assertEquals("msg-svc:{u123}", cluster.user(123));
+    }
+
+    @Test
+    void clusterGlobalKeysHaveNoHashTag() {
+        String key = cluster.global("detail", 9);
+
+        assertEquals("msg-svc:detail:9", key);
+        assertFalse(key.contains("{"));
+    }
+
+    @Test
+    void allKeysOfAUserShareTheSlot() {
+        List<String> keys = List.of(
+                cluster.user(123, "list", "page", 0),
+                cluster.user(123, "gen"),
+                cluster.user(123, "inbox2-z"),
+                cluster.user(123, "inbox2-h"),
+                cluster.user(123, "inbox2-state"),
+                cluster.user(123, "gen", 4, "keys"),
+                cluster.user(123, "list", "page", 0) + "-lease");
+
+        int slot = slot(keys.get(0));
+        keys.forEach(key -> assertEquals(slot, slot(key), key));
+    }
+
+    @Test
+    void prefixOfOneUserDoesNotMatchAnotherUser() {
+        String prefix = cluster.userPrefix(12, "list");
+
+        assertFalse(cluster.user(123, "list", "page", 0).startsWith(prefix));
+        assertTrue(cluster.user(12, "list", "page", 0).startsWith(prefix));
+        assertFalse(standalone.user(123, "list", "page", 0).startsWith(standalone.userPrefix(12, "list")));
+    }
+
+    @Test
+    void usersAreSpreadAcrossSlots() {
+        assertNotEquals(slot(cluster.user(1, "gen")), slot(cluster.user(2, "gen")));
+    }
+
+    /**
+     * Slot de Redis Cluster: CRC16 (XMODEM) del hash tag, o de la clave completa si no lo tiene, módulo 16384
+     */
+    private static int slot(String key) {
+        int open = key.indexOf('{');
+        if (open >= 0) {
+            int close = key.indexOf('}', open + 1);
+            if (close > open + 1) {
+                key = key.substring(open + 1, close);
+            }
+        }
+        int crc = 0;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            crc ^= (b & 0xff) << 8;
+            for (int i = 0; i < 8; i++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+        }
+        return (crc & 0xffff) % 16384;
+    }
+}
@@ -0,0 +1,120 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheRefreshPolicyTest {
+
+    private static final Duration SOFT_TTL = Duration.ofMinutes(5);
+    private static final Duration HARD_TTL = Duration.ofMinutes(10);
+
+    private final CacheRefreshPolicy policy = new CacheRefreshPolicy(SOFT_TTL, HARD_TTL, 1.0);
+
+    @Test
+    void rejectsSoftTtlLongerThanHardTtl() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CacheRefreshPolicy(Duration.ofMinutes(10), Duration.ofMinutes(5), 1.0));
+    }
+
+    @Test
+    void wrapSetsSoftExpiryFromSoftTtl() {
+        long before = System.currentTimeMillis();
+        CachedPage<String> entry = policy.wrap("page", HARD_TTL, 42);
+        long after = System.currentTimeMillis();
+
+        assertEquals("page", entry.getValue());
+        assertEquals(42, entry.getComputeMillis());
+        assertTrue(entry.getSoftExpiresAt() >= before + SOFT_TTL.toMillis());
+        assertTrue(entry.getSoftExpiresAt() <= after + SOFT_TTL.toMillis());
+    }
+
+    @Test
+    void wrapClipsSoftTtlToShorterHardTtl() {
+        Duration shortHardTtl = Duration.ofMinutes(1);
+        long before = System.currentTimeMillis();
+        CachedPage<String> entry = policy.wrap("page", shortHardTtl, 0);
+        long after = System.currentTimeMillis();
+
+        assertTrue(entry.getSoftExpiresAt() >= before + shortHardTtl.toMillis());
+        assertTrue(entry.getSoftExpiresAt() <= after + shortHardTtl.toMillis());
+    }
+
+    @Test
+    void entryIsStaleFromSoftExpiry() {
+        CachedPage<String> entry = new CachedPage<>("page", 1_000L, 0);
+
+        assertFalse(policy.isStale(entry, 999L));
+        assertTrue(policy.isStale(entry, 1_000L));
+        assertTrue(policy.isStale(entry, 5_000L));
+    }
+
+    @Test
+    void xfetchNeverRefreshesWithoutDeltaOrBeta() {
+        long now = 1_000L;
+        CachedPage<String> unknownDelta = new CachedPage<>("page", now + 1, 0);
+        CachedPage<String> withDelta = new CachedPage<>("page", now + 1, 500);
+        CacheRefreshPolicy disabled = new CacheRefreshPolicy(SOFT_TTL, HARD_TTL, 0);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(policy.shouldRefreshEarly(unknownDelta, now));
+            assertFalse(disabled.shouldRefreshEarly(withDelta, now));
+        }
+    }
+
+    @Test
+    void xfetchAlwaysRefreshesAtSoftExpiry() {
+        CachedPage<String> entry = new CachedPage<>("page", 1_000L, 50);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(policy.shouldRefreshEarly(entry, 1_000L));
+        }
+    }
+
+    @Test
+    void xfetchNeverRefreshesFarFromExpiry() {
+        // -ln(rand) no supera ~37 con doubles: delta 10ms nunca anticipa 10s
+        CachedPage<String> entry = new CachedPage<>("page", 10_000L, 10);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(policy.shouldRefreshEarly(entry, 0L));
+        }
+    }
+
+    @Test
+    void xfetchProbabilityFollowsRemainingTimeOverDelta() {
+        // Falta un delta para el vencimiento: P(refresco) = P(-ln(rand) >= 1) = e^-1
+        CachedPage<String> entry = new CachedPage<>("page", 1_100L, 100);
+        int samples = 20_000;
+        int refreshed = 0;
+        for (int i = 0; i < samples; i++) {
+            if (policy.shouldRefreshEarly(entry, 1_000L)) {
+                refreshed++;
+            }
+        }
+
+        double ratio = (double) refreshed / samples;
+        assertEquals(Math.exp(-1), ratio, 0.03);
+    }
+
+    @Test
+    void higherBetaRefreshesEarlier() {
+        CachedPage<String> entry = new CachedPage<>("page", 1_300L, 100);
+        CacheRefreshPolicy eager = new CacheRefreshPolicy(SOFT_TTL, HARD_TTL, 3.0);
+        int samples = 20_000;
+        int defaultRefreshes = 0;
+        int eagerRefreshes = 0;
+        for (int i = 0; i < samples; i++) {
+            defaultRefreshes += policy.shouldRefreshEarly(entry, 1_000L) ? 1 : 0;
+            eagerRefreshes += eager.shouldRefreshEarly(entry, 1_000L) ? 1 : 0;
+        }
+
+        // beta 1: e^-3 (~5%), beta 3: e^-1 (~37%)
+        assertTrue(eagerRefreshes > defaultRefreshes * 3);
+    }
+}
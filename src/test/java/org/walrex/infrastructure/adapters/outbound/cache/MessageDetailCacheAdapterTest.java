@@ -0,0 +1,245 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.MessageDetailsDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.dto.ReceiverInfoDTO;
+import org.walrex.infrastructure.adapters.outbound.persistence.exception.MessageNotFoundException;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache del detalle de mensajes contra un Redis real
+ * Incluye el cache negativo: tombstone vacío con TTL corto, L1 negativo y su limpieza al crearse el mensaje,
+ * también en otras instancias (pub/sub)
+ */
+class MessageDetailCacheAdapterTest extends RedisContainerTest {
+
+    private static final long ID_MESSAGE = 42L;
+
+    private final CacheKeys cacheKeys = new CacheKeys(false);
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CacheMetrics metrics = new CacheMetrics(registry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private MessageDetailCacheAdapter cache;
+
+    @BeforeEach
+    void createAdapter() {
+        cache = adapter(redis);
+    }
+
+    @Test
+    void secondReadIsServedFromL1WithoutRedisOrDatabase() {
+        cache.getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT);
+        send(Request.cmd(Command.DEL).arg(key()));
+
+        MessageDetailsDTO cached = cache.getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT);
+
+        assertEquals(detail(), cached);
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get(CacheMetrics.GETS)
+                .tags("cache", CacheMetrics.DETAIL, "tier", CacheMetrics.TIER_L1, "result", CacheMetrics.HIT)
+                .counter().count());
+    }
+
+    @Test
+    void redisHitFillsTheL1OfAnotherInstance() {
+        cache.getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT);
+
+        MessageDetailsDTO cached = adapter(redis).getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT);
+
+        assertEquals(detail(), cached);
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get(CacheMetrics.GETS)
+                .tags("cache", CacheMetrics.DETAIL, "tier", CacheMetrics.TIER_REDIS, "result", CacheMetrics.HIT)
+                .counter().count());
+    }
+
+    @Test
+    void undecodableValueCountsAsMissAndIsOverwritten() {
+        send(Request.cmd(Command.SET).arg(key()).arg("{\"id\":"));
+
+        MessageDetailsDTO loaded = cache.getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT);
+
+        assertEquals(detail(), loaded);
+        assertEquals(1, loads.get());
+        assertEquals(1, metrics.decodeFailures(CacheMetrics.DETAIL));
+        assertEquals(detail(), adapter(redis).getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void unavailableRedisFallsBackToTheLoader() throws IOException {
+        Redis unreachable = Redis.createClient(vertx, "redis://127.0.0.1:" + closedPort());
+        try {
+            MessageDetailCacheAdapter offline = adapter(unreachable);
+
+            MessageDetailsDTO loaded = offline.getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT);
+
+            assertEquals(detail(), loaded);
+            assertEquals(1, loads.get());
+        } finally {
+            unreachable.close();
+        }
+    }
+
+    @Test
+    void loadedDetailIsStoredWithItsTtlAndInvalidateClearsIt() {
+        cache.getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT);
+
+        long ttl = send(Request.cmd(Command.TTL).arg(key())).toLong();
+        assertTrue(ttl > 60 && ttl <= 3600, "TTL del detalle: " + ttl);
+
+        cache.invalidate(ID_MESSAGE).await().atMost(TIMEOUT);
+
+        assertEquals(0, send(Request.cmd(Command.EXISTS).arg(key())).toInteger());
+        cache.getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void missingIdIsStoredAsEmptyTombstoneWithTheNegativeTtl() {
+        assertThrows(MessageNotFoundException.class,
+                () -> cache.getOrFetch(ID_MESSAGE, missingLoader()).await().atMost(TIMEOUT));
+
+        assertEquals("", send(Request.cmd(Command.GET).arg(key())).toString());
+        long ttl = send(Request.cmd(Command.TTL).arg(key())).toLong();
+        assertTrue(ttl > 0 && ttl <= 60, "TTL del tombstone: " + ttl);
+        assertTrue(cache.isKnownMissing(ID_MESSAGE));
+
+        assertThrows(MessageNotFoundException.class,
+                () -> cache.getOrFetch(ID_MESSAGE, missingLoader()).await().atMost(TIMEOUT));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void tombstoneInRedisAnswersNotFoundOnAnotherInstance() {
+        assertThrows(MessageNotFoundException.class,
+                () -> cache.getOrFetch(ID_MESSAGE, missingLoader()).await().atMost(TIMEOUT));
+        MessageDetailCacheAdapter other = adapter(redis);
+        assertFalse(other.isKnownMissing(ID_MESSAGE));
+
+        assertThrows(MessageNotFoundException.class,
+                () -> other.getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT));
+
+        assertEquals(1, loads.get());
+        assertTrue(other.isKnownMissing(ID_MESSAGE));
+        assertEquals(1, registry.get(CacheMetrics.GETS)
+                .tags("cache", CacheMetrics.DETAIL, "tier", CacheMetrics.TIER_REDIS, "result", CacheMetrics.NEGATIVE)
+                .counter().count());
+    }
+
+    @Test
+    void forgetMissingClearsTheTombstoneOnceTheMessageIsCreated() {
+        assertThrows(MessageNotFoundException.class,
+                () -> cache.getOrFetch(ID_MESSAGE, missingLoader()).await().atMost(TIMEOUT));
+
+        cache.forgetMissing(List.of(ID_MESSAGE)).await().atMost(TIMEOUT);
+
+        assertFalse(cache.isKnownMissing(ID_MESSAGE));
+        assertEquals(0, send(Request.cmd(Command.EXISTS).arg(key())).toInteger());
+        assertEquals(detail(), cache.getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void forgetMissingClearsTheNegativeL1OfOtherInstances() {
+        MessageDetailCacheAdapter other = adapter(redis);
+        other.subscribeInvalidations().await().atMost(TIMEOUT);
+        assertThrows(MessageNotFoundException.class,
+                () -> cache.getOrFetch(ID_MESSAGE, missingLoader()).await().atMost(TIMEOUT));
+        assertThrows(MessageNotFoundException.class,
+                () -> other.getOrFetch(ID_MESSAGE, missingLoader()).await().atMost(TIMEOUT));
+        assertTrue(other.isKnownMissing(ID_MESSAGE));
+
+        cache.forgetMissing(List.of(ID_MESSAGE)).await().atMost(TIMEOUT);
+
+        awaitUntil(() -> !other.isKnownMissing(ID_MESSAGE), "la invalidación no llegó a la otra instancia");
+        assertEquals(detail(), other.getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT));
+    }
+
+    @Test
+    void loaderThatStartedBeforeTheCreateDoesNotWriteTheTombstone() {
+        // El mensaje se crea (forgetMissing) mientras la carga todavía no lo veía
+        Supplier<Uni<MessageDetailsDTO>> staleLoader = () -> {
+            loads.incrementAndGet();
+            return cache.forgetMissing(List.of(ID_MESSAGE))
+                    .chain(() -> Uni.createFrom().failure(new MessageNotFoundException(ID_MESSAGE)));
+        };
+
+        assertThrows(MessageNotFoundException.class,
+                () -> cache.getOrFetch(ID_MESSAGE, staleLoader).await().atMost(TIMEOUT));
+
+        assertFalse(cache.isKnownMissing(ID_MESSAGE));
+        assertEquals(0, send(Request.cmd(Command.EXISTS).arg(key())).toInteger());
+        assertEquals(detail(), cache.getOrFetch(ID_MESSAGE, loader(detail())).await().atMost(TIMEOUT));
+    }
+
+    private MessageDetailCacheAdapter adapter(Redis client) {
+        ReactiveRedisDataSource dataSource = dataSource(client);
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(dataSource, vertx, metrics, true,
+                Duration.ofSeconds(2), Duration.ofSeconds(2), 5, Duration.ofSeconds(2));
+        return new MessageDetailCacheAdapter(dataSource, objectMapper,
+                new CacheCodecProducer().cacheCodec(objectMapper, "json"), new CacheLoadCoalescer(), cacheKeys,
+                breaker, new RedisPipeline(dataSource, cacheKeys, metrics), metrics,
+                true, Duration.ofHours(1), 100, Duration.ofMinutes(5),
+                true, Duration.ofSeconds(60), Duration.ofSeconds(10));
+    }
+
+    /**
+     * Carga desde la "BD" que cuenta cuántas veces se consulta
+     */
+    private Supplier<Uni<MessageDetailsDTO>> loader(MessageDetailsDTO detail) {
+        return () -> {
+            loads.incrementAndGet();
+            return Uni.createFrom().item(detail);
+        };
+    }
+
+    /**
+     * Carga de un ID que no existe en la "BD"
+     */
+    private Supplier<Uni<MessageDetailsDTO>> missingLoader() {
+        return () -> {
+            loads.incrementAndGet();
+            return Uni.createFrom().failure(new MessageNotFoundException(ID_MESSAGE));
+        };
+    }
+
+    private String key() {
+        return cacheKeys.global("detail", ID_MESSAGE);
+    }
+
+    private static int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static MessageDetailsDTO detail() {
+        return new MessageDetailsDTO(ID_MESSAGE, null, "cuerpo", LocalDate.of(2025, 6, 1), "asunto",
+                List.of(new ReceiverInfoDTO(10, "Pérez", "Ana", "aperez"), new ReceiverInfoDTO(11, "Ruiz", "Luis", "lruiz")),
+                null, null, List.of());
+    }
+}
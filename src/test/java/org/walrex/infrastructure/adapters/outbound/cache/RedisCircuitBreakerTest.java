@@ -0,0 +1,118 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.walrex.infrastructure.adapters.outbound.cache.exception.CacheUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Máquina de estados del circuit breaker contra un Redis real
+ * La caída de Redis se simula pausando el contenedor: las operaciones y el PING de sondeo agotan su presupuesto
+ * hasta que el contenedor se reanuda
+ */
+class RedisCircuitBreakerTest extends RedisContainerTest {
+
+    private static final Duration READ_BUDGET = Duration.ofMillis(50);
+    private static final Duration WRITE_BUDGET = Duration.ofMillis(100);
+    private static final Duration PROBE_INTERVAL = Duration.ofMillis(100);
+    private static final int FAILURE_THRESHOLD = 3;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ReactiveRedisDataSource dataSource;
+    private RedisCircuitBreaker breaker;
+
+    @BeforeEach
+    void connect() {
+        dataSource = dataSource(redis);
+        breaker = new RedisCircuitBreaker(dataSource, vertx, new CacheMetrics(registry), true,
+                READ_BUDGET, WRITE_BUDGET, FAILURE_THRESHOLD, PROBE_INTERVAL);
+    }
+
+    @Test
+    void operationOverBudgetFailsAsCacheUnavailable() {
+        assertThrows(CacheUnavailableException.class,
+                () -> breaker.read("page.get", Uni.createFrom().nothing()).await().atMost(TIMEOUT));
+
+        assertEquals(1, registry.get(CacheMetrics.REDIS_LATENCY)
+                .tags("operation", "page.get", "outcome", "timeout").timer().count());
+        assertFalse(breaker.isOpen());
+    }
+
+    @Test
+    void writeUsesItsOwnBudget() {
+        String value = breaker.write("page.set", Uni.createFrom().item("ok")
+                        .onItem().delayIt().by(READ_BUDGET.plusMillis(20)))
+                .await().atMost(TIMEOUT);
+
+        assertEquals("ok", value);
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresOnly() {
+        fail("page.get");
+        fail("page.get");
+        breaker.read("page.get", Uni.createFrom().item("ok")).await().atMost(TIMEOUT);
+        fail("page.get");
+        fail("page.get");
+        assertFalse(breaker.isOpen());
+
+        fail("page.get");
+
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    void openCircuitRejectsWithoutTouchingTheOperation() {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            fail("page.get");
+        }
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        assertThrows(CacheUnavailableException.class, () -> breaker.read("detail.get",
+                        Uni.createFrom().item(() -> subscriptions.incrementAndGet()))
+                .await().atMost(TIMEOUT));
+
+        assertEquals(0, subscriptions.get());
+        assertEquals(1, registry.get(CacheMetrics.REDIS_REJECTED).tag("operation", "detail.get").counter().count());
+    }
+
+    @Test
+    void probeClosesTheCircuitOnceRedisRecovers() throws InterruptedException {
+        REDIS.getDockerClient().pauseContainerCmd(REDIS.getContainerId()).exec();
+        try {
+            for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+                assertThrows(CacheUnavailableException.class,
+                        () -> breaker.read("page.get", dataSource.execute("GET", "k")).await().atMost(TIMEOUT));
+            }
+            assertTrue(breaker.isOpen());
+
+            // Varios sondeos sin respuesta: el circuito sigue abierto
+            Thread.sleep(PROBE_INTERVAL.multipliedBy(4).toMillis());
+            assertTrue(breaker.isOpen());
+        } finally {
+            REDIS.getDockerClient().unpauseContainerCmd(REDIS.getContainerId()).exec();
+        }
+
+        awaitUntil(() -> !breaker.isOpen(), "el sondeo no cerró el circuito");
+
+        breaker.read("page.get", dataSource.execute("PING")).await().atMost(TIMEOUT);
+        assertFalse(breaker.isOpen());
+    }
+
+    private void fail(String name) {
+        assertThrows(CacheUnavailableException.class, () -> breaker.read(name,
+                        Uni.createFrom().failure(new IllegalStateException("Redis caído")))
+                .await().atMost(TIMEOUT));
+    }
+}
@@ -0,0 +1,154 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CLIENT TRACKING contra un Redis real; los comandos de la prueba van por el cliente base y
+ * el cache usa su propio cliente
+ */
+class RedisClientSideCacheTest extends RedisContainerTest {
+
+    /**
+     * Redis anterior a 6: no conoce HELLO ni CLIENT TRACKING
+     */
+    @Container
+    private static final GenericContainer<?> REDIS_5 = new GenericContainer<>(DockerImageName.parse("redis:5-alpine"))
+            .withExposedPorts(6379);
+
+    private Redis tracked;
+    private RedisClientSideCache cache;
+
+    @BeforeEach
+    void connect() {
+        tracked = Redis.createClient(vertx, redisUri(REDIS));
+        cache = new RedisClientSideCache(dataSource(tracked), vertx, new CacheKeys(false), true, 1_000);
+        cache.onStart(new StartupEvent());
+        awaitUntil(cache::isActive, "la conexión con CLIENT TRACKING no quedó lista");
+    }
+
+    @AfterEach
+    void close() {
+        cache.onStop(new ShutdownEvent());
+        tracked.close();
+    }
+
+    @Test
+    void getIsServedLocallyAfterTheFirstRead() {
+        send(Request.cmd(Command.SET).arg("user-1-page").arg("v1"));
+
+        assertArrayEquals(bytes("v1"), get("user-1-page"));
+        long getCalls = getCalls();
+        assertArrayEquals(bytes("v1"), get("user-1-page"));
+        assertArrayEquals(bytes("v1"), get("user-1-page"));
+
+        assertEquals(1, cache.size());
+        assertEquals(getCalls, getCalls(), "las lecturas repetidas no deben llegar a Redis");
+    }
+
+    @Test
+    void missingKeyIsCachedAsAbsent() {
+        assertArrayEquals(new byte[0], get("user-1-missing"));
+        assertEquals(1, cache.size());
+
+        send(Request.cmd(Command.SET).arg("user-1-missing").arg("now-here"));
+
+        awaitUntil(() -> cache.size() == 0, "el SET no invalidó la clave ausente");
+        assertArrayEquals(bytes("now-here"), get("user-1-missing"));
+    }
+
+    @Test
+    void setFromAnotherConnectionEvictsTheEntry() {
+        send(Request.cmd(Command.SET).arg("user-1-page").arg("v1"));
+        assertArrayEquals(bytes("v1"), get("user-1-page"));
+
+        send(Request.cmd(Command.SET).arg("user-1-page").arg("v2"));
+
+        awaitUntil(() -> cache.size() == 0, "el push de invalidación no llegó tras el SET");
+        assertArrayEquals(bytes("v2"), get("user-1-page"));
+    }
+
+    @Test
+    void incrFromAnotherConnectionEvictsTheEntry() {
+        send(Request.cmd(Command.SET).arg("user-1-gen").arg("7"));
+        assertArrayEquals(bytes("7"), get("user-1-gen"));
+
+        send(Request.cmd(Command.INCR).arg("user-1-gen"));
+
+        awaitUntil(() -> cache.size() == 0, "el push de invalidación no llegó tras el INCR");
+        assertArrayEquals(bytes("8"), get("user-1-gen"));
+    }
+
+    @Test
+    void reconnectClearsTheLocalMap() {
+        send(Request.cmd(Command.SET).arg("user-1-page").arg("v1"));
+        get("user-1-page");
+        assertEquals(1, cache.size());
+
+        // Cierra todas las conexiones salvo la que envía el comando, incluida la de tracking
+        send(Request.cmd(Command.CLIENT).arg("KILL").arg("TYPE").arg("normal").arg("SKIPME").arg("yes"));
+
+        awaitUntil(() -> !cache.isActive(), "la pérdida de la conexión no se detectó");
+        assertEquals(0, cache.size());
+
+        // Mientras estuvo desconectado pudo perderse un push: se lee el valor nuevo al reconectar
+        send(Request.cmd(Command.SET).arg("user-1-page").arg("v2"));
+        awaitUntil(cache::isActive, "la conexión con CLIENT TRACKING no se restableció");
+        assertArrayEquals(bytes("v2"), get("user-1-page"));
+    }
+
+    @Test
+    void serverWithoutResp3DisablesTheComponent() {
+        Redis legacy = Redis.createClient(vertx, redisUri(REDIS_5));
+        RedisClientSideCache legacyCache = new RedisClientSideCache(dataSource(legacy), vertx, new CacheKeys(false),
+                true, 1_000);
+        try {
+            assertTrue(legacyCache.isEnabled());
+            legacyCache.onStart(new StartupEvent());
+
+            awaitUntil(() -> !legacyCache.isEnabled(), "el rechazo de HELLO 3 no desactivó el modo");
+            assertFalse(legacyCache.isActive());
+        } finally {
+            legacyCache.onStop(new ShutdownEvent());
+            legacy.close();
+        }
+    }
+
+    private byte[] get(String key) {
+        return cache.get(key).await().atMost(TIMEOUT);
+    }
+
+    /**
+     * Número de GET ejecutados por el servidor (INFO commandstats)
+     */
+    private long getCalls() {
+        String stats = send(Request.cmd(Command.INFO).arg("commandstats")).toString();
+        for (String line : stats.split("\r?\n")) {
+            if (line.startsWith("cmdstat_get:")) {
+                String calls = line.substring(line.indexOf("calls=") + "calls=".length());
+                return Long.parseLong(calls.substring(0, calls.indexOf(',')));
+            }
+        }
+        return 0;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
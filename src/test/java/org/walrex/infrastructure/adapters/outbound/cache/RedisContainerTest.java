@@ -0,0 +1,84 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.runtime.datasource.ReactiveRedisDataSourceImpl;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.RedisAPI;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Base de las pruebas de adapters contra un Redis real (Testcontainers); sin Docker las pruebas se omiten
+ * Cada prueba tiene su propio Vert.x y un cliente sobre la base vacía (FLUSHALL)
+ */
+@Testcontainers(disabledWithoutDocker = true)
+abstract class RedisContainerTest {
+
+    protected static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Container
+    protected static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    protected Vertx vertx;
+    protected Redis redis;
+
+    @BeforeEach
+    void connectRedis() {
+        vertx = Vertx.vertx();
+        redis = Redis.createClient(vertx, redisUri(REDIS));
+        send(Request.cmd(Command.FLUSHALL));
+    }
+
+    @AfterEach
+    void closeRedis() {
+        redis.close();
+        vertx.closeAndAwait();
+    }
+
+    protected static String redisUri(GenericContainer<?> container) {
+        return "redis://" + container.getHost() + ":" + container.getMappedPort(6379);
+    }
+
+    protected ReactiveRedisDataSource dataSource(Redis client) {
+        return new ReactiveRedisDataSourceImpl(vertx, client, RedisAPI.api(client));
+    }
+
+    /**
+     * Comando por el cliente de la prueba (fuera del adapter)
+     */
+    protected Response send(Request request) {
+        return redis.send(request).await().atMost(TIMEOUT);
+    }
+
+    /**
+     * Espera a que se cumpla una condición que depende de un push o de un timer de Redis/Vert.x
+     */
+    protected static void awaitUntil(BooleanSupplier condition, String message) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail(message);
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.walrex.infrastructure.adapters.outbound.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.smallrye.mutiny.Multi;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.walrex.domain.model.InboxCursor;
+import org.walrex.domain.model.MessageInboxItem;
+import org.walrex.domain.model.PagedResult;
+import org.walrex.domain.model.Pageable;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Construcción y lectura del índice de inbox contra un Redis real
+ */
+class RedisInboxIndexAdapterTest extends RedisContainerTest {
+
+    private static final int USER_ID = 7;
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private final CacheKeys cacheKeys = new CacheKeys(false);
+    private final AtomicInteger sourceReads = new AtomicInteger();
+
+    private RedisInboxIndexAdapter index;
+
+    @BeforeEach
+    void createAdapter() {
+        index = adapter(100);
+    }
+
+    @Test
+    void coldMissBuildsTheIndexAndLaterPagesAreServedFromIt() {
+        List<MessageInboxItem> inbox = List.of(item(3, 0), item(2, 1), item(1, 2));
+
+        PagedResult<MessageInboxItem> first = index.getPage(USER_ID, Pageable.of(0, 2), source(inbox)).await().atMost(TIMEOUT);
+
+        assertEquals(List.of(3L, 2L), ids(first));
+        assertEquals(3, first.getTotalElements());
+        assertEquals("ready", send(Request.cmd(Command.GET).arg(cacheKeys.user(USER_ID, "inbox2-state"))).toString());
+
+        PagedResult<MessageInboxItem> second = index.getPage(USER_ID, Pageable.of(1, 2), source(inbox)).await().atMost(TIMEOUT);
+
+        assertEquals(List.of(1L), ids(second));
+        assertEquals(1, sourceReads.get(), "la segunda página debe salir del índice");
+    }
+
+    @Test
+    void inboxOverMaxItemsIsMarkedOversize() {
+        index = adapter(2);
+
+        PagedResult<MessageInboxItem> page = index.getPage(USER_ID, Pageable.of(0, 2),
+                source(List.of(item(3, 0), item(2, 1), item(1, 2)))).await().atMost(TIMEOUT);
+
+        assertNull(page);
+        assertEquals("oversize", send(Request.cmd(Command.GET).arg(cacheKeys.user(USER_ID, "inbox2-state"))).toString());
+    }
+
+    @Test
+    void missingHashFieldRebuildsTheIndex() {
+        List<MessageInboxItem> inbox = List.of(item(3, 0), item(2, 1), item(1, 2));
+        index.getPage(USER_ID, Pageable.of(0, 3), source(inbox)).await().atMost(TIMEOUT);
+        send(Request.cmd(Command.HDEL).arg(cacheKeys.user(USER_ID, "inbox2-h")).arg(member(2)));
+
+        PagedResult<MessageInboxItem> page = index.getPage(USER_ID, Pageable.of(0, 3), source(inbox)).await().atMost(TIMEOUT);
+
+        assertEquals(List.of(3L, 2L, 1L), ids(page));
+        assertEquals(2, sourceReads.get());
+        assertEquals(1, send(Request.cmd(Command.HEXISTS).arg(cacheKeys.user(USER_ID, "inbox2-h")).arg(member(2))).toInteger());
+    }
+
+    @Test
+    void cursorOutsideTheIndexKeepsMessagesWithTheSameCreatedAt() {
+        // 12, 11 y 10 comparten create_at; 9 es anterior
+        List<MessageInboxItem> inbox = List.of(item(12, 0), item(11, 0), item(10, 0), item(9, 1));
+        index.getPage(USER_ID, Pageable.of(0, 4), source(inbox)).await().atMost(TIMEOUT);
+        send(Request.cmd(Command.ZREM).arg(cacheKeys.user(USER_ID, "inbox2-z")).arg(member(11)));
+
+        PagedResult<MessageInboxItem> page = index.getPageAfter(USER_ID, InboxCursor.of(NOW, 11L), 2, source(inbox))
+                .await().atMost(TIMEOUT);
+
+        assertEquals(List.of(10L, 9L), ids(page));
+        assertNull(page.getNextCursor());
+        assertEquals(1, sourceReads.get(), "la página debe salir del índice");
+    }
+
+    @Test
+    void cursorOutsideTheIndexPagesThroughTies() {
+        List<MessageInboxItem> inbox = List.of(item(14, 0), item(13, 0), item(12, 0), item(11, 0), item(10, 0));
+        index.getPage(USER_ID, Pageable.of(0, 5), source(inbox)).await().atMost(TIMEOUT);
+        send(Request.cmd(Command.ZREM).arg(cacheKeys.user(USER_ID, "inbox2-z")).arg(member(13)));
+
+        PagedResult<MessageInboxItem> page = index.getPageAfter(USER_ID, InboxCursor.of(NOW, 13L), 2, source(inbox))
+                .await().atMost(TIMEOUT);
+
+        assertEquals(List.of(12L, 11L), ids(page));
+        assertEquals(InboxCursor.of(NOW, 11L).encode(), page.getNextCursor());
+    }
+
+    private RedisInboxIndexAdapter adapter(int maxItems) {
+        ReactiveRedisDataSource dataSource = dataSource(redis);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        CacheMetrics metrics = new CacheMetrics(new SimpleMeterRegistry());
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(dataSource, vertx, metrics, true,
+                Duration.ofSeconds(2), Duration.ofSeconds(2), 5, Duration.ofSeconds(2));
+        return new RedisInboxIndexAdapter(dataSource, objectMapper,
+                new CacheCodecProducer().cacheCodec(objectMapper, "json"), new CacheLoadCoalescer(),
+                new RedisPipeline(dataSource, cacheKeys, metrics), cacheKeys, breaker, metrics,
+                Duration.ofMinutes(5), maxItems);
+    }
+
+    /**
+     * Fuente del inbox (en el orden del listado) que cuenta cuántas veces se lee
+     */
+    private Supplier<Multi<MessageInboxItem>> source(List<MessageInboxItem> inbox) {
+        return () -> {
+            sourceReads.incrementAndGet();
+            return Multi.createFrom().iterable(inbox);
+        };
+    }
+
+    private static MessageInboxItem item(long idMessage, int minutesAgo) {
+        return MessageInboxItem.builder()
+                .idMessage(idMessage)
+                .isRead("N")
+                .message("asunto " + idMessage)
+                .numAttachments(0)
+                .senderName("remitente")
+                .createdAt(NOW.minusMinutes(minutesAgo))
+                .build();
+    }
+
+    private static String member(long idMessage) {
+        return String.format("%019d", idMessage);
+    }
+
+    private static List<Long> ids(PagedResult<MessageInboxItem> page) {
+        return page.getData().stream().map(MessageInboxItem::getIdMessage).toList();
+    }
+}
@@ -0,0 +1,208 @@
+package org.walrex.infrastructure.adapters.outbound.persistence.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.Tuple;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.sqlclient.PoolOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import org.walrex.domain.model.IncomingInboxMessage;
+import org.walrex.domain.model.IngestResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inserts en bulk de la ingesta contra un Postgres real (Testcontainers); sin Docker las pruebas se omiten
+ * Las tablas base se crean con las columnas de las entidades; event_key, con la migración V1_3
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class InboxMessageBulkRepositoryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final String BASE_SCHEMA = """
+            DROP SCHEMA IF EXISTS inbox_messages CASCADE;
+            CREATE SCHEMA inbox_messages;
+            CREATE TABLE inbox_messages.messages (
+                id_message BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+                sender_id  INTEGER     NOT NULL,
+                content    TEXT,
+                create_at  TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                asunto     TEXT
+            );
+            CREATE TABLE inbox_messages.message_recipients (
+                id           BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+                message_id   BIGINT     NOT NULL REFERENCES inbox_messages.messages (id_message),
+                recipient_id INTEGER    NOT NULL,
+                is_read      VARCHAR(1) DEFAULT 'N',
+                read_at      TIMESTAMP
+            );
+            CREATE TABLE inbox_messages.attachments (
+                id          INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+                message_id  BIGINT       NOT NULL REFERENCES inbox_messages.messages (id_message),
+                file_path   VARCHAR(255) NOT NULL,
+                file_name   VARCHAR(255) NOT NULL,
+                file_type   VARCHAR(255),
+                uploaded_at TIMESTAMPTZ  NOT NULL
+            );
+            """;
+
+    @Container
+    private static final GenericContainer<?> POSTGRES = new GenericContainer<>(DockerImageName.parse("postgres:16-alpine"))
+            .withEnv("POSTGRES_PASSWORD", "postgres")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*\\s", 2));
+
+    private Vertx vertx;
+    private Pool pool;
+    private InboxMessageBulkRepository repository;
+
+    @BeforeEach
+    void connect() throws IOException {
+        vertx = Vertx.vertx();
+        pool = PgPool.pool(vertx,
+                new PgConnectOptions()
+                        .setHost(POSTGRES.getHost())
+                        .setPort(POSTGRES.getMappedPort(5432))
+                        .setDatabase("postgres")
+                        .setUser("postgres")
+                        .setPassword("postgres"),
+                new PoolOptions().setMaxSize(2));
+        pool.query(BASE_SCHEMA).execute().await().atMost(TIMEOUT);
+        pool.query(migration("db/migration/V1_3__add_messages_event_key.sql")).execute().await().atMost(TIMEOUT);
+        repository = new InboxMessageBulkRepository(pool, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void close() {
+        pool.closeAndAwait();
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void firstInsertWritesMessagesRecipientsAndAttachments() {
+        IngestResult result = repository.insertBatch(List.of(
+                        message("evt-1", "hola", List.of(10, 11), List.of(attachment("a.pdf"))),
+                        message("evt-2", "adiós", List.of(12), List.of())))
+                .await().atMost(TIMEOUT);
+
+        assertEquals(2, result.getInserted());
+        assertEquals(Set.of("evt-1", "evt-2"), result.getMessageIds().keySet());
+        assertTrue(result.getConflicts().isEmpty());
+        long first = result.getMessageIds().get("evt-1");
+        assertEquals(List.of(10, 11), recipientsOf(first));
+        assertEquals(List.of(12), recipientsOf(result.getMessageIds().get("evt-2")));
+        assertEquals(List.of("a.pdf"), attachmentsOf(first));
+    }
+
+    @Test
+    void redeliveryReturnsTheExistingIdsWithoutDuplicatingRows() {
+        List<IncomingInboxMessage> batch = List.of(
+                message("evt-1", "hola", List.of(10, 11), List.of(attachment("a.pdf"))));
+        IngestResult first = repository.insertBatch(batch).await().atMost(TIMEOUT);
+
+        IngestResult again = repository.insertBatch(batch).await().atMost(TIMEOUT);
+
+        assertEquals(0, again.getInserted());
+        assertEquals(first.getMessageIds(), again.getMessageIds());
+        assertTrue(again.getConflicts().isEmpty());
+        assertEquals(1, count("messages"));
+        assertEquals(2, count("message_recipients"));
+        assertEquals(1, count("attachments"));
+    }
+
+    @Test
+    void eventKeyOfAnotherMessageIsReportedAsConflict() {
+        repository.insertBatch(List.of(message("evt-1", "hola", List.of(10), List.of()))).await().atMost(TIMEOUT);
+
+        IngestResult result = repository.insertBatch(List.of(
+                        message("evt-1", "otro contenido", List.of(20), List.of()),
+                        message("evt-2", "nuevo", List.of(21), List.of())))
+                .await().atMost(TIMEOUT);
+
+        assertEquals(1, result.getInserted());
+        assertEquals(Set.of("evt-1"), result.getConflicts());
+        assertEquals(Set.of("evt-2"), result.getMessageIds().keySet());
+        assertEquals(2, count("messages"));
+        assertEquals(List.of(21), recipientsOf(result.getMessageIds().get("evt-2")));
+    }
+
+    @Test
+    void rowsWrittenOutsideTheIngestDoNotCollide() {
+        // Mensaje creado por otra vía (sin event_key) con el siguiente id_message de la secuencia
+        long existing = pool.query("INSERT INTO inbox_messages.messages (sender_id, asunto, content, create_at) " +
+                        "VALUES (1, 'previo', 'previo', now()) RETURNING id_message")
+                .execute().await().atMost(TIMEOUT)
+                .iterator().next().getLong("id_message");
+
+        IngestResult result = repository.insertBatch(List.of(message("evt-1", "hola", List.of(10), List.of())))
+                .await().atMost(TIMEOUT);
+
+        assertEquals(1, result.getInserted());
+        assertNotEquals(existing, result.getMessageIds().get("evt-1").longValue());
+        assertEquals(List.of(), recipientsOf(existing));
+        assertEquals(List.of(10), recipientsOf(result.getMessageIds().get("evt-1")));
+    }
+
+    private static IncomingInboxMessage message(String eventKey, String body, List<Integer> recipients,
+                                                List<IncomingInboxMessage.Attachment> attachments) {
+        return new IncomingInboxMessage(eventKey, 1, "asunto", body, NOW, recipients, attachments);
+    }
+
+    private static IncomingInboxMessage.Attachment attachment(String name) {
+        return new IncomingInboxMessage.Attachment("/files/" + name, name, "application/pdf");
+    }
+
+    private List<Integer> recipientsOf(long idMessage) {
+        List<Integer> recipients = new ArrayList<>();
+        pool.preparedQuery("SELECT recipient_id FROM inbox_messages.message_recipients " +
+                        "WHERE message_id = $1 ORDER BY recipient_id")
+                .execute(Tuple.of(idMessage)).await().atMost(TIMEOUT)
+                .forEach(row -> recipients.add(row.getInteger("recipient_id")));
+        return recipients;
+    }
+
+    private List<String> attachmentsOf(long idMessage) {
+        List<String> names = new ArrayList<>();
+        pool.preparedQuery("SELECT file_name FROM inbox_messages.attachments WHERE message_id = $1 ORDER BY id")
+                .execute(Tuple.of(idMessage)).await().atMost(TIMEOUT)
+                .forEach(row -> names.add(row.getString("file_name")));
+        return names;
+    }
+
+    private long count(String table) {
+        Row row = pool.query("SELECT count(*) AS total FROM inbox_messages." + table)
+                .execute().await().atMost(TIMEOUT)
+                .iterator().next();
+        return row.getLong("total");
+    }
+
+    private static String migration(String resource) throws IOException {
+        try (InputStream in = InboxMessageBulkRepositoryTest.class.getClassLoader().getResourceAsStream(resource)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}